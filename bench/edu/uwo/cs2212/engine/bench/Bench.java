@@ -0,0 +1,160 @@
+package edu.uwo.cs2212.engine.bench;
+
+import java.util.*;
+
+/**
+ * Minimal measurement harness modelled on JMH's average-time mode: warmup iterations, then
+ * timed iterations of a fixed length, each scored in microseconds per operation, with a 99.9%
+ * confidence interval over the iteration scores. Results serialize to JMH's JSON layout so runs
+ * can be compared with the usual JMH tooling.
+ *
+ * An operation without a reset is timed in batches, which keeps the clock out of the score.
+ * One with a reset (an operation that changes the state it runs against) is timed call by call
+ * and the reset runs outside the timed region; that adds roughly 25ns of clock overhead per call.
+ */
+final class Bench {
+    // Two-sided 99.9% Student t quantiles for 1..30 degrees of freedom; 3.291 beyond that
+    private static final double[] T999 = {
+        636.62, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+        4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+        3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646
+    };
+
+    // Results are published here so the JIT cannot discard the work that produced them
+    static volatile Object sink;
+
+    interface Op { Object run() throws Exception; }
+
+    /** Iteration counts and length, shared by every benchmark in a run. */
+    static final class Options {
+        final int warmupIterations;
+        final int iterations;
+        final long iterationNanos;
+
+        Options(int warmupIterations, int iterations, long iterationMillis) {
+            this.warmupIterations = warmupIterations;
+            this.iterations = iterations;
+            this.iterationNanos = iterationMillis * 1_000_000L;
+        }
+    }
+
+    /** Scores of one benchmark; rawData holds one row of iteration scores per fork. */
+    static final class Result {
+        final String benchmark;
+        final Map<String, String> params;
+        final List<double[]> rawData = new ArrayList<>();
+
+        Result(String benchmark, Map<String, String> params) {
+            this.benchmark = benchmark;
+            this.params = params;
+        }
+
+        double[] all() {
+            return rawData.stream().flatMapToDouble(Arrays::stream).toArray();
+        }
+
+        double score() { return Arrays.stream(all()).average().orElse(Double.NaN); }
+
+        double error() {
+            double[] xs = all();
+            if (xs.length < 2) return Double.NaN;
+            double mean = score(), ss = 0;
+            for (double x : xs) ss += (x - mean) * (x - mean);
+            int df = xs.length - 1;
+            return (df <= T999.length ? T999[df - 1] : 3.291) * Math.sqrt(ss / df / xs.length);
+        }
+    }
+
+    private Bench(){}
+
+    /** Runs op for the configured iterations and returns its iteration scores in us/op. */
+    static double[] measure(Op op, Runnable reset, Options o) throws Exception {
+        for (int i = 0; i < o.warmupIterations; i++) iteration(op, reset, o.iterationNanos);
+        double[] scores = new double[o.iterations];
+        for (int i = 0; i < o.iterations; i++) scores[i] = iteration(op, reset, o.iterationNanos);
+        return scores;
+    }
+
+    private static double iteration(Op op, Runnable reset, long nanos) throws Exception {
+        long ops = 0, timed = 0;
+        long end = System.nanoTime() + nanos;
+        if (reset == null) {
+            long batch = 1;
+            long start = System.nanoTime();
+            long now = start;
+            while (now < end) {
+                for (long i = 0; i < batch; i++) sink = op.run();
+                ops += batch;
+                now = System.nanoTime();
+                if (batch < (1 << 20)) batch <<= 1;
+            }
+            timed = now - start;
+        } else {
+            while (System.nanoTime() < end) {
+                long t0 = System.nanoTime();
+                sink = op.run();
+                timed += System.nanoTime() - t0;
+                ops++;
+                reset.run();
+            }
+        }
+        return timed / 1e3 / ops;
+    }
+
+    /** JMH-compatible JSON for a list of results. */
+    static String toJson(List<Result> results, Options o) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int r = 0; r < results.size(); r++) {
+            Result res = results.get(r);
+            double score = res.score(), err = res.error();
+            sb.append("  {\n");
+            sb.append("    \"benchmark\" : ").append(str(res.benchmark)).append(",\n");
+            sb.append("    \"mode\" : \"avgt\",\n");
+            sb.append("    \"threads\" : 1,\n");
+            sb.append("    \"forks\" : ").append(res.rawData.size()).append(",\n");
+            sb.append("    \"jvm\" : ").append(str(ProcessHandle.current().info().command().orElse(""))).append(",\n");
+            sb.append("    \"jdkVersion\" : ").append(str(System.getProperty("java.version"))).append(",\n");
+            sb.append("    \"warmupIterations\" : ").append(o.warmupIterations).append(",\n");
+            sb.append("    \"warmupTime\" : \"").append(o.iterationNanos / 1_000_000).append(" ms\",\n");
+            sb.append("    \"measurementIterations\" : ").append(o.iterations).append(",\n");
+            sb.append("    \"measurementTime\" : \"").append(o.iterationNanos / 1_000_000).append(" ms\",\n");
+            sb.append("    \"params\" : {");
+            int p = 0;
+            for (Map.Entry<String, String> e : res.params.entrySet()) {
+                sb.append(p++ == 0 ? "\n" : ",\n").append("      ").append(str(e.getKey())).append(" : ").append(str(e.getValue()));
+            }
+            sb.append(p == 0 ? "},\n" : "\n    },\n");
+            sb.append("    \"primaryMetric\" : {\n");
+            sb.append("      \"score\" : ").append(num(score)).append(",\n");
+            sb.append("      \"scoreError\" : ").append(num(err)).append(",\n");
+            sb.append("      \"scoreConfidence\" : [ ").append(num(score - err)).append(", ").append(num(score + err)).append(" ],\n");
+            sb.append("      \"scoreUnit\" : \"us/op\",\n");
+            sb.append("      \"rawData\" : [");
+            for (int f = 0; f < res.rawData.size(); f++) {
+                sb.append(f == 0 ? "\n" : ",\n").append("        [ ");
+                double[] row = res.rawData.get(f);
+                for (int i = 0; i < row.length; i++) sb.append(i == 0 ? "" : ", ").append(num(row[i]));
+                sb.append(" ]");
+            }
+            sb.append("\n      ]\n    },\n");
+            sb.append("    \"secondaryMetrics\" : {}\n");
+            sb.append(r == results.size() - 1 ? "  }\n" : "  },\n");
+        }
+        return sb.append("]\n").toString();
+    }
+
+    private static String num(double d) {
+        return Double.isFinite(d) ? Double.toString(d) : "\"NaN\"";
+    }
+
+    private static String str(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,278 @@
+package edu.uwo.cs2212.engine.bench;
+
+import edu.uwo.cs2212.engine.engine.*;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.GiveRule;
+import edu.uwo.cs2212.engine.rules.UseRule;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks for the dispatcher's hot paths (go, pickUp, examineObject, use by id and by
+ * attribute, hitting and missing a rule, give) against the sample world and WorldGenerator
+ * worlds with the requested numbers of locations, plus GameLoader.sampleGame() itself.
+ *
+ * Usage: EngineBenchmarks [-wi warmupIterations=5] [-i iterations=5] [-r iterationMillis=1000]
+ *        [-f forks=1] [-w worlds=sample,1000,100000] [-o results.json] [regex]
+ *
+ * Like JMH, each benchmark runs in a fresh JVM per fork so one benchmark's profile cannot skew
+ * the next; -f 0 runs everything in this JVM instead. Only benchmarks whose name matches the
+ * regex run. Scores are microseconds per operation, printed as a table and written as JMH JSON.
+ */
+public final class EngineBenchmarks {
+    private static final String RAW = "@raw";
+
+    /** A benchmark body bound to a fresh dispatcher; reset (may be null) restores its state. */
+    private static final class Case {
+        final Bench.Op op;
+        final Runnable reset;
+
+        Case(Bench.Op op, Runnable reset) {
+            this.op = op;
+            this.reset = reset;
+        }
+    }
+
+    /** Where a benchmark runs: the player's location, what they carry, and the command's operands. */
+    private static final class Spot {
+        final String location;
+        final String[] carry;
+        final String[] args;
+
+        Spot(String location, String[] carry, String... args) {
+            this.location = location;
+            this.carry = carry;
+            this.args = args;
+        }
+    }
+
+    /** A world and the spot for each benchmark in it. */
+    private static final class Fixture {
+        final Game game;
+        Spot move, item, useIdHit, useIdMiss, useAttrHit, useAttrMiss, give;
+        boolean giveHits = true;
+
+        Fixture(Game game) { this.game = game; }
+    }
+
+    private static final String[] NOTHING = new String[0];
+
+    private static final Map<String, Function<Fixture, Case>> COMMANDS = new LinkedHashMap<>();
+    static {
+        COMMANDS.put("go", f -> mutating(f, f.move, d -> d.go(f.move.args[0])));
+        COMMANDS.put("pickUp", f -> mutating(f, f.item, d -> d.pickUp(f.item.args[0])));
+        COMMANDS.put("examineObject", f -> readOnly(f, f.item, true, d -> d.examineObject(f.item.args[0])));
+        COMMANDS.put("useIdHit", f -> mutating(f, f.useIdHit, d -> d.use(f.useIdHit.args[0], f.useIdHit.args[1])));
+        COMMANDS.put("useIdMiss", f -> readOnly(f, f.useIdMiss, false, d -> d.use(f.useIdMiss.args[0], f.useIdMiss.args[1])));
+        COMMANDS.put("useAttrHit", f -> mutating(f, f.useAttrHit, d -> d.use(f.useAttrHit.args[0], f.useAttrHit.args[1])));
+        COMMANDS.put("useAttrMiss", f -> readOnly(f, f.useAttrMiss, false, d -> d.use(f.useAttrMiss.args[0], f.useAttrMiss.args[1])));
+        COMMANDS.put("give", f -> f.giveHits
+                ? mutating(f, f.give, d -> d.give(f.give.args[0], f.give.args[1]))
+                : readOnly(f, f.give, false, d -> d.give(f.give.args[0], f.give.args[1])));
+    }
+
+    private EngineBenchmarks(){}
+
+    public static void main(String[] args) throws Exception {
+        int warmup = 5, iterations = 5, millis = 1000, forks = 1;
+        List<String> worlds = List.of("sample", "1000", "100000");
+        Path out = Paths.get("results.json");
+        Pattern filter = Pattern.compile(".*");
+        String[] child = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi": warmup = Integer.parseInt(args[++i]); break;
+                case "-i": iterations = Integer.parseInt(args[++i]); break;
+                case "-r": millis = Integer.parseInt(args[++i]); break;
+                case "-f": forks = Integer.parseInt(args[++i]); break;
+                case "-w": worlds = List.of(args[++i].split(",")); break;
+                case "-o": out = Paths.get(args[++i]); break;
+                case "--child": child = new String[] {args[++i], args[++i]}; break;
+                default: filter = Pattern.compile(args[i]);
+            }
+        }
+        Bench.Options o = new Bench.Options(warmup, iterations, millis);
+        if (child != null) {
+            // Forked run of one benchmark: report the scores on stdout for the parent
+            double[] scores = Bench.measure(bind(child[0], child[1]), resetOf(child[0], child[1]), o);
+            StringBuilder sb = new StringBuilder(RAW);
+            for (double s : scores) sb.append(' ').append(s);
+            System.out.println(sb);
+            return;
+        }
+
+        List<String[]> plan = new ArrayList<>();
+        if (filter.matcher("sampleGame").find()) plan.add(new String[] {"sampleGame", "sample"});
+        for (String world : worlds) {
+            for (String name : COMMANDS.keySet()) {
+                if (filter.matcher(name).find()) plan.add(new String[] {name, world});
+            }
+        }
+
+        List<Bench.Result> results = new ArrayList<>();
+        System.out.printf("%-16s %-8s %12s %12s%n", "benchmark", "world", "us/op", "error");
+        for (String[] b : plan) {
+            Bench.Result r = new Bench.Result(EngineBenchmarks.class.getName() + "." + b[0], Map.of("world", b[1]));
+            if (forks == 0) r.rawData.add(Bench.measure(bind(b[0], b[1]), resetOf(b[0], b[1]), o));
+            for (int f = 0; f < forks; f++) r.rawData.add(fork(b, warmup, iterations, millis));
+            results.add(r);
+            System.out.printf("%-16s %-8s %12.3f %12.3f%n", b[0], b[1], r.score(), r.error());
+        }
+        Files.write(out, Bench.toJson(results, o).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    // Cases are built once per (benchmark, world) so op and reset share one dispatcher; worlds are shared
+    private static final Map<String, Case> CASES = new HashMap<>();
+    private static final Map<String, Fixture> FIXTURES = new HashMap<>();
+
+    private static Bench.Op bind(String name, String world) { return caseOf(name, world).op; }
+    private static Runnable resetOf(String name, String world) { return caseOf(name, world).reset; }
+
+    private static Case caseOf(String name, String world) {
+        return CASES.computeIfAbsent(name + "@" + world, k -> {
+            if (name.equals("sampleGame")) return new Case(GameLoader::sampleGame, null);
+            Function<Fixture, Case> c = COMMANDS.get(name);
+            if (c == null) throw new IllegalArgumentException("Unknown benchmark: " + name);
+            return c.apply(FIXTURES.computeIfAbsent(world, EngineBenchmarks::fixture));
+        });
+    }
+
+    private static double[] fork(String[] b, int warmup, int iterations, int millis) throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> cmd = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+                EngineBenchmarks.class.getName(), "-wi", "" + warmup, "-i", "" + iterations, "-r", "" + millis,
+                "--child", b[0], b[1]));
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        String raw = null;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line; (line = in.readLine()) != null; ) {
+                if (line.startsWith(RAW)) raw = line;
+                else System.out.println("  " + line);
+            }
+        }
+        if (p.waitFor() != 0 || raw == null) throw new IllegalStateException("Fork of " + b[0] + " failed");
+        return Arrays.stream(raw.substring(RAW.length()).trim().split(" ")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    /** A command that changes nothing but the turn count, so it can run back to back. */
+    private static Case readOnly(Fixture f, Spot spot, boolean succeeds, Function<CommandDispatcher, CommandResult> command) {
+        CommandDispatcher d = dispatcher(f, spot);
+        CommandResult first = command.apply(d);
+        if (first.success != succeeds) throw new IllegalStateException("Benchmark command gave the wrong outcome: " + first.message());
+        return new Case(() -> command.apply(d), null);
+    }
+
+    /**
+     * A command that changes state. After every timed call the dispatcher is restored from a
+     * copy of its starting state (not undone, which would put a taken object back at the end
+     * of the room), so each call sees exactly the same state.
+     */
+    private static Case mutating(Fixture f, Spot spot, Function<CommandDispatcher, CommandResult> command) {
+        GameState start = state(spot);
+        CommandDispatcher d = new CommandDispatcher(f.game, state(spot));
+        CommandResult first = command.apply(d);
+        if (!first.success) throw new IllegalStateException("Benchmark command failed: " + first.message());
+        d.restore(start);
+        return new Case(() -> command.apply(d), () -> d.restore(start));
+    }
+
+    private static CommandDispatcher dispatcher(Fixture f, Spot spot) {
+        return new CommandDispatcher(f.game, state(spot));
+    }
+
+    private static GameState state(Spot spot) {
+        GameState s = new GameState();
+        s.currentLocationId = spot.location;
+        s.inventory.addAll(Arrays.asList(spot.carry));
+        return s;
+    }
+
+    private static Fixture fixture(String world) {
+        if (world.equals("sample")) {
+            Fixture f = new Fixture(GameLoader.sampleGame());
+            f.move = new Spot("loc_toronto", NOTHING, "New York");
+            f.item = new Spot("loc_toronto", NOTHING, "obj_pole");
+            f.useIdHit = new Spot("loc_crypt", NOTHING, "obj_pole", "obj_coffin");
+            f.useAttrHit = new Spot("loc_crypt", NOTHING, "@long", "obj_coffin");
+            f.useIdMiss = new Spot("loc_crypt", NOTHING, "obj_pole", "obj_lockpicks");
+            f.useAttrMiss = new Spot("loc_crypt", NOTHING, "@repellent", "obj_coffin");
+            // The sample world has no give rule a player can reach, so this measures a refusal
+            f.give = new Spot("loc_toronto", new String[] {"obj_pole"}, "obj_pole", "char_silver_surfer");
+            f.giveHits = false;
+            return f;
+        }
+        return generatedFixture(WorldGenerator.generate(WorldGenerator.Spec.ofSize(Integer.parseInt(world))));
+    }
+
+    /**
+     * Spots found by searching a generated world: the first rule of each kind in list order,
+     * with the player carrying its operands. A miss keeps the hit's primary operand, so it still
+     * scans that operand's candidate rules, but pairs it with an object no rule accepts.
+     */
+    private static Fixture generatedFixture(Game g) {
+        Fixture f = new Fixture(g);
+        Location start = g.getLocations().get(g.getStartLocationId());
+        f.move = new Spot(start.getId(), NOTHING, start.getConnections().get(0).getLabel());
+        SymbolTable symbols = g.getSymbols();
+        for (int i = 0; i < symbols.locationCount() && f.item == null; i++) {
+            for (String id : symbols.location(i).getObjectIds()) {
+                if (g.getObjects().get(id).canPickUp()) {
+                    f.item = new Spot(symbols.locationId(i), NOTHING, id);
+                    break;
+                }
+            }
+        }
+        for (UseRule r : g.getUseRules()) {
+            if (r.with == null || r.with.objectId == null) continue;
+            if (f.useIdHit == null && r.primary.objectId != null && !r.primary.objectId.equals(r.with.objectId)) {
+                f.useIdHit = new Spot(start.getId(), new String[] {r.primary.objectId, r.with.objectId},
+                        r.primary.objectId, r.with.objectId);
+                f.useIdMiss = miss(g, start.getId(), r.primary.objectId, r.primary.objectId);
+            }
+            if (f.useAttrHit == null && r.primary.attribute != null) {
+                for (int j = 0; j < symbols.objectCount(); j++) {
+                    GameObject o = symbols.object(j);
+                    if (!o.hasAttribute(r.primary.attributeHandle) || o.getId().equals(r.with.objectId)) continue;
+                    f.useAttrHit = new Spot(start.getId(), new String[] {o.getId(), r.with.objectId},
+                            "@" + r.primary.attribute, r.with.objectId);
+                    f.useAttrMiss = miss(g, start.getId(), o.getId(), "@" + r.primary.attribute);
+                    break;
+                }
+            }
+        }
+        for (GiveRule r : g.getGiveRules()) {
+            if (r.given.objectId == null) continue;
+            for (Location l : g.getLocations().values()) {
+                if (l.getCharacterIds().contains(r.characterId)) {
+                    f.give = new Spot(l.getId(), new String[] {r.given.objectId}, r.given.objectId, r.characterId);
+                    break;
+                }
+            }
+            if (f.give != null) break;
+        }
+        if (f.useIdHit == null || f.useAttrHit == null || f.useIdMiss == null || f.useAttrMiss == null || f.give == null) {
+            throw new IllegalStateException("World is too small to find every benchmark's rule");
+        }
+        return f;
+    }
+
+    /** A spot where using primaryArg with some carried object fails, or null if none is found. */
+    private static Spot miss(Game g, String location, String carried, String primaryArg) {
+        SymbolTable symbols = g.getSymbols();
+        for (int j = 0; j < Math.min(symbols.objectCount(), 1000); j++) {
+            String other = symbols.objectId(j);
+            if (other.equals(carried)) continue;
+            Spot spot = new Spot(location, new String[] {carried, other}, primaryArg, other);
+            if (!dispatcher(new Fixture(g), spot).use(primaryArg, other).success) return spot;
+        }
+        return null;
+    }
+}
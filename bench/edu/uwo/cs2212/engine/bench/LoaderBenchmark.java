@@ -0,0 +1,114 @@
+package edu.uwo.cs2212.engine.bench;
+
+import com.sun.management.ThreadMXBean;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.JsonWorldWriter;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.io.WorldImage;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Load throughput of GameLoader: each world (the sample, or a WorldGenerator world with the
+ * given number of locations) is written once as JSON and once as a WorldImage, then each file is
+ * loaded repeatedly. Reports milliseconds per load, MB/s and entities/s, and for one extra load
+ * the bytes allocated, the peak heap, and the heap the finished Game retains; allocation close to
+ * the retained size is what loading JSON without a document tree buys. An image load decodes entities only as they are
+ * used, so its figures cover the ids and rules alone.
+ *
+ * Usage: LoaderBenchmark [-wi warmupIterations=2] [-i iterations=5] [-r iterationMillis=2000]
+ *        [-w worlds=sample,10000,100000] [-o results-loader.json]
+ */
+public final class LoaderBenchmark {
+    private LoaderBenchmark(){}
+
+    public static void main(String[] args) throws Exception {
+        int warmup = 2, iterations = 5, millis = 2000;
+        List<String> worlds = List.of("sample", "10000", "100000");
+        Path out = Paths.get("results-loader.json");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi": warmup = Integer.parseInt(args[++i]); break;
+                case "-i": iterations = Integer.parseInt(args[++i]); break;
+                case "-r": millis = Integer.parseInt(args[++i]); break;
+                case "-w": worlds = List.of(args[++i].split(",")); break;
+                case "-o": out = Paths.get(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        Bench.Options o = new Bench.Options(warmup, iterations, millis);
+        List<Bench.Result> results = new ArrayList<>();
+        System.out.printf("%-8s %-6s %10s %10s %10s %12s %12s %12s %12s%n",
+                "world", "format", "MB", "ms/load", "MB/s", "entities/s", "alloc MB", "peak MB", "retained MB");
+        for (String world : worlds) {
+            Path json = Files.createTempFile("world-" + world + "-", ".json");
+            Path image = Files.createTempFile("world-" + world + "-", ".iqw");
+            try {
+                Game source = world.equals("sample") ? GameLoader.sampleGame()
+                        : WorldGenerator.generate(WorldGenerator.Spec.ofSize(Integer.parseInt(world)));
+                long entities = source.getSymbols().locationCount() + source.getSymbols().objectCount()
+                        + source.getSymbols().characterCount() + source.getUseRules().size()
+                        + source.getGiveRules().size() + source.getMiniGameRules().size();
+                JsonWorldWriter.write(source, json);
+                WorldImage.compile(source, image);
+                source = null;
+                for (Path file : List.of(json, image)) {
+                    String format = file == json ? "json" : "image";
+                    double mb = Files.size(file) / 1e6;
+                    Bench.Result r = new Bench.Result(LoaderBenchmark.class.getName() + ".load",
+                            Map.of("world", world, "format", format));
+                    r.rawData.add(Bench.measure(() -> GameLoader.load(file), null, o));
+                    Bench.sink = null;
+                    results.add(r);
+                    double ms = r.score() / 1e3;
+
+                    long[] memory = memory(file);
+                    System.out.printf("%-8s %-6s %10.1f %10.2f %10.1f %12.0f %12.1f %12.1f %12.1f%n", world, format, mb, ms,
+                            mb / ms * 1e3, entities / ms * 1e3, memory[0] / 1e6, memory[1] / 1e6, memory[2] / 1e6);
+                }
+            } finally {
+                Files.deleteIfExists(json);
+                Files.deleteIfExists(image);
+            }
+        }
+        Files.write(out, Bench.toJson(results, o).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    /** Bytes allocated by one load, peak heap during it, and heap retained by its result. */
+    private static long[] memory(Path file) throws Exception {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<MemoryPoolMXBean> heap = new ArrayList<>();
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) heap.add(p);
+        }
+        long before = usedAfterGc();
+        for (MemoryPoolMXBean p : heap) p.resetPeakUsage();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        Game game = GameLoader.load(file);
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        long peak = 0;
+        for (MemoryPoolMXBean p : heap) peak += p.getPeakUsage().getUsed();
+        long retained = usedAfterGc() - before;
+        Bench.sink = game;
+        Bench.sink = null;
+        return new long[] {allocated, peak - before, retained};
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+            Runtime rt = Runtime.getRuntime();
+            used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+        }
+        return used;
+    }
+}
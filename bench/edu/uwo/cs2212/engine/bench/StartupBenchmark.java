@@ -0,0 +1,105 @@
+package edu.uwo.cs2212.engine.bench;
+
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.JsonWorldLoader;
+import edu.uwo.cs2212.engine.io.JsonWorldWriter;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * How world loading scales with cores: each world (the sample, or a WorldGenerator world with
+ * the given number of locations) is written as JSON once, then loaded by JsonWorldLoader on
+ * pools of each thread count. Reports milliseconds per load, speedup over one thread (which
+ * streams the file without splitting it; with -t not starting at 1, the first count's time
+ * scaled by that count stands in) and parallel efficiency. Every thread count's Game is
+ * written back and hashed, and a load whose hash differs from the one-thread load fails the run.
+ *
+ * Usage: StartupBenchmark [-wi warmupIterations=1] [-i iterations=3] [-r iterationMillis=2000]
+ *        [-w worlds=10000,100000] [-t threads=1,2,4,...,cores] [-o results-startup.json]
+ */
+public final class StartupBenchmark {
+    private StartupBenchmark(){}
+
+    public static void main(String[] args) throws Exception {
+        int warmup = 1, iterations = 3, millis = 2000;
+        List<String> worlds = List.of("10000", "100000");
+        List<Integer> threads = new ArrayList<>();
+        for (int t = 1; t < Runtime.getRuntime().availableProcessors(); t *= 2) threads.add(t);
+        threads.add(Runtime.getRuntime().availableProcessors());
+        Path out = Paths.get("results-startup.json");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi": warmup = Integer.parseInt(args[++i]); break;
+                case "-i": iterations = Integer.parseInt(args[++i]); break;
+                case "-r": millis = Integer.parseInt(args[++i]); break;
+                case "-w": worlds = List.of(args[++i].split(",")); break;
+                case "-t":
+                    threads.clear();
+                    for (String t : args[++i].split(",")) threads.add(Integer.parseInt(t));
+                    break;
+                case "-o": out = Paths.get(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        Bench.Options o = new Bench.Options(warmup, iterations, millis);
+        List<Bench.Result> results = new ArrayList<>();
+        System.out.printf("%-8s %8s %10s %10s %10s %10s%n", "world", "threads", "MB", "ms/load", "speedup", "efficiency");
+        for (String world : worlds) {
+            Path json = Files.createTempFile("world-" + world + "-", ".json");
+            try {
+                JsonWorldWriter.write(world.equals("sample") ? GameLoader.sampleGame()
+                        : WorldGenerator.generate(WorldGenerator.Spec.ofSize(Integer.parseInt(world))), json);
+                double mb = Files.size(json) / 1e6;
+                double baseline = 0;
+                Long expected = null;
+                for (int n : threads) {
+                    ForkJoinPool pool = new ForkJoinPool(n);
+                    try {
+                        long hash = hash(JsonWorldLoader.load(json, pool));
+                        if (expected == null) expected = hash;
+                        if (hash != expected) throw new IllegalStateException(world + " loaded differently on " + n + " threads");
+                        Bench.Result r = new Bench.Result(StartupBenchmark.class.getName() + ".load",
+                                Map.of("world", world, "threads", Integer.toString(n)));
+                        r.rawData.add(Bench.measure(() -> JsonWorldLoader.load(json, pool), null, o));
+                        Bench.sink = null;
+                        results.add(r);
+                        double ms = r.score() / 1e3;
+                        if (baseline == 0) baseline = ms * threads.get(0);
+                        System.out.printf("%-8s %8d %10.1f %10.1f %9.2fx %9.0f%%%n", world, n, mb, ms,
+                                baseline / ms, baseline / ms / n * 100);
+                    } finally {
+                        pool.shutdown();
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(json);
+            }
+        }
+        Files.write(out, Bench.toJson(results, o).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    /** FNV-1a over the Game written back as JSON; equal worlds write equal text. */
+    private static long hash(Game game) throws IOException {
+        long[] h = {0xcbf29ce484222325L};
+        JsonWorldWriter.write(game, new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                long x = h[0];
+                for (int i = off; i < off + len; i++) x = (x ^ cbuf[i]) * 0x100000001b3L;
+                h[0] = x;
+            }
+
+            @Override public void flush() {}
+            @Override public void close() {}
+        });
+        return h[0];
+    }
+}
@@ -5,73 +5,81 @@ import edu.uwo.cs2212.engine.engine.*;
 import edu.uwo.cs2212.engine.io.GameLoader;
 import edu.uwo.cs2212.engine.model.*;
 import edu.uwo.cs2212.engine.minigame.*;
+import edu.uwo.cs2212.engine.server.GameServer;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public final class Main {
-    public static void main(String[] args) {
-        Game game = GameLoader.sampleGame();
-        GameState state = new GameState();
+    /**
+     * Pass --record <file> to record the session for SessionReplayer, --journal <dir> to journal it
+     * and resume it from dir on the next run, or --server [port] to host network players. Plays the
+     * world file named by -Diq.world, or the sample world.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length >= 1 && args[0].equals("--server")) {
+            GameServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Path recordFile = null, journalDir = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--record")) recordFile = Paths.get(args[i + 1]);
+            else if (args[i].equals("--journal")) journalDir = Paths.get(args[i + 1]);
+        }
+        Game game = GameLoader.defaultGame();
+        GameState state;
         // Register mini-games
         MiniGameRegistry.register(new LockpickMiniGame("lockpick_crypt", 5));
-        state.currentLocationId = game.getStartLocationId();
+        if (journalDir != null && Journal.exists(journalDir)) {
+            state = Journal.restore(journalDir, game);
+        } else {
+            state = new GameState();
+            state.currentLocationId = game.getStartLocationId();
+        }
 
         System.out.println(game.getTitle());
         System.out.println(game.getStartMessage());
-        System.out.println("Type: go <label> | pickup <id> | drop <id> | inv | ex <id> | use <id|@attr> [with <id|@attr>] | talk <charId> | give <objId> <charId> | look");
+        System.out.println("Type: go <label> | pickup <id> | drop <id> | inv | ex <id> | use <id|@attr> [with <id|@attr>] | talk <charId> | give <objId> <charId> | look | undo | redo");
 
         CommandDispatcher cd = new CommandDispatcher(game, state);
+        cd.setMetrics(CommandMetrics.global());
+        UndoHistory history = new UndoHistory(cd, 100, 1 << 20);
+        SessionRecorder recorder = recordFile != null ? SessionRecorder.start(recordFile, game, state, cd) : null;
+        Journal journal = journalDir != null ? Journal.start(journalDir, game, state, 1000) : null;
+        if (journal != null) cd.addChangeListener(journal);
         Scanner sc = new Scanner(System.in);
 
         printLocation(game, state);
 
+        CommandParser parser = new CommandParser();
         while (true) {
             System.out.print("> ");
             if (!sc.hasNextLine()) break;
-            String line = sc.nextLine().trim();
-            if (line.equalsIgnoreCase("quit") || line.equalsIgnoreCase("exit")) break;
-            if (line.equalsIgnoreCase("look")) {
+            Command cmd = parser.parse(sc.nextLine());
+            if (cmd == Command.QUIT) break;
+            if (cmd == Command.NONE) continue;
+            if (cmd == Command.LOOK) {
                 printLocation(game, state);
                 continue;
             }
             try {
-                String[] toks = line.split("\s+");
-                if (toks.length == 0) continue;
-                String cmd = toks[0].toLowerCase();
                 CommandResult r;
                 switch (cmd) {
-                    case "go":
-                        r = cd.go(joinFrom(toks, 1));
-                        break;
-                    case "pickup":
-                        r = cd.pickUp(toks[1]);
-                        break;
-                    case "drop":
-                        r = cd.drop(toks[1]);
-                        break;
-                    case "inv":
-                        r = cd.inventory();
+                    case UNDO:
+                        r = history.undo() ? CommandResult.ok("Undone.") : CommandResult.fail("Nothing to undo.");
                         break;
-                    case "ex":
-                        r = cd.examineObject(toks[1]); // try as object first
+                    case REDO:
+                        r = history.redo() ? CommandResult.ok("Redone.") : CommandResult.fail("Nothing to redo.");
                         break;
-                    case "talk":
-                        r = cd.talk(toks[1]);
-                        break;
-                    case "give":
-                        r = cd.give(toks[1], toks[2]);
-                        break;
-                    case "use":
-                        if (toks.length >= 4 && toks[2].equalsIgnoreCase("with")) {
-                            r = cd.use(toks[1], toks[3]);
-                        } else if (toks.length >= 2) {
-                            r = cd.use(toks[1], null);
-                        } else r = CommandResult.fail("Usage: use <id|@attr> [with <id|@attr>]");
+                    case UNKNOWN:
+                        r = CommandResult.fail(MessageTemplate.UNKNOWN_COMMAND, parser.verb(), null);
                         break;
                     default:
-                        r = CommandResult.fail("Unknown command.");
+                        r = cd.execute(parser);
                 }
-                System.out.println(r.message);
+                System.out.println(r.message());
                 if (game.getEndLocationIds().contains(state.currentLocationId)) {
                     System.out.println("Game ended. Turns: " + state.turnsTaken);
                     break;
@@ -85,6 +93,8 @@ public final class Main {
             }
         }
         sc.close();
+        if (recorder != null) recorder.close();
+        if (journal != null) journal.close();
         System.out.println("Bye.");
     }
 
@@ -92,30 +102,30 @@ public final class Main {
         Location loc = game.getLocations().get(state.currentLocationId);
         System.out.println("== " + loc.getName() + " ==");
         System.out.println(loc.getDescription());
-        if (!loc.getConnections().isEmpty()) {
+        if (!state.world.connections(loc).isEmpty()) {
             System.out.print("Connections: ");
             boolean first = true;
-            for (var c : loc.getConnections()) {
+            for (var c : state.world.connections(loc)) {
                 if (!first) System.out.print(", ");
                 System.out.print(c.getLabel());
                 first = false;
             }
             System.out.println();
         }
-        if (!loc.getObjectIds().isEmpty()) {
+        if (!state.world.objectIds(loc).isEmpty()) {
             System.out.print("Here: ");
             boolean first = true;
-            for (var oid : loc.getObjectIds()) {
+            for (var oid : state.world.objectIds(loc)) {
                 if (!first) System.out.print(", ");
                 System.out.print(game.getObjects().get(oid).getName() + "(" + oid + ")");
                 first = false;
             }
             System.out.println();
         }
-        if (!loc.getCharacterIds().isEmpty()) {
+        if (!state.world.characterIds(loc).isEmpty()) {
             System.out.print("You see: ");
             boolean first = true;
-            for (var cid : loc.getCharacterIds()) {
+            for (var cid : state.world.characterIds(loc)) {
                 if (!first) System.out.print(", ");
                 System.out.print(game.getCharacters().get(cid).getName() + "(" + cid + ")");
                 first = false;
@@ -123,13 +133,4 @@ public final class Main {
             System.out.println();
         }
     }
-
-    private static String joinFrom(String[] arr, int idx) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = idx; i < arr.length; i++) {
-            if (i > idx) sb.append(' ');
-            sb.append(arr[i]);
-        }
-        return sb.toString();
-    }
 }
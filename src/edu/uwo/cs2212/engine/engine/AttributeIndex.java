@@ -0,0 +1,129 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.model.*;
+
+import java.util.*;
+
+/**
+ * Inverted index from attribute handle to the object ids present in a location or in the
+ * inventory, kept in presence order. A container is indexed on first query and then kept
+ * current by CommandDispatcher as objects move.
+ */
+final class AttributeIndex {
+    private Game game;
+    private final GameState state;
+    private final Map<Integer, Buckets> locations = new HashMap<>(); // by location handle; only queried containers
+    private Buckets inventory;
+
+    AttributeIndex(Game game, GameState state) {
+        this.game = game;
+        this.state = state;
+    }
+
+    Collection<String> inLocation(Location loc, int attribute) {
+        int h = game.getSymbols().locationHandle(loc.getId());
+        Buckets b = locations.get(h);
+        if (b == null) {
+            b = new Buckets();
+            for (String id : state.world.objectIds(loc)) b.add(object(id), id);
+            locations.put(h, b);
+        }
+        return b.get(attribute);
+    }
+
+    Collection<String> inInventory(int attribute) {
+        if (inventory == null) {
+            Buckets b = new Buckets();
+            for (String id : state.inventory) b.add(object(id), id);
+            inventory = b;
+        }
+        return inventory.get(attribute);
+    }
+
+    /**
+     * Moves to a reloaded world whose ids keep their handles (see WorldDiff.sameHandles). Only the
+     * built containers the reload touched are dropped, to be indexed again on their next query:
+     * redefined locations, and containers holding a redefined object.
+     */
+    void reloaded(WorldDiff diff) {
+        game = diff.game;
+        locations.keySet().removeIf(h -> {
+            Location loc = game.getLocation(h);
+            return diff.locations.contains(loc.getId()) || holdsAny(state.world.objectIds(loc), diff.objects);
+        });
+        if (inventory != null && holdsAny(state.inventory, diff.objects)) inventory = null;
+    }
+
+    /** The state was replaced wholesale (CommandDispatcher.restore): forgets the given locations and the inventory. */
+    void restored(Set<String> locationIds) {
+        locations.keySet().removeIf(h -> locationIds.contains(game.getLocation(h).getId()));
+        inventory = null;
+    }
+
+    private static boolean holdsAny(Set<String> container, Set<String> ids) {
+        for (String id : ids) if (container.contains(id)) return true;
+        return false;
+    }
+
+    /** Keeps already-built containers current after a change has been applied to the state. */
+    void applied(StateChange change) {
+        switch (change.kind) {
+            case LOCATION_ADD: {
+                int h = game.getSymbols().locationHandle(change.locationId);
+                Buckets b = locations.get(h);
+                if (b == null) break;
+                int last = state.world.objectIds(game.getLocation(h)).size() - 1;
+                // An object put back mid-room (an undone removal) is out of the buckets' order: rebuild on next query
+                if (change.position >= 0 && change.position < last) locations.remove(h);
+                else b.add(object(change.id), change.id);
+                break;
+            }
+            case LOCATION_REMOVE: {
+                Buckets b = locations.get(game.getSymbols().locationHandle(change.locationId));
+                if (b != null) b.remove(object(change.id), change.id);
+                break;
+            }
+            case INVENTORY_ADD:
+                if (inventory != null) inventory.add(object(change.id), change.id);
+                break;
+            case INVENTORY_REMOVE:
+                if (inventory != null) inventory.remove(object(change.id), change.id);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private GameObject object(String id) {
+        int h = game.getSymbols().objectHandle(id);
+        return h == SymbolTable.NONE ? null : game.getObject(h);
+    }
+
+    /** Per-container attribute buckets, indexed by attribute handle. */
+    private static final class Buckets {
+        private final List<Set<String>> byAttribute = new ArrayList<>();
+
+        Collection<String> get(int attribute) {
+            if (attribute < 0 || attribute >= byAttribute.size() || byAttribute.get(attribute) == null) {
+                return Collections.emptySet();
+            }
+            return byAttribute.get(attribute);
+        }
+
+        void add(GameObject obj, String id) {
+            if (obj == null) return;
+            for (int a = obj.nextAttribute(0); a >= 0; a = obj.nextAttribute(a + 1)) {
+                while (byAttribute.size() <= a) byAttribute.add(null);
+                if (byAttribute.get(a) == null) byAttribute.set(a, new LinkedHashSet<>());
+                byAttribute.get(a).add(id);
+            }
+        }
+
+        void remove(GameObject obj, String id) {
+            if (obj == null) return;
+            for (int a = obj.nextAttribute(0); a >= 0 && a < byAttribute.size(); a = obj.nextAttribute(a + 1)) {
+                if (byAttribute.get(a) != null) byAttribute.get(a).remove(id);
+            }
+        }
+    }
+}
@@ -1,6 +1,29 @@
-
 package edu.uwo.cs2212.engine.engine;
 
+/** A parsed command verb, with the usage text shown when its operands are missing. */
 public enum Command {
-    GO, PICK_UP, DROP, INVENTORY, EXAMINE, USE, TALK, GIVE
+    GO("go <label>", 1),
+    PICK_UP("pickup <id>", 1),
+    DROP("drop <id>", 1),
+    INVENTORY("inv", 0),
+    EXAMINE("ex <id>", 1),
+    USE("use <id|@attr> [with <id|@attr>]", 1),
+    TALK("talk <charId>", 1),
+    GIVE("give <objId> <charId>", 2),
+    // Handled by the front ends rather than the dispatcher
+    LOOK("look", 0),
+    UNDO("undo", 0),
+    REDO("redo", 0),
+    QUIT("quit", 0),
+    NONE("", 0),     // blank line
+    UNKNOWN("", 0);  // unrecognised verb
+
+    public final String usage;
+    /** Operands that must be present for the command to run. */
+    public final int operands;
+
+    Command(String usage, int operands) {
+        this.usage = usage;
+        this.operands = operands;
+    }
 }
@@ -7,113 +7,290 @@ import edu.uwo.cs2212.engine.rules.*;
 import java.util.*;
 
 public final class CommandDispatcher {
-    private final Game game;
+    private Game game;
     private final GameState state;
+    private SymbolTable symbols;
+    private AttributeIndex attributeIndex;
+    private final List<StateChange.Listener> listeners = new ArrayList<>();
+    private final EventBus events = new EventBus();
+    private CommandMetrics metrics = CommandMetrics.NONE;
+    private MiniGameRunner miniGames = MiniGameRunner.REGISTRY;
+    SessionRecorder recorder; // set while a session is being recorded
 
     public CommandDispatcher(Game game, GameState state) {
         this.game = game;
         this.state = state;
+        this.symbols = game.getSymbols();
+        this.attributeIndex = new AttributeIndex(game, state);
+    }
+
+    /**
+     * Switches this session to a reloaded world (see WorldDiff), keeping its GameState: the
+     * player stays where they are with what they carry, and locations this session has changed
+     * keep their changes, less any ids the new world no longer defines (see WorldOverlay.prune).
+     * Listeners are told through StateChange.Listener.reloaded, so an UndoHistory forgets steps
+     * that may name those ids. Must run on the thread that runs this session's commands. Returns
+     * false, leaving the session on its current world, when the new world no longer defines the
+     * player's location or something they carry, or while the session is being recorded (a
+     * recording replays against the world it started on).
+     */
+    public boolean reload(WorldDiff diff) {
+        Game next = diff.game;
+        if (recorder != null || !next.getLocations().containsKey(state.currentLocationId)) return false;
+        for (String id : state.inventory) if (!next.getObjects().containsKey(id)) return false;
+        // The index is updated first: it finds containers of removed objects before they are pruned
+        if (diff.previous == game && diff.sameHandles) attributeIndex.reloaded(diff);
+        else attributeIndex = new AttributeIndex(next, state);
+        game = next;
+        symbols = next.getSymbols();
+        state.world.prune(next);
+        for (StateChange.Listener l : listeners) l.reloaded(next, state);
+        return true;
+    }
+
+    /**
+     * Replaces this session's state with a copy of saved (a GameState on the same world), such
+     * as a loaded save or a benchmark's starting point; saved itself is not changed or kept.
+     * The message log is left alone. Like a reload this changes state without StateChanges, so
+     * listeners are told through StateChange.Listener.reloaded (an UndoHistory clears, a Journal
+     * snapshots). Not allowed while the session is being recorded.
+     */
+    public void restore(GameState saved) {
+        if (recorder != null) throw new IllegalStateException("Cannot restore a session while it is recorded");
+        Set<String> touched = new HashSet<>(state.world.changedLocationIds());
+        touched.addAll(saved.world.changedLocationIds());
+        state.currentLocationId = saved.currentLocationId;
+        state.turnsTaken = saved.turnsTaken;
+        state.talkIndex = saved.talkIndex;
+        state.inventory.clear();
+        state.inventory.addAll(saved.inventory);
+        state.world.copyFrom(game, saved.world);
+        attributeIndex.restored(touched);
+        for (StateChange.Listener l : listeners) l.reloaded(game, state);
+    }
+
+    /**
+     * Runs a parsed game command, resolving its operands straight from the parser's spans.
+     * LOOK, UNDO, REDO, QUIT and unrecognised input belong to the front end.
+     */
+    public CommandResult execute(CommandParser p) {
+        Command c = p.command();
+        if (!p.isComplete()) return CommandResult.fail(MessageTemplate.USAGE, c.usage, null);
+        switch (c) {
+            case GO: return go(p.operand(0));
+            case PICK_UP: {
+                int h = objectHandle(p, 0);
+                return h != SymbolTable.NONE ? pickUp(h) : pickUp(p.operand(0));
+            }
+            case DROP: {
+                int h = objectHandle(p, 0);
+                return h != SymbolTable.NONE ? drop(h) : drop(p.operand(0));
+            }
+            case INVENTORY: return inventory();
+            case EXAMINE: {
+                int h = objectHandle(p, 0);
+                return h != SymbolTable.NONE ? examineObject(h) : examineObject(p.operand(0));
+            }
+            case USE: return use(p.operand(0), p.operandCount() > 1 ? p.operand(1) : null);
+            case TALK: {
+                int h = characterHandle(p, 0);
+                return h != SymbolTable.NONE ? talk(h) : talk(p.operand(0));
+            }
+            case GIVE: {
+                int o = objectHandle(p, 0);
+                int ch = characterHandle(p, 1);
+                return o != SymbolTable.NONE && ch != SymbolTable.NONE ? give(o, ch) : give(p.operand(0), p.operand(1));
+            }
+            default:
+                throw new IllegalArgumentException("Not a game command: " + c);
+        }
+    }
+
+    private int objectHandle(CommandParser p, int operand) {
+        return symbols.objectHandle(p.source(), p.start(operand), p.end(operand));
+    }
+
+    private int characterHandle(CommandParser p, int operand) {
+        return symbols.characterHandle(p.source(), p.start(operand), p.end(operand));
     }
 
     public CommandResult go(String connectionLabel) {
+        if (recorder != null) recorder.call(SessionRecorder.GO, connectionLabel, null);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.GO, t0, runGo(connectionLabel));
+        } finally {
+            if (recorder != null) recorder.callEnded();
+        }
+    }
+
+    private CommandResult runGo(String connectionLabel) {
         Location loc = game.getLocations().get(state.currentLocationId);
-        for (Connection c : loc.getConnections()) {
-            if (c.getLabel().equalsIgnoreCase(connectionLabel)) {
-                state.currentLocationId = c.getTargetLocationId();
-                state.turnsTaken++;
-                Location nloc = game.getLocations().get(state.currentLocationId);
-                String msg = "You arrive at " + nloc.getName() + ": " + nloc.getDescription();
-                if (game.getEndLocationIds().contains(state.currentLocationId)) {
-                    msg += " [END]";
-                }
-                state.addLog(msg);
-                return CommandResult.ok(msg);
+        Connection c = state.world.connection(loc, connectionLabel);
+        if (c != null) {
+            String from = state.currentLocationId;
+            if (apply(StateChange.move(from, c.getTargetLocationId()))
+                    && events.wants(GameEvent.Type.LOCATION_ENTERED)) {
+                events.publish(new GameEvent.LocationEntered(c.getTargetLocationId(), from));
             }
+            turn();
+            symbols.entered(symbols.locationHandle(state.currentLocationId));
+            Location nloc = game.getLocations().get(state.currentLocationId);
+            MessageTemplate t = game.getEndLocationIds().contains(state.currentLocationId)
+                    ? MessageTemplate.ARRIVE_END : MessageTemplate.ARRIVE;
+            return logged(CommandResult.ok(t, nloc.getName(), nloc.getDescription()));
         }
-        state.turnsTaken++;
-        return CommandResult.fail("You cannot go via '"+connectionLabel+"'.");
+        turn();
+        return CommandResult.fail(MessageTemplate.CANNOT_GO, connectionLabel, null);
     }
 
     public CommandResult pickUp(String objectId) {
+        return pickUp(objectId, symbols.objectHandle(objectId));
+    }
+
+    public CommandResult pickUp(int objectHandle) {
+        return pickUp(symbols.objectId(objectHandle), objectHandle);
+    }
+
+    private CommandResult pickUp(String objectId, int objectHandle) {
+        if (recorder != null) recorder.call(SessionRecorder.PICK_UP, objectId, null);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.PICK_UP, t0, runPickUp(objectId, objectHandle));
+        } finally {
+            if (recorder != null) recorder.callEnded();
+        }
+    }
+
+    private CommandResult runPickUp(String objectId, int objectHandle) {
         Location loc = game.getLocations().get(state.currentLocationId);
-        if (!loc.getObjectIds().contains(objectId)) {
-            state.turnsTaken++;
-            return CommandResult.fail("You don't see that here.");
+        if (!state.world.objectIds(loc).contains(objectId)) {
+            turn();
+            return CommandResult.fail(MessageTemplate.NOT_SEEN);
         }
-        GameObject obj = game.getObjects().get(objectId);
+        GameObject obj = object(objectHandle);
         if (obj == null || !obj.canPickUp()) {
-            state.turnsTaken++;
-            return CommandResult.fail("You cannot pick that up.");
+            turn();
+            return CommandResult.fail(MessageTemplate.CANNOT_PICK_UP);
         }
-        loc.removeObject(objectId);
-        state.inventory.add(objectId);
-        state.turnsTaken++;
-        String msg = "Picked up " + obj.getName() + ".";
-        state.addLog(msg);
-        return CommandResult.ok(msg);
+        removeFromLocation(loc, objectId);
+        addToInventory(objectId);
+        turn();
+        return logged(CommandResult.ok(MessageTemplate.PICKED_UP, obj.getName(), null));
     }
 
     public CommandResult drop(String objectId) {
+        return drop(objectId, symbols.objectHandle(objectId));
+    }
+
+    public CommandResult drop(int objectHandle) {
+        return drop(symbols.objectId(objectHandle), objectHandle);
+    }
+
+    private CommandResult drop(String objectId, int objectHandle) {
+        if (recorder != null) recorder.call(SessionRecorder.DROP, objectId, null);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.DROP, t0, runDrop(objectId, objectHandle));
+        } finally {
+            if (recorder != null) recorder.callEnded();
+        }
+    }
+
+    private CommandResult runDrop(String objectId, int objectHandle) {
         if (!state.inventory.contains(objectId)) {
-            state.turnsTaken++;
-            return CommandResult.fail("It's not in your inventory.");
+            turn();
+            return CommandResult.fail(MessageTemplate.NOT_IN_INVENTORY);
         }
         Location loc = game.getLocations().get(state.currentLocationId);
-        state.inventory.remove(objectId);
-        loc.addObject(objectId);
-        state.turnsTaken++;
-        String msg = "Dropped " + game.getObjects().get(objectId).getName() + ".";
-        state.addLog(msg);
-        return CommandResult.ok(msg);
+        removeFromInventory(objectId);
+        addToLocation(loc, objectId);
+        turn();
+        return logged(CommandResult.ok(MessageTemplate.DROPPED, object(objectHandle).getName(), null));
     }
 
     public CommandResult inventory() {
-        StringBuilder sb = new StringBuilder("Inventory: ");
-        if (state.inventory.isEmpty()) sb.append("(empty)");
-        else {
-            boolean first = true;
-            for (String id : state.inventory) {
-                if (!first) sb.append(", ");
-                sb.append(game.getObjects().get(id).getName());
-                first = false;
-            }
+        if (recorder != null) recorder.call(SessionRecorder.INVENTORY, null, null);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.INVENTORY, t0, runInventory());
+        } finally {
+            if (recorder != null) recorder.callEnded();
         }
-        state.turnsTaken++;
-        String msg = sb.toString();
-        state.addLog(msg);
-        return CommandResult.ok(msg);
+    }
+
+    private CommandResult runInventory() {
+        turn();
+        if (state.inventory.isEmpty()) return logged(CommandResult.ok(MessageTemplate.INVENTORY_EMPTY, null, null));
+        Object[] names = new Object[state.inventory.size()];
+        int i = 0;
+        for (String id : state.inventory) names[i++] = game.getObjects().get(id).getName();
+        return logged(CommandResult.ok(MessageTemplate.INVENTORY, names, null));
     }
 
     public CommandResult examineObject(String objectId) {
+        return examineObject(objectId, symbols.objectHandle(objectId));
+    }
+
+    public CommandResult examineObject(int objectHandle) {
+        return examineObject(symbols.objectId(objectHandle), objectHandle);
+    }
+
+    private CommandResult examineObject(String objectId, int objectHandle) {
+        if (recorder != null) recorder.call(SessionRecorder.EXAMINE_OBJECT, objectId, null);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.EXAMINE, t0, runExamineObject(objectId, objectHandle));
+        } finally {
+            if (recorder != null) recorder.callEnded();
+        }
+    }
+
+    private CommandResult runExamineObject(String objectId, int objectHandle) {
         Location loc = game.getLocations().get(state.currentLocationId);
-        boolean here = loc.getObjectIds().contains(objectId) || state.inventory.contains(objectId);
+        boolean here = state.world.objectIds(loc).contains(objectId) || state.inventory.contains(objectId);
         if (!here) {
-            state.turnsTaken++;
-            return CommandResult.fail("You don't have or see that.");
+            turn();
+            return CommandResult.fail(MessageTemplate.NOT_HAVE_OR_SEE);
         }
-        GameObject obj = game.getObjects().get(objectId);
+        GameObject obj = object(objectHandle);
         // Reveal contained objects into current location:
         for (String cid : obj.getContainedObjectIds()) {
-            if (!loc.getObjectIds().contains(cid)) {
-                loc.addObject(cid);
+            if (!state.world.objectIds(loc).contains(cid)) {
+                addToLocation(loc, cid);
             }
         }
-        state.turnsTaken++;
-        String msg = obj.getDescription();
-        state.addLog(msg);
-        return CommandResult.ok(msg);
+        turn();
+        return logged(CommandResult.ok(MessageTemplate.TEXT, obj.getDescription(), null));
     }
 
     public CommandResult examineCharacter(String characterId) {
+        return examineCharacter(characterId, symbols.characterHandle(characterId));
+    }
+
+    public CommandResult examineCharacter(int characterHandle) {
+        return examineCharacter(symbols.characterId(characterHandle), characterHandle);
+    }
+
+    private CommandResult examineCharacter(String characterId, int characterHandle) {
+        if (recorder != null) recorder.call(SessionRecorder.EXAMINE_CHARACTER, characterId, null);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.EXAMINE, t0, runExamineCharacter(characterId, characterHandle));
+        } finally {
+            if (recorder != null) recorder.callEnded();
+        }
+    }
+
+    private CommandResult runExamineCharacter(String characterId, int characterHandle) {
         Location loc = game.getLocations().get(state.currentLocationId);
-        if (!loc.getCharacterIds().contains(characterId)) {
-            state.turnsTaken++;
-            return CommandResult.fail("You don't see them here.");
+        if (!state.world.characterIds(loc).contains(characterId)) {
+            turn();
+            return CommandResult.fail(MessageTemplate.NOT_SEE_THEM);
         }
-        GameCharacter ch = game.getCharacters().get(characterId);
-        state.turnsTaken++;
-        state.addLog(ch.getDescription());
-        return CommandResult.ok(ch.getDescription());
+        GameCharacter ch = character(characterHandle);
+        turn();
+        return logged(CommandResult.ok(MessageTemplate.TEXT, ch.getDescription(), null));
     }
 
     private boolean matches(Selector sel, GameObject obj) {
@@ -122,43 +299,59 @@ public final class CommandDispatcher {
             return sel.objectId.equals(obj.getId());
         }
         if (sel.attribute != null) {
-            return obj.getAttributes().contains(sel.attribute);
+            return obj.hasAttribute(sel.attributeHandle);
         }
         return false;
     }
 
     public CommandResult use(String primaryIdOrAttr, String withIdOrAttrOrNull) {
-        // Resolve to selectors
-        Selector prim = primaryIdOrAttr.startsWith("@")
-                ? Selector.byAttr(primaryIdOrAttr.substring(1))
-                : Selector.byId(primaryIdOrAttr);
-        Selector with = null;
-        if (withIdOrAttrOrNull != null) {
-            with = withIdOrAttrOrNull.startsWith("@")
-                    ? Selector.byAttr(withIdOrAttrOrNull.substring(1))
-                    : Selector.byId(withIdOrAttrOrNull);
+        if (recorder != null) recorder.call(SessionRecorder.USE, primaryIdOrAttr, withIdOrAttrOrNull);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.USE, t0, runUse(primaryIdOrAttr, withIdOrAttrOrNull));
+        } finally {
+            if (recorder != null) recorder.callEnded();
         }
+    }
+
+    private CommandResult runUse(String primaryIdOrAttr, String withIdOrAttrOrNull) {
+        // Resolve to selectors
+        Selector prim = Selector.lookup(primaryIdOrAttr);
+        Selector with = withIdOrAttrOrNull == null ? null : Selector.lookup(withIdOrAttrOrNull);
 
         Location loc = game.getLocations().get(state.currentLocationId);
 
         // Determine scope (if any operand is in location, results go to location)
         boolean anyInLocation = false;
-        if (prim.objectId != null && loc.getObjectIds().contains(prim.objectId)) anyInLocation = true;
-        if (with != null && with.objectId != null && loc.getObjectIds().contains(with.objectId)) anyInLocation = true;
+        if (prim.objectId != null && state.world.objectIds(loc).contains(prim.objectId)) anyInLocation = true;
+        if (with != null && with.objectId != null && state.world.objectIds(loc).contains(with.objectId)) anyInLocation = true;
+
+        // Resolve operands once; the rule index narrows the scan to rules that can match them
+        List<GameObject> primPool = operandPool(prim, loc);
+        List<GameObject> withPool = operandPool(with, loc);
+        GameObject primById = (prim.objectId != null) ? object(symbols.objectHandle(prim.objectId)) : null;
+        GameObject withById = (with != null && with.objectId != null) ? object(symbols.objectHandle(with.objectId)) : null;
+        GameCharacter withCharHere = null;
+        // Check if "with" is a character that's in the current location
+        if (with != null && with.objectId != null && state.world.characterIds(loc).contains(with.objectId)) {
+            withCharHere = character(symbols.characterHandle(with.objectId));
+        }
 
         // Find matching rule
-        for (UseRule r : game.getUseRules()) {
+        BitSet useCandidates = candidateRules(game.getUseRuleIndex(), primPool);
+        for (int i = useCandidates.nextSetBit(0); i >= 0; i = useCandidates.nextSetBit(i + 1)) {
+            UseRule r = game.getUseRules().get(i);
+            metrics.useRuleScanned();
             // Match primary
-            GameObject primObj = (prim.objectId != null) ? game.getObjects().get(prim.objectId) : null;
-            GameObject withObj = (with != null && with.objectId != null) ? game.getObjects().get(with.objectId) : null;
+            GameObject primObj = primById;
+            GameObject withObj = withById;
 
             boolean primaryMatches = false;
             if (prim.objectId != null && primObj != null) primaryMatches = matches(r.primary, primObj);
             else if (prim.attribute != null) {
                 // try to match any visible object/inventory item with that attribute
-                for (String id : visibleOrInventory(loc)) {
-                    GameObject cand = game.getObjects().get(id);
-                    if (cand.getAttributes().contains(prim.attribute) && matches(r.primary, cand)) {
+                for (GameObject cand : primPool) {
+                    if (matches(r.primary, cand)) {
                         primObj = cand;
                         primaryMatches = true;
                         break;
@@ -173,9 +366,8 @@ public final class CommandDispatcher {
                 if (with == null || r.with == null) continue;
                 if (with.objectId != null && withObj != null) withMatches = matches(r.with, withObj);
                 else if (with.attribute != null) {
-                    for (String id : visibleOrInventory(loc)) {
-                        GameObject cand = game.getObjects().get(id);
-                        if (cand.getAttributes().contains(with.attribute) && matches(r.with, cand)) {
+                    for (GameObject cand : withPool) {
+                        if (matches(r.with, cand)) {
                             withObj = cand;
                             withMatches = true;
                             break;
@@ -185,45 +377,43 @@ public final class CommandDispatcher {
             }
 
             if (primaryMatches && withMatches) {
+                if (events.wants(GameEvent.Type.RULE_FIRED)) events.publish(new GameEvent.RuleFired(GameEvent.RuleFired.Kind.USE, i));
                 // Remove used objects if present
                 if (primObj != null) {
-                    loc.removeObject(primObj.getId());
-                    state.inventory.remove(primObj.getId());
+                    removeFromLocation(loc, primObj.getId());
+                    removeFromInventory(primObj.getId());
                 }
                 if (withObj != null) {
-                    loc.removeObject(withObj.getId());
-                    state.inventory.remove(withObj.getId());
+                    removeFromLocation(loc, withObj.getId());
+                    removeFromInventory(withObj.getId());
                 }
 
                 // Place produced objects
                 for (String pid : r.producedObjectIds) {
-                    if (anyInLocation) loc.addObject(pid);
-                    else state.inventory.add(pid);
+                    if (anyInLocation) addToLocation(loc, pid);
+                    else addToInventory(pid);
                 }
 
-                state.turnsTaken++;
-                state.addLog(r.resultText);
-                return CommandResult.ok(r.resultText);
+                turn();
+                return logged(CommandResult.ok(MessageTemplate.TEXT, r.resultText, null));
             }
         }
 
 
             // Mini-game fallback: try matching a MiniGameRule
-            for (edu.uwo.cs2212.engine.rules.MiniGameRule mr : game.getMiniGameRules()) {
-                GameObject primObj = (prim.objectId != null) ? game.getObjects().get(prim.objectId) : null;
-                GameObject withObj = (with != null && with.objectId != null) ? game.getObjects().get(with.objectId) : null;
-                GameCharacter withChar = null;
-                // Check if "with" is a character that's in the current location
-                if (with != null && with.objectId != null && loc.getCharacterIds().contains(with.objectId)) {
-                    withChar = game.getCharacters().get(with.objectId);
-                }
+            BitSet miniGameCandidates = candidateRules(game.getMiniGameRuleIndex(), primPool);
+            for (int i = miniGameCandidates.nextSetBit(0); i >= 0; i = miniGameCandidates.nextSetBit(i + 1)) {
+                edu.uwo.cs2212.engine.rules.MiniGameRule mr = game.getMiniGameRules().get(i);
+                metrics.miniGameRuleScanned();
+                GameObject primObj = primById;
+                GameObject withObj = withById;
+                GameCharacter withChar = withCharHere;
 
                 boolean primaryMatches = false;
                 if (prim.objectId != null && primObj != null) primaryMatches = matches(mr.primary, primObj);
                 else if (prim.attribute != null) {
-                    for (String id : visibleOrInventory(loc)) {
-                        GameObject cand = game.getObjects().get(id);
-                        if (cand != null && cand.getAttributes().contains(prim.attribute) && matches(mr.primary, cand)) {
+                    for (GameObject cand : primPool) {
+                        if (matches(mr.primary, cand)) {
                             primObj = cand; primaryMatches = true; break;
                         }
                     }
@@ -244,9 +434,8 @@ public final class CommandDispatcher {
                     }
                     // Check if matching by attribute
                     else if (with.attribute != null) {
-                        for (String id : visibleOrInventory(loc)) {
-                            GameObject cand = game.getObjects().get(id);
-                            if (cand != null && cand.getAttributes().contains(with.attribute) && matches(mr.with, cand)) {
+                        for (GameObject cand : withPool) {
+                            if (matches(mr.with, cand)) {
                                 withObj = cand; withMatches = true; break;
                             }
                         }
@@ -255,108 +444,219 @@ public final class CommandDispatcher {
                 if (!withMatches) continue;
 
                 // Launch mini-game
-                edu.uwo.cs2212.engine.minigame.MiniGame mg =
-                        edu.uwo.cs2212.engine.minigame.MiniGameRegistry.get(mr.miniGameId);
-                if (mg == null) {
-                    state.turnsTaken++;
-                    return CommandResult.fail("Mini-game not found: " + mr.miniGameId);
-                }
+                if (events.wants(GameEvent.Type.RULE_FIRED)) events.publish(new GameEvent.RuleFired(GameEvent.RuleFired.Kind.MINIGAME, i));
                 edu.uwo.cs2212.engine.minigame.MiniGameResult res;
+                long launched = metrics.start();
                 try {
-                    res = mg.play(game, state);
+                    res = miniGames.play(mr.miniGameId, game, state);
+                    metrics.miniGamePlayed(launched, res != null && res.success);
+                } catch (UnsupportedOperationException e) {
+                    turn();
+                    return CommandResult.fail(MessageTemplate.TEXT, e.getMessage(), null);
                 } catch (Exception e) {
-                    state.turnsTaken++;
+                    metrics.miniGamePlayed(launched, false);
+                    turn();
                     e.printStackTrace();
-                    return CommandResult.fail("Mini-game error: " + e.getMessage());
+                    return CommandResult.fail(MessageTemplate.MINIGAME_ERROR, e.getMessage(), null);
+                }
+                if (res == null) {
+                    turn();
+                    return CommandResult.fail(MessageTemplate.MINIGAME_NOT_FOUND, mr.miniGameId, null);
                 }
                 // On success, consume inputs and produce rewards
                 if (res.success) {
                     // Remove primary object if it exists
                     if (primObj != null) { 
-                        loc.removeObject(primObj.getId()); 
-                        state.inventory.remove(primObj.getId()); 
+                        removeFromLocation(loc, primObj.getId()); 
+                        removeFromInventory(primObj.getId()); 
                     }
                     // Remove "with" object if it exists (but not characters - they stay)
                     if (withObj != null) { 
-                        loc.removeObject(withObj.getId()); 
-                        state.inventory.remove(withObj.getId()); 
+                        removeFromLocation(loc, withObj.getId()); 
+                        removeFromInventory(withObj.getId()); 
                     }
                     // Characters are not removed - they stay in the location
                     java.util.List<String> outIds = res.producedObjectIds.isEmpty() ? mr.rewardObjectIds : res.producedObjectIds;
                     for (String pid : outIds) {
-                        if (anyInLocation) loc.addObject(pid); else state.inventory.add(pid);
+                        if (anyInLocation) addToLocation(loc, pid); else addToInventory(pid);
                     }
-                    state.turnsTaken++;
+                    if (mr.unlockConnection != null) unlockConnection(mr.unlockLocationId, mr.unlockConnection);
+                    if (events.wants(GameEvent.Type.MINIGAME_WON)) events.publish(new GameEvent.MiniGameWon(mr.miniGameId));
+                    turn();
                     String msg = (mr.successText == null || mr.successText.isEmpty()) ? res.message : mr.successText;
-                    state.addLog(msg);
-                    return CommandResult.ok(msg);
+                    return logged(CommandResult.ok(MessageTemplate.TEXT, msg, null));
                 } else {
-                    state.turnsTaken++;
+                    if (events.wants(GameEvent.Type.MINIGAME_LOST)) events.publish(new GameEvent.MiniGameLost(mr.miniGameId));
+                    turn();
                     String msg = (mr.failureText == null || mr.failureText.isEmpty()) ? res.message : mr.failureText;
-                    state.addLog(msg);
-                    return CommandResult.fail(msg);
+                    return logged(CommandResult.fail(MessageTemplate.TEXT, msg, null));
                 }
             }
 
-    state.turnsTaken++;
-    return CommandResult.fail("Nothing happens.");
+    turn();
+    return CommandResult.fail(MessageTemplate.NOTHING_HAPPENS);
 }
 
-    private List<String> visibleOrInventory(Location loc) {
-        List<String> all = new ArrayList<>();
-        all.addAll(loc.getObjectIds());
-        all.addAll(state.inventory);
-        return all;
+    /** Objects an operand can refer to: the named object, or every visible/inventory object with the attribute. */
+    private List<GameObject> operandPool(Selector sel, Location loc) {
+        if (sel == null) return List.of();
+        if (sel.objectId != null) {
+            GameObject obj = object(symbols.objectHandle(sel.objectId));
+            return obj == null ? List.of() : List.of(obj);
+        }
+        List<GameObject> pool = new ArrayList<>();
+        for (String id : attributeIndex.inLocation(loc, sel.attributeHandle)) pool.add(object(symbols.objectHandle(id)));
+        for (String id : attributeIndex.inInventory(sel.attributeHandle)) pool.add(object(symbols.objectHandle(id)));
+        return pool;
+    }
+
+    /** Unlocks a connection for this session; false if the location already has an exit with that label. */
+    public boolean unlockConnection(String locationId, Connection connection) {
+        if (!apply(StateChange.unlock(locationId, connection))) return false;
+        if (events.wants(GameEvent.Type.CONNECTION_UNLOCKED)) {
+            events.publish(new GameEvent.ConnectionUnlocked(locationId, connection.getLabel(), connection.getTargetLocationId()));
+        }
+        return true;
+    }
+
+    /** Game events published while this dispatcher runs commands. */
+    public EventBus events() { return events; }
+
+    /** Replaces how mini-games are played, e.g. to record or replay their outcomes. */
+    public void setMiniGameRunner(MiniGameRunner runner) { this.miniGames = Objects.requireNonNull(runner); }
+    public MiniGameRunner getMiniGameRunner() { return miniGames; }
+
+    /** Where command latencies and rule scans are recorded; CommandMetrics.NONE by default. */
+    public void setMetrics(CommandMetrics metrics) { this.metrics = Objects.requireNonNull(metrics); }
+
+    public void addChangeListener(StateChange.Listener listener) { listeners.add(listener); }
+    public void removeChangeListener(StateChange.Listener listener) { listeners.remove(listener); }
+
+    private void addToLocation(Location loc, String objectId) { apply(StateChange.locationAdd(loc.getId(), objectId)); }
+    private void removeFromLocation(Location loc, String objectId) {
+        int position = state.world.objectIndex(loc, objectId);
+        if (position >= 0) apply(StateChange.locationRemove(loc.getId(), objectId, position));
+    }
+    private void addToInventory(String objectId) {
+        if (apply(StateChange.inventoryAdd(objectId)) && events.wants(GameEvent.Type.ITEM_ACQUIRED)) {
+            events.publish(new GameEvent.ItemAcquired(objectId));
+        }
+    }
+    private void removeFromInventory(String objectId) { apply(StateChange.inventoryRemove(objectId)); }
+    private void turn() { apply(StateChange.turn()); }
+
+    private CommandResult logged(CommandResult result) {
+        state.log.add(result);
+        return result;
+    }
+
+    // Every state change goes through here so the attribute index and listeners see it
+    boolean apply(StateChange change) {
+        if (!change.applyTo(game, state)) return false;
+        attributeIndex.applied(change);
+        for (StateChange.Listener l : listeners) l.onChange(change, state);
+        return true;
+    }
+
+    private GameObject object(int handle) {
+        return handle == SymbolTable.NONE ? null : game.getObject(handle);
+    }
+
+    private GameCharacter character(int handle) {
+        return handle == SymbolTable.NONE ? null : game.getCharacter(handle);
+    }
+
+    /** Positions (in list order) of rules whose primary selector can match some object in the pool. */
+    private static BitSet candidateRules(RuleIndex<?> index, List<GameObject> pool) {
+        BitSet out = new BitSet();
+        for (GameObject obj : pool) index.collect(obj, out);
+        return out;
     }
 
     public CommandResult talk(String characterId) {
+        return talk(characterId, symbols.characterHandle(characterId));
+    }
+
+    public CommandResult talk(int characterHandle) {
+        return talk(symbols.characterId(characterHandle), characterHandle);
+    }
+
+    private CommandResult talk(String characterId, int characterHandle) {
+        if (recorder != null) recorder.call(SessionRecorder.TALK, characterId, null);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.TALK, t0, runTalk(characterId, characterHandle));
+        } finally {
+            if (recorder != null) recorder.callEnded();
+        }
+    }
+
+    private CommandResult runTalk(String characterId, int characterHandle) {
         Location loc = game.getLocations().get(state.currentLocationId);
-        if (!loc.getCharacterIds().contains(characterId)) {
-            state.turnsTaken++;
-            return CommandResult.fail("They're not here.");
+        if (!state.world.characterIds(loc).contains(characterId)) {
+            turn();
+            return CommandResult.fail(MessageTemplate.NOT_HERE);
         }
-        GameCharacter ch = game.getCharacters().get(characterId);
-        String msg;
-        if (ch.getPhrases().isEmpty()) msg = "They have nothing to say.";
+        GameCharacter ch = character(characterHandle);
+        CommandResult result;
+        if (ch.getPhrases().isEmpty()) result = CommandResult.ok(MessageTemplate.NOTHING_TO_SAY, null, null);
         else {
             int idx = state.talkIndex % ch.getPhrases().size();
-            msg = ch.getPhrases().get(idx);
-            state.talkIndex++;
+            result = CommandResult.ok(MessageTemplate.TEXT, ch.getPhrases().get(idx), null);
+            apply(StateChange.talk());
         }
-        state.turnsTaken++;
-        state.addLog(msg);
-        return CommandResult.ok(msg);
+        turn();
+        return logged(result);
     }
 
     public CommandResult give(String objectId, String characterId) {
+        return give(objectId, symbols.objectHandle(objectId), characterId, symbols.characterHandle(characterId));
+    }
+
+    public CommandResult give(int objectHandle, int characterHandle) {
+        return give(symbols.objectId(objectHandle), objectHandle,
+                symbols.characterId(characterHandle), characterHandle);
+    }
+
+    private CommandResult give(String objectId, int objectHandle, String characterId, int characterHandle) {
+        if (recorder != null) recorder.call(SessionRecorder.GIVE, objectId, characterId);
+        long t0 = metrics.start();
+        try {
+            return metrics.record(Command.GIVE, t0, runGive(objectId, objectHandle, characterId, characterHandle));
+        } finally {
+            if (recorder != null) recorder.callEnded();
+        }
+    }
+
+    private CommandResult runGive(String objectId, int objectHandle, String characterId, int characterHandle) {
         Location loc = game.getLocations().get(state.currentLocationId);
         if (!state.inventory.contains(objectId)) {
-            state.turnsTaken++;
-            return CommandResult.fail("You don't have that.");
+            turn();
+            return CommandResult.fail(MessageTemplate.DONT_HAVE);
         }
-        if (!loc.getCharacterIds().contains(characterId)) {
-            state.turnsTaken++;
-            return CommandResult.fail("They're not here.");
+        if (!state.world.characterIds(loc).contains(characterId)) {
+            turn();
+            return CommandResult.fail(MessageTemplate.NOT_HERE);
         }
-        GameCharacter ch = game.getCharacters().get(characterId);
-        GameObject obj = game.getObjects().get(objectId);
+        GameObject obj = object(objectHandle);
 
-        for (GiveRule gr : game.getGiveRules()) {
+        List<GiveRule> giveRules = game.getGiveRules();
+        for (int i = 0; i < giveRules.size(); i++) {
+            GiveRule gr = giveRules.get(i);
             if (!gr.characterId.equals(characterId)) continue;
             boolean matches = false;
             if (gr.given.objectId != null) matches = gr.given.objectId.equals(objectId);
-            else if (gr.given.attribute != null) matches = obj.getAttributes().contains(gr.given.attribute);
+            else if (gr.given.attribute != null) matches = obj.hasAttribute(gr.given.attributeHandle);
 
             if (matches) {
-                state.inventory.remove(objectId);
-                for (String add : gr.objectsToUser) state.inventory.add(add);
-                state.turnsTaken++;
-                String msg = gr.resultText + (gr.endsGame ? " [END]" : "");
-                state.addLog(msg);
-                return CommandResult.ok(msg);
+                if (events.wants(GameEvent.Type.RULE_FIRED)) events.publish(new GameEvent.RuleFired(GameEvent.RuleFired.Kind.GIVE, i));
+                removeFromInventory(objectId);
+                for (String add : gr.objectsToUser) addToInventory(add);
+                turn();
+                return logged(CommandResult.ok(gr.endsGame ? MessageTemplate.TEXT_END : MessageTemplate.TEXT, gr.resultText, null));
             }
         }
-        state.turnsTaken++;
-        return CommandResult.fail("They don't need that.");
+        turn();
+        return CommandResult.fail(MessageTemplate.DONT_NEED);
     }
 }
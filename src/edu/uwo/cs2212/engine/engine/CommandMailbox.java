@@ -0,0 +1,83 @@
+package edu.uwo.cs2212.engine.engine;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Single-writer mailbox for one session. Every call into the session's CommandDispatcher (and
+ * anything else that touches its GameState, such as undo) is queued here and run one at a time,
+ * in submission order, so the state is never mutated by two threads at once. Tasks run on a
+ * shared executor rather than a thread per session or per command: a mailbox occupies a
+ * thread only while it has work, and drains at most BATCH tasks before yielding it.
+ */
+public final class CommandMailbox implements AutoCloseable {
+    private static final int BATCH = 64;
+
+    // Virtual threads, because a task may block for a long time (a mini-game waits on its player)
+    private static final ExecutorService SHARED =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mailbox-", 0).factory());
+
+    private final CommandDispatcher dispatcher;
+    private final Executor executor;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final CommandParser parser = new CommandParser(); // only used by tasks
+    private volatile boolean closed;
+
+    public CommandMailbox(CommandDispatcher dispatcher) {
+        this(dispatcher, SHARED);
+    }
+
+    public CommandMailbox(CommandDispatcher dispatcher, Executor executor) {
+        this.dispatcher = dispatcher;
+        this.executor = executor;
+    }
+
+    /** Queues call against the dispatcher; the future completes on the mailbox's thread. */
+    public <T> CompletableFuture<T> submit(Function<CommandDispatcher, T> call) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        if (closed) {
+            f.completeExceptionally(new RejectedExecutionException("Mailbox is closed"));
+            return f;
+        }
+        queue.add(() -> {
+            try {
+                f.complete(call.apply(dispatcher));
+            } catch (Throwable t) {
+                f.completeExceptionally(t);
+            }
+        });
+        schedule();
+        return f;
+    }
+
+    /** Queues a game command line (see CommandParser); it is parsed and run on the mailbox's thread. */
+    public CompletableFuture<CommandResult> execute(String line) {
+        return submit(d -> {
+            Command c = parser.parse(line);
+            if (c == Command.UNKNOWN) return CommandResult.fail(MessageTemplate.UNKNOWN_COMMAND, parser.verb(), null);
+            return d.execute(parser);
+        });
+    }
+
+    /** Rejects further submissions; tasks already queued still run. */
+    @Override
+    public void close() { closed = true; }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) executor.execute(this::drain);
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            for (int n = 0; n < BATCH && (task = queue.poll()) != null; n++) task.run();
+        } finally {
+            scheduled.set(false);
+        }
+        // A task may have arrived after the last poll but before the flag was cleared
+        if (!queue.isEmpty()) schedule();
+    }
+}
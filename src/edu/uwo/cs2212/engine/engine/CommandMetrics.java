@@ -0,0 +1,193 @@
+package edu.uwo.cs2212.engine.engine;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.*;
+
+/**
+ * Command counters and latency histograms. A dispatcher records into the instance given to
+ * CommandDispatcher.setMetrics, and into NONE (which records nothing and reads no clock) until
+ * then. Front ends pass global(), the process-wide instance, so a server reports all its
+ * sessions together; solvers, playtests, replays and benchmarks stay out of it. Recording
+ * touches only LongAdders and a LongAccumulator (striped, lock-free, and allocation-free once
+ * warm), so it stays on in production.
+ * Latencies go into log2 buckets: bucket b holds times in [2^b, 2^(b+1)) ns, which bounds
+ * percentile error to 2x while costing one increment per command.
+ *
+ * Read it through JMX (edu.uwo.cs2212.engine:type=CommandMetrics, see register()) or have
+ * startSnapshots() write a text report to a file periodically.
+ */
+public final class CommandMetrics implements CommandMetricsMXBean {
+    private static final int BUCKETS = 40; // up to 2^40 ns, about 18 minutes
+    private static final CommandMetrics GLOBAL = new CommandMetrics();
+    /** Records nothing. */
+    public static final CommandMetrics NONE = new CommandMetrics(false);
+    private static final String MBEAN_NAME = "edu.uwo.cs2212.engine:type=CommandMetrics";
+
+    private final Stats[] commands = new Stats[Command.values().length];
+    private final Stats miniGames = new Stats();
+    private final LongAdder useRulesScanned = new LongAdder();
+    private final LongAdder miniGameRulesScanned = new LongAdder();
+    private final boolean enabled;
+
+    /** Fresh metrics, e.g. for one tool run; only global() is published over JMX. */
+    public CommandMetrics() { this(true); }
+
+    private CommandMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (Command c : Command.values()) {
+            if (c.compareTo(Command.GIVE) <= 0) commands[c.ordinal()] = new Stats(); // game commands only
+        }
+    }
+
+    public static CommandMetrics global() { return GLOBAL; }
+
+    /** Counters and latency histogram for one kind of operation. */
+    private static final class Stats {
+        final LongAdder count = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        Stats() {
+            for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+        }
+
+        void record(long nanos, boolean success) {
+            if (nanos < 0) nanos = 0;
+            count.increment();
+            if (!success) failures.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets[Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(nanos | 1))].increment();
+        }
+
+        /** Upper bound of the bucket holding the p-th quantile, in nanoseconds. */
+        long quantile(double p) {
+            long[] counts = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) n += counts[i] = buckets[i].sum();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(p * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(maxNanos.get(), (1L << (i + 1)) - 1);
+            }
+            return maxNanos.get();
+        }
+
+        CommandStats snapshot() {
+            long n = count.sum();
+            return new CommandStats(n, failures.sum(), n == 0 ? 0 : totalNanos.sum() / 1e3 / n,
+                    quantile(0.5) / 1e3, quantile(0.99) / 1e3, maxNanos.get() / 1e3);
+        }
+    }
+
+    /** Start time to pass to record or miniGamePlayed; NONE skips the clock. */
+    long start() { return enabled ? System.nanoTime() : 0; }
+
+    CommandResult record(Command command, long startNanos, CommandResult result) {
+        if (enabled) commands[command.ordinal()].record(System.nanoTime() - startNanos, result.success);
+        return result;
+    }
+
+    void miniGamePlayed(long startNanos, boolean won) {
+        if (enabled) miniGames.record(System.nanoTime() - startNanos, won);
+    }
+    void useRuleScanned() { if (enabled) useRulesScanned.increment(); }
+    void miniGameRuleScanned() { if (enabled) miniGameRulesScanned.increment(); }
+
+    @Override
+    public Map<String, CommandStats> getCommands() {
+        Map<String, CommandStats> out = new LinkedHashMap<>();
+        for (Command c : Command.values()) {
+            if (commands[c.ordinal()] != null) out.put(c.name(), commands[c.ordinal()].snapshot());
+        }
+        return out;
+    }
+
+    @Override public CommandStats getMiniGames() { return miniGames.snapshot(); }
+    @Override public long getUseRulesScanned() { return useRulesScanned.sum(); }
+    @Override public long getMiniGameRulesScanned() { return miniGameRulesScanned.sum(); }
+
+    @Override
+    public void reset() {
+        for (Stats s : commands) if (s != null) reset(s);
+        reset(miniGames);
+        useRulesScanned.reset();
+        miniGameRulesScanned.reset();
+    }
+
+    private static void reset(Stats s) {
+        s.count.reset();
+        s.failures.reset();
+        s.totalNanos.reset();
+        s.maxNanos.reset();
+        for (LongAdder b : s.buckets) b.reset();
+    }
+
+    /** Plain-text report of every counter, as written by startSnapshots(). */
+    @Override
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s %10s %8s %10s %10s %10s %12s%n",
+                "command", "count", "failed", "mean_us", "p50_us", "p99_us", "max_us"));
+        for (Map.Entry<String, CommandStats> e : getCommands().entrySet()) row(sb, e.getKey(), e.getValue());
+        row(sb, "minigame", getMiniGames());
+        sb.append("use_rules_scanned ").append(getUseRulesScanned()).append('\n');
+        sb.append("minigame_rules_scanned ").append(getMiniGameRulesScanned()).append('\n');
+        return sb.toString();
+    }
+
+    private static void row(StringBuilder sb, String name, CommandStats s) {
+        sb.append(String.format(Locale.ROOT, "%-12s %10d %8d %10.1f %10.1f %10.1f %12.1f%n", name.toLowerCase(Locale.ROOT),
+                s.getCount(), s.getFailures(), s.getMeanMicros(), s.getP50Micros(), s.getP99Micros(), s.getMaxMicros()));
+    }
+
+    /** Registers the global metrics with the platform MBean server; safe to call more than once. */
+    public static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(GLOBAL, name);
+        } catch (InstanceAlreadyExistsException e) {
+            // registered concurrently
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metrics MBean", e);
+        }
+    }
+
+    /**
+     * Rewrites file with report() every period until the returned handle is closed. Each write
+     * goes to a temporary file first, so readers never see a partial report.
+     */
+    public static Closeable startSnapshots(Path file, long period, TimeUnit unit) {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Runnable write = () -> {
+            try {
+                Files.write(tmp, GLOBAL.report().getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("Metrics snapshot failed: " + e.getMessage());
+            }
+        };
+        timer.scheduleAtFixedRate(write, period, period, unit);
+        return () -> {
+            timer.shutdown();
+            write.run();
+        };
+    }
+}
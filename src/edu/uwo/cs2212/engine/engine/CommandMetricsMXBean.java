@@ -0,0 +1,22 @@
+package edu.uwo.cs2212.engine.engine;
+
+import java.util.Map;
+
+/** JMX view of CommandMetrics. Times are in microseconds. */
+public interface CommandMetricsMXBean {
+    /** Per-command statistics, keyed by Command name. */
+    Map<String, CommandStats> getCommands();
+
+    /** Time from launching a mini-game to its result; failures are games not won. */
+    CommandStats getMiniGames();
+
+    /** Use rules examined by use(), after the rule index has narrowed the candidates. */
+    long getUseRulesScanned();
+
+    /** Mini-game rules examined by use(). */
+    long getMiniGameRulesScanned();
+
+    String report();
+
+    void reset();
+}
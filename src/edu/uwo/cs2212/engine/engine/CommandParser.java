@@ -0,0 +1,158 @@
+package edu.uwo.cs2212.engine.engine;
+
+/**
+ * Turns a line of input into a Command plus up to two operand spans, shared by every front
+ * end. Parsing scans the characters once, without regexes, lowercasing or substrings: the
+ * operands stay as [start, end) offsets into the input until a caller asks for them, and the
+ * dispatcher resolves them straight to symbol handles. An instance is reused for every line
+ * and is not thread-safe.
+ *
+ * Grammar (verbs are case-insensitive, operands are whitespace-separated):
+ *   go <label...>  pickup <id>  drop <id>  inv  ex <id>  talk <charId>  give <objId> <charId>
+ *   use <id|@attr> [with <id|@attr>]  look  undo  redo  quit
+ */
+public final class CommandParser {
+    /** Receives each parsed line of a batch; the parser is only valid during the call. */
+    public interface Handler {
+        void command(CommandParser parsed);
+    }
+
+    private static final String[] VERBS = {
+        "go", "pickup", "drop", "inv", "inventory", "ex", "examine", "use", "talk", "give",
+        "look", "undo", "redo", "quit", "exit"
+    };
+    private static final Command[] VERB_COMMANDS = {
+        Command.GO, Command.PICK_UP, Command.DROP, Command.INVENTORY, Command.INVENTORY,
+        Command.EXAMINE, Command.EXAMINE, Command.USE, Command.TALK, Command.GIVE,
+        Command.LOOK, Command.UNDO, Command.REDO, Command.QUIT, Command.QUIT
+    };
+
+    private CharSequence source;
+    private Command command = Command.NONE;
+    private int verbStart, verbEnd;
+    private int operandCount;
+    private final int[] starts = new int[2];
+    private final int[] ends = new int[2];
+
+    public Command parse(CharSequence line) {
+        return parse(line, 0, line.length());
+    }
+
+    /** Parses line[start, end). */
+    public Command parse(CharSequence line, int start, int end) {
+        source = line;
+        operandCount = 0;
+        int pos = skipSpace(start, end);
+        while (end > pos && Character.isWhitespace(line.charAt(end - 1))) end--;
+        if (pos == end) return command = Command.NONE;
+        verbStart = pos;
+        verbEnd = tokenEnd(pos, end);
+        command = verb(verbStart, verbEnd);
+        pos = skipSpace(verbEnd, end);
+        switch (command) {
+            case GO:
+                // Labels may contain spaces: the operand is the rest of the line
+                if (pos < end) addOperand(pos, end);
+                break;
+            case PICK_UP: case DROP: case EXAMINE: case TALK:
+                operand(pos, end);
+                break;
+            case GIVE:
+                operand(operand(pos, end), end);
+                break;
+            case USE: {
+                pos = operand(pos, end);
+                int with = tokenEnd(pos, end);
+                if (with - pos == 4 && regionEqualsIgnoreCase(pos, "with")) operand(skipSpace(with, end), end);
+                break;
+            }
+            default:
+                break;
+        }
+        return command;
+    }
+
+    /**
+     * Parses every line of text (split on '\n', with any trailing '\r' dropped) and hands each
+     * non-blank one to handler. Returns the number of commands handed over.
+     */
+    public int parseAll(CharSequence text, Handler handler) {
+        int count = 0;
+        int len = text.length();
+        int lineStart = 0;
+        while (lineStart < len) {
+            int lineEnd = lineStart;
+            while (lineEnd < len && text.charAt(lineEnd) != '\n') lineEnd++;
+            if (parse(text, lineStart, lineEnd) != Command.NONE) {
+                handler.command(this);
+                count++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return count;
+    }
+
+    public Command command() { return command; }
+    public CharSequence source() { return source; }
+    public int operandCount() { return operandCount; }
+    public int start(int operand) { return starts[check(operand)]; }
+    public int end(int operand) { return ends[check(operand)]; }
+
+    /** Whether the operand is an @attribute selector. */
+    public boolean isAttribute(int operand) { return source.charAt(start(operand)) == '@'; }
+
+    /** The operand as a String; allocates, so only for paths that need one. */
+    public String operand(int operand) {
+        return source.subSequence(start(operand), end(operand)).toString();
+    }
+
+    /** The verb as typed, e.g. for an unknown-command message. */
+    public String verb() { return source.subSequence(verbStart, verbEnd).toString(); }
+
+    /** Whether the command has every operand it needs to run. */
+    public boolean isComplete() { return operandCount >= command.operands; }
+
+    private Command verb(int start, int end) {
+        for (int i = 0; i < VERBS.length; i++) {
+            if (VERBS[i].length() == end - start && regionEqualsIgnoreCase(start, VERBS[i])) return VERB_COMMANDS[i];
+        }
+        return Command.UNKNOWN;
+    }
+
+    /** Records the token at pos (if any) as the next operand and returns the position after it. */
+    private int operand(int pos, int end) {
+        if (pos >= end) return end;
+        int e = tokenEnd(pos, end);
+        addOperand(pos, e);
+        return skipSpace(e, end);
+    }
+
+    private void addOperand(int start, int end) {
+        if (operandCount == starts.length) return;
+        starts[operandCount] = start;
+        ends[operandCount] = end;
+        operandCount++;
+    }
+
+    private boolean regionEqualsIgnoreCase(int start, String lower) {
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.toLowerCase(source.charAt(start + i)) != lower.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int skipSpace(int pos, int end) {
+        while (pos < end && Character.isWhitespace(source.charAt(pos))) pos++;
+        return pos;
+    }
+
+    private int tokenEnd(int pos, int end) {
+        while (pos < end && !Character.isWhitespace(source.charAt(pos))) pos++;
+        return pos;
+    }
+
+    private int check(int operand) {
+        if (operand < 0 || operand >= operandCount) throw new IndexOutOfBoundsException("No operand " + operand);
+        return operand;
+    }
+}
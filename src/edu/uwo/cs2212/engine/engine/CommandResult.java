@@ -1,15 +1,52 @@
-
 package edu.uwo.cs2212.engine.engine;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/** Outcome of a command. The message is kept as a template plus arguments and rendered on first read. */
 public final class CommandResult {
+    // Argument-free failures are shared instead of allocated per command
+    private static final Map<MessageTemplate, CommandResult> FIXED_FAILURES = new EnumMap<>(MessageTemplate.class);
+    static {
+        for (MessageTemplate t : MessageTemplate.values()) {
+            if (t.pattern().indexOf('{') < 0) FIXED_FAILURES.put(t, new CommandResult(false, t, null, null));
+        }
+    }
+
     public final boolean success;
-    public final String message;
+    private final MessageTemplate template;
+    private final Object arg0;
+    private final Object arg1;
+    private String message; // rendered lazily
 
-    private CommandResult(boolean success, String message) {
+    private CommandResult(boolean success, MessageTemplate template, Object arg0, Object arg1) {
         this.success = success;
-        this.message = message;
+        this.template = template;
+        this.arg0 = arg0;
+        this.arg1 = arg1;
+    }
+
+    public String message() {
+        String m = message;
+        if (m == null) message = m = template.render(arg0, arg1);
+        return m;
+    }
+
+    public MessageTemplate template() { return template; }
+    Object arg0() { return arg0; }
+    Object arg1() { return arg1; }
+
+    public static CommandResult ok(String msg) { return new CommandResult(true, MessageTemplate.TEXT, msg, null); }
+    public static CommandResult fail(String msg) { return new CommandResult(false, MessageTemplate.TEXT, msg, null); }
+
+    public static CommandResult ok(MessageTemplate t, Object arg0, Object arg1) { return new CommandResult(true, t, arg0, arg1); }
+    public static CommandResult fail(MessageTemplate t, Object arg0, Object arg1) { return new CommandResult(false, t, arg0, arg1); }
+
+    public static CommandResult fail(MessageTemplate t) {
+        CommandResult r = FIXED_FAILURES.get(t);
+        return r != null ? r : new CommandResult(false, t, null, null);
     }
 
-    public static CommandResult ok(String msg) { return new CommandResult(true, msg); }
-    public static CommandResult fail(String msg) { return new CommandResult(false, msg); }
+    @Override
+    public String toString() { return (success ? "ok: " : "fail: ") + message(); }
 }
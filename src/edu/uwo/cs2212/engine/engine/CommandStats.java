@@ -0,0 +1,30 @@
+package edu.uwo.cs2212.engine.engine;
+
+import java.beans.ConstructorProperties;
+
+/** Point-in-time statistics for one kind of command. Percentiles are log2-bucket upper bounds. */
+public final class CommandStats {
+    private final long count;
+    private final long failures;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    @ConstructorProperties({"count", "failures", "meanMicros", "p50Micros", "p99Micros", "maxMicros"})
+    public CommandStats(long count, long failures, double meanMicros, double p50Micros, double p99Micros, double maxMicros) {
+        this.count = count;
+        this.failures = failures;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public long getCount() { return count; }
+    public long getFailures() { return failures; }
+    public double getMeanMicros() { return meanMicros; }
+    public double getP50Micros() { return p50Micros; }
+    public double getP99Micros() { return p99Micros; }
+    public double getMaxMicros() { return maxMicros; }
+}
@@ -0,0 +1,94 @@
+package edu.uwo.cs2212.engine.engine;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Typed publish/subscribe for GameEvents. Subscribers are kept per event type in copy-on-write
+ * arrays, so publishing is an array lookup plus the handler calls, with no locking, and
+ * publishers can ask wants() first to skip building events nobody listens to. Handlers run
+ * synchronously on the publishing thread (a session's mailbox, for the GUI); a handler that
+ * throws is reported to the bus's FailureHandler and does not stop the command or the other
+ * handlers.
+ */
+public final class EventBus {
+    /** Told when a handler throws; runs on the publishing thread. */
+    public interface FailureHandler {
+        void failed(GameEvent event, RuntimeException e);
+    }
+
+    /** The default: the event type and the stack trace, on System.err. */
+    public static final FailureHandler PRINT = (event, e) -> {
+        System.err.println("Handler for " + event.type() + " failed:");
+        e.printStackTrace();
+    };
+
+    private static final Map<Class<? extends GameEvent>, GameEvent.Type> TYPES = Map.of(
+            GameEvent.ItemAcquired.class, GameEvent.Type.ITEM_ACQUIRED,
+            GameEvent.LocationEntered.class, GameEvent.Type.LOCATION_ENTERED,
+            GameEvent.MiniGameWon.class, GameEvent.Type.MINIGAME_WON,
+            GameEvent.MiniGameLost.class, GameEvent.Type.MINIGAME_LOST,
+            GameEvent.ConnectionUnlocked.class, GameEvent.Type.CONNECTION_UNLOCKED,
+            GameEvent.RuleFired.class, GameEvent.Type.RULE_FIRED);
+
+    private static final Consumer<?>[] NONE = new Consumer<?>[0];
+
+    // Indexed by GameEvent.Type ordinal; replaced wholesale on (un)subscribe
+    private volatile Consumer<?>[][] handlers;
+    private volatile FailureHandler onFailure = PRINT;
+
+    public EventBus() {
+        Consumer<?>[][] h = new Consumer<?>[GameEvent.Type.values().length][];
+        Arrays.fill(h, NONE);
+        handlers = h;
+    }
+
+    public synchronized <E extends GameEvent> void subscribe(Class<E> type, Consumer<? super E> handler) {
+        int t = typeOf(type).ordinal();
+        Consumer<?>[][] h = handlers.clone();
+        Consumer<?>[] list = Arrays.copyOf(h[t], h[t].length + 1);
+        list[list.length - 1] = handler;
+        h[t] = list;
+        handlers = h;
+    }
+
+    public synchronized <E extends GameEvent> void unsubscribe(Class<E> type, Consumer<? super E> handler) {
+        int t = typeOf(type).ordinal();
+        Consumer<?>[][] h = handlers.clone();
+        Consumer<?>[] list = h[t];
+        for (int i = 0; i < list.length; i++) {
+            if (list[i] == handler) {
+                Consumer<?>[] shorter = new Consumer<?>[list.length - 1];
+                System.arraycopy(list, 0, shorter, 0, i);
+                System.arraycopy(list, i + 1, shorter, i, list.length - i - 1);
+                h[t] = shorter;
+                handlers = h;
+                return;
+            }
+        }
+    }
+
+    public void setFailureHandler(FailureHandler onFailure) { this.onFailure = Objects.requireNonNull(onFailure); }
+
+    /** Whether anyone listens for events of this type. */
+    public boolean wants(GameEvent.Type type) { return handlers[type.ordinal()].length > 0; }
+
+    @SuppressWarnings("unchecked")
+    public void publish(GameEvent event) {
+        for (Consumer<?> c : handlers[event.type().ordinal()]) {
+            try {
+                ((Consumer<GameEvent>) c).accept(event);
+            } catch (RuntimeException e) {
+                onFailure.failed(event, e);
+            }
+        }
+    }
+
+    private static GameEvent.Type typeOf(Class<? extends GameEvent> type) {
+        GameEvent.Type t = TYPES.get(type);
+        if (t == null) throw new IllegalArgumentException("Not a concrete event type: " + type.getName());
+        return t;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.uwo.cs2212.engine.engine;
+
+/**
+ * Something that happened in the game, published on the dispatcher's EventBus while a command
+ * runs. Unlike StateChanges, events describe progress rather than raw state: undo does not
+ * publish them, and one command may publish several.
+ */
+public abstract class GameEvent {
+    public enum Type { ITEM_ACQUIRED, LOCATION_ENTERED, MINIGAME_WON, MINIGAME_LOST, CONNECTION_UNLOCKED, RULE_FIRED }
+
+    private GameEvent(){}
+
+    public abstract Type type();
+
+    /** An object was added to the inventory (picked up, given, produced or won). */
+    public static final class ItemAcquired extends GameEvent {
+        public final String objectId;
+
+        ItemAcquired(String objectId) { this.objectId = objectId; }
+
+        @Override public Type type() { return Type.ITEM_ACQUIRED; }
+    }
+
+    /** The player moved into a location. */
+    public static final class LocationEntered extends GameEvent {
+        public final String locationId;
+        public final String fromLocationId;
+
+        LocationEntered(String locationId, String fromLocationId) {
+            this.locationId = locationId;
+            this.fromLocationId = fromLocationId;
+        }
+
+        @Override public Type type() { return Type.LOCATION_ENTERED; }
+    }
+
+    /** A mini-game launched by a MiniGameRule was won. */
+    public static final class MiniGameWon extends GameEvent {
+        public final String miniGameId;
+
+        MiniGameWon(String miniGameId) { this.miniGameId = miniGameId; }
+
+        @Override public Type type() { return Type.MINIGAME_WON; }
+    }
+
+    /** A mini-game launched by a MiniGameRule was lost. */
+    public static final class MiniGameLost extends GameEvent {
+        public final String miniGameId;
+
+        MiniGameLost(String miniGameId) { this.miniGameId = miniGameId; }
+
+        @Override public Type type() { return Type.MINIGAME_LOST; }
+    }
+
+    /** A new exit was opened from a location. */
+    public static final class ConnectionUnlocked extends GameEvent {
+        public final String locationId;
+        public final String label;
+        public final String targetLocationId;
+
+        ConnectionUnlocked(String locationId, String label, String targetLocationId) {
+            this.locationId = locationId;
+            this.label = label;
+            this.targetLocationId = targetLocationId;
+        }
+
+        @Override public Type type() { return Type.CONNECTION_UNLOCKED; }
+    }
+
+    /** A rule matched: a use or give rule applied, or a mini-game rule launched its game. */
+    public static final class RuleFired extends GameEvent {
+        public enum Kind { USE, GIVE, MINIGAME }
+
+        public final Kind kind;
+        public final int index; // position in the Game's list of rules of that kind
+
+        RuleFired(Kind kind, int index) {
+            this.kind = kind;
+            this.index = index;
+        }
+
+        @Override public Type type() { return Type.RULE_FIRED; }
+    }
+}
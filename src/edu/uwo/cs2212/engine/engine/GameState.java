@@ -1,18 +1,66 @@
-
 package edu.uwo.cs2212.engine.engine;
 
+import edu.uwo.cs2212.engine.model.*;
+
 import java.util.*;
 
-/** Mutable runtime state (separate from immutable Game definition). */
+/** Mutable runtime state (separate from immutable Game definition). CommandDispatcher changes it only via StateChange. */
 public final class GameState {
     public String currentLocationId;
     public final Set<String> inventory = new LinkedHashSet<>();
     public int turnsTaken = 0;
     public int talkIndex = 0; // simple global cycle; in a full impl use per-character pointer
-    public final Deque<String> log = new ArrayDeque<>();
+    public final MessageLog log = new MessageLog(200); // keeps the last 200 lines
+    public final WorldOverlay world = new WorldOverlay(); // this session's location changes
 
     public void addLog(String line) {
-        log.addLast(line);
-        if (log.size() > 200) log.removeFirst();
+        log.add(line);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of everything a command can change: position, counters, inventory and
+     * the contents of every location that differs from its definition, in SymbolTable order.
+     * Locations that match their definition add nothing, whether or not the overlay holds a copy,
+     * so the hash never looks up an unchanged location and a budgeted world is not decoded whole.
+     * The message log is not included.
+     */
+    public long hash(Game game) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, currentLocationId);
+        h = mix(h, turnsTaken);
+        h = mix(h, talkIndex);
+        h = mix(h, inventory.size());
+        for (String id : inventory) h = mix(h, id);
+        SymbolTable sym = game.getSymbols();
+        int[] changed = new int[world.changedLocationIds().size()];
+        int n = 0;
+        for (String id : world.changedLocationIds()) changed[n++] = sym.locationHandle(id);
+        Arrays.sort(changed);
+        for (int handle : changed) {
+            Location loc = sym.location(handle);
+            if (!world.differs(loc)) continue;
+            h = mix(h, loc.getId());
+            Set<String> objects = world.objectIds(loc);
+            h = mix(h, objects.size());
+            for (String id : objects) h = mix(h, id);
+            Set<String> characters = world.characterIds(loc);
+            h = mix(h, characters.size());
+            for (String id : characters) h = mix(h, id);
+            List<Connection> conns = world.connections(loc);
+            h = mix(h, conns.size());
+            for (Connection c : conns) h = mix(mix(h, c.getLabel()), c.getTargetLocationId());
+        }
+        return h;
+    }
+
+    private static long mix(long h, String s) {
+        if (s == null) return mix(h, -1);
+        for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        return mix(h, s.length());
+    }
+
+    private static long mix(long h, int v) {
+        for (int i = 0; i < 4; i++, v >>>= 8) h = (h ^ (v & 0xff)) * 0x100000001b3L;
+        return h;
     }
 }
@@ -0,0 +1,213 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.model.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Append-only on-disk journal of one session's StateChanges, with periodic snapshots.
+ * Register it with CommandDispatcher.addChangeListener. A session directory holds:
+ *   snapshot.bin       the latest full state, tagged with the segment that follows it
+ *   journal-N.log      the changes made since snapshot N
+ * Every snapshot starts a new segment and deletes the previous one. Restoring therefore
+ * reads one snapshot and replays at most one interval of changes, however long the game ran.
+ */
+public final class Journal implements StateChange.Listener, Closeable {
+    private static final int MAGIC = 0x49514a32; // "IQJ2"
+    private static final String SNAPSHOT = "snapshot.bin";
+
+    private final Path dir;
+    private Game game;
+    private final int snapshotInterval;
+    private long segment;
+    private DataOutputStream out;
+    private int sinceSnapshot;
+
+    private Journal(Path dir, Game game, int snapshotInterval) {
+        this.dir = dir;
+        this.game = game;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Starts journaling state into dir, beginning with a snapshot of its current contents.
+     * snapshotInterval is the number of changes between snapshots.
+     */
+    public static Journal start(Path dir, Game game, GameState state, int snapshotInterval) throws IOException {
+        if (snapshotInterval <= 0) throw new IllegalArgumentException("snapshotInterval must be positive");
+        Files.createDirectories(dir);
+        Journal j = new Journal(dir, game, snapshotInterval);
+        j.segment = exists(dir) ? readSegment(dir) : 0;
+        j.snapshot(state);
+        return j;
+    }
+
+    /** Whether dir holds a journaled session that restore can rebuild. */
+    public static boolean exists(Path dir) {
+        return Files.exists(dir.resolve(SNAPSHOT));
+    }
+
+    /** Rebuilds a session from the latest snapshot in dir plus the journal tail after it. */
+    public static GameState restore(Path dir, Game game) throws IOException {
+        GameState state = new GameState();
+        long seg;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(dir.resolve(SNAPSHOT))))) {
+            seg = readHeader(in);
+            readState(in, game, state);
+        }
+        Path log = segmentPath(dir, seg);
+        if (!Files.exists(log)) return state; // crashed between snapshot and first write
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+            while (true) {
+                StateChange c;
+                try {
+                    c = readChange(in);
+                } catch (EOFException e) {
+                    break; // end of journal, or a torn final record
+                }
+                c.applyTo(game, state);
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public void onChange(StateChange change, GameState state) {
+        try {
+            writeChange(out, change);
+            sinceSnapshot++;
+            // Commands and undo/redo steps end with a turn change: flush there, and only snapshot between them
+            if (change.kind == StateChange.Kind.TURN || change.kind == StateChange.Kind.TURN_UNDO) {
+                if (sinceSnapshot >= snapshotInterval) snapshot(state);
+                else out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal write failed", e);
+        }
+    }
+
+    /** Snapshots the session on the reloaded world, so a restore against that world never replays older changes. */
+    @Override
+    public void reloaded(Game game, GameState state) {
+        this.game = game;
+        try {
+            snapshot(state);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal write failed", e);
+        }
+    }
+
+    /** Writes a full snapshot of state and starts a fresh journal segment after it. */
+    public void snapshot(GameState state) throws IOException {
+        if (out != null) out.close();
+        long next = segment + 1;
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        try (DataOutputStream snap = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            snap.writeInt(MAGIC);
+            snap.writeLong(next);
+            writeState(snap, game, state);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segmentPath(dir, next))));
+        Files.deleteIfExists(segmentPath(dir, segment));
+        segment = next;
+        sinceSnapshot = 0;
+    }
+
+    public void flush() throws IOException { out.flush(); }
+
+    @Override
+    public void close() throws IOException { out.close(); }
+
+    private static Path segmentPath(Path dir, long segment) { return dir.resolve("journal-" + segment + ".log"); }
+
+    private static long readSegment(Path dir) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(dir.resolve(SNAPSHOT)))) {
+            return readHeader(in);
+        }
+    }
+
+    private static long readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a journal snapshot");
+        return in.readLong();
+    }
+
+    private static void writeChange(DataOutput out, StateChange c) throws IOException {
+        out.writeByte(c.kind.ordinal());
+        writeNullable(out, c.locationId);
+        writeNullable(out, c.id);
+        writeNullable(out, c.label);
+        if (c.kind.positioned()) out.writeInt(c.position);
+    }
+
+    private static StateChange readChange(DataInput in) throws IOException {
+        int kind = in.readUnsignedByte();
+        StateChange.Kind[] kinds = StateChange.Kind.values();
+        if (kind >= kinds.length) throw new IOException("Corrupt journal record: kind " + kind);
+        StateChange.Kind k = kinds[kind];
+        String locationId = readNullable(in), id = readNullable(in), label = readNullable(in);
+        return StateChange.of(k, locationId, id, label, k.positioned() ? in.readInt() : -1);
+    }
+
+    private static void writeState(DataOutput out, Game game, GameState state) throws IOException {
+        out.writeUTF(state.currentLocationId);
+        out.writeInt(state.turnsTaken);
+        out.writeInt(state.talkIndex);
+        writeIds(out, state.inventory);
+        Set<String> changed = state.world.changedLocationIds();
+        out.writeInt(changed.size());
+        for (String locId : changed) {
+            Location loc = game.getLocations().get(locId);
+            out.writeUTF(locId);
+            writeIds(out, state.world.objectIds(loc));
+            writeIds(out, state.world.characterIds(loc));
+            List<Connection> conns = state.world.connections(loc);
+            out.writeInt(conns.size());
+            for (Connection c : conns) {
+                out.writeUTF(c.getLabel());
+                out.writeUTF(c.getTargetLocationId());
+            }
+        }
+    }
+
+    private static void readState(DataInput in, Game game, GameState state) throws IOException {
+        state.currentLocationId = in.readUTF();
+        state.turnsTaken = in.readInt();
+        state.talkIndex = in.readInt();
+        state.inventory.addAll(readIds(in));
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            Location loc = game.getLocations().get(in.readUTF());
+            if (loc == null) throw new IOException("Snapshot refers to a location missing from this world");
+            List<String> objects = readIds(in);
+            List<String> characters = readIds(in);
+            int conns = in.readInt();
+            List<Connection> connections = new ArrayList<>(conns);
+            for (int k = 0; k < conns; k++) connections.add(new Connection(in.readUTF(), in.readUTF()));
+            state.world.restore(loc, objects, characters, connections);
+        }
+    }
+
+    private static void writeIds(DataOutput out, Collection<String> ids) throws IOException {
+        out.writeInt(ids.size());
+        for (String id : ids) out.writeUTF(id);
+    }
+
+    private static List<String> readIds(DataInput in) throws IOException {
+        int n = in.readInt();
+        List<String> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) ids.add(in.readUTF());
+        return ids;
+    }
+
+    private static void writeNullable(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
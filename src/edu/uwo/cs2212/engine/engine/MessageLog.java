@@ -0,0 +1,71 @@
+package edu.uwo.cs2212.engine.engine;
+
+import java.util.*;
+
+/**
+ * Fixed-capacity ring buffer of (template, args) messages. Adding overwrites the oldest entry
+ * and allocates nothing; text is only rendered by get() or iteration.
+ */
+public final class MessageLog implements Iterable<String> {
+    private final MessageTemplate[] templates;
+    private final Object[] arg0;
+    private final Object[] arg1;
+    private int head; // index of oldest entry
+    private int size;
+
+    public MessageLog(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.templates = new MessageTemplate[capacity];
+        this.arg0 = new Object[capacity];
+        this.arg1 = new Object[capacity];
+    }
+
+    public void add(MessageTemplate template, Object a0, Object a1) {
+        int slot = (head + size) % templates.length;
+        templates[slot] = template;
+        arg0[slot] = a0;
+        arg1[slot] = a1;
+        if (size < templates.length) size++;
+        else head = (head + 1) % templates.length;
+    }
+
+    public void add(String line) { add(MessageTemplate.TEXT, line, null); }
+
+    public void add(CommandResult result) { add(result.template(), result.arg0(), result.arg1()); }
+
+    public int size() { return size; }
+    public int capacity() { return templates.length; }
+    public boolean isEmpty() { return size == 0; }
+
+    /** Renders entry i, where 0 is the oldest retained message. */
+    public String get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        int slot = (head + i) % templates.length;
+        return templates[slot].render(arg0[slot], arg1[slot]);
+    }
+
+    public MessageTemplate templateAt(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return templates[(head + i) % templates.length];
+    }
+
+    public void clear() {
+        Arrays.fill(templates, null);
+        Arrays.fill(arg0, null);
+        Arrays.fill(arg1, null);
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int i = 0;
+            @Override public boolean hasNext() { return i < size; }
+            @Override public String next() {
+                if (i >= size) throw new NoSuchElementException();
+                return get(i++);
+            }
+        };
+    }
+}
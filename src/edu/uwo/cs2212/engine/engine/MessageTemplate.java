@@ -0,0 +1,65 @@
+package edu.uwo.cs2212.engine.engine;
+
+/**
+ * Every message the engine produces, as a pattern with up to two {n} slots. Messages are
+ * carried as (template, args) and only rendered to a String when someone reads them.
+ * An Object[] argument renders as a comma-separated list.
+ */
+public enum MessageTemplate {
+    TEXT("{0}"),
+    TEXT_END("{0} [END]"),
+    ARRIVE("You arrive at {0}: {1}"),
+    ARRIVE_END("You arrive at {0}: {1} [END]"),
+    CANNOT_GO("You cannot go via '{0}'."),
+    NOT_SEEN("You don't see that here."),
+    CANNOT_PICK_UP("You cannot pick that up."),
+    PICKED_UP("Picked up {0}."),
+    NOT_IN_INVENTORY("It's not in your inventory."),
+    DROPPED("Dropped {0}."),
+    INVENTORY("Inventory: {0}"),
+    INVENTORY_EMPTY("Inventory: (empty)"),
+    NOT_HAVE_OR_SEE("You don't have or see that."),
+    NOT_SEE_THEM("You don't see them here."),
+    NOT_HERE("They're not here."),
+    NOTHING_TO_SAY("They have nothing to say."),
+    NOTHING_HAPPENS("Nothing happens."),
+    MINIGAME_NOT_FOUND("Mini-game not found: {0}"),
+    MINIGAME_ERROR("Mini-game error: {0}"),
+    DONT_HAVE("You don't have that."),
+    DONT_NEED("They don't need that."),
+    USAGE("Usage: {0}"),
+    UNKNOWN_COMMAND("Unknown command: {0}");
+
+    private final String pattern;
+
+    MessageTemplate(String pattern) { this.pattern = pattern; }
+
+    public String pattern() { return pattern; }
+
+    public String render(Object arg0, Object arg1) {
+        if (pattern.indexOf('{') < 0) return pattern;
+        StringBuilder sb = new StringBuilder(pattern.length() + 32);
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{' && i + 2 < pattern.length() && pattern.charAt(i + 2) == '}') {
+                append(sb, pattern.charAt(i + 1) == '0' ? arg0 : arg1);
+                i += 2;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, Object arg) {
+        if (arg instanceof Object[]) {
+            Object[] items = (Object[]) arg;
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(items[i]);
+            }
+        } else {
+            sb.append(arg);
+        }
+    }
+}
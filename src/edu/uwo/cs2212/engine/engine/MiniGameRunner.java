@@ -0,0 +1,22 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.minigame.*;
+import edu.uwo.cs2212.engine.model.Game;
+
+/**
+ * Plays the mini-game a MiniGameRule launches. The default looks the game up in
+ * MiniGameRegistry; recording and replay substitute runners that capture or feed back outcomes.
+ */
+public interface MiniGameRunner {
+    /**
+     * Plays miniGameId; returns null if there is no such mini-game. Throws
+     * UnsupportedOperationException, with a message for the player, if mini-games cannot be
+     * played here at all; the command then fails without playing or consuming anything.
+     */
+    MiniGameResult play(String miniGameId, Game game, GameState state) throws Exception;
+
+    MiniGameRunner REGISTRY = (id, game, state) -> {
+        MiniGame mg = MiniGameRegistry.get(id);
+        return mg == null ? null : mg.play(game, state);
+    };
+}
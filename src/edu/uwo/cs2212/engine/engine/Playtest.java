@@ -0,0 +1,327 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.minigame.MiniGameResult;
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo playtesting: many headless agents play independent sessions of one Game in
+ * parallel, and the harness reports how long finishing takes, which commands fail and why,
+ * and which rules no agent ever fired. Agents choose among the commands the current location
+ * and inventory offer; mini-games are decided by a seeded coin, so a run is reproducible up to
+ * scheduling. Each agent counts into plain local arrays and adds them to the shared LongAdders
+ * once, when its session ends, so agents never contend and the run scales with cores.
+ *
+ * Agents:
+ *   RANDOM     picks any plausible command uniformly: an exit, picking up or examining
+ *              something here, dropping or giving something carried, talking, or using one
+ *              visible thing on another.
+ *   HEURISTIC  prefers uses and gives some rule could accept that it has not tried in this
+ *              state, then picking up things rules mention, then exits to places it has not
+ *              been; one move in ten is random.
+ */
+public final class Playtest {
+    public enum Agent { RANDOM, HEURISTIC }
+
+    /** Run settings. */
+    public static final class Options {
+        public int agents = 1000;
+        public int maxTurns = 500;
+        public Agent agent = Agent.HEURISTIC;
+        public double miniGameWinRate = 0.5;
+        public long seed = 1;
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+    private static final MessageTemplate[] TEMPLATES = MessageTemplate.values();
+
+    private final Game game;
+    private final Options options;
+    private final BitSet relevant; // objects some rule can select
+
+    // Shared totals, each added to once per agent
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder finishedTurns = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAccumulator maxFinishTurns = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray finishHistogram; // finishes by turn count
+    private final LongAdder[] failures = new LongAdder[COMMANDS.length * TEMPLATES.length];
+    private final LongAdder[] useFired, giveFired, miniGameFired;
+
+    private Playtest(Game game, Options options) {
+        this.game = game;
+        this.options = options;
+        this.finishHistogram = new AtomicLongArray(options.maxTurns + 1);
+        Arrays.setAll(failures, i -> new LongAdder());
+        useFired = adders(game.getUseRules().size());
+        giveFired = adders(game.getGiveRules().size());
+        miniGameFired = adders(game.getMiniGameRules().size());
+        relevant = RuleMoves.relevantObjects(game);
+    }
+
+    public static Report run(Game game, Options options) { return run(game, options, ForkJoinPool.commonPool()); }
+
+    /** Plays options.agents sessions on pool and aggregates them. */
+    public static Report run(Game game, Options options, ForkJoinPool pool) {
+        Playtest p = new Playtest(game, options);
+        long t0 = System.nanoTime();
+        pool.submit(() -> IntStream.range(0, options.agents).parallel().forEach(p::play)).join();
+        return p.report(System.nanoTime() - t0, pool.getParallelism());
+    }
+
+    /** One agent's session; all counting is local until the end. */
+    private void play(int agent) {
+        SplittableRandom rnd = new SplittableRandom(options.seed * 0x9E3779B97F4A7C15L + agent);
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        d.setMiniGameRunner((id, g, s) -> rnd.nextDouble() < options.miniGameWinRate
+                ? MiniGameResult.ok("", List.of()) : MiniGameResult.fail(""));
+        int[] failed = new int[failures.length];
+        BitSet uses = new BitSet(), gives = new BitSet(), miniGames = new BitSet();
+        d.events().subscribe(GameEvent.RuleFired.class, e -> {
+            switch (e.kind) {
+                case USE: uses.set(e.index); break;
+                case GIVE: gives.set(e.index); break;
+                default: miniGames.set(e.index);
+            }
+        });
+
+        Set<String> visited = new HashSet<>();
+        Set<String> tried = new HashSet<>(); // uses and gives tried since the state last changed
+        int turns = 0;
+        boolean done = game.getEndLocationIds().contains(state.currentLocationId);
+        while (!done && turns < options.maxTurns) {
+            visited.add(state.currentLocationId);
+            Move m = options.agent == Agent.RANDOM || rnd.nextInt(10) == 0
+                    ? randomMove(state, rnd) : heuristicMove(state, rnd, visited, tried);
+            CommandResult r = m.run(d);
+            turns++;
+            if (r.success) {
+                if (m.command == Command.USE || m.command == Command.GIVE || m.command == Command.PICK_UP) tried.clear();
+            } else {
+                failed[m.command.ordinal() * TEMPLATES.length + r.template().ordinal()]++;
+            }
+            done = r.template() == MessageTemplate.TEXT_END || game.getEndLocationIds().contains(state.currentLocationId);
+        }
+
+        commands.add(turns);
+        if (done) {
+            finished.increment();
+            finishedTurns.add(turns);
+            maxFinishTurns.accumulate(turns);
+            finishHistogram.incrementAndGet(turns);
+        }
+        for (int i = 0; i < failed.length; i++) if (failed[i] != 0) failures[i].add(failed[i]);
+        for (int i = uses.nextSetBit(0); i >= 0; i = uses.nextSetBit(i + 1)) useFired[i].increment();
+        for (int i = gives.nextSetBit(0); i >= 0; i = gives.nextSetBit(i + 1)) giveFired[i].increment();
+        for (int i = miniGames.nextSetBit(0); i >= 0; i = miniGames.nextSetBit(i + 1)) miniGameFired[i].increment();
+    }
+
+    /** A command with its operands, ready to run. */
+    private static final class Move {
+        final Command command;
+        final String a, b;
+
+        Move(Command command, String a, String b) {
+            this.command = command;
+            this.a = a;
+            this.b = b;
+        }
+
+        CommandResult run(CommandDispatcher d) {
+            switch (command) {
+                case GO: return d.go(a);
+                case PICK_UP: return d.pickUp(a);
+                case DROP: return d.drop(a);
+                case EXAMINE: return d.examineObject(a);
+                case TALK: return d.talk(a);
+                case GIVE: return d.give(a, b);
+                case USE: return d.use(a, b);
+                default: return d.inventory();
+            }
+        }
+
+        String key() { return command + " " + a + " " + b; }
+    }
+
+    private Move randomMove(GameState state, SplittableRandom rnd) {
+        Location loc = game.getLocations().get(state.currentLocationId);
+        List<Connection> exits = state.world.connections(loc);
+        List<String> here = new ArrayList<>(state.world.objectIds(loc));
+        List<String> carried = new ArrayList<>(state.inventory);
+        List<String> characters = new ArrayList<>(state.world.characterIds(loc));
+        List<String> visible = new ArrayList<>(here);
+        visible.addAll(carried);
+        for (int attempt = 0; attempt < 8; attempt++) {
+            switch (rnd.nextInt(7)) {
+                case 0: if (!exits.isEmpty()) return new Move(Command.GO, pick(rnd, exits).getLabel(), null); break;
+                case 1: if (!here.isEmpty()) return new Move(Command.PICK_UP, pick(rnd, here), null); break;
+                case 2: if (!carried.isEmpty()) return new Move(Command.DROP, pick(rnd, carried), null); break;
+                case 3: if (!visible.isEmpty()) return new Move(Command.EXAMINE, pick(rnd, visible), null); break;
+                case 4: if (!characters.isEmpty()) return new Move(Command.TALK, pick(rnd, characters), null); break;
+                case 5:
+                    if (!carried.isEmpty() && !characters.isEmpty()) {
+                        return new Move(Command.GIVE, pick(rnd, carried), pick(rnd, characters));
+                    }
+                    break;
+                default:
+                    if (!visible.isEmpty()) {
+                        List<String> targets = new ArrayList<>(visible);
+                        targets.addAll(characters);
+                        int w = rnd.nextInt(targets.size() + 1);
+                        return new Move(Command.USE, pick(rnd, visible), w == targets.size() ? null : targets.get(w));
+                    }
+            }
+        }
+        return new Move(Command.INVENTORY, null, null);
+    }
+
+    private Move heuristicMove(GameState state, SplittableRandom rnd, Set<String> visited, Set<String> tried) {
+        Location loc = game.getLocations().get(state.currentLocationId);
+        List<String> here = new ArrayList<>(state.world.objectIds(loc));
+        List<String> visible = new ArrayList<>(here);
+        visible.addAll(state.inventory);
+        List<String> characters = new ArrayList<>(state.world.characterIds(loc));
+
+        // Rule-driven moves not yet tried in this state
+        List<Move> ruleMoves = new ArrayList<>();
+        RuleMoves.uses(game, visible, characters, (p, w) -> ruleMoves.add(new Move(Command.USE, p, w)));
+        for (GiveRule r : game.getGiveRules()) {
+            if (!characters.contains(r.characterId)) continue;
+            for (String id : state.inventory) {
+                if (RuleMoves.accepts(game, r.given, id)) ruleMoves.add(new Move(Command.GIVE, id, r.characterId));
+            }
+        }
+        ruleMoves.removeIf(m -> tried.contains(m.key()));
+        if (!ruleMoves.isEmpty()) {
+            Move m = pick(rnd, ruleMoves);
+            tried.add(m.key());
+            return m;
+        }
+
+        for (String id : here) {
+            GameObject o = game.getObjects().get(id);
+            if (o == null) continue;
+            if (o.canPickUp() && relevant.get(game.getSymbols().objectHandle(id))) return new Move(Command.PICK_UP, id, null);
+            if (!o.getContainedObjectIds().isEmpty() && !here.containsAll(o.getContainedObjectIds())) {
+                return new Move(Command.EXAMINE, id, null);
+            }
+        }
+
+        List<Connection> exits = state.world.connections(loc);
+        if (exits.isEmpty()) return randomMove(state, rnd);
+        List<Connection> fresh = new ArrayList<>();
+        for (Connection c : exits) if (!visited.contains(c.getTargetLocationId())) fresh.add(c);
+        return new Move(Command.GO, pick(rnd, fresh.isEmpty() ? exits : fresh).getLabel(), null);
+    }
+
+    /** Aggregated results of a run. */
+    public static final class Report {
+        public final int agents;
+        public final long finished;
+        public final double meanTurnsToFinish;
+        public final int p50TurnsToFinish, p90TurnsToFinish, maxTurnsToFinish;
+        public final long commands;
+        public final double commandsPerSecond;
+        public final int threads;
+        public final List<String> topFailures;    // "COMMAND TEMPLATE count", most frequent first
+        public final List<String> unfiredRules;   // "use #i", "give #i", "minigame #i"
+
+        Report(int agents, long finished, double meanTurnsToFinish, int p50, int p90, int max, long commands,
+               double commandsPerSecond, int threads, List<String> topFailures, List<String> unfiredRules) {
+            this.agents = agents;
+            this.finished = finished;
+            this.meanTurnsToFinish = meanTurnsToFinish;
+            this.p50TurnsToFinish = p50;
+            this.p90TurnsToFinish = p90;
+            this.maxTurnsToFinish = max;
+            this.commands = commands;
+            this.commandsPerSecond = commandsPerSecond;
+            this.threads = threads;
+            this.topFailures = topFailures;
+            this.unfiredRules = unfiredRules;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d agents, %d finished (%.1f%%); turns to finish: mean %.1f, p50 %d, p90 %d, max %d%n",
+                    agents, finished, 100.0 * finished / agents, meanTurnsToFinish, p50TurnsToFinish, p90TurnsToFinish, maxTurnsToFinish));
+            sb.append(String.format("%d commands on %d threads, %.0f commands/s%n", commands, threads, commandsPerSecond));
+            sb.append("Most frequent failures:\n");
+            for (String f : topFailures) sb.append("  ").append(f).append('\n');
+            sb.append(unfiredRules.size()).append(" rules never fired");
+            if (!unfiredRules.isEmpty()) sb.append(": ").append(unfiredRules.subList(0, Math.min(20, unfiredRules.size())));
+            return sb.append('\n').toString();
+        }
+    }
+
+    private Report report(long nanos, int threads) {
+        long done = finished.sum();
+        int p50 = 0, p90 = 0;
+        boolean p50Found = false, p90Found = false; // a percentile may be 0 turns
+        long seen = 0;
+        for (int t = 0; t < finishHistogram.length() && done > 0; t++) {
+            seen += finishHistogram.get(t);
+            if (!p50Found && seen * 2 >= done) {
+                p50 = t;
+                p50Found = true;
+            }
+            if (!p90Found && seen * 10 >= done * 9) {
+                p90 = t;
+                p90Found = true;
+            }
+        }
+        Integer[] order = new Integer[failures.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> Long.compare(failures[y].sum(), failures[x].sum()));
+        List<String> top = new ArrayList<>();
+        for (int k = 0; k < Math.min(10, order.length) && failures[order[k]].sum() > 0; k++) {
+            int i = order[k];
+            top.add(COMMANDS[i / TEMPLATES.length] + " " + TEMPLATES[i % TEMPLATES.length] + " " + failures[i].sum());
+        }
+        List<String> unfired = new ArrayList<>();
+        unfired(unfired, "use", useFired);
+        unfired(unfired, "give", giveFired);
+        unfired(unfired, "minigame", miniGameFired);
+        long total = commands.sum();
+        return new Report(options.agents, done, done == 0 ? 0 : (double) finishedTurns.sum() / done, p50, p90,
+                (int) maxFinishTurns.get(), total, total * 1e9 / nanos, threads, top, unfired);
+    }
+
+    private static void unfired(List<String> out, String kind, LongAdder[] fired) {
+        for (int i = 0; i < fired.length; i++) if (fired[i].sum() == 0) out.add(kind + " #" + i);
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] a = new LongAdder[n];
+        Arrays.setAll(a, i -> new LongAdder());
+        return a;
+    }
+
+    private static <T> T pick(SplittableRandom rnd, List<T> list) { return list.get(rnd.nextInt(list.size())); }
+
+    /**
+     * Usage: Playtest [agents=1000] [random|heuristic] [threads] [locations]; plays the sample
+     * world, or a generated one of the given size.
+     */
+    public static void main(String[] args) {
+        Options o = new Options();
+        if (args.length > 0) o.agents = Integer.parseInt(args[0]);
+        if (args.length > 1) o.agent = Agent.valueOf(args[1].toUpperCase(Locale.ROOT));
+        ForkJoinPool pool = args.length > 2 ? new ForkJoinPool(Integer.parseInt(args[2])) : ForkJoinPool.commonPool();
+        Game game = args.length > 3 ? WorldGenerator.generate(WorldGenerator.Spec.ofSize(Integer.parseInt(args[3])))
+                : GameLoader.sampleGame();
+        System.out.print(run(game, o, pool));
+    }
+}
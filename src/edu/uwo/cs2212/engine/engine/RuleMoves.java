@@ -0,0 +1,90 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.util.*;
+
+/** The moves a world's rules make worth trying, shared by WorldSolver and Playtest. */
+final class RuleMoves {
+    /** Receives a use of primary, with null or the id of the second operand. */
+    interface Uses {
+        void use(String primary, String with);
+    }
+
+    private RuleMoves() {}
+
+    /** Handles of the objects some rule can select, by id or by attribute. */
+    static BitSet relevantObjects(Game game) {
+        SymbolTable symbols = game.getSymbols();
+        BitSet relevant = new BitSet();
+        List<Selector> selectors = new ArrayList<>();
+        for (UseRule r : game.getUseRules()) Collections.addAll(selectors, r.primary, r.with);
+        for (MiniGameRule r : game.getMiniGameRules()) Collections.addAll(selectors, r.primary, r.with);
+        for (GiveRule r : game.getGiveRules()) selectors.add(r.given);
+        BitSet attributes = new BitSet();
+        for (Selector sel : selectors) {
+            if (sel == null) continue;
+            if (sel.objectId != null) {
+                int h = symbols.objectHandle(sel.objectId);
+                if (h != SymbolTable.NONE) relevant.set(h);
+            } else {
+                attributes.set(sel.attributeHandle);
+            }
+        }
+        // One pass for every attribute selector; a streamed world decodes each object once
+        if (!attributes.isEmpty()) {
+            for (int h = 0; h < symbols.objectCount(); h++) {
+                GameObject o = symbols.object(h);
+                for (int a = attributes.nextSetBit(0); a >= 0; a = attributes.nextSetBit(a + 1)) {
+                    if (o.hasAttribute(a)) {
+                        relevant.set(h);
+                        break;
+                    }
+                }
+            }
+        }
+        return relevant;
+    }
+
+    /**
+     * Every use a use or mini-game rule could accept: a visible object as primary, alone or with
+     * a visible object or present character the rule's second selector accepts. A use two rules
+     * accept is reported twice.
+     */
+    static void uses(Game game, List<String> visible, List<String> characters, Uses out) {
+        BitSet candidates = new BitSet();
+        for (String p : visible) {
+            GameObject po = game.getObjects().get(p);
+            if (po == null) continue;
+            candidates.clear();
+            game.getUseRuleIndex().collect(po, candidates);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                uses(game, p, game.getUseRules().get(i).with, visible, List.of(), out);
+            }
+            candidates.clear();
+            game.getMiniGameRuleIndex().collect(po, candidates);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                uses(game, p, game.getMiniGameRules().get(i).with, visible, characters, out);
+            }
+        }
+    }
+
+    /** Whether sel accepts the object id (which the world may not define). */
+    static boolean accepts(Game game, Selector sel, String id) {
+        if (sel.objectId != null) return sel.objectId.equals(id);
+        GameObject o = game.getObjects().get(id);
+        return o != null && o.hasAttribute(sel.attributeHandle);
+    }
+
+    private static void uses(Game game, String primary, Selector with, List<String> visible, List<String> characters, Uses out) {
+        if (with == null) {
+            out.use(primary, null);
+            return;
+        }
+        for (String w : visible) {
+            if (!w.equals(primary) && accepts(game, with, w)) out.use(primary, w);
+        }
+        if (with.objectId != null && characters.contains(with.objectId)) out.use(primary, with.objectId);
+    }
+}
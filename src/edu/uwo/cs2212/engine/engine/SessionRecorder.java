@@ -0,0 +1,149 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.io.SaveGame;
+import edu.uwo.cs2212.engine.minigame.MiniGameResult;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+
+/**
+ * Records a session so SessionReplayer can reproduce it exactly. The recording holds the
+ * starting state (as a SaveGame), then every dispatcher call with its operands, the outcome
+ * of every mini-game played during a call, and any change made outside a call (unlocks by a
+ * front end, undo/redo) as a raw StateChange. close() appends the final state hash.
+ *
+ *   int magic "IQR2", int n, n bytes starting SaveGame
+ *   entries: byte tag, then
+ *     call       nullable UTF a, nullable UTF b
+ *     MINIGAME   UTF id, byte outcome, nullable UTF message, int n, n x UTF produced id
+ *     PATCH      byte kind, nullable UTF location, id, label, then int position for location adds/removes
+ *     END        long state hash, int calls
+ */
+public final class SessionRecorder implements StateChange.Listener, Closeable {
+    static final int MAGIC = 0x49515232; // "IQR2"
+
+    // Entry tags; calls first, in Command order where there is one
+    static final byte GO = 0, PICK_UP = 1, DROP = 2, INVENTORY = 3, EXAMINE_OBJECT = 4, USE = 5, TALK = 6,
+            GIVE = 7, EXAMINE_CHARACTER = 8, MINIGAME = 9, PATCH = 10, END = 11;
+
+    // Mini-game outcomes
+    static final byte MISSING = 0, WON = 1, LOST = 2, ERROR = 3;
+
+    private final Game game;
+    private final GameState state;
+    private final CommandDispatcher dispatcher;
+    private final MiniGameRunner runner;
+    private final DataOutputStream out;
+    private boolean inCall;
+    private int calls;
+
+    private SessionRecorder(Game game, GameState state, CommandDispatcher dispatcher, DataOutputStream out) {
+        this.game = game;
+        this.state = state;
+        this.dispatcher = dispatcher;
+        this.runner = dispatcher.getMiniGameRunner();
+        this.out = out;
+    }
+
+    /** Starts recording every call into dispatcher (which runs on game and state) to file. */
+    public static SessionRecorder start(Path file, Game game, GameState state, CommandDispatcher dispatcher) throws IOException {
+        if (dispatcher.recorder != null) throw new IllegalStateException("Dispatcher is already being recorded");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        ByteBuffer start = SaveGame.encode(game, state);
+        out.writeInt(MAGIC);
+        out.writeInt(start.remaining());
+        out.write(start.array(), start.arrayOffset() + start.position(), start.remaining());
+        SessionRecorder r = new SessionRecorder(game, state, dispatcher, out);
+        dispatcher.recorder = r;
+        dispatcher.addChangeListener(r);
+        dispatcher.setMiniGameRunner(r::play);
+        return r;
+    }
+
+    void call(byte tag, String a, String b) {
+        try {
+            out.writeByte(tag);
+            writeNullable(out, a);
+            writeNullable(out, b);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recording failed", e);
+        }
+        calls++;
+        inCall = true;
+    }
+
+    /** Ends the call, even one that threw before its closing turn, so later changes are recorded again. */
+    void callEnded() {
+        inCall = false;
+    }
+
+    private MiniGameResult play(String id, Game game, GameState state) throws Exception {
+        MiniGameResult res;
+        try {
+            res = runner.play(id, game, state);
+        } catch (Exception e) {
+            writeMiniGame(id, ERROR, e.getMessage(), null);
+            throw e;
+        }
+        if (res == null) writeMiniGame(id, MISSING, null, null);
+        else writeMiniGame(id, res.success ? WON : LOST, res.message, res);
+        return res;
+    }
+
+    private void writeMiniGame(String id, byte outcome, String message, MiniGameResult res) throws IOException {
+        out.writeByte(MINIGAME);
+        out.writeUTF(id);
+        out.writeByte(outcome);
+        writeNullable(out, message);
+        out.writeInt(res == null ? 0 : res.producedObjectIds.size());
+        if (res != null) for (String pid : res.producedObjectIds) out.writeUTF(pid);
+    }
+
+    @Override
+    public void onChange(StateChange change, GameState state) {
+        try {
+            if (inCall) {
+                // Re-running the call reproduces its changes
+                if (change.kind == StateChange.Kind.TURN) out.flush();
+                return;
+            }
+            out.writeByte(PATCH);
+            out.writeByte(change.kind.ordinal());
+            writeNullable(out, change.locationId);
+            writeNullable(out, change.id);
+            writeNullable(out, change.label);
+            if (change.kind.positioned()) out.writeInt(change.position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recording failed", e);
+        }
+    }
+
+    /** Number of dispatcher calls recorded so far. */
+    public int calls() { return calls; }
+
+    /** Writes the final state hash, closes the file and detaches from the dispatcher. */
+    @Override
+    public void close() throws IOException {
+        dispatcher.removeChangeListener(this);
+        dispatcher.setMiniGameRunner(runner);
+        dispatcher.recorder = null;
+        try {
+            out.writeByte(END);
+            out.writeLong(state.hash(game));
+            out.writeInt(calls);
+        } finally {
+            out.close();
+        }
+    }
+
+    static void writeNullable(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
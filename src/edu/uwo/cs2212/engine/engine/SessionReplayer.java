@@ -0,0 +1,200 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.SaveGame;
+import edu.uwo.cs2212.engine.minigame.MiniGameResult;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Replays a SessionRecorder recording against a fresh GameState, headless and at full speed:
+ * mini-games are never launched, their recorded outcomes are fed back instead. The recording
+ * is decoded up front so the timed run measures only the engine.
+ */
+public final class SessionReplayer {
+    private SessionReplayer(){}
+
+    /** Outcome of one replay. */
+    public static final class Report {
+        public final int commands;
+        public final long nanos;
+        public final long expectedHash;
+        public final long actualHash;
+
+        Report(int commands, long nanos, long expectedHash, long actualHash) {
+            this.commands = commands;
+            this.nanos = nanos;
+            this.expectedHash = expectedHash;
+            this.actualHash = actualHash;
+        }
+
+        public boolean matches() { return expectedHash == actualHash; }
+
+        public double commandsPerSecond() { return nanos == 0 ? 0 : commands * 1e9 / nanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%d commands in %.2f ms (%.0f commands/s), final state %s (%016x)",
+                    commands, nanos / 1e6, commandsPerSecond(), matches() ? "matches" : "DIFFERS", actualHash);
+        }
+    }
+
+    /** Decoded recording, replayable any number of times. */
+    public static final class Recording {
+        private final byte[] start;
+        private final Entry[] entries;
+        private final long expectedHash;
+        private final int calls;
+
+        private Recording(byte[] start, Entry[] entries, long expectedHash, int calls) {
+            this.start = start;
+            this.entries = entries;
+            this.expectedHash = expectedHash;
+            this.calls = calls;
+        }
+
+        public int calls() { return calls; }
+    }
+
+    private static final class Entry {
+        final byte tag;
+        final String a;
+        final String b;
+        final byte outcome;           // MINIGAME
+        final MiniGameResult result;  // MINIGAME
+        final StateChange change;     // PATCH
+
+        Entry(byte tag, String a, String b, byte outcome, MiniGameResult result, StateChange change) {
+            this.tag = tag;
+            this.a = a;
+            this.b = b;
+            this.outcome = outcome;
+            this.result = result;
+            this.change = change;
+        }
+    }
+
+    public static Recording read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return read(in);
+        }
+    }
+
+    public static Recording read(DataInputStream in) throws IOException {
+        if (in.readInt() != SessionRecorder.MAGIC) throw new IOException("Not a session recording");
+        byte[] start = new byte[in.readInt()];
+        in.readFully(start);
+        List<Entry> entries = new ArrayList<>();
+        StateChange.Kind[] kinds = StateChange.Kind.values();
+        while (true) {
+            byte tag;
+            try {
+                tag = in.readByte();
+            } catch (EOFException e) {
+                throw new IOException("Recording ends without a final state hash (was it closed?)", e);
+            }
+            switch (tag) {
+                case SessionRecorder.END:
+                    long hash = in.readLong();
+                    int calls = in.readInt();
+                    return new Recording(start, entries.toArray(new Entry[0]), hash, calls);
+                case SessionRecorder.MINIGAME: {
+                    String id = in.readUTF();
+                    byte outcome = in.readByte();
+                    String message = SessionRecorder.readNullable(in);
+                    int n = in.readInt();
+                    List<String> produced = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) produced.add(in.readUTF());
+                    MiniGameResult res = outcome == SessionRecorder.WON || outcome == SessionRecorder.LOST
+                            ? new MiniGameResult(outcome == SessionRecorder.WON, message, produced) : null;
+                    entries.add(new Entry(tag, id, message, outcome, res, null));
+                    break;
+                }
+                case SessionRecorder.PATCH: {
+                    int kind = in.readUnsignedByte();
+                    if (kind >= kinds.length) throw new IOException("Corrupt recording: change kind " + kind);
+                    StateChange.Kind k = kinds[kind];
+                    String locationId = SessionRecorder.readNullable(in), id = SessionRecorder.readNullable(in),
+                            label = SessionRecorder.readNullable(in);
+                    StateChange c = StateChange.of(k, locationId, id, label, k.positioned() ? in.readInt() : -1);
+                    entries.add(new Entry(tag, null, null, (byte) 0, null, c));
+                    break;
+                }
+                default:
+                    if (tag < SessionRecorder.GO || tag > SessionRecorder.EXAMINE_CHARACTER) {
+                        throw new IOException("Corrupt recording: tag " + tag);
+                    }
+                    entries.add(new Entry(tag, SessionRecorder.readNullable(in), SessionRecorder.readNullable(in),
+                            (byte) 0, null, null));
+            }
+        }
+    }
+
+    public static Report replay(Path file, Game game) throws IOException {
+        return replay(read(file), game);
+    }
+
+    /**
+     * Runs the recording on a fresh state. Throws IllegalStateException if the replay stops
+     * following the recording (a mini-game is launched where none was recorded, or vice versa).
+     */
+    public static Report replay(Recording rec, Game game) throws IOException {
+        GameState state = SaveGame.decode(ByteBuffer.wrap(rec.start), game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Entry[] entries = rec.entries;
+        int[] next = {0};
+        d.setMiniGameRunner((id, g, s) -> {
+            int i = next[0];
+            if (i >= entries.length || entries[i].tag != SessionRecorder.MINIGAME || !entries[i].a.equals(id)) {
+                throw new IllegalStateException("Replay diverged at entry " + i + ": mini-game " + id + " was not recorded here");
+            }
+            next[0] = i + 1;
+            Entry e = entries[i];
+            if (e.outcome == SessionRecorder.ERROR) throw new Exception(e.b);
+            return e.result;
+        });
+        long t0 = System.nanoTime();
+        while (next[0] < entries.length) {
+            int i = next[0]++;
+            Entry e = entries[i];
+            switch (e.tag) {
+                case SessionRecorder.GO: d.go(e.a); break;
+                case SessionRecorder.PICK_UP: d.pickUp(e.a); break;
+                case SessionRecorder.DROP: d.drop(e.a); break;
+                case SessionRecorder.INVENTORY: d.inventory(); break;
+                case SessionRecorder.EXAMINE_OBJECT: d.examineObject(e.a); break;
+                case SessionRecorder.EXAMINE_CHARACTER: d.examineCharacter(e.a); break;
+                case SessionRecorder.USE: d.use(e.a, e.b); break;
+                case SessionRecorder.TALK: d.talk(e.a); break;
+                case SessionRecorder.GIVE: d.give(e.a, e.b); break;
+                case SessionRecorder.PATCH: d.apply(e.change); break;
+                default:
+                    throw new IllegalStateException("Replay diverged at entry " + i + ": recorded mini-game " + e.a + " was not launched");
+            }
+        }
+        long nanos = System.nanoTime() - t0;
+        return new Report(rec.calls, nanos, rec.expectedHash, state.hash(game));
+    }
+
+    /** Usage: SessionReplayer <recording> [repeats]; replays against the -Diq.world world, or the sample. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SessionReplayer <recording> [repeats]");
+            System.exit(2);
+        }
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        Game game = GameLoader.defaultGame();
+        Recording rec = read(Paths.get(args[0]));
+        boolean ok = true;
+        for (int i = 0; i < repeats; i++) {
+            Report r = replay(rec, game);
+            System.out.println(r);
+            ok &= r.matches();
+        }
+        if (!ok) System.exit(1);
+    }
+}
@@ -0,0 +1,148 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.model.*;
+
+import java.util.Objects;
+
+/**
+ * One atomic change to a session (GameState plus its WorldOverlay). CommandDispatcher makes
+ * every change through one of these, so the sequence of changes is a complete journal of a
+ * session and replaying it over a fresh state reproduces that session.
+ */
+public final class StateChange {
+    public enum Kind {
+        MOVE,              // locationId = destination, id = previous location
+        INVENTORY_ADD,     // id = object
+        INVENTORY_REMOVE,  // id = object
+        LOCATION_ADD,      // locationId, id = object (drops, reveals, produced objects), position
+        LOCATION_REMOVE,   // locationId, id = object, position
+        CONNECTION_UNLOCK, // locationId, label, id = target location
+        TURN,              // turnsTaken++ (closes every command)
+        TALK,              // talkIndex++
+        // Inverses used by undo; appended so journal ordinals stay stable
+        CONNECTION_LOCK,   // locationId, label, id = target location
+        TURN_UNDO,         // turnsTaken--
+        TALK_UNDO;         // talkIndex--
+
+        /** Whether changes of this kind carry a position. */
+        public boolean positioned() { return this == LOCATION_ADD || this == LOCATION_REMOVE; }
+    }
+
+    /** Receives each change after it has been applied. */
+    public interface Listener {
+        void onChange(StateChange change, GameState state);
+
+        /**
+         * The session moved to a reloaded world (see CommandDispatcher.reload), which may have
+         * pruned ids the new world does not define from state without making changes.
+         */
+        default void reloaded(Game game, GameState state) {}
+    }
+
+    private static final StateChange TURN = new StateChange(Kind.TURN, null, null, null, -1);
+    private static final StateChange TALK = new StateChange(Kind.TALK, null, null, null, -1);
+    private static final StateChange TURN_UNDO = new StateChange(Kind.TURN_UNDO, null, null, null, -1);
+    private static final StateChange TALK_UNDO = new StateChange(Kind.TALK_UNDO, null, null, null, -1);
+
+    public final Kind kind;
+    public final String locationId; // nullable
+    public final String id;         // nullable
+    public final String label;      // nullable
+    /**
+     * Where in the location's display order the object goes (LOCATION_ADD) or was (LOCATION_REMOVE),
+     * so undoing a removal puts the object back in its slot; -1 appends, or is not known.
+     */
+    public final int position;
+
+    private StateChange(Kind kind, String locationId, String id, String label, int position) {
+        this.kind = Objects.requireNonNull(kind);
+        this.locationId = locationId;
+        this.id = id;
+        this.label = label;
+        this.position = position;
+    }
+
+    public static StateChange of(Kind kind, String locationId, String id, String label) {
+        return of(kind, locationId, id, label, -1);
+    }
+
+    public static StateChange of(Kind kind, String locationId, String id, String label, int position) {
+        if (kind == Kind.TURN) return TURN;
+        if (kind == Kind.TALK) return TALK;
+        if (kind == Kind.TURN_UNDO) return TURN_UNDO;
+        if (kind == Kind.TALK_UNDO) return TALK_UNDO;
+        return new StateChange(kind, locationId, id, label, kind.positioned() ? position : -1);
+    }
+
+    public static StateChange move(String from, String to) { return new StateChange(Kind.MOVE, to, from, null, -1); }
+    public static StateChange inventoryAdd(String objectId) { return new StateChange(Kind.INVENTORY_ADD, null, objectId, null, -1); }
+    public static StateChange inventoryRemove(String objectId) { return new StateChange(Kind.INVENTORY_REMOVE, null, objectId, null, -1); }
+    public static StateChange locationAdd(String locationId, String objectId) { return locationAdd(locationId, objectId, -1); }
+    public static StateChange locationAdd(String locationId, String objectId, int position) {
+        return new StateChange(Kind.LOCATION_ADD, locationId, objectId, null, position);
+    }
+    public static StateChange locationRemove(String locationId, String objectId, int position) {
+        return new StateChange(Kind.LOCATION_REMOVE, locationId, objectId, null, position);
+    }
+    public static StateChange unlock(String locationId, Connection c) {
+        return new StateChange(Kind.CONNECTION_UNLOCK, locationId, c.getTargetLocationId(), c.getLabel(), -1);
+    }
+    public static StateChange turn() { return TURN; }
+    public static StateChange talk() { return TALK; }
+
+    /** The change that exactly reverts this one (when this one took effect). */
+    public StateChange inverse() {
+        switch (kind) {
+            case MOVE: return move(locationId, id);
+            case INVENTORY_ADD: return inventoryRemove(id);
+            case INVENTORY_REMOVE: return inventoryAdd(id);
+            case LOCATION_ADD: return locationRemove(locationId, id, position);
+            case LOCATION_REMOVE: return locationAdd(locationId, id, position);
+            case CONNECTION_UNLOCK: return new StateChange(Kind.CONNECTION_LOCK, locationId, id, label, -1);
+            case CONNECTION_LOCK: return new StateChange(Kind.CONNECTION_UNLOCK, locationId, id, label, -1);
+            case TURN: return TURN_UNDO;
+            case TURN_UNDO: return TURN;
+            case TALK: return TALK_UNDO;
+            case TALK_UNDO: return TALK;
+            default: throw new IllegalStateException("Unknown change: " + kind);
+        }
+    }
+
+    /** Applies this change; returns false if it was a no-op (already present, already absent, ...). */
+    public boolean applyTo(Game game, GameState state) {
+        switch (kind) {
+            case MOVE:
+                if (locationId.equals(state.currentLocationId)) return false;
+                state.currentLocationId = locationId;
+                return true;
+            case INVENTORY_ADD: return state.inventory.add(id);
+            case INVENTORY_REMOVE: return state.inventory.remove(id);
+            case LOCATION_ADD: return state.world.addObject(location(game), id, position);
+            case LOCATION_REMOVE: return state.world.removeObject(location(game), id);
+            case CONNECTION_UNLOCK: {
+                Location loc = location(game);
+                if (state.world.connection(loc, label) != null) return false;
+                state.world.addConnection(loc, new Connection(label, id));
+                return true;
+            }
+            case CONNECTION_LOCK: return state.world.removeConnection(location(game), label);
+            case TURN: state.turnsTaken++; return true;
+            case TALK: state.talkIndex++; return true;
+            case TURN_UNDO: state.turnsTaken--; return true;
+            case TALK_UNDO: state.talkIndex--; return true;
+            default: throw new IllegalStateException("Unknown change: " + kind);
+        }
+    }
+
+    private Location location(Game game) {
+        Location loc = game.getLocations().get(locationId);
+        if (loc == null) throw new IllegalStateException("Unknown location: " + locationId);
+        return loc;
+    }
+
+    @Override
+    public String toString() {
+        return kind + (locationId != null ? " @" + locationId : "") + (id != null ? " " + id : "")
+                + (label != null ? " '" + label + "'" : "") + (position >= 0 ? " #" + position : "");
+    }
+}
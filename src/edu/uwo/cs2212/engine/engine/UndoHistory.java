@@ -0,0 +1,106 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.util.*;
+
+/**
+ * Undo/redo for one session. Each step is the list of StateChanges one command made (a
+ * command ends with its turn), so a step costs memory in proportion to what the command
+ * changed rather than to the size of the state. Undo applies the inverses back through the
+ * dispatcher, so the attribute index and any journal see the rollback too.
+ *
+ * Changes made between commands (such as unlocks applied by a front end) are recorded as
+ * part of the next command's step.
+ */
+public final class UndoHistory implements StateChange.Listener {
+    // Rough heap cost of a step and of each change it holds, for the memory budget
+    private static final long STEP_BYTES = 48;
+    private static final long CHANGE_BYTES = 40;
+
+    private final CommandDispatcher dispatcher;
+    private final int maxDepth;
+    private final long maxBytes;
+    private final Deque<StateChange[]> undo = new ArrayDeque<>();
+    private final Deque<StateChange[]> redo = new ArrayDeque<>();
+    private final List<StateChange> pending = new ArrayList<>();
+    private long bytes;
+    private boolean replaying;
+
+    /** Keeps at most maxDepth steps and roughly maxBytes of history; the oldest steps go first. */
+    public UndoHistory(CommandDispatcher dispatcher, int maxDepth, long maxBytes) {
+        if (maxDepth <= 0 || maxBytes <= 0) throw new IllegalArgumentException("Undo limits must be positive");
+        this.dispatcher = dispatcher;
+        this.maxDepth = maxDepth;
+        this.maxBytes = maxBytes;
+        dispatcher.addChangeListener(this);
+    }
+
+    @Override
+    public void onChange(StateChange change, GameState state) {
+        if (replaying) return;
+        pending.add(change);
+        if (change.kind != StateChange.Kind.TURN) return;
+        StateChange[] step = pending.toArray(new StateChange[0]);
+        pending.clear();
+        redo.clear();
+        undo.addLast(step);
+        bytes += cost(step);
+        while (undo.size() > maxDepth || (bytes > maxBytes && undo.size() > 1)) {
+            bytes -= cost(undo.removeFirst());
+        }
+    }
+
+    /** Steps recorded against the previous world may name ids the reloaded one lacks, so they go. */
+    @Override
+    public void reloaded(Game game, GameState state) { clear(); }
+
+    public boolean canUndo() { return !undo.isEmpty(); }
+    public boolean canRedo() { return !redo.isEmpty(); }
+
+    /** Reverts the most recent command; false if there is nothing to undo. */
+    public boolean undo() {
+        if (undo.isEmpty()) return false;
+        StateChange[] step = undo.removeLast();
+        bytes -= cost(step);
+        replay(step, true);
+        redo.addLast(step);
+        return true;
+    }
+
+    /** Re-applies the most recently undone command; false if there is nothing to redo. */
+    public boolean redo() {
+        if (redo.isEmpty()) return false;
+        StateChange[] step = redo.removeLast();
+        replay(step, false);
+        undo.addLast(step);
+        bytes += cost(step);
+        return true;
+    }
+
+    /** Drops all history, e.g. after loading a different save. */
+    public void clear() {
+        undo.clear();
+        redo.clear();
+        pending.clear();
+        bytes = 0;
+    }
+
+    private void replay(StateChange[] step, boolean inverse) {
+        replaying = true;
+        try {
+            if (inverse) {
+                // The closing turn is undone last, so a rollback also ends on a turn change (see Journal)
+                int last = step.length - 1;
+                for (int i = last - 1; i >= 0; i--) dispatcher.apply(step[i].inverse());
+                dispatcher.apply(step[last].inverse());
+            } else {
+                for (StateChange c : step) dispatcher.apply(c);
+            }
+        } finally {
+            replaying = false;
+        }
+    }
+
+    private static long cost(StateChange[] step) { return STEP_BYTES + CHANGE_BYTES * step.length; }
+}
@@ -0,0 +1,179 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.model.*;
+
+import java.util.*;
+
+/**
+ * Per-session view of location contents over the shared, immutable Game. A location is
+ * copied the first time this session changes it; untouched locations read straight from
+ * the definition, so starting a session costs nothing and any number of sessions can
+ * share one Game.
+ */
+public final class WorldOverlay {
+    private final Map<String, Contents> changed = new HashMap<>();
+
+    public Set<String> objectIds(Location loc) {
+        Contents c = changed.get(loc.getId());
+        return c == null ? loc.getObjectIds() : c.objectView;
+    }
+
+    public Set<String> characterIds(Location loc) {
+        Contents c = changed.get(loc.getId());
+        return c == null ? loc.getCharacterIds() : c.characterView;
+    }
+
+    public List<Connection> connections(Location loc) {
+        Contents c = changed.get(loc.getId());
+        return c == null ? loc.getConnections() : c.connectionView;
+    }
+
+    /** Connection with the given label (ignoring case) in this session, or null. */
+    public Connection connection(Location loc, String label) {
+        Contents c = changed.get(loc.getId());
+        return c == null ? loc.findConnection(label) : c.connectionsByLabel.get(Location.foldLabel(label));
+    }
+
+    public boolean addObject(Location loc, String objectId) {
+        return addObject(loc, objectId, -1);
+    }
+
+    /** Adds the object at position in the location's display order; -1 (or past the end) appends. */
+    public boolean addObject(Location loc, String objectId, int position) {
+        return !objectIds(loc).contains(objectId) && contents(loc).objectIds.add(position, objectId);
+    }
+
+    /** Position of the object in the location's display order, or -1 if it is not there. */
+    public int objectIndex(Location loc, String objectId) {
+        Contents c = changed.get(loc.getId());
+        if (c != null) return c.objectIds.indexOf(objectId);
+        int i = 0;
+        for (String id : loc.getObjectIds()) {
+            if (id.equals(objectId)) return i;
+            i++;
+        }
+        return -1;
+    }
+    public boolean removeObject(Location loc, String objectId) {
+        return objectIds(loc).contains(objectId) && contents(loc).objectIds.remove(objectId);
+    }
+    public boolean addCharacter(Location loc, String characterId) {
+        return !characterIds(loc).contains(characterId) && contents(loc).characterIds.add(characterId);
+    }
+    public boolean removeCharacter(Location loc, String characterId) {
+        return characterIds(loc).contains(characterId) && contents(loc).characterIds.remove(characterId);
+    }
+    public void addConnection(Location loc, Connection connection) {
+        Contents c = contents(loc);
+        c.connections.add(connection);
+        Location.indexConnection(c.connectionsByLabel, connection);
+    }
+
+    /** Removes the exit with the given label (ignoring case); false if there is none. */
+    public boolean removeConnection(Location loc, String label) {
+        Connection conn = connection(loc, label);
+        if (conn == null) return false;
+        Contents c = contents(loc);
+        c.connections.remove(conn);
+        String key = Location.foldLabel(label);
+        c.connectionsByLabel.remove(key);
+        for (Connection other : c.connections) {
+            if (Location.foldLabel(other.getLabel()).equals(key)) {
+                c.connectionsByLabel.put(key, other);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /** Replaces this session's contents of loc wholesale (used when restoring a snapshot). */
+    public void restore(Location loc, Collection<String> objectIds, Collection<String> characterIds,
+                        List<Connection> connections) {
+        Contents c = contents(loc);
+        c.objectIds.clear();
+        c.objectIds.addAll(objectIds);
+        c.characterIds.clear();
+        c.characterIds.addAll(characterIds);
+        c.connections.clear();
+        c.connectionsByLabel.clear();
+        for (Connection conn : connections) {
+            c.connections.add(conn);
+            Location.indexConnection(c.connectionsByLabel, conn);
+        }
+    }
+
+    /** Makes this overlay's contents those of other: same changed locations, same contents, same order. */
+    void copyFrom(Game game, WorldOverlay other) {
+        changed.keySet().retainAll(other.changed.keySet());
+        for (Map.Entry<String, Contents> e : other.changed.entrySet()) {
+            Contents c = e.getValue();
+            restore(game.getLocations().get(e.getKey()), c.objectIds, c.characterIds, c.connections);
+        }
+    }
+
+    /**
+     * After a reload: forgets this session's copies of locations game no longer defines, and
+     * drops ids of objects and characters it no longer defines and exits into such locations.
+     */
+    void prune(Game game) {
+        Map<String, Location> locations = game.getLocations();
+        changed.keySet().removeIf(id -> !locations.containsKey(id));
+        for (Contents c : changed.values()) {
+            c.objectIds.removeIf(id -> !game.getObjects().containsKey(id));
+            c.characterIds.removeIf(id -> !game.getCharacters().containsKey(id));
+            if (c.connections.removeIf(conn -> !locations.containsKey(conn.getTargetLocationId()))) {
+                c.connectionsByLabel.clear();
+                for (Connection conn : c.connections) Location.indexConnection(c.connectionsByLabel, conn);
+            }
+        }
+    }
+
+    /** Whether this session's contents of loc, in order, are not those of its definition. */
+    public boolean differs(Location loc) {
+        Contents c = changed.get(loc.getId());
+        if (c == null) return false;
+        if (!sameOrder(c.objectView, loc.getObjectIds()) || !sameOrder(c.characterView, loc.getCharacterIds())) return true;
+        List<Connection> mine = c.connections, defined = loc.getConnections();
+        if (mine.size() != defined.size()) return true;
+        for (int i = 0; i < mine.size(); i++) {
+            Connection a = mine.get(i), b = defined.get(i);
+            if (!a.getLabel().equals(b.getLabel()) || !a.getTargetLocationId().equals(b.getTargetLocationId())) return true;
+        }
+        return false;
+    }
+
+    private static boolean sameOrder(Set<String> a, Set<String> b) {
+        if (a.size() != b.size()) return false;
+        Iterator<String> i = a.iterator(), j = b.iterator();
+        while (i.hasNext()) if (!i.next().equals(j.next())) return false;
+        return true;
+    }
+
+    /** Ids of the locations this session has changed. */
+    public Set<String> changedLocationIds() { return Collections.unmodifiableSet(changed.keySet()); }
+
+    private Contents contents(Location loc) {
+        return changed.computeIfAbsent(loc.getId(), k -> new Contents(loc));
+    }
+
+    /** Session-private copy of one location's mutable contents. */
+    private static final class Contents {
+        final IndexedSet<String> objectIds;
+        final IndexedSet<String> characterIds;
+        final List<Connection> connections;
+        final Map<String, Connection> connectionsByLabel = new HashMap<>();
+        final Set<String> objectView;
+        final Set<String> characterView;
+        final List<Connection> connectionView;
+
+        Contents(Location loc) {
+            this.objectIds = new IndexedSet<>(loc.getObjectIds());
+            this.characterIds = new IndexedSet<>(loc.getCharacterIds());
+            this.connections = new ArrayList<>(loc.getConnections());
+            for (Connection c : connections) Location.indexConnection(connectionsByLabel, c);
+            this.objectView = objectIds.view();
+            this.characterView = characterIds.view();
+            this.connectionView = Collections.unmodifiableList(connections);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.SaveGame;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.minigame.MiniGameResult;
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proves a world winnable by breadth-first search over game states, running real commands
+ * through a CommandDispatcher so the search follows exactly what players get. A state is
+ * the location, the inventory and every location whose contents differ from the definition
+ * (revealed, produced or removed objects, unlocked exits); turn and talk counters are left
+ * out. Each BFS level is expanded on a fork-join pool and states are deduplicated through a
+ * concurrent set of compact byte encodings, so the first level that reaches an end location
+ * (or a give that ends the game) yields a shortest winning command sequence. Every reached
+ * state is ranked by its parent's position in the level, then the order its move was tried;
+ * where several paths reach a state, or several win, the lowest rank is kept, so the levels,
+ * and the solution reported, do not depend on how the pool schedules the work.
+ *
+ * The moves tried are the ones a player could see: every exit, picking up each portable object
+ * here that some rule can select, examining containers, each use a use or mini-game rule could
+ * accept with objects that are here or carried, and each give a give rule accepts. Drop and
+ * talk are left out as they never enable anything. A mini-game is a choice point: both
+ * outcomes are explored, and a solution notes which outcome each step needs.
+ * Object order within a location is ignored when comparing states.
+ *
+ * Every command takes one turn, so BFS depth is the turn count: a world with a turn limit is
+ * searched that many levels deep and no further, as Main ends the game there.
+ */
+public final class WorldSolver {
+    private static final int GRAIN = 16; // states expanded per fork-join leaf
+
+    /** Outcome of a search. */
+    public static final class Result {
+        public final boolean winnable;
+        public final boolean exhausted;      // false if the state limit stopped the search
+        public final boolean turnLimited;    // not winnable: the world's turn limit stopped the search
+        public final List<String> solution;  // commands, if winnable
+        public final List<Boolean> miniGames; // per solution command: its mini-game must be won (true) or lost; null if none
+        public final int states;             // distinct states reached
+        public final int depth;              // BFS levels completed
+        public final List<String> frontier;  // if not winnable: some of the deepest states reached, with their paths
+
+        Result(boolean winnable, boolean exhausted, boolean turnLimited, Node win, int states, int depth,
+               List<String> frontier) {
+            this.winnable = winnable;
+            this.exhausted = exhausted;
+            this.turnLimited = turnLimited;
+            this.solution = win == null ? null : win.path();
+            this.miniGames = win == null ? null : win.miniGames();
+            this.states = states;
+            this.depth = depth;
+            this.frontier = frontier;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            if (winnable) {
+                sb.append("Winnable in ").append(solution.size()).append(" commands (").append(states).append(" states):\n");
+                for (int i = 0; i < solution.size(); i++) {
+                    sb.append("  ").append(step(solution.get(i), miniGames.get(i))).append('\n');
+                }
+            } else {
+                sb.append(turnLimited ? "Not winnable within the turn limit" : exhausted ? "Not winnable" : "Undecided: state limit reached")
+                        .append(" after ").append(states).append(" states, ").append(depth).append(" levels. Frontier:\n");
+                for (String f : frontier) sb.append("  ").append(f).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    /** A reached state: its save image until expanded, the move that led to it, and its rank. */
+    private static final class Node {
+        final Node parent;
+        final String command;
+        final Boolean miniGameWon;  // outcome of the mini-game the command played, null if none
+        final String locationId;
+        final long rank;            // parent's position in its level, then the move's order
+        byte[] save;
+
+        Node(Node parent, String command, Boolean miniGameWon, String locationId, long rank, byte[] save) {
+            this.parent = parent;
+            this.command = command;
+            this.miniGameWon = miniGameWon;
+            this.locationId = locationId;
+            this.rank = rank;
+            this.save = save;
+        }
+
+        List<String> path() {
+            LinkedList<String> out = new LinkedList<>();
+            for (Node n = this; n.parent != null; n = n.parent) out.addFirst(n.command);
+            return out;
+        }
+
+        List<Boolean> miniGames() {
+            LinkedList<Boolean> out = new LinkedList<>();
+            for (Node n = this; n.parent != null; n = n.parent) out.addFirst(n.miniGameWon);
+            return out;
+        }
+    }
+
+    /** Canonical state encoding, compared by content. */
+    private static final class Key {
+        final byte[] bytes;
+        final int hash;
+
+        Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override public int hashCode() { return hash; }
+        @Override public boolean equals(Object o) { return o instanceof Key && Arrays.equals(bytes, ((Key) o).bytes); }
+    }
+
+    private final Game game;
+    private final SymbolTable symbols;
+    private final BitSet relevant; // objects some rule can select
+    private final int maxStates;
+    private final Set<Key> visited = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger states = new AtomicInteger();
+    private ConcurrentMap<Key, Node> next = new ConcurrentHashMap<>(); // the level being reached; joins visited when complete
+    private final Queue<Node> wins = new ConcurrentLinkedQueue<>();
+
+    private WorldSolver(Game game, int maxStates) {
+        this.game = game;
+        this.symbols = game.getSymbols();
+        this.maxStates = maxStates;
+        this.relevant = RuleMoves.relevantObjects(game);
+    }
+
+    public static Result solve(Game game, int maxStates) { return solve(game, maxStates, ForkJoinPool.commonPool()); }
+
+    /** Searches from the start location; gives up undecided after maxStates distinct states. */
+    public static Result solve(Game game, int maxStates, ForkJoinPool pool) {
+        GameState start = new GameState();
+        start.currentLocationId = game.getStartLocationId();
+        return pool.submit(() -> new WorldSolver(game, maxStates).search(start)).join();
+    }
+
+    private Result search(GameState start) {
+        visited.add(key(start));
+        states.set(1);
+        Node root = new Node(null, null, null, start.currentLocationId, 0, save(start));
+        if (game.getEndLocationIds().contains(start.currentLocationId)) return new Result(true, true, false, root, 1, 0, List.of());
+        Integer turnLimit = game.getTurnLimit();
+        Node[] level = {root};
+        int depth = 0;
+        while (true) {
+            Node[] current = level;
+            if (turnLimit != null && depth >= turnLimit) {
+                // The game is over before any state on this level can move again
+                List<String> frontier = new ArrayList<>();
+                for (int i = 0; i < Math.min(10, current.length); i++) frontier.add(describe(current[i]));
+                return new Result(false, true, true, null, states.get(), depth, frontier);
+            }
+            ForkJoinTask.invokeAll(new Expand(this, current, 0, current.length));
+            depth++;
+            if (!wins.isEmpty()) {
+                Node win = Collections.min(wins, Comparator.comparingLong(n -> n.rank));
+                return new Result(true, true, false, win, states.get(), depth, List.of());
+            }
+            visited.addAll(next.keySet());
+            Node[] following = next.values().toArray(new Node[0]);
+            Arrays.sort(following, Comparator.comparingLong(n -> n.rank));
+            next = new ConcurrentHashMap<>();
+            boolean limited = states.get() >= maxStates;
+            if (following.length == 0 || limited) {
+                List<String> frontier = new ArrayList<>();
+                Node[] deepest = following.length > 0 ? following : current;
+                for (int i = 0; i < Math.min(10, deepest.length); i++) frontier.add(describe(deepest[i]));
+                return new Result(false, !limited, false, null, states.get(), depth, frontier);
+            }
+            level = following;
+        }
+    }
+
+    // ForkJoinTask is Serializable, but a task is never serialized; its references are transient
+    private static final class Expand extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient WorldSolver solver;
+        private final transient Node[] level;
+        private final int from, to;
+
+        Expand(WorldSolver solver, Node[] level, int from, int to) {
+            this.solver = solver;
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Expand(solver, level, from, mid), new Expand(solver, level, mid, to));
+                return;
+            }
+            for (int i = from; i < to && solver.states.get() < solver.maxStates; i++) {
+                solver.expand(level[i], i);
+                level[i].save = null; // only the path is needed from here on
+            }
+        }
+    }
+
+    /** Tries every move from node, the index-th of its level, recording states not seen before. */
+    private void expand(Node node, int index) {
+        new Expansion(node, index).run();
+    }
+
+    /** One node's moves, tried in a fixed order on a dispatcher over its state. */
+    private final class Expansion {
+        private final Node node;
+        private final GameState state;
+        private final CommandDispatcher d;
+        private final UndoHistory undo;
+        private long rank;
+        private boolean winMiniGame, playedMiniGame;
+
+        Expansion(Node node, int index) {
+            this.node = node;
+            this.state = load(node.save);
+            this.d = new CommandDispatcher(game, state);
+            this.undo = new UndoHistory(d, 1, Long.MAX_VALUE);
+            this.rank = (long) index << 32;
+            d.setMiniGameRunner((id, g, s) -> {
+                playedMiniGame = true;
+                return winMiniGame ? MiniGameResult.ok("", List.of()) : MiniGameResult.fail("");
+            });
+        }
+
+        void run() {
+            Location loc = game.getLocations().get(state.currentLocationId);
+            List<String> exits = new ArrayList<>();
+            for (Connection c : state.world.connections(loc)) exits.add(c.getLabel());
+            for (String label : exits) tryMove("go " + label, () -> d.go(label));
+
+            List<String> here = new ArrayList<>(state.world.objectIds(loc));
+            List<String> visible = new ArrayList<>(here);
+            visible.addAll(state.inventory);
+            for (String id : here) {
+                GameObject o = game.getObjects().get(id);
+                // Carrying an object no rule selects cannot enable anything
+                if (o != null && o.canPickUp() && relevant.get(symbols.objectHandle(id))) tryMove("pickup " + id, () -> d.pickUp(id));
+            }
+            for (String id : visible) {
+                GameObject o = game.getObjects().get(id);
+                if (o != null && !here.containsAll(o.getContainedObjectIds())) tryMove("ex " + id, () -> d.examineObject(id));
+            }
+
+            Set<String> uses = new LinkedHashSet<>();
+            List<String> characters = new ArrayList<>(state.world.characterIds(loc));
+            RuleMoves.uses(game, visible, characters, (p, w) -> uses.add(w == null ? p : p + " " + w));
+            for (String u : uses) {
+                int sep = u.indexOf(' ');
+                String p = sep < 0 ? u : u.substring(0, sep);
+                String w = sep < 0 ? null : u.substring(sep + 1);
+                String command = w == null ? "use " + p : "use " + p + " with " + w;
+                winMiniGame = true;
+                if (tryMove(command, () -> d.use(p, w))) {
+                    // A mini-game was played: also explore losing it
+                    winMiniGame = false;
+                    tryMove(command, () -> d.use(p, w));
+                }
+            }
+
+            for (GiveRule r : game.getGiveRules()) {
+                if (!characters.contains(r.characterId)) continue;
+                for (String id : state.inventory.toArray(new String[0])) {
+                    if (RuleMoves.accepts(game, r.given, id)) tryMove("give " + id + " " + r.characterId, () -> d.give(id, r.characterId));
+                }
+            }
+        }
+
+        /** Makes the move, records the state it reaches and undoes it; true if it played a mini-game. */
+        private boolean tryMove(String command, java.util.function.Supplier<CommandResult> move) {
+            long rank = this.rank++;
+            playedMiniGame = false;
+            CommandResult r = move.get();
+            Boolean miniGameWon = playedMiniGame ? winMiniGame : null;
+            if (r.template() == MessageTemplate.TEXT_END || game.getEndLocationIds().contains(state.currentLocationId)) {
+                states.incrementAndGet();
+                wins.add(new Node(node, command, miniGameWon, state.currentLocationId, rank, save(state)));
+            } else {
+                Key key = key(state);
+                if (!visited.contains(key)) {
+                    next.compute(key, (k, seen) -> {
+                        if (seen != null && seen.rank < rank) return seen;
+                        if (seen == null) states.incrementAndGet();
+                        return new Node(node, command, miniGameWon, state.currentLocationId, rank, save(state));
+                    });
+                }
+            }
+            undo.undo();
+            return miniGameWon != null;
+        }
+    }
+
+    /**
+     * Canonical bytes for a state: the location and sorted inventory handles, then each location
+     * whose contents differ from the definition, in handle order, with its sorted object and
+     * character handles and its exits in order.
+     */
+    private Key key(GameState state) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        varint(out, symbols.locationHandle(state.currentLocationId) + 1);
+        handles(out, state.inventory, true);
+        int[] changed = state.world.changedLocationIds().stream().mapToInt(symbols::locationHandle).sorted().toArray();
+        for (int h : changed) {
+            Location loc = symbols.location(h);
+            Set<String> objects = state.world.objectIds(loc);
+            Set<String> characters = state.world.characterIds(loc);
+            List<Connection> exits = state.world.connections(loc);
+            if (objects.equals(loc.getObjectIds()) && characters.equals(loc.getCharacterIds())
+                    && sameExits(exits, loc.getConnections())) continue;
+            varint(out, h + 1);
+            handles(out, objects, true);
+            handles(out, characters, false);
+            varint(out, exits.size());
+            for (Connection c : exits) {
+                byte[] label = c.getLabel().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                varint(out, label.length);
+                out.write(label, 0, label.length);
+                varint(out, symbols.locationHandle(c.getTargetLocationId()) + 1);
+            }
+        }
+        return new Key(out.toByteArray());
+    }
+
+    private void handles(ByteArrayOutputStream out, Collection<String> ids, boolean objects) {
+        int[] hs = new int[ids.size()];
+        int i = 0;
+        for (String id : ids) hs[i++] = objects ? symbols.objectHandle(id) : symbols.characterHandle(id);
+        Arrays.sort(hs);
+        varint(out, hs.length);
+        for (int h : hs) varint(out, h + 1);
+    }
+
+    private static boolean sameExits(List<Connection> a, List<Connection> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).getLabel().equals(b.get(i).getLabel())
+                    || !a.get(i).getTargetLocationId().equals(b.get(i).getTargetLocationId())) return false;
+        }
+        return true;
+    }
+
+    private static void varint(ByteArrayOutputStream out, int v) {
+        while ((v & ~0x7F) != 0) {
+            out.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    private byte[] save(GameState state) {
+        ByteBuffer buf = SaveGame.encode(game, state);
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return bytes;
+    }
+
+    private GameState load(byte[] save) {
+        try {
+            return SaveGame.decode(ByteBuffer.wrap(save), game);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String describe(Node node) {
+        List<String> path = node.path(), steps = new ArrayList<>(path.size());
+        List<Boolean> miniGames = node.miniGames();
+        for (int i = 0; i < path.size(); i++) steps.add(step(path.get(i), miniGames.get(i)));
+        return node.locationId + " after " + steps;
+    }
+
+    private static String step(String command, Boolean miniGameWon) {
+        return miniGameWon == null ? command : command + (miniGameWon ? " [win the mini-game]" : " [lose the mini-game]");
+    }
+
+    /** Usage: WorldSolver [locations] [maxStates=1000000]; solves the sample world, or a generated one. */
+    public static void main(String[] args) {
+        Game game = args.length > 0 ? WorldGenerator.generate(WorldGenerator.Spec.ofSize(Integer.parseInt(args[0])))
+                : GameLoader.sampleGame();
+        int maxStates = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        long t0 = System.nanoTime();
+        Result r = solve(game, maxStates);
+        System.out.print(r);
+        System.out.printf("Solved in %.0f ms on %d threads%n", (System.nanoTime() - t0) / 1e6,
+                ForkJoinPool.commonPool().getParallelism());
+    }
+}
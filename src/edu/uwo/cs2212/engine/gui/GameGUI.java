@@ -11,22 +11,37 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Point-and-click GUI for the Adventure Game Engine.
  * Tap/click on objects, characters, and connections to interact.
  */
 public class GameGUI extends JFrame {
-    private final Game game;
+    private Game game; // replaced, on the EDT, when the world file is reloaded
     private final GameState state;
     private final CommandDispatcher dispatcher;
+    private final UndoHistory history;
+    private final CommandMailbox mailbox;
+    private final CommandParser parser = new CommandParser();
+    // Game state belongs to the mailbox while a command is in flight; the EDT only reads it when
+    // busy is false, and painting uses the location captured by the last updateDisplay()
+    private boolean busy;
+    private String shownLocationId;
+    // Reactions to game events, queued on the mailbox thread and run on the EDT after the command's message
+    private final Queue<Runnable> eventReactions = new ConcurrentLinkedQueue<>();
     
     // Main game view
     private GameViewPanel gameViewPanel;
@@ -44,7 +59,6 @@ public class GameGUI extends JFrame {
     private int currentDialogueIndex = -1; // -1 means no dialogue active
     private boolean showingInitialDialogue = false;
     private boolean showingThorDialogue = false;
-    private boolean thorDialogueShown = false; // Track if Thor dialogue has been shown to prevent re-triggering
 
     /**
      * Metadata for villain sprites shown on boss stages.
@@ -64,13 +78,34 @@ public class GameGUI extends JFrame {
         "loc_sokovia", new VillainConfig("images/Scarlet.png", 180),
         "loc_moon", new VillainConfig("images/ThanosV1.png", 260)
     );
+
+    // Conversations played each time the player enters a boss stage
+    private static final Map<String, String[][]> ENTRY_DIALOGUES = Map.of(
+        "loc_asgard_boss_room", new String[][]{
+            {"Thor", "You dare enter my arena, mortal?"},
+            {"Dylin", "I need to pass through, Thor. I'm on a quest to save the universe."},
+            {"Thor", "Only those worthy may pass! Face me in battle!"},
+            {"Dylin", "I have Stormbreaker. I'm ready to face your lightning."},
+            {"Thor", "Then let the lightning decide your fate! Use Stormbreaker against me!"}
+        }
+    );
     
     public GameGUI() {
         // Initialize game
-        game = GameLoader.sampleGame();
+        try {
+            game = GameLoader.defaultGame();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         state = new GameState();
         state.currentLocationId = game.getStartLocationId();
         dispatcher = new CommandDispatcher(game, state);
+        dispatcher.setMetrics(CommandMetrics.global());
+        history = new UndoHistory(dispatcher, 100, 1 << 20);
+        mailbox = new CommandMailbox(dispatcher);
+        shownLocationId = state.currentLocationId;
+        subscribeToEvents();
+        watchWorld();
         
         // Register mini-games
         MiniGameRegistry.register(new LockpickMiniGame("lockpick_crypt", 5));
@@ -174,6 +209,12 @@ public class GameGUI extends JFrame {
         add(messageScroll, BorderLayout.SOUTH);
         add(inventoryPanel, BorderLayout.AFTER_LAST_LINE);
         
+        // Ctrl+Z / Ctrl+Y undo and redo the last command
+        getRootPane().registerKeyboardAction(e -> executeCommand("undo"),
+            KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), JComponent.WHEN_IN_FOCUSED_WINDOW);
+        getRootPane().registerKeyboardAction(e -> executeCommand("redo"),
+            KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), JComponent.WHEN_IN_FOCUSED_WINDOW);
+        
         setLocationRelativeTo(null);
     }
     
@@ -227,6 +268,7 @@ public class GameGUI extends JFrame {
             addComponentListener(new ComponentAdapter() {
                 @Override
                 public void componentResized(ComponentEvent e) {
+                    if (busy) return; // hotspots are refreshed when the command completes
                     // Recalculate hotspots when panel is resized
                     Location loc = game.getLocations().get(state.currentLocationId);
                     if (loc != null) {
@@ -483,10 +525,10 @@ public class GameGUI extends JFrame {
             int targetHeight = 180; // Target height for both characters (increased from 120 to make them bigger)
             
             // Only show villains on specific boss locations
-            boolean isBossLocation = state.currentLocationId.equals("loc_new_york") ||
-                                    state.currentLocationId.equals("loc_asgard_boss_room") ||
-                                    state.currentLocationId.equals("loc_sokovia") ||
-                                    state.currentLocationId.equals("loc_moon");
+            boolean isBossLocation = shownLocationId.equals("loc_new_york") ||
+                                    shownLocationId.equals("loc_asgard_boss_room") ||
+                                    shownLocationId.equals("loc_sokovia") ||
+                                    shownLocationId.equals("loc_moon");
             
             // Calculate character positions
             int dylinX = 0, dylinY = 0, dylinScaledWidth = 0, dylinScaledHeight = 0;
@@ -523,10 +565,10 @@ public class GameGUI extends JFrame {
                 }
             }
 
-            VillainConfig villainConfig = VILLAIN_CONFIGS.get(state.currentLocationId);
+            VillainConfig villainConfig = VILLAIN_CONFIGS.get(shownLocationId);
             Image villainImage = null;
             if (villainConfig != null && isBossLocation) {
-                villainImage = villainImages.get(state.currentLocationId);
+                villainImage = villainImages.get(shownLocationId);
             }
 
             if (villainImage != null && villainConfig != null && isBossLocation) {
@@ -542,7 +584,7 @@ public class GameGUI extends JFrame {
             // Draw characters in correct order based on location
             // In boss locations: Silver Surfer behind (drawn first), Dylin in front (drawn second), villain opposite side
             // On main page: Dylin first, Silver Surfer second (original order)
-            boolean isBaseStage = state.currentLocationId.equals("loc_toronto");
+            boolean isBaseStage = shownLocationId.equals("loc_toronto");
             boolean flipDylin = false;          // Dylin always faces right
             boolean flipSurfer = isBaseStage;   // Silver Surfer faces left only on base stage
             boolean flipVillain = true;         // Villains always face left (toward heroes)
@@ -749,6 +791,7 @@ public class GameGUI extends JFrame {
     }
     
     private void handleClick(int x, int y) {
+        if (busy) return;
         Point clickPoint = new Point(x, y);
         
         // Check connections first (for navigation)
@@ -796,7 +839,7 @@ public class GameGUI extends JFrame {
         
         // Pickup (if in location and can pickup)
         Location loc = game.getLocations().get(state.currentLocationId);
-        if (loc.getObjectIds().contains(objId) && obj.canPickUp()) {
+        if (state.world.objectIds(loc).contains(objId) && obj.canPickUp()) {
             JMenuItem pickupItem = new JMenuItem("Pickup");
             pickupItem.addActionListener(e -> executeCommand("pickup " + objId));
             menu.add(pickupItem);
@@ -823,9 +866,9 @@ public class GameGUI extends JFrame {
         // Show dialog to select what to use with
         Location loc = game.getLocations().get(state.currentLocationId);
         List<String> available = new ArrayList<>();
-        available.addAll(loc.getObjectIds());
+        available.addAll(state.world.objectIds(loc));
         available.addAll(state.inventory);
-        available.addAll(loc.getCharacterIds()); // Include characters too!
+        available.addAll(state.world.characterIds(loc)); // Include characters too!
         available.remove(objId); // Remove self
         
         if (available.isEmpty()) {
@@ -868,120 +911,101 @@ public class GameGUI extends JFrame {
     // Removed showLocationInfo - no popup boxes
     
     private void executeCommand(String command) {
+        if (busy) {
+            appendMessage("Please finish the current action first.");
+            return;
+        }
+        Command cmd = parser.parse(command);
+        switch (cmd) {
+            case NONE:
+                return;
+            case LOOK:
+                updateDisplay();
+                return;
+            case UNKNOWN:
+            case QUIT:
+                handleCommandResult(CommandResult.fail(MessageTemplate.UNKNOWN_COMMAND, parser.verb(), null));
+                return;
+            case UNDO:
+                submit(d -> history.undo() ? CommandResult.ok("Undone.") : CommandResult.fail("Nothing to undo."));
+                return;
+            case REDO:
+                submit(d -> history.redo() ? CommandResult.ok("Redone.") : CommandResult.fail("Nothing to redo."));
+                return;
+            default:
+                break;
+        }
+        // Game commands run on the session mailbox, off the EDT, so a mini-game can't block painting
+        busy = true;
+        mailbox.execute(command).whenComplete(this::completed);
+    }
+    
+    private void submit(java.util.function.Function<CommandDispatcher, CommandResult> call) {
+        busy = true;
+        mailbox.submit(call).whenComplete(this::completed);
+    }
+    
+    // Edits to the world file reach the session through its mailbox, between commands
+    private void watchWorld() {
         try {
-            String[] toks = command.split("\\s+");
-            if (toks.length == 0) return;
-            
-            String cmd = toks[0].toLowerCase();
-            CommandResult result;
-            
-            switch (cmd) {
-                case "go":
-                    // Reset Thor dialogue flag when leaving boss room
-                    if (state.currentLocationId.equals("loc_asgard_boss_room")) {
-                        thorDialogueShown = false;
-                    }
-                    result = dispatcher.go(joinFrom(toks, 1));
-                    break;
-                case "pickup":
-                    if (toks.length < 2) {
-                        result = CommandResult.fail("Usage: pickup <id>");
-                    } else {
-                        result = dispatcher.pickUp(toks[1]);
-                    }
-                    break;
-                case "drop":
-                    if (toks.length < 2) {
-                        result = CommandResult.fail("Usage: drop <id>");
-                    } else {
-                        result = dispatcher.drop(toks[1]);
-                    }
-                    break;
-                case "inv":
-                    result = dispatcher.inventory();
-                    break;
-                case "ex":
-                case "examine":
-                    if (toks.length < 2) {
-                        result = CommandResult.fail("Usage: ex <id>");
-                    } else {
-                        result = dispatcher.examineObject(toks[1]);
-                    }
-                    break;
-                case "talk":
-                    if (toks.length < 2) {
-                        result = CommandResult.fail("Usage: talk <charId>");
-                    } else {
-                        result = dispatcher.talk(toks[1]);
-                    }
-                    break;
-                case "give":
-                    if (toks.length < 3) {
-                        result = CommandResult.fail("Usage: give <objId> <charId>");
-                    } else {
-                        result = dispatcher.give(toks[1], toks[2]);
-                    }
-                    break;
-                case "use":
-                    // Run use command in background thread to avoid blocking EDT if minigame starts
-                    if (toks.length >= 4 && toks[2].equalsIgnoreCase("with")) {
-                        String primaryId = toks[1];
-                        String withId = toks[3];
-                        // Check if this might trigger a minigame by checking if "with" is a character
-                        Location currentLoc = game.getLocations().get(state.currentLocationId);
-                        boolean mightBeMinigame = currentLoc != null && currentLoc.getCharacterIds().contains(withId);
-                        
-                        if (mightBeMinigame) {
-                            // Run in background thread to avoid blocking EDT
-                            new Thread(() -> {
-                                CommandResult bgResult = dispatcher.use(primaryId, withId);
-                                SwingUtilities.invokeLater(() -> {
-                                    appendMessage(bgResult.message);
-                                    handleCommandResult(bgResult);
-                                });
-                            }).start();
-                            return; // Return early, result will be handled in background thread
-                        } else {
-                            result = dispatcher.use(primaryId, withId);
-                        }
-                    } else if (toks.length >= 2) {
-                        result = dispatcher.use(toks[1], null);
-                    } else {
-                        result = CommandResult.fail("Usage: use <id|@attr> [with <id|@attr>]");
-                    }
-                    break;
-                default:
-                    result = CommandResult.fail("Unknown command: " + cmd);
-            }
-            
-            handleCommandResult(result);
-        } catch (Exception e) {
-            appendMessage("Error: " + e.getMessage());
-            e.printStackTrace();
+            GameLoader.watchDefault(game, diff -> mailbox.submit(d -> d.reload(diff)).whenComplete((applied, error) ->
+                    SwingUtilities.invokeLater(() -> worldReloaded(diff, Boolean.TRUE.equals(applied)))),
+                    (file, e) -> SwingUtilities.invokeLater(() ->
+                            appendMessage("The world file changed but could not be loaded (" + e.getMessage() + "); keeping the current world.")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
     
-    private void handleCommandResult(CommandResult result) {
-        appendMessage(result.message);
-        
-        // Check if Thor was defeated - unlock Sokovia connection
-        if (result.message.contains("defeated Thor") || result.message.contains("path to Wanda")) {
-            Location asgardBossRoom = game.getLocations().get("loc_asgard_boss_room");
-            if (asgardBossRoom != null) {
-                // Check if Sokovia connection doesn't exist yet
-                boolean hasSokoviaConnection = false;
-                for (Connection c : asgardBossRoom.getConnections()) {
-                    if (c.getTargetLocationId().equals("loc_sokovia")) {
-                        hasSokoviaConnection = true;
-                        break;
-                    }
-                }
-                if (!hasSokoviaConnection) {
-                    asgardBossRoom.addConnection(new Connection("To Sokovia", "loc_sokovia"));
-                    appendMessage("The path to Sokovia has been unlocked!");
-                }
-            }
+    private void worldReloaded(WorldDiff diff, boolean applied) {
+        if (!applied) {
+            appendMessage("The world file changed, but the new version drops where you are or what you carry; keeping the current world.");
+            return;
         }
+        game = diff.game;
+        setTitle(game.getTitle());
+        appendMessage("World reloaded (" + diff + "); undo history cleared.");
+        if (!busy) updateDisplay();
+    }
+    
+    private void subscribeToEvents() {
+        EventBus events = dispatcher.events();
+        // Handlers run on the mailbox thread; game is only read on the EDT, so the name is looked up there
+        events.subscribe(GameEvent.ConnectionUnlocked.class, e -> eventReactions.add(() -> {
+            Location target = game.getLocations().get(e.targetLocationId);
+            String name = target != null ? target.getName() : e.targetLocationId;
+            appendMessage("The path to " + name + " has been unlocked!");
+        }));
+        events.subscribe(GameEvent.LocationEntered.class, e -> {
+            String[][] lines = ENTRY_DIALOGUES.get(e.locationId);
+            if (lines != null) eventReactions.add(() -> startThorDialogue(lines));
+        });
+    }
+    
+    private void runEventReactions() {
+        Runnable reaction;
+        while ((reaction = eventReactions.poll()) != null) reaction.run();
+    }
+    
+    private void completed(CommandResult result, Throwable error) {
+        SwingUtilities.invokeLater(() -> {
+            busy = false;
+            if (error != null) {
+                Throwable cause = error instanceof java.util.concurrent.CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                appendMessage("Error: " + cause.getMessage());
+                cause.printStackTrace();
+                runEventReactions();
+                updateDisplay();
+            } else {
+                handleCommandResult(result);
+            }
+        });
+    }
+    
+    private void handleCommandResult(CommandResult result) {
+        appendMessage(result.message());
+        runEventReactions();
         
         updateDisplay();
         
@@ -991,15 +1015,6 @@ public class GameGUI extends JFrame {
         }
     }
     
-    private String joinFrom(String[] arr, int idx) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = idx; i < arr.length; i++) {
-            if (i > idx) sb.append(' ');
-            sb.append(arr[i]);
-        }
-        return sb.toString();
-    }
-    
     private void updateDisplay() {
         Location loc = game.getLocations().get(state.currentLocationId);
         
@@ -1014,21 +1029,14 @@ public class GameGUI extends JFrame {
             }
         }
         
+        shownLocationId = loc.getId();
+        
         // Update location name
         locationNameLabel.setText(loc.getName());
         
         // Update location image
         updateLocationImage(loc.getImagePath());
         
-        // Check if we entered Thor's boss room - show dialogue (only once)
-        if (loc.getId().equals("loc_asgard_boss_room") && !thorDialogueShown && !showingThorDialogue && !showingInitialDialogue) {
-            thorDialogueShown = true;
-            // Delay dialogue slightly to allow display to update first
-            SwingUtilities.invokeLater(() -> {
-                startThorDialogue();
-            });
-        }
-        
         // Turns removed - not needed for adventure game
         // turnsLabel.setText("Turns: " + state.turnsTaken + 
         //     (game.getTurnLimit() != null ? "/" + game.getTurnLimit() : ""));
@@ -1045,15 +1053,10 @@ public class GameGUI extends JFrame {
         });
     }
     
-    private void startThorDialogue() {
+    private void startThorDialogue(String[][] lines) {
+        if (showingThorDialogue || showingInitialDialogue) return;
         showingThorDialogue = true;
-        conversation = new String[][]{
-            {"Thor", "You dare enter my arena, mortal?"},
-            {"Dylin", "I need to pass through, Thor. I'm on a quest to save the universe."},
-            {"Thor", "Only those worthy may pass! Face me in battle!"},
-            {"Dylin", "I have Stormbreaker. I'm ready to face your lightning."},
-            {"Thor", "Then let the lightning decide your fate! Use Stormbreaker against me!"}
-        };
+        conversation = lines;
         currentDialogueIndex = 0;
         gameViewPanel.repaint();
     }
@@ -1108,9 +1111,9 @@ public class GameGUI extends JFrame {
         }
         
         // Create hotspots for objects (simple grid layout)
-        int objCount = loc.getObjectIds().size();
+        int objCount = state.world.objectIds(loc).size();
         int objIndex = 0;
-        for (String oid : loc.getObjectIds()) {
+        for (String oid : state.world.objectIds(loc)) {
             int x = 50 + (objIndex % 3) * 200;
             int y = 100 + (objIndex / 3) * 150;
             objectHotspots.put(oid, new Rectangle(x, y, 150, 100));
@@ -1119,7 +1122,7 @@ public class GameGUI extends JFrame {
         
         // Create hotspots for characters (exclude Dylin - he's the player)
         int charIndex = 0;
-        for (String cid : loc.getCharacterIds()) {
+        for (String cid : state.world.characterIds(loc)) {
             // Skip Dylin - he's the player character, not an NPC
             if (cid.equals("char_dylin")) continue;
             
@@ -1144,9 +1147,9 @@ public class GameGUI extends JFrame {
         }
         
         // Create hotspots for connections - position as overlay buttons on scene
-        int connCount = loc.getConnections().size();
+        int connCount = state.world.connections(loc).size();
         int connIndex = 0;
-        for (Connection c : loc.getConnections()) {
+        for (Connection c : state.world.connections(loc)) {
             Rectangle rect;
             int buttonWidth = 130;
             int buttonHeight = 35;
@@ -1187,7 +1190,7 @@ public class GameGUI extends JFrame {
                 // For other locations (including Asgard locations)
                 // First pass: count non-back buttons to position them correctly
                 int nonBackCount = 0;
-                for (Connection conn : loc.getConnections()) {
+                for (Connection conn : state.world.connections(loc)) {
                     if (!conn.getLabel().equalsIgnoreCase("back")) {
                         nonBackCount++;
                     }
@@ -1203,7 +1206,7 @@ public class GameGUI extends JFrame {
                     // Count how many non-back buttons come before this one
                     int navButtonIndex = 0;
                     for (int i = 0; i < connIndex; i++) {
-                        if (!loc.getConnections().get(i).getLabel().equalsIgnoreCase("back")) {
+                        if (!state.world.connections(loc).get(i).getLabel().equalsIgnoreCase("back")) {
                             navButtonIndex++;
                         }
                     }
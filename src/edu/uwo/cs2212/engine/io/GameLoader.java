@@ -3,11 +3,44 @@ package edu.uwo.cs2212.engine.io;
 
 import edu.uwo.cs2212.engine.model.*;
 import edu.uwo.cs2212.engine.rules.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.*;
+import java.util.function.Consumer;
 
-/** Placeholder loader: builds an in-memory sample game. Replace with JSON/XML loader. */
+/**
+ * Entry point for worlds: authored JSON files (see JsonWorldLoader), images compiled from them
+ * (see WorldImage), or the built-in sample game.
+ */
 public final class GameLoader {
+    public static Game load(Path file) throws IOException {
+        return WorldImage.isImage(file) ? WorldImage.load(file, budget()) : JsonWorldLoader.load(file);
+    }
+
+    /** Heap budget for image worlds from -Diq.world.budget, in MB; unlimited when it is not set. */
+    static long budget() {
+        String mb = System.getProperty("iq.world.budget");
+        return mb == null ? Long.MAX_VALUE : Long.parseLong(mb) << 20;
+    }
+
+    /** The world named by -Diq.world, or the sample game when it is not set. */
+    public static Game defaultGame() throws IOException {
+        String file = System.getProperty("iq.world");
+        return file == null ? sampleGame() : load(Paths.get(file));
+    }
+
+    /**
+     * With -Diq.world.watch=true, starts reloading the -Diq.world file, whose world is currently
+     * game, whenever it changes (see WorldWatcher); otherwise, or for the sample game, returns null.
+     */
+    public static WorldWatcher watchDefault(Game game, Consumer<WorldDiff> listener, WorldWatcher.FailureHandler onFailure)
+            throws IOException {
+        String file = System.getProperty("iq.world");
+        if (file == null || !Boolean.getBoolean("iq.world.watch")) return null;
+        return WorldWatcher.start(Paths.get(file), game, listener, onFailure);
+    }
+
     public static Game sampleGame() {
         Map<String, GameObject> objects = new LinkedHashMap<>();
         Map<String, GameCharacter> characters = new LinkedHashMap<>();
@@ -216,13 +249,17 @@ public final class GameLoader {
                 "lightning_dodge_thor",
                 List.of("obj_infinity_stone_2"),
                 "You have defeated Thor! The path to Wanda is now unlocked.",
-                "Thor's lightning was too powerful. You must try again."
+                "Thor's lightning was too powerful. You must try again.",
+                "loc_asgard_boss_room",            // winning opens the way to Sokovia
+                new Connection("To Sokovia", "loc_sokovia")
         ));
 
         // Give rules (example)
         giveRules.add(new GiveRule("char_patient", Selector.byId("obj_cup_water"),
                 "“Thank you.” They hand you a brass key.", List.of("obj_brass_key"), false));
 
+        SymbolTable symbols = SymbolTable.of(locations, objects, characters);
+
         return new Game(
                 "Infinity Quest",
                 "Welcome, Dylin! You are on a quest to collect all five Infinity Stones and defeat Thanos. " +
@@ -236,7 +273,8 @@ public final class GameLoader {
                 characters,
                 useRules,
                 giveRules,
-                miniGameRules
+                miniGameRules,
+                symbols
         );
     }
 
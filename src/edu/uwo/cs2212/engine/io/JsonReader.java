@@ -0,0 +1,386 @@
+package edu.uwo.cs2212.engine.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Pull tokenizer for JSON: the caller asks for the value it expects next (beginObject, nextName,
+ * nextString, ...) and the reader consumes exactly that, so a document is never held as a tree.
+ * Input is read through one fixed char buffer; a string without escapes becomes a String straight
+ * from that buffer, and names and ids are pooled so a repeated one allocates nothing. Errors are
+ * IOExceptions naming line and column.
+ */
+final class JsonReader {
+    enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END }
+
+    private final Reader in;
+    private final char[] buf = new char[1 << 16];
+    private int pos, limit;
+    private int line = 1, lineStart; // lineStart may go negative as the buffer refills; only used for columns
+    private long consumed;            // chars before buf[0]
+    private final StringBuilder sb = new StringBuilder();
+    private int spanStart, spanLength;    // the last string scanned; see scanString
+    private boolean spanInSb;
+    private String[] pool = new String[1 << 10]; // open-addressed; see nextId
+    private int[] poolHashes = new int[1 << 10];
+    private int pooled, poolShift = 32 - 10;
+    private final Map<String, String> shared; // pool shared with other readers, consulted on a miss; may be null
+
+    // Container stack: for each open object or array, whether a value has been read in it yet
+    private boolean[] inObject = new boolean[32];
+    private boolean[] started = new boolean[32];
+    private int depth;
+    private boolean expectName; // inside an object, between values
+
+    JsonReader(Reader in) { this(in, 1, 1, null); }
+
+    /**
+     * A reader over part of a larger document whose first char is at line and column there.
+     * Ids missing from this reader's pool are looked up in shared (a concurrent map when readers
+     * run in parallel), so readers of one document still hand out one instance per id.
+     */
+    JsonReader(Reader in, int line, int column, Map<String, String> shared) {
+        this.in = in;
+        this.line = line;
+        this.lineStart = 1 - column;
+        this.shared = shared;
+    }
+
+    /** Chars consumed so far, for progress and throughput reporting. */
+    long position() { return consumed + pos; }
+
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        pos++;
+        push(true);
+    }
+
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        pos++;
+        depth--;
+        afterValue();
+    }
+
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        pos++;
+        push(false);
+    }
+
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        pos++;
+        depth--;
+        afterValue();
+    }
+
+    /** True while the current object or array has another member. */
+    boolean hasNext() throws IOException {
+        Token t = peek();
+        return t != Token.END_OBJECT && t != Token.END_ARRAY && t != Token.END;
+    }
+
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        scanString();
+        String name = pooledSpan();
+        if (skipSpace() != ':') throw error("Expected ':'");
+        pos++;
+        expectName = false;
+        return name;
+    }
+
+    String nextString() throws IOException {
+        expect(Token.STRING);
+        scanString();
+        afterValue();
+        return span();
+    }
+
+    /**
+     * A string that recurs through the document, such as an id: every occurrence returns the
+     * same instance, and only the first allocates.
+     */
+    String nextId() throws IOException {
+        expect(Token.STRING);
+        scanString();
+        afterValue();
+        return pooledSpan();
+    }
+
+    /** A string, or null for a JSON null. */
+    String nextStringOrNull() throws IOException {
+        if (peek() == Token.NULL) {
+            nextNull();
+            return null;
+        }
+        return nextString();
+    }
+
+    boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        boolean value = buf[pos] == 't';
+        literal(value ? "true" : "false");
+        afterValue();
+        return value;
+    }
+
+    void nextNull() throws IOException {
+        expect(Token.NULL);
+        literal("null");
+        afterValue();
+    }
+
+    int nextInt() throws IOException {
+        expect(Token.NUMBER);
+        long value = 0;
+        boolean negative = buf[pos] == '-';
+        if (negative) pos++;
+        int digits = 0;
+        while (fill(1) && buf[pos] >= '0' && buf[pos] <= '9') {
+            value = value * 10 + (buf[pos++] - '0');
+            if (value > Integer.MAX_VALUE + 1L) throw error("Number out of int range");
+            digits++;
+        }
+        if (digits == 0) throw error("Expected a digit");
+        if (fill(1) && (buf[pos] == '.' || buf[pos] == 'e' || buf[pos] == 'E')) throw error("Expected an integer");
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw error("Number out of int range");
+        afterValue();
+        return (int) value;
+    }
+
+    /** Skips the next value, however deeply nested; used for members this version does not know. */
+    void skipValue() throws IOException {
+        int target = depth;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT: beginObject(); break;
+                case BEGIN_ARRAY: beginArray(); break;
+                case END_OBJECT: endObject(); break;
+                case END_ARRAY: endArray(); break;
+                case NAME: nextName(); break;
+                case STRING: nextString(); break;
+                case BOOLEAN: nextBoolean(); break;
+                case NULL: nextNull(); break;
+                case NUMBER: skipNumber(); break;
+                default: throw error("Unexpected end of input");
+            }
+        } while (depth > target);
+    }
+
+    /** Kind of the next token, without consuming it. */
+    Token peek() throws IOException {
+        int c = skipSpace();
+        if (depth > 0 && (c == ',' || (started[depth - 1] && c != '}' && c != ']'))) {
+            // Between members: a separator is required and consumed here
+            if (c != ',' || !started[depth - 1]) throw error("Expected ',' or a closing bracket");
+            pos++;
+            c = skipSpace();
+            if (c == '}' || c == ']') throw error("Trailing comma");
+            started[depth - 1] = false; // consumed; the next value sets it again
+        }
+        switch (c) {
+            case -1: return Token.END;
+            case '{': return Token.BEGIN_OBJECT;
+            case '}': return Token.END_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case ']': return Token.END_ARRAY;
+            case '"': return expectName ? Token.NAME : Token.STRING;
+            case 't': case 'f': return Token.BOOLEAN;
+            case 'n': return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return Token.NUMBER;
+                throw error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    IOException error(String message) {
+        return new IOException(message + " at line " + line() + ", column " + column());
+    }
+
+    /** Line and column of the next char, as error messages give them. */
+    int line() { return line; }
+
+    int column() { return pos - lineStart + 1; }
+
+    private void expect(Token t) throws IOException {
+        Token actual = peek();
+        if (actual != t) throw error("Expected " + t + " but found " + actual);
+        if (expectName != (t == Token.NAME || t == Token.END_OBJECT)) throw error("Unexpected " + t);
+    }
+
+    private void push(boolean object) {
+        if (depth == inObject.length) {
+            inObject = java.util.Arrays.copyOf(inObject, depth * 2);
+            started = java.util.Arrays.copyOf(started, depth * 2);
+        }
+        inObject[depth] = object;
+        started[depth] = false;
+        depth++;
+        expectName = object;
+    }
+
+    private void afterValue() {
+        if (depth > 0) {
+            started[depth - 1] = true;
+            expectName = inObject[depth - 1];
+        } else {
+            expectName = false;
+        }
+    }
+
+    private void literal(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (!fill(1) || buf[pos] != word.charAt(i)) throw error("Expected " + word);
+            pos++;
+        }
+    }
+
+    private void skipNumber() throws IOException {
+        while (fill(1) && "+-0123456789.eE".indexOf(buf[pos]) >= 0) pos++;
+        afterValue();
+    }
+
+    /**
+     * Scans a quoted string starting at buf[pos]. A string with no escapes that lies wholly in
+     * the buffer is left there as the span [spanStart, spanStart + spanLength); anything else is
+     * decoded into sb. Either way the content is only valid until the buffer next moves.
+     */
+    private void scanString() throws IOException {
+        int start = ++pos; // past the opening quote
+        while (pos < limit) {
+            char c = buf[pos];
+            if (c == '"') {
+                spanInSb = false;
+                spanStart = start;
+                spanLength = pos++ - start;
+                return;
+            }
+            if (c == '\\' || c < 0x20) break;
+            pos++;
+        }
+        sb.setLength(0);
+        sb.append(buf, start, pos - start);
+        while (true) {
+            if (!fill(1)) throw error("Unterminated string");
+            char c = buf[pos++];
+            if (c == '"') break;
+            if (c < 0x20) throw error("Control character in string");
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (!fill(1)) throw error("Unterminated string");
+            char e = buf[pos++];
+            switch (e) {
+                case '"': case '\\': case '/': sb.append(e); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (!fill(4)) throw error("Unterminated escape");
+                    int cp = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int d = Character.digit(buf[pos++], 16);
+                        if (d < 0) throw error("Bad \\u escape");
+                        cp = cp << 4 | d;
+                    }
+                    sb.append((char) cp);
+                    break;
+                default: throw error("Bad escape '\\" + e + "'");
+            }
+        }
+        spanInSb = true;
+        spanLength = sb.length();
+    }
+
+    private String span() {
+        return spanInSb ? sb.toString() : new String(buf, spanStart, spanLength);
+    }
+
+    private char spanChar(int i) { return spanInSb ? sb.charAt(i) : buf[spanStart + i]; }
+
+    /** The scanned string as its pooled instance, creating that on first sight. */
+    private String pooledSpan() {
+        int h = 0;
+        for (int i = 0; i < spanLength; i++) h = 31 * h + spanChar(i);
+        int mask = pool.length - 1;
+        for (int i = slot(h); ; i = (i + 1) & mask) {
+            String s = pool[i];
+            if (s == null) {
+                s = span();
+                if (shared != null) {
+                    String first = shared.putIfAbsent(s, s);
+                    if (first != null) s = first;
+                }
+                pool[i] = s;
+                poolHashes[i] = h;
+                if (++pooled * 2 > pool.length) growPool();
+                return s;
+            }
+            if (poolHashes[i] == h && s.length() == spanLength && spanEquals(s)) return s;
+        }
+    }
+
+    // Fibonacci hashing: ids differ in their last few chars, which the low bits of h barely mix
+    private int slot(int h) { return (h * 0x9E3779B9) >>> poolShift; }
+
+    private boolean spanEquals(String s) {
+        for (int i = 0; i < spanLength; i++) if (s.charAt(i) != spanChar(i)) return false;
+        return true;
+    }
+
+    private void growPool() {
+        String[] old = pool;
+        int[] oldHashes = poolHashes;
+        pool = new String[old.length * 2];
+        poolHashes = new int[old.length * 2];
+        poolShift--;
+        int mask = pool.length - 1;
+        for (int k = 0; k < old.length; k++) {
+            if (old[k] == null) continue;
+            int i = slot(oldHashes[k]);
+            while (pool[i] != null) i = (i + 1) & mask;
+            pool[i] = old[k];
+            poolHashes[i] = oldHashes[k];
+        }
+    }
+
+    /** Skips whitespace and returns the next char without consuming it, or -1 at the end. */
+    private int skipSpace() throws IOException {
+        while (fill(1)) {
+            char c = buf[pos];
+            if (c == '\n') {
+                line++;
+                lineStart = pos + 1;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return c;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    /** Ensures n chars are buffered from pos; false if the input ends first. */
+    private boolean fill(int n) throws IOException {
+        if (limit - pos >= n) return true;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            consumed += pos;
+            lineStart -= pos;
+            limit -= pos;
+            pos = 0;
+        }
+        while (limit < n) {
+            int r = in.read(buf, limit, buf.length - limit);
+            if (r < 0) return false;
+            limit += r;
+        }
+        return true;
+    }
+}
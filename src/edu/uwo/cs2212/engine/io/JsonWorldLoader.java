@@ -0,0 +1,435 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads a world from JSON by pulling tokens straight into model objects; no document tree is
+ * built, so the heap needed while loading is the finished model plus one read buffer. Layout
+ * (sections and members in any order; unknown members are skipped):
+ *
+ *   { "title": "...", "startMessage": "...", "start": "loc_id", "end": ["loc_id", ...],
+ *     "turnLimit": 100 | null,
+ *     "locations":  [ { "id", "name", "description", "image", "objects": [ids],
+ *                       "characters": [ids], "exits": [ { "label", "to" } ] } ],
+ *     "objects":    [ { "id", "name", "description", "pickUp": bool, "attributes": [names],
+ *                       "contains": [ids] } ],
+ *     "characters": [ { "id", "name", "description", "phrases": [text],
+ *                       "wants": [selector] } ],
+ *     "useRules":   [ { "primary": selector, "with": selector | null, "text",
+ *                       "produces": [ids] } ],
+ *     "giveRules":  [ { "character", "given": selector, "text", "gives": [ids], "endsGame": bool } ],
+ *     "miniGameRules": [ { "primary", "with", "miniGame", "rewards": [ids], "success", "failure",
+ *                          "unlock": { "location", "label", "to" } | null } ] }
+ *
+ * A selector is an object id, or "@attribute" to match by attribute, as in the use command.
+ * Ids are pooled as they are read, so the many references to one id share a String. Entity
+ * constructors copy their lists, so each kind of list is read into one scratch collection that is
+ * reused from entity to entity.
+ * JsonWorldWriter writes the same layout.
+ *
+ * A file is loaded in parallel: JsonWorldSplitter cuts it into parts (the top-level members, and
+ * runs of elements of each section), a loader per part parses them across the pool, and the parts
+ * are merged in document order. Every reader pools ids through one shared map, and the splitter
+ * interns attributes in document order, so the Game (its handle order, its shared id instances,
+ * the AttributeRegistry handles it interns, and the error reported for a bad file) is the same
+ * as a sequential load's at any parallelism. A Reader is loaded sequentially.
+ */
+public final class JsonWorldLoader {
+    private final JsonReader in; // null for the loader that merges the parts of a parallel load
+    private IOException failure; // why this part could not be parsed
+    private int[] ends; // for a part: line and column after each entity it read, to place a duplicate found in the merge
+    private int entities;
+
+    private String title = "", startMessage = "", start;
+    private final Set<String> end = new LinkedHashSet<>();
+    private Integer turnLimit;
+    private final Map<String, Location> locations = new LinkedHashMap<>();
+    private final Map<String, GameObject> objects = new LinkedHashMap<>();
+    private final Map<String, GameCharacter> characters = new LinkedHashMap<>();
+    private final List<UseRule> useRules = new ArrayList<>();
+    private final List<GiveRule> giveRules = new ArrayList<>();
+    private final List<MiniGameRule> miniGameRules = new ArrayList<>();
+
+    // Scratch lists, cleared per entity; constructors copy what they keep
+    private final List<String> list = new ArrayList<>(), list2 = new ArrayList<>();
+    private final Set<String> set = new LinkedHashSet<>();
+    private final List<Connection> exits = new ArrayList<>();
+    private final List<Want> wants = new ArrayList<>();
+
+    private JsonWorldLoader(JsonReader in) { this.in = in; }
+
+    public static Game load(Path file) throws IOException { return load(file, ForkJoinPool.commonPool()); }
+
+    /** Loads with pool's parallelism; the result does not depend on it. */
+    public static Game load(Path file, ForkJoinPool pool) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (pool.getParallelism() == 1 || ch.size() > Integer.MAX_VALUE) {
+                // Nothing to gain from splitting, or past what one mapping holds: stream it
+                return load(new InputStreamReader(Channels.newInputStream(ch), StandardCharsets.UTF_8));
+            }
+            ByteBuffer json = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            List<JsonWorldSplitter.Part> parts = JsonWorldSplitter.split(json);
+            Map<String, String> ids = new ConcurrentHashMap<>();
+            List<JsonWorldLoader> parsed = pool.submit(() ->
+                    parts.parallelStream().map(p -> part(json, p, ids)).toList()).join();
+            JsonWorldLoader world = new JsonWorldLoader((JsonReader) null);
+            for (int i = 0; i < parts.size(); i++) world.merge(parts.get(i).member, parsed.get(i));
+            return world.game();
+        }
+    }
+
+    public static Game load(Reader reader) throws IOException {
+        return new JsonWorldLoader(new JsonReader(reader)).world();
+    }
+
+    /** Parses one part; a failure is kept, not thrown, so the merge reports the first in document order. */
+    private static JsonWorldLoader part(ByteBuffer json, JsonWorldSplitter.Part p, Map<String, String> ids) {
+        int column = p.elements ? p.column - 1 : p.column; // the run is read inside a '[' just before it
+        JsonWorldLoader part = new JsonWorldLoader(new JsonReader(JsonWorldSplitter.reader(json, p), p.line, column, ids));
+        part.ends = new int[32];
+        try {
+            part.member(p.member);
+            if (part.in.peek() != JsonReader.Token.END) throw part.in.error("Unexpected content in " + p.member);
+        } catch (IOException e) {
+            part.failure = e;
+        }
+        return part;
+    }
+
+    /** Adds a parsed part to this loader as if its member had been read here. */
+    private void merge(String member, JsonWorldLoader part) throws IOException {
+        if (part.failure != null) throw part.failure;
+        switch (member) {
+            case "title": title = part.title; break;
+            case "startMessage": startMessage = part.startMessage; break;
+            case "start": start = part.start; break;
+            case "end": end.addAll(part.end); break;
+            case "turnLimit": if (part.turnLimit != null) turnLimit = part.turnLimit; break;
+            case "locations": putAll(locations, part.locations, part.ends); break;
+            case "objects": putAll(objects, part.objects, part.ends); break;
+            case "characters": putAll(characters, part.characters, part.ends); break;
+            case "useRules": useRules.addAll(part.useRules); break;
+            case "giveRules": giveRules.addAll(part.giveRules); break;
+            case "miniGameRules": miniGameRules.addAll(part.miniGameRules); break;
+            default: // skipped
+        }
+    }
+
+    /** Adds a part's entities, reporting a duplicate where the sequential load would: after the second one. */
+    private static <T> void putAll(Map<String, T> into, Map<String, T> part, int[] ends) throws IOException {
+        int i = 0;
+        for (Map.Entry<String, T> e : part.entrySet()) {
+            if (into.putIfAbsent(e.getKey(), e.getValue()) != null) {
+                throw new IOException("Duplicate id " + e.getKey() + " at line " + ends[i] + ", column " + ends[i + 1]);
+            }
+            i += 2;
+        }
+    }
+
+    private Game world() throws IOException {
+        in.beginObject();
+        while (in.hasNext()) member(in.nextName());
+        in.endObject();
+        if (in.peek() != JsonReader.Token.END) throw in.error("Trailing content after the world");
+        return game();
+    }
+
+    /** Reads the value of a top-level member. */
+    private void member(String name) throws IOException {
+        switch (name) {
+            case "title": title = in.nextString(); break;
+            case "startMessage": startMessage = in.nextString(); break;
+            case "start": start = in.nextId(); break;
+            case "end": ids(end); break;
+            case "turnLimit":
+                if (in.peek() == JsonReader.Token.NULL) in.nextNull();
+                else turnLimit = in.nextInt();
+                break;
+            case "locations":
+                in.beginArray();
+                while (in.hasNext()) put(locations, location(), Location::getId);
+                in.endArray();
+                break;
+            case "objects":
+                in.beginArray();
+                while (in.hasNext()) put(objects, object(), GameObject::getId);
+                in.endArray();
+                break;
+            case "characters":
+                in.beginArray();
+                while (in.hasNext()) put(characters, character(), GameCharacter::getId);
+                in.endArray();
+                break;
+            case "useRules":
+                in.beginArray();
+                while (in.hasNext()) useRules.add(useRule());
+                in.endArray();
+                break;
+            case "giveRules":
+                in.beginArray();
+                while (in.hasNext()) giveRules.add(giveRule());
+                in.endArray();
+                break;
+            case "miniGameRules":
+                in.beginArray();
+                while (in.hasNext()) miniGameRules.add(miniGameRule());
+                in.endArray();
+                break;
+            default: in.skipValue();
+        }
+    }
+
+    private Game game() throws IOException {
+        if (start == null) throw new IOException("World has no start location");
+        if (!locations.containsKey(start)) throw new IOException("Start location is not defined: " + start);
+        // Objects, characters and wants may dangle (they are simply never found), but an exit must lead somewhere
+        for (Location loc : locations.values()) {
+            for (Connection c : loc.getConnections()) {
+                if (!locations.containsKey(c.getTargetLocationId())) {
+                    throw new IOException("Exit '" + c.getLabel() + "' of " + loc.getId() + " leads to undefined location "
+                            + c.getTargetLocationId());
+                }
+            }
+        }
+        for (MiniGameRule r : miniGameRules) {
+            if (r.unlockConnection == null) continue;
+            if (!locations.containsKey(r.unlockLocationId)) {
+                throw new IOException("Mini-game " + r.miniGameId + " unlocks an exit at undefined location " + r.unlockLocationId);
+            }
+            if (!locations.containsKey(r.unlockConnection.getTargetLocationId())) {
+                throw new IOException("Mini-game " + r.miniGameId + " unlocks an exit to undefined location "
+                        + r.unlockConnection.getTargetLocationId());
+            }
+        }
+        return new Game(title, startMessage, start, end, turnLimit, locations, objects, characters,
+                useRules, giveRules, miniGameRules, SymbolTable.of(locations, objects, characters));
+    }
+
+    private Location location() throws IOException {
+        String id = null, name = null, description = "", image = null;
+        List<String> objectIds = cleared(list), characterIds = cleared(list2);
+        exits.clear();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id": id = in.nextId(); break;
+                case "name": name = in.nextString(); break;
+                case "description": description = in.nextString(); break;
+                case "image":
+                    if (in.peek() == JsonReader.Token.NULL) in.nextNull();
+                    else image = in.nextId();
+                    break;
+                case "objects": ids(objectIds); break;
+                case "characters": ids(characterIds); break;
+                case "exits":
+                    in.beginArray();
+                    while (in.hasNext()) exits.add(connection());
+                    in.endArray();
+                    break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+        require(id, "location id");
+        return new Location(id, name == null ? id : name, description, image, objectIds, characterIds, exits);
+    }
+
+    private Connection connection() throws IOException {
+        String label = null, to = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "label": label = in.nextId(); break;
+                case "to": to = in.nextId(); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Connection(require(label, "exit label"), require(to, "exit target"));
+    }
+
+    private GameObject object() throws IOException {
+        String id = null, name = null, description = "";
+        boolean pickUp = false;
+        Set<String> attributes = set;
+        attributes.clear();
+        List<String> contains = cleared(list);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id": id = in.nextId(); break;
+                case "name": name = in.nextString(); break;
+                case "description": description = in.nextString(); break;
+                case "pickUp": pickUp = in.nextBoolean(); break;
+                case "attributes": ids(attributes); break;
+                case "contains": ids(contains); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+        require(id, "object id");
+        return new GameObject(id, name == null ? id : name, description, pickUp, attributes, contains);
+    }
+
+    private GameCharacter character() throws IOException {
+        String id = null, name = null, description = "";
+        List<String> phrases = cleared(list);
+        wants.clear();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id": id = in.nextId(); break;
+                case "name": name = in.nextString(); break;
+                case "description": description = in.nextString(); break;
+                case "phrases":
+                    in.beginArray();
+                    while (in.hasNext()) phrases.add(in.nextString());
+                    in.endArray();
+                    break;
+                case "wants":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        Selector s = selector();
+                        wants.add(new Want(s.objectId, s.attribute));
+                    }
+                    in.endArray();
+                    break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+        require(id, "character id");
+        return new GameCharacter(id, name == null ? id : name, description, phrases, wants);
+    }
+
+    private UseRule useRule() throws IOException {
+        Selector primary = null, with = null;
+        String text = "";
+        List<String> produces = cleared(list);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "primary": primary = selector(); break;
+                case "with": with = selectorOrNull(); break;
+                case "text": text = in.nextString(); break;
+                case "produces": ids(produces); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+        return new UseRule(require(primary, "use rule primary"), with, text, produces);
+    }
+
+    private GiveRule giveRule() throws IOException {
+        String character = null, text = "";
+        Selector given = null;
+        List<String> gives = cleared(list);
+        boolean endsGame = false;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "character": character = in.nextId(); break;
+                case "given": given = selector(); break;
+                case "text": text = in.nextString(); break;
+                case "gives": ids(gives); break;
+                case "endsGame": endsGame = in.nextBoolean(); break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+        return new GiveRule(require(character, "give rule character"), require(given, "give rule selector"),
+                text, gives, endsGame);
+    }
+
+    private MiniGameRule miniGameRule() throws IOException {
+        Selector primary = null, with = null;
+        String miniGame = null, success = "", failure = "", unlockAt = null;
+        Connection unlock = null;
+        List<String> rewards = cleared(list);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "primary": primary = selector(); break;
+                case "with": with = selectorOrNull(); break;
+                case "miniGame": miniGame = in.nextString(); break;
+                case "rewards": ids(rewards); break;
+                case "success": success = in.nextString(); break;
+                case "failure": failure = in.nextString(); break;
+                case "unlock":
+                    if (in.peek() == JsonReader.Token.NULL) {
+                        in.nextNull();
+                        break;
+                    }
+                    String label = null, to = null;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "location": unlockAt = in.nextId(); break;
+                            case "label": label = in.nextString(); break;
+                            case "to": to = in.nextId(); break;
+                            default: in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    unlock = new Connection(require(label, "unlock label"), require(to, "unlock target"));
+                    require(unlockAt, "unlock location");
+                    break;
+                default: in.skipValue();
+            }
+        }
+        in.endObject();
+        return new MiniGameRule(require(primary, "mini-game rule primary"), with, require(miniGame, "mini-game id"),
+                rewards, success, failure, unlockAt, unlock);
+    }
+
+    private Selector selector() throws IOException {
+        String s = in.nextId();
+        return s.startsWith("@") ? Selector.byAttr(s.substring(1)) : Selector.byId(s);
+    }
+
+    private Selector selectorOrNull() throws IOException {
+        if (in.peek() != JsonReader.Token.NULL) return selector();
+        in.nextNull();
+        return null;
+    }
+
+    /** Reads an array of ids into out. */
+    private void ids(Collection<String> out) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) out.add(in.nextId());
+        in.endArray();
+    }
+
+    private static <T extends Collection<?>> T cleared(T scratch) {
+        scratch.clear();
+        return scratch;
+    }
+
+    private <T> void put(Map<String, T> into, T entity, java.util.function.Function<T, String> id) throws IOException {
+        if (into.putIfAbsent(id.apply(entity), entity) != null) {
+            throw in.error("Duplicate id " + id.apply(entity));
+        }
+        if (ends != null) {
+            if (entities * 2 == ends.length) ends = Arrays.copyOf(ends, ends.length * 2);
+            ends[entities * 2] = in.line();
+            ends[entities * 2 + 1] = in.column();
+            entities++;
+        }
+    }
+
+    private <T> T require(T value, String what) throws IOException {
+        if (value == null) throw in.error("Missing " + what);
+        return value;
+    }
+}
@@ -0,0 +1,333 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.model.AttributeRegistry;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * First, sequential pass of a parallel world load (see JsonWorldLoader.load(Path, ForkJoinPool)).
+ * It cuts the document into parts that parse independently: each top-level member is a part,
+ * except the entity and rule sections, whose arrays are cut between elements into runs of about
+ * PART_BYTES. Only quotes, escapes, brackets and separators are examined; the parser checks the
+ * rest of each part.
+ *
+ * The pass also interns every attribute name in document order, as a sequential load would:
+ * object attributes and "@attribute" selectors. AttributeRegistry handles then do not depend on
+ * which part happens to be parsed first.
+ */
+final class JsonWorldSplitter {
+    static final int PART_BYTES = 1 << 18;
+
+    private static final Set<String> SECTIONS = Set.of(
+            "locations", "objects", "characters", "useRules", "giveRules", "miniGameRules");
+
+    // What the current member of a section element holds, for attribute interning
+    private static final int OTHER = 0, ATTRIBUTES = 1, SELECTOR = 2, SELECTORS = 3;
+
+    /** A piece of one top-level member's value: the whole value, or a run of its array's elements. */
+    static final class Part {
+        final String member;
+        final int from, to;   // byte span
+        final int line, column;
+        final boolean elements;
+
+        Part(String member, int from, int to, int line, int column, boolean elements) {
+            this.member = member;
+            this.from = from;
+            this.to = to;
+            this.line = line;
+            this.column = column;
+            this.elements = elements;
+        }
+    }
+
+    private final ByteBuffer json;
+    private final List<Part> parts = new ArrayList<>();
+    private byte[][] interned = new byte[64][]; // open-addressed set of the attribute names already interned
+    private int internedCount;
+    private int line = 1, lineStart;
+    private int counted, countedChars; // chars of the current line before byte counted; see column
+
+    private JsonWorldSplitter(ByteBuffer json) { this.json = json; }
+
+    /** Parts of the document in document order; interns attributes on the way. */
+    static List<Part> split(ByteBuffer json) throws IOException {
+        JsonWorldSplitter s = new JsonWorldSplitter(json);
+        s.scan();
+        return s.parts;
+    }
+
+    /** Chars of the part, in brackets when it is a run of elements, ready for a JsonReader. */
+    static Reader reader(ByteBuffer json, Part part) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer out = CharBuffer.allocate(part.to - part.from + 2); // UTF-8 never yields more chars than bytes
+        if (part.elements) out.put('[');
+        decoder.decode(json.slice(part.from, part.to - part.from), out, true);
+        decoder.flush(out);
+        if (part.elements) out.put(']');
+        return new CharArrayReader(out.array(), 0, out.position());
+    }
+
+    private void scan() throws IOException {
+        int n = json.limit();
+        byte[] block = new byte[1 << 16]; // scanned block by block; far faster than a get per byte
+        boolean[] isObject = new boolean[32];
+        int depth = 0;
+        boolean expectKey = false, expectColon = false, done = false;
+        int last = -1;      // last significant byte outside strings
+        byte lastByte = 0;
+        boolean inString = false, escaped = false, skip = false;
+        int stringFrom = -1;
+
+        // The current top-level member; valueFrom is -1 before its value and -2 once a section has emitted it
+        String member = null, section = null;
+        int valueFrom = -1, valueLine = 0, valueColumn = 0;
+        // The run of section elements not yet emitted, and the element being scanned
+        int runFrom = -1, runTo = -1, runLine = 0, runColumn = 0, elementFrom = -1;
+        String[] keys = null; // see keys(); what they hold is keysKind
+        int keysKind = OTHER, kind = OTHER;
+
+        for (int base = 0; base < n; base += block.length) {
+            int length = Math.min(block.length, n - base);
+            json.get(base, block, 0, length);
+            for (int k = 0; k < length; k++) {
+                byte b;
+                if (inString) {
+                    if (skip) { // escaped char, which may start the next block
+                        skip = false;
+                        continue;
+                    }
+                    while (k < length && (b = block[k]) != '"' && b != '\\') k++;
+                    if (k == length) break;
+                    if (block[k] == '\\') {
+                        escaped = skip = true;
+                        continue;
+                    }
+                    inString = false;
+                    int i = base + k;
+                    if (expectKey) {
+                        expectKey = false;
+                        if (depth == 1) {
+                            member = string(stringFrom, i, escaped);
+                            expectColon = true;
+                        } else if (depth == 3 && section != null) {
+                            String key = escaped ? string(stringFrom, i, true) : null;
+                            kind = OTHER;
+                            for (String k2 : keys) if (is(key, stringFrom, i, k2)) kind = keysKind;
+                        }
+                    } else if (depth == 3 && kind == SELECTOR || depth == 4 && !isObject[3] && kind == SELECTORS) {
+                        if (escaped) {
+                            String sel = string(stringFrom, i, true);
+                            if (sel.startsWith("@")) AttributeRegistry.intern(sel.substring(1));
+                        } else if (json.get(stringFrom + 1) == '@') {
+                            intern(stringFrom + 2, i);
+                        }
+                    } else if (depth == 4 && !isObject[3] && kind == ATTRIBUTES) {
+                        if (escaped) AttributeRegistry.intern(string(stringFrom, i, true));
+                        else intern(stringFrom + 1, i);
+                    }
+                    last = i;
+                    lastByte = '"';
+                    continue;
+                }
+
+                b = block[k];
+                int i = base + k;
+                switch (b) {
+                    case ' ': case '\t': case '\r':
+                        continue;
+                    case '\n':
+                        line++;
+                        lineStart = i + 1;
+                        continue;
+                    default:
+                }
+                if (done) throw error("Trailing content after the world", i);
+                if (depth == 0 && b != '{') throw error("Expected a JSON object", i);
+                if (expectColon) {
+                    if (b != ':') throw error("Expected ':'", i);
+                    expectColon = false;
+                    last = i;
+                    lastByte = b;
+                    continue;
+                }
+
+                if (depth == 1 && !expectKey && valueFrom == -1 && b != ',' && b != '}') {
+                    valueFrom = i;
+                    valueLine = line;
+                    valueColumn = column(i);
+                    if (b == '[' && SECTIONS.contains(member)) {
+                        section = member;
+                        keys = keys(section);
+                        keysKind = kind(section);
+                    }
+                } else if (depth == 2 && section != null && elementFrom < 0 && b != ',' && b != ']') {
+                    elementFrom = i;
+                    if (runFrom < 0) {
+                        runFrom = i;
+                        runLine = line;
+                        runColumn = column(i);
+                    }
+                }
+
+                switch (b) {
+                    case '"':
+                        inString = true;
+                        escaped = false;
+                        stringFrom = i;
+                        continue;
+                    case '{': case '[':
+                        if (depth == isObject.length) isObject = Arrays.copyOf(isObject, depth * 2);
+                        isObject[depth++] = b == '{';
+                        expectKey = b == '{';
+                        if (depth == 3) kind = OTHER;
+                        break;
+                    case '}': case ']':
+                        if (depth == 0 || isObject[depth - 1] != (b == '}')) throw error("Unbalanced '" + (char) b + "'", i);
+                        if (lastByte == ',') throw error("Trailing comma", i);
+                        if (depth == 2 && section != null) {
+                            if (elementFrom >= 0) runTo = last + 1;
+                            if (runFrom >= 0) parts.add(new Part(section, runFrom, runTo, runLine, runColumn, true));
+                            runFrom = elementFrom = -1;
+                            section = null;
+                            valueFrom = -2;
+                        } else if (depth == 1) {
+                            if (member != null) endMember(member, valueFrom, last + 1, valueLine, valueColumn, i);
+                            done = true;
+                        }
+                        depth--;
+                        expectKey = false;
+                        break;
+                    case ',':
+                        if (depth == 1) {
+                            if (member == null) throw error("Expected a member name", i);
+                            endMember(member, valueFrom, last + 1, valueLine, valueColumn, i);
+                            member = null;
+                            valueFrom = -1;
+                        } else if (depth == 2 && section != null) {
+                            if (elementFrom < 0) throw error("Unexpected ','", i);
+                            runTo = last + 1;
+                            elementFrom = -1;
+                            if (runTo - runFrom >= PART_BYTES) {
+                                parts.add(new Part(section, runFrom, runTo, runLine, runColumn, true));
+                                runFrom = -1;
+                            }
+                        }
+                        expectKey = isObject[depth - 1];
+                        break;
+                    default:
+                }
+                last = i;
+                lastByte = b;
+            }
+        }
+        if (inString) throw error("Unterminated string", stringFrom);
+        if (!done) throw error("Unexpected end of input", n);
+    }
+
+    /** Emits the part for a member that ended at a separator or the closing brace. */
+    private void endMember(String member, int from, int to, int line, int column, int at) throws IOException {
+        if (from == -1) throw error("Missing value for " + member, at);
+        if (from >= 0) parts.add(new Part(member, from, to, line, column, false));
+    }
+
+    /** Members of a section's elements that hold attribute names. */
+    private static String[] keys(String section) {
+        switch (section) {
+            case "objects": return new String[] {"attributes"};
+            case "characters": return new String[] {"wants"};
+            case "useRules": case "miniGameRules": return new String[] {"primary", "with"};
+            case "giveRules": return new String[] {"given"};
+            default: return new String[0];
+        }
+    }
+
+    private static int kind(String section) {
+        switch (section) {
+            case "objects": return ATTRIBUTES;
+            case "characters": return SELECTORS;
+            default: return SELECTOR;
+        }
+    }
+
+    /** Interns the attribute spelled by bytes [from, to), decoding only the first time this pass sees it. */
+    private void intern(int from, int to) {
+        int h = 0;
+        for (int k = from; k < to; k++) h = 31 * h + json.get(k);
+        int mask = interned.length - 1, i = h & mask;
+        for (byte[] s; (s = interned[i]) != null; i = (i + 1) & mask) {
+            if (spells(s, from, to)) return;
+        }
+        byte[] bytes = new byte[to - from];
+        json.get(from, bytes);
+        AttributeRegistry.intern(new String(bytes, StandardCharsets.UTF_8));
+        interned[i] = bytes;
+        if (++internedCount * 2 > interned.length) {
+            byte[][] old = interned;
+            interned = new byte[old.length * 2][];
+            mask = interned.length - 1;
+            for (byte[] s : old) {
+                if (s == null) continue;
+                int g = 0;
+                for (byte c : s) g = 31 * g + c;
+                for (i = g & mask; interned[i] != null; i = (i + 1) & mask) { }
+                interned[i] = s;
+            }
+        }
+    }
+
+    private boolean spells(byte[] s, int from, int to) {
+        if (s.length != to - from) return false;
+        for (int k = 0; k < s.length; k++) if (s[k] != json.get(from + k)) return false;
+        return true;
+    }
+
+    /** Whether the key (decoded, or null to compare the raw bytes between from and to) is name. */
+    private boolean is(String key, int from, int to, String name) {
+        if (key != null) return key.equals(name);
+        if (to - from - 1 != name.length()) return false;
+        for (int k = 0; k < name.length(); k++) if (json.get(from + 1 + k) != name.charAt(k)) return false;
+        return true;
+    }
+
+    /** The string whose quotes are at from and to. */
+    private String string(int from, int to, boolean escaped) {
+        if (!escaped) {
+            byte[] bytes = new byte[to - from - 1];
+            json.get(from + 1, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try {
+            JsonReader r = new JsonReader(reader(json, new Part(null, from, to + 1, line, 1, false)));
+            return r.nextString();
+        } catch (IOException e) {
+            return ""; // the parser reports the bad escape with its position
+        }
+    }
+
+    /** Column of byte i in chars, as JsonReader counts them; counts on from the last call on the same line. */
+    private int column(int i) {
+        if (counted < lineStart || counted > i) {
+            counted = lineStart;
+            countedChars = 0;
+        }
+        for (; counted < i; counted++) {
+            int b = json.get(counted) & 0xFF;
+            if ((b & 0xC0) != 0x80) countedChars += b >= 0xF0 ? 2 : 1; // a 4-byte sequence is a surrogate pair
+        }
+        return countedChars + 1;
+    }
+
+    private IOException error(String message, int at) {
+        return new IOException(message + " at line " + line + ", column " + column(at));
+    }
+}
@@ -0,0 +1,238 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Writes a Game in the layout JsonWorldLoader reads, one entity per line, entities in
+ * SymbolTable order so a load-write round trip reproduces the file. Used to export the
+ * sample and generated worlds as authoring starting points and benchmark inputs.
+ */
+public final class JsonWorldWriter {
+    private final Writer out;
+
+    private JsonWorldWriter(Writer out) { this.out = out; }
+
+    public static void write(Game game, Path file) throws IOException {
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            write(game, w);
+        }
+    }
+
+    public static void write(Game game, Writer out) throws IOException {
+        new JsonWorldWriter(out).world(game);
+        out.flush();
+    }
+
+    private void world(Game g) throws IOException {
+        SymbolTable sym = g.getSymbols();
+        out.write("{\n");
+        member("title", g.getTitle());
+        out.write(",\n");
+        member("startMessage", g.getStartMessage());
+        out.write(",\n");
+        member("start", g.getStartLocationId());
+        out.write(",\n");
+        name("end");
+        strings(g.getEndLocationIds());
+        out.write(",\n");
+        name("turnLimit");
+        out.write(g.getTurnLimit() == null ? "null" : g.getTurnLimit().toString());
+
+        section("locations", sym.locationCount(), i -> {
+            Location l = sym.location(i);
+            out.write('{');
+            member("id", l.getId());
+            out.write(',');
+            member("name", l.getName());
+            out.write(',');
+            member("description", l.getDescription());
+            out.write(',');
+            member("image", l.getImagePath());
+            out.write(',');
+            name("objects");
+            strings(l.getObjectIds());
+            out.write(',');
+            name("characters");
+            strings(l.getCharacterIds());
+            out.write(',');
+            name("exits");
+            out.write('[');
+            List<Connection> exits = l.getConnections();
+            for (int k = 0; k < exits.size(); k++) {
+                if (k > 0) out.write(',');
+                connection(null, exits.get(k));
+            }
+            out.write("]}");
+        });
+        section("objects", sym.objectCount(), i -> {
+            GameObject o = sym.object(i);
+            out.write('{');
+            member("id", o.getId());
+            out.write(',');
+            member("name", o.getName());
+            out.write(',');
+            member("description", o.getDescription());
+            out.write(',');
+            name("pickUp");
+            out.write(Boolean.toString(o.canPickUp()));
+            out.write(',');
+            name("attributes");
+            strings(o.getAttributes());
+            out.write(',');
+            name("contains");
+            strings(o.getContainedObjectIds());
+            out.write('}');
+        });
+        section("characters", sym.characterCount(), i -> {
+            GameCharacter c = sym.character(i);
+            out.write('{');
+            member("id", c.getId());
+            out.write(',');
+            member("name", c.getName());
+            out.write(',');
+            member("description", c.getDescription());
+            out.write(',');
+            name("phrases");
+            strings(c.getPhrases());
+            out.write(',');
+            name("wants");
+            List<String> wants = new ArrayList<>();
+            for (Want w : c.getWants()) wants.add(w.objectId != null ? w.objectId : "@" + w.attribute);
+            strings(wants);
+            out.write('}');
+        });
+        List<UseRule> useRules = g.getUseRules();
+        section("useRules", useRules.size(), i -> {
+            UseRule r = useRules.get(i);
+            out.write('{');
+            selector("primary", r.primary);
+            out.write(',');
+            selector("with", r.with);
+            out.write(',');
+            member("text", r.resultText);
+            out.write(',');
+            name("produces");
+            strings(r.producedObjectIds);
+            out.write('}');
+        });
+        List<GiveRule> giveRules = g.getGiveRules();
+        section("giveRules", giveRules.size(), i -> {
+            GiveRule r = giveRules.get(i);
+            out.write('{');
+            member("character", r.characterId);
+            out.write(',');
+            selector("given", r.given);
+            out.write(',');
+            member("text", r.resultText);
+            out.write(',');
+            name("gives");
+            strings(r.objectsToUser);
+            out.write(',');
+            name("endsGame");
+            out.write(Boolean.toString(r.endsGame));
+            out.write('}');
+        });
+        List<MiniGameRule> miniGameRules = g.getMiniGameRules();
+        section("miniGameRules", miniGameRules.size(), i -> {
+            MiniGameRule r = miniGameRules.get(i);
+            out.write('{');
+            selector("primary", r.primary);
+            out.write(',');
+            selector("with", r.with);
+            out.write(',');
+            member("miniGame", r.miniGameId);
+            out.write(',');
+            name("rewards");
+            strings(r.rewardObjectIds);
+            out.write(',');
+            member("success", r.successText);
+            out.write(',');
+            member("failure", r.failureText);
+            out.write(',');
+            name("unlock");
+            if (r.unlockConnection == null) out.write("null");
+            else connection(r.unlockLocationId, r.unlockConnection);
+            out.write('}');
+        });
+        out.write("\n}\n");
+    }
+
+    private interface Entry { void write(int i) throws IOException; }
+
+    private void section(String name, int n, Entry entry) throws IOException {
+        out.write(",\n");
+        name(name);
+        out.write('[');
+        for (int i = 0; i < n; i++) {
+            out.write(i == 0 ? "\n  " : ",\n  ");
+            entry.write(i);
+        }
+        out.write(n == 0 ? "]" : "\n]");
+    }
+
+    private void connection(String location, Connection c) throws IOException {
+        out.write('{');
+        if (location != null) {
+            member("location", location);
+            out.write(',');
+        }
+        member("label", c.getLabel());
+        out.write(',');
+        member("to", c.getTargetLocationId());
+        out.write('}');
+    }
+
+    private void selector(String name, Selector s) throws IOException {
+        name(name);
+        if (s == null) out.write("null");
+        else string(s.objectId != null ? s.objectId : "@" + s.attribute);
+    }
+
+    private void member(String name, String value) throws IOException {
+        name(name);
+        if (value == null) out.write("null");
+        else string(value);
+    }
+
+    private void name(String name) throws IOException {
+        string(name);
+        out.write(':');
+    }
+
+    private void strings(Collection<String> values) throws IOException {
+        out.write('[');
+        int k = 0;
+        for (String v : values) {
+            if (k++ > 0) out.write(',');
+            string(v);
+        }
+        out.write(']');
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) continue;
+            out.write(s, start, i - start);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\t': out.write("\\t"); break;
+                case '\r': out.write("\\r"); break;
+                default: out.write(String.format("\\u%04x", (int) c));
+            }
+            start = i + 1;
+        }
+        out.write(s, start, s.length() - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,255 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.model.SymbolTable;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+/**
+ * Splits a mapped world image into regions and keeps only recently used regions resident.
+ * A region is REGION_LOCATIONS locations grown breadth-first along exits, plus the objects
+ * and characters those locations start with (and the objects inside them). Entities no location
+ * starts with, such as rule rewards, belong to no region and are never evicted.
+ *
+ * The image's Source reports every entity it builds here, which marks the entity's region
+ * resident and most recently used. When a player enters a location with exits into another
+ * region, that region is decoded ahead of them on a background thread, and their own region is
+ * touched again once it is done. When the estimated heap of resident regions exceeds the
+ * budget, the least recently used regions are evicted from the SymbolTable. A later lookup
+ * just decodes them again, and session changes live in each session's WorldOverlay, keyed by
+ * id, so eviction never loses them.
+ */
+final class RegionStreamer {
+    static final int REGION_LOCATIONS = 256;
+    // Heap estimate per entity: a fixed part plus a multiple of its record, measured on generated worlds
+    private static final long ENTITY_BYTES = 160, BYTES_PER_RECORD_BYTE = 6;
+
+    private static final ExecutorService PREFETCH = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "world-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ByteBuffer image;
+    private final int tablesAt, nLoc, nObj;
+    private final IntFunction<String> str;
+    private final SymbolTable symbols;
+    private final long budget;
+
+    private final int[] locationRegion, objectRegion, characterRegion; // -1 for no region
+    private final int[][] members; // per kind: region -> handles, as {starts..., handles...}; see members()
+    private final long[] cost;
+
+    // Guarded by this
+    private final boolean[] resident, pending;
+    private final LinkedHashMap<Integer, Boolean> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+    private long evictions;
+    private int prefetchingFor = -1; // region of the player whose prefetch is decoding; not evicted meanwhile
+
+    RegionStreamer(ByteBuffer image, int tablesAt, int nLoc, int nObj, int nCh, IntFunction<String> str,
+                   SymbolTable symbols, long budget) {
+        this.image = image;
+        this.tablesAt = tablesAt;
+        this.nLoc = nLoc;
+        this.nObj = nObj;
+        this.str = str;
+        this.symbols = symbols;
+        this.budget = budget;
+        locationRegion = new int[nLoc];
+        objectRegion = new int[nObj];
+        characterRegion = new int[nCh];
+        Arrays.fill(objectRegion, -1);
+        Arrays.fill(characterRegion, -1);
+        int regions = partition();
+        members = new int[][] {members(locationRegion, regions), members(objectRegion, regions), members(characterRegion, regions)};
+        cost = new long[regions];
+        for (int h = 0; h < nLoc; h++) cost[locationRegion[h]] += estimate(h);
+        for (int h = 0; h < nObj; h++) if (objectRegion[h] >= 0) cost[objectRegion[h]] += estimate(nLoc + h);
+        for (int h = 0; h < nCh; h++) if (characterRegion[h] >= 0) cost[characterRegion[h]] += estimate(nLoc + nObj + h);
+        resident = new boolean[regions];
+        pending = new boolean[regions];
+    }
+
+    int regionCount() { return cost.length; }
+    synchronized long residentBytes() { return residentBytes; }
+    synchronized long evictions() { return evictions; }
+
+    void locationBuilt(int h) { touch(locationRegion[h]); }
+    void objectBuilt(int h) { touch(objectRegion[h]); }
+    void characterBuilt(int h) { touch(characterRegion[h]); }
+
+    /** Keeps the player's region fresh and starts decoding the regions its exits lead into. */
+    void entered(int h) {
+        int here = locationRegion[h];
+        touch(here);
+        Cursor in = record(h);
+        in.skip(3);
+        in.skip(in.next());
+        in.skip(in.next());
+        for (int k = in.next(); k > 0; k--) {
+            in.skip(1);
+            int target = symbols.locationHandle(str.apply(in.next()));
+            if (target == SymbolTable.NONE) continue;
+            int r = locationRegion[target];
+            synchronized (this) {
+                if (r == here || resident[r] || pending[r]) continue;
+                pending[r] = true;
+            }
+            PREFETCH.execute(() -> load(r, here));
+        }
+    }
+
+    /**
+     * Decodes region r ahead of a player standing in region here. Decoding r touches it, so here
+     * is kept from eviction meanwhile and touched again after; otherwise prefetching the regions
+     * around a player could evict the one they stand in, which no decode would ever refresh.
+     */
+    private void load(int r, int here) {
+        synchronized (this) { prefetchingFor = here; }
+        try {
+            int[] loc = members[0], obj = members[1], ch = members[2];
+            for (int i = loc[r]; i < loc[r + 1]; i++) symbols.location(loc[i]);
+            for (int i = obj[r]; i < obj[r + 1]; i++) symbols.object(obj[i]);
+            for (int i = ch[r]; i < ch[r + 1]; i++) symbols.character(ch[i]);
+        } finally {
+            synchronized (this) {
+                pending[r] = false;
+                prefetchingFor = -1;
+            }
+            touch(here);
+        }
+    }
+
+    private synchronized void touch(int r) {
+        if (r < 0) return;
+        lru.put(r, Boolean.TRUE);
+        if (!resident[r]) {
+            resident[r] = true;
+            residentBytes += cost[r];
+        }
+        Iterator<Integer> it = lru.keySet().iterator();
+        while (residentBytes > budget && it.hasNext()) {
+            int victim = it.next(); // least recently used first; r itself was just moved to the end
+            if (victim == r || victim == prefetchingFor) continue;
+            it.remove();
+            evict(victim);
+        }
+    }
+
+    private void evict(int r) {
+        resident[r] = false;
+        residentBytes -= cost[r];
+        evictions++;
+        int[] loc = members[0], obj = members[1], ch = members[2];
+        for (int i = loc[r]; i < loc[r + 1]; i++) symbols.evictLocation(loc[i]);
+        for (int i = obj[r]; i < obj[r + 1]; i++) symbols.evictObject(obj[i]);
+        for (int i = ch[r]; i < ch[r + 1]; i++) symbols.evictCharacter(ch[i]);
+    }
+
+    /** Assigns every location, and the entities locations start with, to a region; returns the count. */
+    private int partition() {
+        Arrays.fill(locationRegion, -1);
+        int regions = 0, r = -1, size = REGION_LOCATIONS;
+        int[] queue = new int[nLoc];
+        for (int seed = 0; seed < nLoc; seed++) {
+            if (locationRegion[seed] >= 0) continue;
+            // A search that runs out of exits early carries on from the next seed in the same region
+            if (size == REGION_LOCATIONS) {
+                r = regions++;
+                size = 0;
+            }
+            int head = 0, tail = 0;
+            queue[tail++] = seed;
+            locationRegion[seed] = r;
+            size++;
+            while (head < tail && size < REGION_LOCATIONS) {
+                Cursor in = record(queue[head++]);
+                in.skip(3);
+                in.skip(in.next());
+                in.skip(in.next());
+                for (int k = in.next(); k > 0 && size < REGION_LOCATIONS; k--) {
+                    in.skip(1);
+                    int t = symbols.locationHandle(str.apply(in.next()));
+                    if (t == SymbolTable.NONE || locationRegion[t] >= 0) continue;
+                    locationRegion[t] = r;
+                    queue[tail++] = t;
+                    size++;
+                }
+            }
+        }
+
+        int[] stack = new int[16];
+        for (int h = 0; h < nLoc; h++) {
+            int home = locationRegion[h];
+            Cursor in = record(h);
+            in.skip(3);
+            int depth = 0;
+            for (int k = in.next(); k > 0; k--) {
+                int o = symbols.objectHandle(str.apply(in.next()));
+                if (o == SymbolTable.NONE || objectRegion[o] >= 0) continue;
+                objectRegion[o] = home;
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+                stack[depth++] = o;
+            }
+            while (depth > 0) { // contained objects follow their container
+                Cursor c = record(nLoc + stack[--depth]);
+                c.skip(3);
+                c.skip(c.next());
+                for (int k = c.next(); k > 0; k--) {
+                    int o = symbols.objectHandle(str.apply(c.next()));
+                    if (o == SymbolTable.NONE || objectRegion[o] >= 0) continue;
+                    objectRegion[o] = home;
+                    if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+                    stack[depth++] = o;
+                }
+            }
+            for (int k = in.next(); k > 0; k--) {
+                int c = symbols.characterHandle(str.apply(in.next()));
+                if (c != SymbolTable.NONE && characterRegion[c] < 0) characterRegion[c] = home;
+            }
+        }
+        return regions;
+    }
+
+    /** Region -> handles in one array: entries 0..regions are offsets into the rest. */
+    private static int[] members(int[] regionOf, int regions) {
+        int[] out = new int[regions + 1 + regionOf.length];
+        for (int r : regionOf) if (r >= 0) out[r + 1]++;
+        out[0] = regions + 1;
+        for (int r = 0; r < regions; r++) out[r + 1] += out[r];
+        int[] next = Arrays.copyOf(out, regions);
+        for (int h = 0; h < regionOf.length; h++) if (regionOf[h] >= 0) out[next[regionOf[h]]++] = h;
+        return out;
+    }
+
+    /** Estimated heap of the entity at a record table index once decoded. */
+    private long estimate(int tableIndex) {
+        int bytes = image.getInt(tablesAt + 4 * (tableIndex + 1)) - image.getInt(tablesAt + 4 * tableIndex);
+        return ENTITY_BYTES + BYTES_PER_RECORD_BYTE * bytes;
+    }
+
+    private Cursor record(int tableIndex) { return new Cursor(image, image.getInt(tablesAt + 4 * tableIndex)); }
+
+    /** Absolute int reader over the image. */
+    static final class Cursor {
+        final ByteBuffer image;
+        int pos;
+
+        Cursor(ByteBuffer image, int pos) {
+            this.image = image;
+            this.pos = pos;
+        }
+
+        int next() {
+            int v = image.getInt(pos);
+            pos += 4;
+            return v;
+        }
+
+        void skip(int ints) { pos += 4 * ints; }
+    }
+}
@@ -0,0 +1,194 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.engine.GameState;
+import edu.uwo.cs2212.engine.model.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Compact, versioned binary save of a GameState and its WorldOverlay. Ids are written as
+ * varint handles against the world's SymbolTable; an id the table does not know is written
+ * inline as a string. Layout:
+ *
+ *   int magic "IQSV", byte version, long symbol-table fingerprint
+ *   location current, varint turnsTaken, varint talkIndex
+ *   varint n, n x object                       -- inventory, in order
+ *   varint n, n x { location,                  -- changed locations
+ *                   varint, objects, varint, characters,
+ *                   varint, connections as { string label, location target } }
+ *
+ * where each entity ref is varint (handle + 1), or 0 followed by a string, and a string is
+ * a varint byte length followed by UTF-8. Saves are written through a FileChannel and read
+ * back by memory-mapping the file.
+ */
+public final class SaveGame {
+    private static final int MAGIC = 0x49515356; // "IQSV"
+    private static final byte VERSION = 1;
+
+    private SaveGame(){}
+
+    public static void write(Path file, Game game, GameState state) throws IOException {
+        ByteBuffer buf = encode(game, state);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    public static GameState read(Path file, Game game) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return decode(buf, game);
+        }
+    }
+
+    public static ByteBuffer encode(Game game, GameState state) {
+        SymbolTable sym = game.getSymbols();
+        Writer w = new Writer();
+        w.buf.putInt(MAGIC);
+        w.buf.put(VERSION);
+        w.buf.putLong(sym.fingerprint());
+        w.ref(sym.locationHandle(state.currentLocationId), state.currentLocationId);
+        w.varint(state.turnsTaken);
+        w.varint(state.talkIndex);
+        w.varint(state.inventory.size());
+        for (String id : state.inventory) w.ref(sym.objectHandle(id), id);
+        Set<String> changed = state.world.changedLocationIds();
+        w.varint(changed.size());
+        for (String locId : changed) {
+            Location loc = game.getLocations().get(locId);
+            w.ref(sym.locationHandle(locId), locId);
+            Set<String> objects = state.world.objectIds(loc);
+            w.varint(objects.size());
+            for (String id : objects) w.ref(sym.objectHandle(id), id);
+            Set<String> characters = state.world.characterIds(loc);
+            w.varint(characters.size());
+            for (String id : characters) w.ref(sym.characterHandle(id), id);
+            List<Connection> conns = state.world.connections(loc);
+            w.varint(conns.size());
+            for (Connection c : conns) {
+                w.string(c.getLabel());
+                w.ref(sym.locationHandle(c.getTargetLocationId()), c.getTargetLocationId());
+            }
+        }
+        return w.buf.flip();
+    }
+
+    public static GameState decode(ByteBuffer buf, Game game) throws IOException {
+        SymbolTable sym = game.getSymbols();
+        try {
+            if (buf.getInt() != MAGIC) throw new IOException("Not a save file");
+            byte version = buf.get();
+            if (version != VERSION) throw new IOException("Unsupported save version " + version);
+            if (buf.getLong() != sym.fingerprint()) throw new IOException("Save belongs to a different world");
+            GameState state = new GameState();
+            state.currentLocationId = locationRef(buf, sym);
+            state.turnsTaken = varint(buf);
+            state.talkIndex = varint(buf);
+            for (int n = count(buf); n > 0; n--) state.inventory.add(objectRef(buf, sym));
+            for (int n = count(buf); n > 0; n--) {
+                String locId = locationRef(buf, sym);
+                Location loc = game.getLocations().get(locId);
+                if (loc == null) throw new IOException("Unknown location in save: " + locId);
+                List<String> objects = new ArrayList<>();
+                for (int k = count(buf); k > 0; k--) objects.add(objectRef(buf, sym));
+                List<String> characters = new ArrayList<>();
+                for (int k = count(buf); k > 0; k--) {
+                    int h = handle(buf);
+                    characters.add(h < 0 ? string(buf) : sym.characterId(h));
+                }
+                List<Connection> conns = new ArrayList<>();
+                for (int k = count(buf); k > 0; k--) conns.add(new Connection(string(buf), locationRef(buf, sym)));
+                state.world.restore(loc, objects, characters, conns);
+            }
+            return state;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated or corrupt save", e);
+        }
+    }
+
+    private static String locationRef(ByteBuffer buf, SymbolTable sym) {
+        int h = handle(buf);
+        return h < 0 ? string(buf) : sym.locationId(h);
+    }
+
+    private static String objectRef(ByteBuffer buf, SymbolTable sym) {
+        int h = handle(buf);
+        return h < 0 ? string(buf) : sym.objectId(h);
+    }
+
+    private static int varint(ByteBuffer buf) {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buf.get();
+            v |= (b & 0x7f) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IndexOutOfBoundsException("varint too long");
+    }
+
+    /** An entity ref's handle, or -1 for an inline string. */
+    private static int handle(ByteBuffer buf) {
+        int v = varint(buf);
+        if (v < 0) throw new IndexOutOfBoundsException("negative ref");
+        return v - 1;
+    }
+
+    /**
+     * A byte length or element count. Every element takes at least a byte, so a count the rest
+     * of the buffer cannot hold is corrupt; checking first keeps a bad file from allocating.
+     */
+    private static int count(ByteBuffer buf) {
+        int n = varint(buf);
+        if (n < 0 || n > buf.remaining()) throw new IndexOutOfBoundsException("bad count " + n);
+        return n;
+    }
+
+    private static String string(ByteBuffer buf) {
+        int len = count(buf);
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Growable heap buffer with varint helpers. */
+    private static final class Writer {
+        ByteBuffer buf = ByteBuffer.allocate(256);
+
+        void varint(int v) {
+            ensure(5);
+            while ((v & ~0x7f) != 0) {
+                buf.put((byte) ((v & 0x7f) | 0x80));
+                v >>>= 7;
+            }
+            buf.put((byte) v);
+        }
+
+        void ref(int handle, String id) {
+            varint(handle + 1); // NONE (-1) becomes the 0 escape
+            if (handle == SymbolTable.NONE) string(id);
+        }
+
+        void string(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            ensure(bytes.length);
+            buf.put(bytes);
+        }
+
+        private void ensure(int n) {
+            if (buf.remaining() >= n) return;
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + n));
+            buf.flip();
+            bigger.put(buf);
+            buf = bigger;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic generator of large worlds for scale tests and benchmarks. The same Spec (seed
+ * included) always yields the same Game, however many threads build it: every entity draws
+ * from its own random stream keyed by (seed, kind, index), entities are built in parallel into
+ * index-ordered arrays, and only the cheap bucketing steps run sequentially.
+ *
+ * Shape of a generated world:
+ * - Locations form a random recursive tree (so everything is reachable from loc_0) biased
+ *   toward older locations, which grow into hubs; extra one-way exits mostly lead nearby.
+ * - Room sizes are log-normal: most locations hold a few objects, a few hold many.
+ * - Object attributes and rule attribute selectors follow a Zipf law over the vocabulary, and
+ *   popular attributes get the low AttributeRegistry handles.
+ * - About a tenth of the objects are placed nowhere; rules produce them or containers hold them.
+ */
+public final class WorldGenerator {
+    private static final String[] ADJECTIVES = {
+        "Dusty", "Gilded", "Ruined", "Silent", "Frozen", "Sunken", "Hidden", "Burning", "Ancient", "Crystal",
+        "Shadowed", "Windswept", "Mossy", "Iron", "Hollow", "Radiant"
+    };
+    private static final String[] PLACES = {
+        "Hall", "Vault", "Bridge", "Courtyard", "Tower", "Cavern", "Library", "Market", "Harbor", "Garden",
+        "Chapel", "Forge", "Tunnel", "Observatory", "Barracks", "Ruins"
+    };
+    private static final String[] THINGS = {
+        "Lantern", "Key", "Rope", "Crate", "Amulet", "Map", "Hammer", "Scroll", "Gem", "Shield",
+        "Compass", "Bottle", "Idol", "Chest", "Feather", "Gauntlet"
+    };
+    private static final String[] DETAILS = {
+        "covered in old runes", "humming faintly", "cold to the touch", "scratched by claws",
+        "smelling of smoke", "half buried in sand", "glowing at the edges", "older than it looks"
+    };
+    private static final String[] PHRASES = {
+        "Welcome, traveller.", "Have you seen the stones?", "The roads are not safe at night.",
+        "I could use a hand.", "Thanos was here before you.", "Ask me again later.",
+        "There is a passage nobody uses.", "Bring me something useful."
+    };
+    private static final String[] COMMON_ATTRIBUTES = {
+        "key", "weapon", "light", "heavy", "sharp", "long", "metal", "wooden", "magic", "container",
+        "food", "fragile", "tool", "gem", "document", "infinity_stone"
+    };
+
+    // Random stream kinds
+    private static final int TREE = 1, EDGE = 2, LOCATION = 3, OBJECT = 4, CHARACTER = 5,
+            USE_RULE = 6, GIVE_RULE = 7, MINIGAME_RULE = 8, END = 9;
+
+    /** What to generate. ofSize() picks proportionate counts; every field may be overridden. */
+    public static final class Spec {
+        public long seed = 42;
+        public int locations;
+        public int connections;   // total one-way exits, at least 2 * (locations - 1)
+        public int objects;
+        public int attributes;    // vocabulary size
+        public int characters;
+        public int useRules;
+        public int giveRules;
+        public int miniGameRules;
+        public int endLocations = 1;
+        public double unplacedFraction = 0.1;
+        public double containerFraction = 0.05;
+
+        /** Averages about 3 exits, 10 objects and 2 use rules per location. */
+        public static Spec ofSize(int locations) {
+            if (locations < 2) throw new IllegalArgumentException("A world needs at least 2 locations");
+            Spec s = new Spec();
+            s.locations = locations;
+            s.connections = 3 * locations;
+            s.objects = 10 * locations;
+            s.attributes = Math.max(COMMON_ATTRIBUTES.length, Math.min(1024, locations / 50));
+            s.characters = Math.max(1, locations / 4);
+            s.useRules = 2 * locations;
+            s.giveRules = Math.max(1, locations / 8);
+            s.miniGameRules = Math.max(1, locations / 50);
+            return s;
+        }
+
+        public Spec seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+
+    private final Spec spec;
+    private final String[] attributeNames;
+    private final double[] attributeCdf;
+    private final int placed;         // objects 0..placed-1 are put in locations, the rest are not
+    private String[] locationNames;
+    private int[] objectLocation;     // location index per placed object
+    private int[] characterLocation;  // location index per character
+    private GameCharacter[] characters;
+
+    private WorldGenerator(Spec spec) {
+        if (spec.locations < 2 || spec.objects < 1 || spec.attributes < 1) {
+            throw new IllegalArgumentException("Spec needs at least 2 locations, 1 object and 1 attribute");
+        }
+        if (spec.characters < 0 || spec.useRules < 0 || spec.giveRules < 0 || spec.miniGameRules < 0) {
+            throw new IllegalArgumentException("Spec counts cannot be negative");
+        }
+        if (spec.characters == 0 && (spec.giveRules > 0 || spec.miniGameRules > 0)) {
+            throw new IllegalArgumentException("Give and mini-game rules need at least 1 character");
+        }
+        this.spec = spec;
+        this.placed = Math.max(1, (int) Math.round(spec.objects * (1 - spec.unplacedFraction)));
+        this.attributeNames = new String[spec.attributes];
+        for (int a = 0; a < attributeNames.length; a++) {
+            attributeNames[a] = a < COMMON_ATTRIBUTES.length ? COMMON_ATTRIBUTES[a] : "attr_" + a;
+        }
+        this.attributeCdf = zipfCdf(spec.attributes, 1.0);
+    }
+
+    /** Generates on the common fork-join pool. */
+    public static Game generate(Spec spec) { return generate(spec, ForkJoinPool.commonPool()); }
+
+    /** Generates with pool's parallelism; the result does not depend on it. */
+    public static Game generate(Spec spec, ForkJoinPool pool) {
+        WorldGenerator g = new WorldGenerator(spec);
+        return pool.submit(g::build).join();
+    }
+
+    private Game build() {
+        // Interning the vocabulary in rank order keeps handles deterministic and popular ones small
+        for (String a : attributeNames) AttributeRegistry.intern(a);
+
+        int n = spec.locations;
+        locationNames = new String[n];
+        Arrays.setAll(locationNames, i -> {
+            long h = mix(spec.seed, 0, i);
+            return ADJECTIVES[(int) (h >>> 60)] + " " + PLACES[(int) (h >>> 56) & 15] + " " + i;
+        });
+
+        // Room sizes: log-normal weights, sampled through a cumulative table
+        double[] weights = new double[n];
+        Arrays.parallelSetAll(weights, i -> Math.exp(rng(LOCATION, i).nextGaussian()));
+        double[] roomCdf = cumulative(weights);
+
+        objectLocation = new int[placed];
+        Arrays.parallelSetAll(objectLocation, j -> sample(roomCdf, rng(OBJECT, j).nextDouble()));
+        characterLocation = new int[spec.characters];
+        Arrays.parallelSetAll(characterLocation, c -> sample(roomCdf, rng(CHARACTER, c).nextDouble()));
+
+        GameObject[] objects = parallel(spec.objects, this::object, GameObject[]::new);
+        characters = parallel(spec.characters, this::character, GameCharacter[]::new);
+
+        int[][] objectsAt = bucket(objectLocation, n);
+        int[][] charactersAt = bucket(characterLocation, n);
+        int[][] exits = exits();
+        Location[] locations = parallel(n, i -> location(i, objectsAt[i], charactersAt[i], exits[i]), Location[]::new);
+
+        UseRule[] useRules = parallel(spec.useRules, this::useRule, UseRule[]::new);
+        GiveRule[] giveRules = parallel(spec.giveRules, this::giveRule, GiveRule[]::new);
+        MiniGameRule[] miniGameRules = parallel(spec.miniGameRules, this::miniGameRule, MiniGameRule[]::new);
+
+        Map<String, Location> locationMap = new LinkedHashMap<>(n * 2);
+        for (Location l : locations) locationMap.put(l.getId(), l);
+        Map<String, GameObject> objectMap = new LinkedHashMap<>(objects.length * 2);
+        for (GameObject o : objects) objectMap.put(o.getId(), o);
+        Map<String, GameCharacter> characterMap = new LinkedHashMap<>(characters.length * 2);
+        for (GameCharacter c : characters) characterMap.put(c.getId(), c);
+
+        Set<String> ends = new LinkedHashSet<>();
+        for (int e = 0; ends.size() < Math.min(spec.endLocations, n - 1); e++) {
+            ends.add(locationId(1 + rng(END, e).nextInt(n - 1)));
+        }
+        return new Game("Generated world " + spec.seed + "/" + n, "A generated world of " + n + " locations.",
+                locationId(0), ends, null, locationMap, objectMap, characterMap,
+                Arrays.asList(useRules), Arrays.asList(giveRules), Arrays.asList(miniGameRules),
+                SymbolTable.of(locationMap, objectMap, characterMap));
+    }
+
+    /**
+     * Exits of every location as target indexes. Tree edges join each location i > 0 to a parent
+     * below it, both ways; parent = i * u^1.25 favours old locations, so early ones become hubs
+     * (the root gets about 5 * n^0.2 children). The remaining budget becomes one-way exits,
+     * four in five to a location within a few dozen indexes.
+     */
+    private int[][] exits() {
+        int n = spec.locations;
+        int extra = Math.max(0, spec.connections - 2 * (n - 1));
+        int[] parent = new int[n];
+        Arrays.parallelSetAll(parent, i -> i == 0 ? -1 : (int) (i * Math.pow(rng(TREE, i).nextDouble(), 1.25)));
+        long[] edges = new long[extra]; // source << 32 | target
+        Arrays.parallelSetAll(edges, e -> {
+            SplittableRandom r = rng(EDGE, e);
+            int from = r.nextInt(n);
+            int to = r.nextInt(5) < 4 ? Math.floorMod(from + r.nextInt(-32, 33), n) : r.nextInt(n);
+            return (long) from << 32 | to;
+        });
+
+        int[] degree = new int[n];
+        for (int i = 1; i < n; i++) {
+            degree[i]++;
+            degree[parent[i]]++;
+        }
+        for (long e : edges) degree[(int) (e >>> 32)]++;
+        int[][] out = new int[n][];
+        for (int i = 0; i < n; i++) out[i] = new int[degree[i]];
+        int[] fill = new int[n];
+        for (int i = 1; i < n; i++) {
+            out[i][fill[i]++] = parent[i];
+            out[parent[i]][fill[parent[i]]++] = i;
+        }
+        for (long e : edges) {
+            int from = (int) (e >>> 32);
+            out[from][fill[from]++] = (int) e;
+        }
+        return out;
+    }
+
+    private Location location(int i, int[] objects, int[] characters, int[] exits) {
+        SplittableRandom r = rng(LOCATION, i);
+        r.nextGaussian(); // consumed by the room weight
+        List<String> objectIds = new ArrayList<>(objects.length);
+        for (int j : objects) objectIds.add(objectId(j));
+        List<String> characterIds = new ArrayList<>(characters.length);
+        for (int c : characters) characterIds.add(characterId(c));
+        List<Connection> connections = new ArrayList<>(exits.length);
+        Set<Integer> seen = new HashSet<>();
+        for (int t : exits) {
+            // Several exits to one place would share a label, and only the first could be used
+            if (t != i && seen.add(t)) connections.add(new Connection(locationNames[t], locationId(t)));
+        }
+        return new Location(locationId(i), locationNames[i], "A quiet place, " + pick(r, DETAILS) + ".", null, objectIds, characterIds, connections);
+    }
+
+    private GameObject object(int j) {
+        SplittableRandom r = rng(OBJECT, j);
+        r.nextDouble(); // consumed by placement
+        int attributeCount = attributeCount(r);
+        Set<String> attributes = new LinkedHashSet<>();
+        for (int k = 0; k < attributeCount; k++) attributes.add(attribute(r));
+        List<String> contained = List.of();
+        if (j < placed && r.nextDouble() < spec.containerFraction && placed < spec.objects) {
+            contained = List.of(objectId(unplacedObject(r)));
+            attributes.add("container");
+        }
+        boolean canPickUp = contained.isEmpty() && r.nextInt(10) < 7;
+        String name = pick(r, THINGS);
+        return new GameObject(objectId(j), name + " " + j, "A " + name.toLowerCase(Locale.ROOT) + ", " + pick(r, DETAILS) + ".",
+                canPickUp, attributes, contained);
+    }
+
+    private GameCharacter character(int c) {
+        SplittableRandom r = rng(CHARACTER, c);
+        r.nextDouble(); // consumed by placement
+        List<String> phrases = new ArrayList<>();
+        for (int k = 1 + r.nextInt(4); k > 0; k--) phrases.add(pick(r, PHRASES));
+        List<Want> wants = new ArrayList<>();
+        for (int k = r.nextInt(3); k > 0; k--) {
+            wants.add(r.nextBoolean() ? new Want(objectId(placedObject(r)), null) : new Want(null, attribute(r)));
+        }
+        return new GameCharacter(characterId(c), "Stranger " + c, "Someone " + pick(r, DETAILS) + ".", phrases, wants);
+    }
+
+    private UseRule useRule(int k) {
+        SplittableRandom r = rng(USE_RULE, k);
+        Selector primary = r.nextInt(10) < 7 ? Selector.byId(objectId(placedObject(r))) : Selector.byAttr(attribute(r));
+        int w = r.nextInt(4);
+        Selector with = w == 0 ? null : w == 3 ? Selector.byAttr(attribute(r)) : Selector.byId(objectId(placedObject(r)));
+        return new UseRule(primary, with, "Something shifts. (" + k + ")", produced(r, 2));
+    }
+
+    private GiveRule giveRule(int k) {
+        SplittableRandom r = rng(GIVE_RULE, k);
+        int c = r.nextInt(spec.characters);
+        Selector given = Selector.byId(objectId(placedObject(r)));
+        // Prefer something the character actually wants, as authored worlds do
+        List<Want> wants = characters[c].getWants();
+        if (!wants.isEmpty()) {
+            Want want = wants.get(r.nextInt(wants.size()));
+            given = want.objectId != null ? Selector.byId(want.objectId) : Selector.byAttr(want.attribute);
+        }
+        return new GiveRule(characterId(c), given, "“Thank you.” (" + k + ")", produced(r, 1), false);
+    }
+
+    private MiniGameRule miniGameRule(int k) {
+        SplittableRandom r = rng(MINIGAME_RULE, k);
+        Selector primary = r.nextBoolean() ? Selector.byId(objectId(placedObject(r))) : Selector.byAttr(attribute(r));
+        int c = r.nextInt(spec.characters);
+        Selector with = Selector.byId(characterId(c));
+        String unlockAt = null;
+        Connection unlock = null;
+        if (r.nextInt(10) < 3) {
+            int to = r.nextInt(spec.locations);
+            unlockAt = locationId(characterLocation[c]);
+            unlock = new Connection("Secret way to " + locationNames[to] + " (" + k + ")", locationId(to));
+        }
+        return new MiniGameRule(primary, with, "minigame_" + (k % 8), produced(r, 1),
+                "You win! (" + k + ")", "You lose. (" + k + ")", unlockAt, unlock);
+    }
+
+    private List<String> produced(SplittableRandom r, int max) {
+        if (placed == spec.objects) return List.of();
+        List<String> out = new ArrayList<>();
+        for (int k = r.nextInt(max + 1); k > 0; k--) out.add(objectId(unplacedObject(r)));
+        return out;
+    }
+
+    private int attributeCount(SplittableRandom r) {
+        int p = r.nextInt(10);
+        return p < 3 ? 0 : p < 7 ? 1 : p < 9 ? 2 : 3;
+    }
+
+    private String attribute(SplittableRandom r) { return attributeNames[sample(attributeCdf, r.nextDouble())]; }
+    private int placedObject(SplittableRandom r) { return r.nextInt(placed); }
+    private int unplacedObject(SplittableRandom r) { return placed + r.nextInt(spec.objects - placed); }
+
+    private SplittableRandom rng(int kind, int index) { return new SplittableRandom(mix(spec.seed, kind, index)); }
+
+    public static String locationId(int i) { return "loc_" + i; }
+    public static String objectId(int j) { return "obj_" + j; }
+    public static String characterId(int c) { return "char_" + c; }
+
+    private static <T> T[] parallel(int n, IntFunction<T> make, IntFunction<T[]> array) {
+        return IntStream.range(0, n).parallel().mapToObj(make).toArray(array);
+    }
+
+    /** Indexes 0..owner.length-1 grouped by owner[i], ascending within each group. */
+    private static int[][] bucket(int[] owner, int groups) {
+        int[] count = new int[groups];
+        for (int o : owner) count[o]++;
+        int[][] out = new int[groups][];
+        for (int g = 0; g < groups; g++) out[g] = new int[count[g]];
+        Arrays.fill(count, 0);
+        for (int i = 0; i < owner.length; i++) out[owner[i]][count[owner[i]]++] = i;
+        return out;
+    }
+
+    private static double[] zipfCdf(int n, double s) {
+        double[] w = new double[n];
+        for (int k = 0; k < n; k++) w[k] = 1 / Math.pow(k + 1, s);
+        return cumulative(w);
+    }
+
+    private static double[] cumulative(double[] w) {
+        double[] cdf = new double[w.length];
+        double sum = 0;
+        for (int i = 0; i < w.length; i++) cdf[i] = sum += w[i];
+        for (int i = 0; i < cdf.length; i++) cdf[i] /= sum;
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int i = Arrays.binarySearch(cdf, u);
+        return Math.min(cdf.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    private static String pick(SplittableRandom r, String[] words) { return words[r.nextInt(words.length)]; }
+
+    /** SplitMix64 finaliser over (seed, kind, index): independent, well-spread stream seeds. */
+    private static long mix(long seed, int kind, int index) {
+        long z = seed * 0x9E3779B97F4A7C15L + ((long) kind << 40) + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Usage: WorldGenerator [locations=100000] [seed=42]; generates a world and reports its size and build time. */
+    public static void main(String[] args) {
+        Spec spec = Spec.ofSize(args.length > 0 ? Integer.parseInt(args[0]) : 100_000)
+                .seed(args.length > 1 ? Long.parseLong(args[1]) : 42);
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            Game g = generate(spec);
+            long t1 = System.nanoTime();
+            int exits = 0;
+            for (Location l : g.getLocations().values()) exits += l.getConnections().size();
+            System.out.printf("%d locations, %d exits, %d objects, %d characters, %d use / %d give / %d mini-game rules in %.0f ms%n",
+                    g.getLocations().size(), exits, g.getObjects().size(), g.getCharacters().size(),
+                    g.getUseRules().size(), g.getGiveRules().size(), g.getMiniGameRules().size(), (t1 - t0) / 1e6);
+        }
+    }
+}
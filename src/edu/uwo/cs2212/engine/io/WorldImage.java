@@ -0,0 +1,440 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.model.*;
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Precompiled binary form of a world: compile once from JSON, then start by memory-mapping the
+ * image instead of parsing text. Every string lives once in a pool; entities and rules refer to
+ * pool entries by index, and ids are pooled first in SymbolTable order, so an entity's pool
+ * index is its handle (offset by kind). Layout, big-endian ints:
+ *
+ *   int magic "IQWD", int version
+ *   int title, int startMessage, int start, int turnLimit (-1 for none), int n, n x end location
+ *   int L, int O, int C, int U, int G, int M          -- entity and rule counts
+ *   int strings, int[strings + 1] pool offsets, pool bytes (UTF-8)
+ *   int[L], int[O], int[C] record offsets, int rules  -- random access to an entity by handle
+ *   L x { name, description, image, n, n x object, n, n x character, n, n x { label, target } }
+ *   O x { name, description, pickUp, n, n x attribute, n, n x contained }
+ *   C x { name, description, n, n x phrase, n, n x want }
+ *   U x { primary, with, text, n, n x produced }
+ *   G x { character, given, text, endsGame, n, n x object }
+ *   M x { primary, with, miniGame, success, failure, unlockAt, unlockLabel, unlockTo, n, n x reward }
+ *
+ * where every field is an int pool index (-1 for null) and selectors and wants are written as in
+ * JSON ("@attribute" or an id). Loading decodes only the ids and the rules; each entity is decoded
+ * from its record the first time it is looked up (see SymbolTable.lazy), and its descriptions and
+ * phrases stay LazyText over the mapped image until they are first read. The rule indexes are not
+ * stored: RuleIndex is keyed by this process's AttributeRegistry handles, so the Game rebuilds it
+ * in one pass over the rules. Images are limited to 2 GB, the most one mapping holds. Loaded with
+ * a heap budget, decoded entities are grouped into regions of nearby locations and the least
+ * recently used regions are dropped once the budget is exceeded (see RegionStreamer).
+ */
+public final class WorldImage {
+    private static final int MAGIC = 0x49515744; // "IQWD"
+    private static final int VERSION = 1;
+    private static final int EAGER_BYTES = 24; // shorter texts are decoded at load; a LazyText would cost more
+
+    private WorldImage(){}
+
+    /** True if the file starts with the image magic number. */
+    public static boolean isImage(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4);
+            while (head.hasRemaining() && ch.read(head) >= 0) { }
+            return !head.hasRemaining() && head.getInt(0) == MAGIC;
+        }
+    }
+
+    // ---- Compiling -------------------------------------------------------------------------
+
+    public static void compile(Game game, Path file) throws IOException {
+        ByteBuffer image = encode(game);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (image.hasRemaining()) ch.write(image);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static ByteBuffer encode(Game game) {
+        SymbolTable sym = game.getSymbols();
+        Pool pool = new Pool();
+        for (int h = 0; h < sym.locationCount(); h++) pool.add(sym.locationId(h));
+        for (int h = 0; h < sym.objectCount(); h++) pool.add(sym.objectId(h));
+        for (int h = 0; h < sym.characterCount(); h++) pool.add(sym.characterId(h));
+
+        // Records go to their own buffer first so the pool, which they fill, can precede them
+        Ints rec = new Ints();
+        int[] locAt = new int[sym.locationCount()], objAt = new int[sym.objectCount()], chAt = new int[sym.characterCount()];
+        for (int h = 0; h < locAt.length; h++) {
+            Location l = sym.location(h);
+            locAt[h] = rec.size;
+            rec.add(pool.ref(l.getName()), pool.ref(l.getDescription()), pool.ref(l.getImagePath()));
+            refs(rec, pool, l.getObjectIds());
+            refs(rec, pool, l.getCharacterIds());
+            rec.add(l.getConnections().size());
+            for (Connection c : l.getConnections()) rec.add(pool.ref(c.getLabel()), pool.ref(c.getTargetLocationId()));
+        }
+        for (int h = 0; h < objAt.length; h++) {
+            GameObject o = sym.object(h);
+            objAt[h] = rec.size;
+            rec.add(pool.ref(o.getName()), pool.ref(o.getDescription()), o.canPickUp() ? 1 : 0);
+            refs(rec, pool, o.getAttributes());
+            refs(rec, pool, o.getContainedObjectIds());
+        }
+        for (int h = 0; h < chAt.length; h++) {
+            GameCharacter c = sym.character(h);
+            chAt[h] = rec.size;
+            rec.add(pool.ref(c.getName()), pool.ref(c.getDescription()));
+            refs(rec, pool, c.getPhrases());
+            rec.add(c.getWants().size());
+            for (Want w : c.getWants()) rec.add(pool.ref(w.objectId != null ? w.objectId : "@" + w.attribute));
+        }
+        int rulesAt = rec.size;
+        for (UseRule r : game.getUseRules()) {
+            rec.add(selector(pool, r.primary), selector(pool, r.with), pool.ref(r.resultText));
+            refs(rec, pool, r.producedObjectIds);
+        }
+        for (GiveRule r : game.getGiveRules()) {
+            rec.add(pool.ref(r.characterId), selector(pool, r.given), pool.ref(r.resultText), r.endsGame ? 1 : 0);
+            refs(rec, pool, r.objectsToUser);
+        }
+        for (MiniGameRule r : game.getMiniGameRules()) {
+            Connection u = r.unlockConnection;
+            rec.add(selector(pool, r.primary), selector(pool, r.with), pool.ref(r.miniGameId),
+                    pool.ref(r.successText), pool.ref(r.failureText), pool.ref(r.unlockLocationId),
+                    u == null ? -1 : pool.ref(u.getLabel()), u == null ? -1 : pool.ref(u.getTargetLocationId()));
+            refs(rec, pool, r.rewardObjectIds);
+        }
+
+        Ints head = new Ints();
+        head.add(MAGIC, VERSION, pool.ref(game.getTitle()), pool.ref(game.getStartMessage()),
+                pool.ref(game.getStartLocationId()), game.getTurnLimit() == null ? -1 : game.getTurnLimit());
+        refs(head, pool, game.getEndLocationIds());
+        head.add(locAt.length, objAt.length, chAt.length,
+                game.getUseRules().size(), game.getGiveRules().size(), game.getMiniGameRules().size());
+
+        int[] offsets = pool.offsets();
+        int recordsAt = 4 * (head.size + 1 + offsets.length + locAt.length + objAt.length + chAt.length + 1) + pool.bytes.size();
+        long total = (long) recordsAt + 4L * rec.size;
+        if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("World image would exceed 2 GB");
+        ByteBuffer out = ByteBuffer.allocate((int) total);
+        for (int i = 0; i < head.size; i++) out.putInt(head.data[i]);
+        out.putInt(pool.count());
+        for (int off : offsets) out.putInt(off);
+        out.put(pool.bytes.array(), 0, pool.bytes.size());
+        for (int at : locAt) out.putInt(recordsAt + 4 * at);
+        for (int at : objAt) out.putInt(recordsAt + 4 * at);
+        for (int at : chAt) out.putInt(recordsAt + 4 * at);
+        out.putInt(recordsAt + 4 * rulesAt);
+        for (int i = 0; i < rec.size; i++) out.putInt(rec.data[i]);
+        return out.flip();
+    }
+
+    private static void refs(Ints out, Pool pool, Collection<? extends CharSequence> values) {
+        out.add(values.size());
+        for (CharSequence v : values) out.add(pool.ref(v));
+    }
+
+    private static int selector(Pool pool, Selector s) {
+        return s == null ? -1 : pool.ref(s.objectId != null ? s.objectId : "@" + s.attribute);
+    }
+
+    /** Growable int array. */
+    private static final class Ints {
+        int[] data = new int[1024];
+        int size;
+
+        void add(int... values) {
+            if (size + values.length > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, size + values.length));
+            System.arraycopy(values, 0, data, size, values.length);
+            size += values.length;
+        }
+    }
+
+    /** Deduplicating string pool under construction. */
+    private static final class Pool {
+        final Map<String, Integer> index = new HashMap<>();
+        final Bytes bytes = new Bytes();
+        final Ints ends = new Ints();
+
+        int ref(CharSequence s) {
+            if (s == null) return -1;
+            Integer i = index.get(s.toString());
+            return i != null ? i : add(s.toString());
+        }
+
+        /** A new entry even if the string is pooled already, e.g. an object id equal to a location id. */
+        int add(String s) {
+            bytes.write(s.getBytes(StandardCharsets.UTF_8));
+            ends.add(bytes.size());
+            index.putIfAbsent(s, ends.size - 1);
+            return ends.size - 1;
+        }
+
+        int count() { return ends.size; }
+
+        int[] offsets() {
+            int[] out = new int[ends.size + 1];
+            System.arraycopy(ends.data, 0, out, 1, ends.size);
+            return out;
+        }
+    }
+
+    private static final class Bytes extends java.io.ByteArrayOutputStream {
+        Bytes() { super(1 << 16); }
+        byte[] array() { return buf; }
+        @Override public void write(byte[] b) { write(b, 0, b.length); }
+    }
+
+    // ---- Loading ---------------------------------------------------------------------------
+
+    public static Game load(Path file) throws IOException {
+        return load(file, Long.MAX_VALUE);
+    }
+
+    /**
+     * Maps an image whose decoded entities are kept to about budget bytes of heap: the world is
+     * split into regions that are evicted least recently used first and decoded again when next
+     * reached (see RegionStreamer). Long.MAX_VALUE keeps every entity once decoded.
+     */
+    public static Game load(Path file, long budget) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("World image over 2 GB: " + file);
+            // The mapping outlives the channel; entities and LazyTexts keep reading it after load returns
+            return decode(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), budget);
+        }
+    }
+
+    public static Game decode(ByteBuffer image) throws IOException {
+        return decode(image, Long.MAX_VALUE);
+    }
+
+    /**
+     * Game over an image. Ids, the header and the rules are decoded now; every location, object
+     * and character is decoded from its record the first time it is looked up.
+     */
+    public static Game decode(ByteBuffer image, long budget) throws IOException {
+        try {
+            return new Image(image, budget).game();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt world image", e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Read position in an image; every read is absolute, so cursors on one image run in parallel. */
+    private static final class Cursor {
+        final ByteBuffer image;
+        int pos;
+
+        Cursor(ByteBuffer image, int pos) {
+            this.image = image;
+            this.pos = pos;
+        }
+
+        int next() {
+            int v = image.getInt(pos);
+            pos += 4;
+            return v;
+        }
+
+        /**
+         * A count of the int-sized items that follow. One the rest of the image cannot hold is
+         * corrupt, and is rejected before anything is allocated for it. Entities decode lazily,
+         * after decode has returned, so this throws unchecked.
+         */
+        int count() {
+            int at = pos, n = next();
+            if (n < 0 || n > (image.limit() - pos) / 4) {
+                throw new UncheckedIOException(new IOException("Truncated or corrupt world image: count " + n + " at byte " + at));
+            }
+            return n;
+        }
+    }
+
+    /** A mapped image and its decoded string pool; also the Source of its symbol table. */
+    private static final class Image implements SymbolTable.Source {
+        final ByteBuffer image;
+        final long budget;
+        int nLoc, nObj, nCh, offsetsAt, poolAt, tablesAt;
+        Object[] strings; // decoded String or LazyText per pool index, filled on first reference
+        RegionStreamer regions; // null when the budget is unlimited
+
+        Image(ByteBuffer image, long budget) {
+            this.image = image;
+            this.budget = budget;
+        }
+
+        Game game() throws IOException {
+            Cursor in = new Cursor(image, 0);
+            if (in.next() != MAGIC) throw new IOException("Not a world image");
+            int version = in.next();
+            if (version != VERSION) throw new IOException("Unsupported world image version " + version);
+            int title = in.next(), startMessage = in.next(), start = in.next(), turnLimit = in.next();
+            int[] end = new int[in.count()];
+            for (int i = 0; i < end.length; i++) end[i] = in.next();
+            nLoc = in.count();
+            nObj = in.count();
+            nCh = in.count();
+            int nUse = in.count(), nGive = in.count(), nMini = in.count();
+            int poolCount = in.count();
+            if (nLoc + nObj + nCh > poolCount) throw new IOException("Truncated or corrupt world image: more ids than strings");
+            offsetsAt = in.pos;
+            poolAt = offsetsAt + 4 * (poolCount + 1);
+            tablesAt = poolAt + image.getInt(offsetsAt + 4 * poolCount);
+            strings = new Object[poolCount];
+
+            String[] locationIds = new String[nLoc], objectIds = new String[nObj], characterIds = new String[nCh];
+            for (int h = 0; h < nLoc; h++) locationIds[h] = str(h);
+            for (int h = 0; h < nObj; h++) objectIds[h] = str(nLoc + h);
+            for (int h = 0; h < nCh; h++) characterIds[h] = str(nLoc + nObj + h);
+
+            in.pos = image.getInt(tablesAt + 4 * (nLoc + nObj + nCh));
+            List<UseRule> useRules = new ArrayList<>(nUse);
+            for (int i = 0; i < nUse; i++) {
+                Selector primary = selector(in.next()), with = selector(in.next());
+                String text = str(in.next());
+                useRules.add(new UseRule(primary, with, text, strs(in)));
+            }
+            List<GiveRule> giveRules = new ArrayList<>(nGive);
+            for (int i = 0; i < nGive; i++) {
+                String character = str(in.next());
+                Selector given = selector(in.next());
+                String text = str(in.next());
+                boolean endsGame = in.next() != 0;
+                giveRules.add(new GiveRule(character, given, text, strs(in), endsGame));
+            }
+            List<MiniGameRule> miniGameRules = new ArrayList<>(nMini);
+            for (int i = 0; i < nMini; i++) {
+                Selector primary = selector(in.next()), with = selector(in.next());
+                String miniGame = str(in.next()), success = str(in.next()), failure = str(in.next());
+                String unlockAt = str(in.next()), label = str(in.next()), to = str(in.next());
+                miniGameRules.add(new MiniGameRule(primary, with, miniGame, strs(in), success, failure,
+                        unlockAt, unlockAt == null ? null : new Connection(label, to)));
+            }
+
+            Set<String> endIds = new LinkedHashSet<>();
+            for (int e : end) endIds.add(str(e));
+            SymbolTable symbols = SymbolTable.lazy(locationIds, objectIds, characterIds, this);
+            if (budget != Long.MAX_VALUE) {
+                regions = new RegionStreamer(image, tablesAt, nLoc, nObj, nCh, this::str, symbols, budget);
+            }
+            return new Game(str(title), str(startMessage), str(start), endIds, turnLimit < 0 ? null : turnLimit,
+                    symbols, useRules, giveRules, miniGameRules);
+        }
+
+        @Override
+        public void entered(int h) {
+            if (regions != null) regions.entered(h);
+        }
+
+        private Cursor record(int tableIndex) { return new Cursor(image, image.getInt(tablesAt + 4 * tableIndex)); }
+
+        @Override
+        public Location location(int h) {
+            Cursor in = record(h);
+            String name = str(in.next());
+            CharSequence description = text(in.next());
+            String imagePath = str(in.next());
+            List<String> objectIds = strs(in), characterIds = strs(in);
+            List<Connection> exits = new ArrayList<>();
+            for (int k = in.count(); k > 0; k--) exits.add(new Connection(str(in.next()), str(in.next())));
+            if (regions != null) regions.locationBuilt(h);
+            return new Location(str(h), name, description, imagePath, objectIds, characterIds, exits);
+        }
+
+        @Override
+        public GameObject object(int h) {
+            Cursor in = record(nLoc + h);
+            String name = str(in.next());
+            CharSequence description = text(in.next());
+            boolean pickUp = in.next() != 0;
+            Set<String> attributes = new LinkedHashSet<>(strs(in));
+            if (regions != null) regions.objectBuilt(h);
+            return new GameObject(str(nLoc + h), name, description, pickUp, attributes, strs(in));
+        }
+
+        @Override
+        public GameCharacter character(int h) {
+            Cursor in = record(nLoc + nObj + h);
+            String name = str(in.next());
+            CharSequence description = text(in.next());
+            LazyText[] phrases = new LazyText[in.count()];
+            for (int k = 0; k < phrases.length; k++) phrases[k] = lazy(in.next());
+            List<Want> wants = new ArrayList<>();
+            for (int k = in.count(); k > 0; k--) {
+                Selector s = selector(in.next());
+                wants.add(new Want(s.objectId, s.attribute));
+            }
+            if (regions != null) regions.characterBuilt(h);
+            return new GameCharacter(str(nLoc + nObj + h), name, description, LazyText.list(phrases), wants);
+        }
+
+        private List<String> strs(Cursor in) {
+            String[] out = new String[in.count()];
+            for (int k = 0; k < out.length; k++) out[k] = str(in.next());
+            return Arrays.asList(out);
+        }
+
+        private Selector selector(int ref) {
+            if (ref < 0) return null;
+            String s = str(ref);
+            return s.startsWith("@") ? Selector.byAttr(s.substring(1)) : Selector.byId(s);
+        }
+
+        /** Pool entry as a String, decoded once and shared by every reference. */
+        String str(int ref) {
+            if (ref < 0) return null;
+            Object s = strings[ref];
+            if (s == null) {
+                int from = image.getInt(offsetsAt + 4 * ref), to = image.getInt(offsetsAt + 4 * ref + 4);
+                byte[] bytes = new byte[to - from];
+                image.get(poolAt + from, bytes);
+                strings[ref] = s = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return s.toString();
+        }
+
+        /** Pool entry as text that short strings decode now and long ones on first read. */
+        CharSequence text(int ref) {
+            int from = image.getInt(offsetsAt + 4 * ref), to = image.getInt(offsetsAt + 4 * ref + 4);
+            return to - from < EAGER_BYTES ? str(ref) : lazy(ref);
+        }
+
+        LazyText lazy(int ref) {
+            Object s = strings[ref];
+            if (s instanceof LazyText) return (LazyText) s;
+            int from = image.getInt(offsetsAt + 4 * ref), to = image.getInt(offsetsAt + 4 * ref + 4);
+            LazyText t = new LazyText(image, poolAt + from, to - from);
+            if (s == null) strings[ref] = t; // an entry already decoded as a String stays one
+            return t;
+        }
+    }
+
+    /** Usage: WorldImage world.json world.iqw; compiles a JSON world into an image. */
+    public static void main(String[] args) throws IOException {
+        long t0 = System.nanoTime();
+        Game game = JsonWorldLoader.load(Paths.get(args[0]));
+        long t1 = System.nanoTime();
+        compile(game, Paths.get(args[1]));
+        long t2 = System.nanoTime();
+        Game loaded = load(Paths.get(args[1]));
+        long t3 = System.nanoTime();
+        System.out.printf("Parsed JSON in %d ms, wrote %d bytes in %d ms, mapped back in %d ms (%d locations)%n",
+                (t1 - t0) / 1_000_000, Files.size(Paths.get(args[1])), (t2 - t1) / 1_000_000, (t3 - t2) / 1_000_000,
+                loaded.getLocations().size());
+    }
+}
@@ -0,0 +1,109 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.WorldDiff;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Reloads a world file whenever it changes on disk. Each change is loaded through GameLoader,
+ * compared with the current world (see WorldDiff) and, unless it defines the same world,
+ * handed to the listener, which moves its sessions over. A file that does not load, typically
+ * one an editor has not finished writing, is reported to the FailureHandler and skipped; the
+ * next save is tried again. The watcher prints nothing itself: the GUI or server owns the console.
+ * WorldImage.compile replaces an image by an atomic move, so a world still reading from the
+ * old image is safe. Comparing worlds decodes every entity of both, and the reloaded world is
+ * held fully decoded, so an image world cannot be watched under a heap budget (-Diq.world.budget).
+ */
+public final class WorldWatcher implements Closeable {
+    /** Told when a change to the file could not be loaded or applied; runs on the watcher's thread. */
+    public interface FailureHandler {
+        void failed(Path file, Exception e);
+    }
+
+    // Editors often save in several steps; wait this long for the events to stop before loading
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path file;
+    private final WatchService watch;
+    private final Consumer<WorldDiff> listener;
+    private final FailureHandler onFailure;
+    private final Thread thread;
+    private volatile Game current;
+
+    private WorldWatcher(Path file, Game game, Consumer<WorldDiff> listener, FailureHandler onFailure) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.current = game;
+        this.listener = Objects.requireNonNull(listener);
+        this.onFailure = Objects.requireNonNull(onFailure);
+        this.watch = this.file.getFileSystem().newWatchService();
+        // The directory, not the file: saving by rename replaces the file being watched
+        this.file.getParent().register(watch, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = Thread.ofPlatform().name("world-watcher").daemon(true).unstarted(this::watchLoop);
+    }
+
+    /** Starts watching file, whose world is currently game; listener runs on the watcher's thread. */
+    public static WorldWatcher start(Path file, Game game, Consumer<WorldDiff> listener, FailureHandler onFailure)
+            throws IOException {
+        if (GameLoader.budget() != Long.MAX_VALUE && WorldImage.isImage(file)) {
+            throw new IllegalStateException("Cannot watch " + file + " under -Diq.world.budget: a reload holds the whole world decoded");
+        }
+        WorldWatcher w = new WorldWatcher(file, game, listener, onFailure);
+        w.thread.start();
+        return w;
+    }
+
+    /** The world as of the last reload. */
+    public Game current() { return current; }
+
+    /** Loads the file now; returns the diff handed to the listener, or null if the world is unchanged. */
+    public synchronized WorldDiff reload() throws IOException {
+        WorldDiff diff = WorldDiff.between(current, GameLoader.load(file));
+        if (diff.isEmpty()) return null;
+        current = diff.game;
+        listener.accept(diff);
+        return diff;
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                if (!changed(watch.take())) continue;
+                // Let the save finish, dropping the events it raises on the way
+                WatchKey key;
+                do {
+                    Thread.sleep(SETTLE_MILLIS);
+                    key = watch.poll();
+                    if (key != null) changed(key);
+                } while (key != null);
+                try {
+                    reload();
+                } catch (IOException | RuntimeException e) {
+                    onFailure.failed(file, e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    /** Whether the key's events include the world file; resets the key. */
+    private boolean changed(WatchKey key) {
+        boolean hit = false;
+        for (WatchEvent<?> e : key.pollEvents()) {
+            if (file.getFileName().equals(e.context())) hit = true;
+        }
+        key.reset();
+        return hit;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watch.close();
+        thread.interrupt();
+    }
+}
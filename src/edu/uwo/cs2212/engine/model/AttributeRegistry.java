@@ -0,0 +1,38 @@
+package edu.uwo.cs2212.engine.model;
+
+import java.util.*;
+
+/**
+ * Process-wide attribute interning: each distinct attribute name gets a small, stable bit index.
+ * Names are interned only while worlds are built; lookups for player input go through find(),
+ * which takes no lock and never grows the registry.
+ */
+public final class AttributeRegistry {
+    /** Handle returned for attribute names that were never interned. */
+    public static final int NONE = -1;
+
+    private static final Map<String, Integer> IDS = new java.util.concurrent.ConcurrentHashMap<>();
+    private static volatile String[] names = new String[16]; // slots below size are never rewritten
+    private static volatile int size;
+    private AttributeRegistry(){}
+
+    public static synchronized int intern(String name) {
+        Integer id = IDS.get(name);
+        if (id != null) return id;
+        int a = size;
+        String[] n = names;
+        if (a == n.length) n = Arrays.copyOf(n, n.length * 2);
+        n[a] = name;
+        names = n;
+        size = a + 1; // published before the id, so any handle find() returns is below size
+        IDS.put(name, a);
+        return a;
+    }
+
+    public static int find(String name) { return IDS.getOrDefault(name, NONE); }
+    public static String name(int id) {
+        if (id < 0 || id >= size) throw new IndexOutOfBoundsException("No attribute " + id);
+        return names[id];
+    }
+    public static int size() { return size; }
+}
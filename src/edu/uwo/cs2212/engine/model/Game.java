@@ -19,23 +19,71 @@ public final class Game {
     private final List<edu.uwo.cs2212.engine.rules.GiveRule> giveRules;
     private final List<edu.uwo.cs2212.engine.rules.MiniGameRule> miniGameRules;
 
+    private final SymbolTable symbols;
+    private final edu.uwo.cs2212.engine.rules.RuleIndex<edu.uwo.cs2212.engine.rules.UseRule> useRuleIndex;
+    private final edu.uwo.cs2212.engine.rules.RuleIndex<edu.uwo.cs2212.engine.rules.MiniGameRule> miniGameRuleIndex;
+
     public Game(String title, String startMessage, String startLocationId, Set<String> endLocationIds,
                 Integer turnLimit, Map<String, Location> locations, Map<String, GameObject> objects,
                 Map<String, GameCharacter> characters,
                 List<edu.uwo.cs2212.engine.rules.UseRule> useRules,
                 List<edu.uwo.cs2212.engine.rules.GiveRule> giveRules,
                 List<edu.uwo.cs2212.engine.rules.MiniGameRule> miniGameRules) {
+        this(title, startMessage, startLocationId, endLocationIds, turnLimit, locations, objects, characters,
+                useRules, giveRules, miniGameRules, SymbolTable.of(locations, objects, characters));
+    }
+
+    /** As above, with a symbol table already interned by the loader over the same entities. */
+    public Game(String title, String startMessage, String startLocationId, Set<String> endLocationIds,
+                Integer turnLimit, Map<String, Location> locations, Map<String, GameObject> objects,
+                Map<String, GameCharacter> characters,
+                List<edu.uwo.cs2212.engine.rules.UseRule> useRules,
+                List<edu.uwo.cs2212.engine.rules.GiveRule> giveRules,
+                List<edu.uwo.cs2212.engine.rules.MiniGameRule> miniGameRules,
+                SymbolTable symbols) {
+        this(title, startMessage, startLocationId, endLocationIds, turnLimit, locations, objects, characters,
+                useRules, giveRules, miniGameRules, symbols, null, null);
+    }
+
+    /** As above, reusing rule indexes already built over equal rule lists (see WorldDiff); null builds them. */
+    Game(String title, String startMessage, String startLocationId, Set<String> endLocationIds,
+         Integer turnLimit, Map<String, Location> locations, Map<String, GameObject> objects,
+         Map<String, GameCharacter> characters,
+         List<edu.uwo.cs2212.engine.rules.UseRule> useRules,
+         List<edu.uwo.cs2212.engine.rules.GiveRule> giveRules,
+         List<edu.uwo.cs2212.engine.rules.MiniGameRule> miniGameRules,
+         SymbolTable symbols,
+         edu.uwo.cs2212.engine.rules.RuleIndex<edu.uwo.cs2212.engine.rules.UseRule> useRuleIndex,
+         edu.uwo.cs2212.engine.rules.RuleIndex<edu.uwo.cs2212.engine.rules.MiniGameRule> miniGameRuleIndex) {
         this.title = Objects.requireNonNull(title);
         this.startMessage = Objects.requireNonNull(startMessage);
         this.startLocationId = Objects.requireNonNull(startLocationId);
         this.endLocationIds = Collections.unmodifiableSet(new HashSet<>(endLocationIds));
         this.turnLimit = turnLimit;
-        this.locations = Collections.unmodifiableMap(new HashMap<>(locations));
-        this.objects = Collections.unmodifiableMap(new HashMap<>(objects));
-        this.characters = Collections.unmodifiableMap(new HashMap<>(characters));
+        this.locations = symbols.isView(locations) ? locations : Collections.unmodifiableMap(new HashMap<>(locations));
+        this.objects = symbols.isView(objects) ? objects : Collections.unmodifiableMap(new HashMap<>(objects));
+        this.characters = symbols.isView(characters) ? characters : Collections.unmodifiableMap(new HashMap<>(characters));
         this.useRules = Collections.unmodifiableList(new ArrayList<>(useRules));
         this.giveRules = Collections.unmodifiableList(new ArrayList<>(giveRules));
         this.miniGameRules = Collections.unmodifiableList(new ArrayList<>(miniGameRules));
+        this.symbols = Objects.requireNonNull(symbols);
+        this.useRuleIndex = useRuleIndex != null ? useRuleIndex
+                : new edu.uwo.cs2212.engine.rules.RuleIndex<>(this.useRules, r -> r.primary);
+        this.miniGameRuleIndex = miniGameRuleIndex != null ? miniGameRuleIndex
+                : new edu.uwo.cs2212.engine.rules.RuleIndex<>(this.miniGameRules, r -> r.primary);
+    }
+
+    /**
+     * As above, with entities taken from symbols: the entity maps are views of the table, so a
+     * lazy table (SymbolTable.lazy) only builds the entities that are used.
+     */
+    public Game(String title, String startMessage, String startLocationId, Set<String> endLocationIds,
+                Integer turnLimit, SymbolTable symbols,
+                List<edu.uwo.cs2212.engine.rules.UseRule> useRules,
+                List<edu.uwo.cs2212.engine.rules.GiveRule> giveRules,
+                List<edu.uwo.cs2212.engine.rules.MiniGameRule> miniGameRules) {
+        this(title, startMessage, startLocationId, endLocationIds, turnLimit, symbols.locations(), symbols.objects(),
+                symbols.characters(), useRules, giveRules, miniGameRules, symbols);
     }
 
     public String getTitle() { return title; }
@@ -49,4 +97,12 @@ public final class Game {
     public List<edu.uwo.cs2212.engine.rules.UseRule> getUseRules() { return useRules; }
     public List<edu.uwo.cs2212.engine.rules.GiveRule> getGiveRules() { return giveRules; }
     public List<edu.uwo.cs2212.engine.rules.MiniGameRule> getMiniGameRules() { return miniGameRules; }
+    public SymbolTable getSymbols() { return symbols; }
+
+    // Handle-based fast paths (see SymbolTable); handles must come from this game's table
+    public Location getLocation(int handle) { return symbols.location(handle); }
+    public GameObject getObject(int handle) { return symbols.object(handle); }
+    public GameCharacter getCharacter(int handle) { return symbols.character(handle); }
+    public edu.uwo.cs2212.engine.rules.RuleIndex<edu.uwo.cs2212.engine.rules.UseRule> getUseRuleIndex() { return useRuleIndex; }
+    public edu.uwo.cs2212.engine.rules.RuleIndex<edu.uwo.cs2212.engine.rules.MiniGameRule> getMiniGameRuleIndex() { return miniGameRuleIndex; }
 }
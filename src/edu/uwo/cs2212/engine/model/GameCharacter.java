@@ -8,22 +8,22 @@ import edu.uwo.cs2212.engine.rules.Want;
 public final class GameCharacter {
     private final String id;
     private final String name;
-    private final String description;
+    private final CharSequence description; // a String, or LazyText from a mapped image
     private final List<String> phrases; // talk cycling
     private final List<Want> wants;     // what they accept
 
-    public GameCharacter(String id, String name, String description,
+    public GameCharacter(String id, String name, CharSequence description,
                          List<String> phrases, List<Want> wants) {
         this.id = Objects.requireNonNull(id);
         this.name = Objects.requireNonNull(name);
         this.description = Objects.requireNonNull(description);
-        this.phrases = Collections.unmodifiableList(new ArrayList<>(phrases));
+        this.phrases = LazyText.isLazyList(phrases) ? phrases : Collections.unmodifiableList(new ArrayList<>(phrases));
         this.wants = Collections.unmodifiableList(new ArrayList<>(wants));
     }
 
     public String getId() { return id; }
     public String getName() { return name; }
-    public String getDescription() { return description; }
+    public String getDescription() { return description.toString(); }
     public List<String> getPhrases() { return phrases; }
     public List<Want> getWants() { return wants; }
 }
@@ -6,25 +6,51 @@ import java.util.*;
 public final class GameObject {
     private final String id;
     private final String name;
-    private final String description;
+    private final CharSequence description; // a String, or LazyText from a mapped image
     private final boolean canPickUp;
     private final Set<String> attributes;
+    private final long[] attributeBits; // AttributeRegistry handles
     private final List<String> containedObjectIds;
 
-    public GameObject(String id, String name, String description, boolean canPickUp,
+    public GameObject(String id, String name, CharSequence description, boolean canPickUp,
                       Set<String> attributes, List<String> containedObjectIds) {
         this.id = Objects.requireNonNull(id);
         this.name = Objects.requireNonNull(name);
         this.description = Objects.requireNonNull(description);
         this.canPickUp = canPickUp;
         this.attributes = Collections.unmodifiableSet(new HashSet<>(attributes));
+        long[] bits = new long[0];
+        for (String attr : attributes) {
+            int a = AttributeRegistry.intern(attr);
+            if ((a >>> 6) >= bits.length) bits = Arrays.copyOf(bits, (a >>> 6) + 1);
+            bits[a >>> 6] |= 1L << a;
+        }
+        this.attributeBits = bits;
         this.containedObjectIds = Collections.unmodifiableList(new ArrayList<>(containedObjectIds));
     }
 
     public String getId() { return id; }
     public String getName() { return name; }
-    public String getDescription() { return description; }
+    public String getDescription() { return description.toString(); }
     public boolean canPickUp() { return canPickUp; }
     public Set<String> getAttributes() { return attributes; }
     public List<String> getContainedObjectIds() { return containedObjectIds; }
+
+    /** Bit test against an AttributeRegistry handle. */
+    public boolean hasAttribute(int attribute) {
+        int w = attribute >>> 6;
+        return attribute >= 0 && w < attributeBits.length && (attributeBits[w] & (1L << attribute)) != 0;
+    }
+
+    /** Next attribute handle set on this object at or after from, or -1 (same contract as BitSet.nextSetBit). */
+    public int nextAttribute(int from) {
+        int w = from >>> 6;
+        if (w >= attributeBits.length) return -1;
+        long word = attributeBits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == attributeBits.length) return -1;
+            word = attributeBits[w];
+        }
+    }
 }
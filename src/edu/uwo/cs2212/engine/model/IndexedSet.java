@@ -0,0 +1,153 @@
+package edu.uwo.cs2212.engine.model;
+
+import java.util.*;
+
+/**
+ * Insertion-ordered set with O(1) add, remove and contains. Elements sit in an array in
+ * display order; removal leaves a hole that is squeezed out once holes outnumber live
+ * elements, so removal stays amortized O(1) without disturbing order. The read-only
+ * view is created once and shared.
+ */
+public final class IndexedSet<E> extends AbstractSet<E> {
+    private final Map<E, Integer> slots;
+    private Object[] elements;
+    private int end;  // next free slot
+    private int size; // live elements
+    private Set<E> view;
+
+    public IndexedSet() {
+        this(Collections.emptyList());
+    }
+
+    public IndexedSet(Collection<? extends E> initial) {
+        this.slots = new HashMap<>(Math.max(8, initial.size() * 2));
+        this.elements = new Object[Math.max(4, initial.size())];
+        for (E e : initial) add(e);
+    }
+
+    @Override
+    public boolean add(E e) {
+        Objects.requireNonNull(e);
+        if (slots.containsKey(e)) return false;
+        if (end == elements.length) {
+            if (size < end / 2) compact();
+            else elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        slots.put(e, end);
+        elements[end++] = e;
+        size++;
+        return true;
+    }
+
+    /**
+     * Inserts e so that it becomes the element at position index in iteration order, shifting
+     * later elements along; an index at or past the end appends. O(size), unlike add.
+     */
+    public boolean add(int index, E e) {
+        Objects.requireNonNull(e);
+        if (slots.containsKey(e)) return false;
+        if (index < 0 || index >= size) return add(e);
+        compact(); // slots now equal positions
+        if (end == elements.length) elements = Arrays.copyOf(elements, elements.length * 2);
+        for (int i = end; i > index; i--) {
+            elements[i] = elements[i - 1];
+            @SuppressWarnings("unchecked") E key = (E) elements[i];
+            slots.put(key, i);
+        }
+        elements[index] = e;
+        slots.put(e, index);
+        end++;
+        size++;
+        return true;
+    }
+
+    /** Position of o in iteration order, or -1 if it is absent. O(size). */
+    public int indexOf(Object o) {
+        Integer slot = slots.get(o);
+        if (slot == null) return -1;
+        int index = 0;
+        for (int i = 0; i < slot; i++) if (elements[i] != null) index++;
+        return index;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Integer slot = slots.remove(o);
+        if (slot == null) return false;
+        elements[slot] = null;
+        size--;
+        if (slot == end - 1) end--;
+        else if (size < (end - size)) compact();
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) { return slots.containsKey(o); }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public void clear() {
+        slots.clear();
+        Arrays.fill(elements, 0, end, null);
+        end = 0;
+        size = 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next = skip(0);
+            private int last = -1;
+
+            @Override public boolean hasNext() { return next < end; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next >= end) throw new NoSuchElementException();
+                last = next;
+                next = skip(next + 1);
+                return (E) elements[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                // Detach without compacting so the cursor stays valid
+                slots.remove(elements[last]);
+                elements[last] = null;
+                size--;
+                last = -1;
+            }
+        };
+    }
+
+    /** Unmodifiable view of this set; the same instance on every call. */
+    public Set<E> view() {
+        if (view == null) view = Collections.unmodifiableSet(this);
+        return view;
+    }
+
+    private int skip(int i) {
+        while (i < end && elements[i] == null) i++;
+        return i;
+    }
+
+    private void compact() {
+        int w = 0;
+        for (int r = 0; r < end; r++) {
+            Object e = elements[r];
+            if (e == null) continue;
+            if (w != r) {
+                elements[w] = e;
+                @SuppressWarnings("unchecked") E key = (E) e;
+                slots.put(key, w);
+            }
+            w++;
+        }
+        Arrays.fill(elements, w, end, null);
+        end = w;
+    }
+}
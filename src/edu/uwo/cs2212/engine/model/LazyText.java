@@ -0,0 +1,56 @@
+package edu.uwo.cs2212.engine.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * UTF-8 text still sitting in a mapped world image (see WorldImage), decoded the first time
+ * it is read and kept from then on. Entities accept it wherever they take long text, so a
+ * world's descriptions cost nothing until a player actually sees them. Safe to share between
+ * threads: reads of the image are absolute, and a racing first decode just yields equal Strings.
+ */
+public final class LazyText implements CharSequence {
+    private final ByteBuffer image;
+    private final int offset;
+    private final int length;
+    private String text; // decoded on first use
+
+    public LazyText(ByteBuffer image, int offset, int length) {
+        this.image = image;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public String toString() {
+        String s = text;
+        if (s == null) {
+            byte[] bytes = new byte[length];
+            image.get(offset, bytes);
+            text = s = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    @Override public int length() { return toString().length(); }
+    @Override public char charAt(int index) { return toString().charAt(index); }
+    @Override public CharSequence subSequence(int start, int end) { return toString().subSequence(start, end); }
+
+    /** Read-only list of texts, each decoded when first fetched. */
+    public static List<String> list(LazyText[] texts) { return new Texts(texts); }
+
+    /** The list's entries are already immutable, so entities keep it as is instead of copying. */
+    static boolean isLazyList(List<?> list) { return list instanceof Texts; }
+
+    private static final class Texts extends AbstractList<String> implements RandomAccess {
+        private final LazyText[] texts;
+
+        Texts(LazyText[] texts) { this.texts = texts; }
+
+        @Override public String get(int index) { return texts[index].toString(); }
+        @Override public int size() { return texts.length; }
+    }
+}
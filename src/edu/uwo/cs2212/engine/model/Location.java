@@ -3,39 +3,48 @@ package edu.uwo.cs2212.engine.model;
 
 import java.util.*;
 
-/** Location in the world; holds visible object ids and connections. */
+/**
+ * Location in the world as authored; holds its initial object ids, characters and connections.
+ * Immutable: runtime changes live in each session's WorldOverlay.
+ */
 public final class Location {
     private final String id;
     private final String name;
-    private final String description;
+    private final CharSequence description; // a String, or LazyText from a mapped image
     private final String imagePath;
-    private final List<String> objectIds;  // visible here
-    private final List<String> characterIds; // characters present
+    private final IndexedSet<String> objectIds;  // visible here
+    private final IndexedSet<String> characterIds; // characters present
     private final List<Connection> connections;
+    private final Map<String, Connection> connectionsByLabel; // case-folded label -> first such connection
 
-    public Location(String id, String name, String description, String imagePath,
+    public Location(String id, String name, CharSequence description, String imagePath,
                     List<String> objectIds, List<String> characterIds, List<Connection> connections) {
         this.id = Objects.requireNonNull(id);
         this.name = Objects.requireNonNull(name);
         this.description = Objects.requireNonNull(description);
         this.imagePath = imagePath;
-        this.objectIds = new ArrayList<>(objectIds);
-        this.characterIds = new ArrayList<>(characterIds);
-        this.connections = new ArrayList<>(connections);
+        this.objectIds = new IndexedSet<>(objectIds);
+        this.characterIds = new IndexedSet<>(characterIds);
+        this.connections = Collections.unmodifiableList(new ArrayList<>(connections));
+        this.connectionsByLabel = new HashMap<>();
+        for (Connection c : this.connections) indexConnection(connectionsByLabel, c);
     }
 
     public String getId() { return id; }
     public String getName() { return name; }
-    public String getDescription() { return description; }
+    public String getDescription() { return description.toString(); }
     public String getImagePath() { return imagePath; }
-    public List<String> getObjectIds() { return Collections.unmodifiableList(objectIds); }
-    public List<String> getCharacterIds() { return Collections.unmodifiableList(characterIds); }
-    public List<Connection> getConnections() { return Collections.unmodifiableList(connections); }
-
-    // Mutable helpers for runtime reveal/add/drop operations
-    public void addObject(String objectId) { this.objectIds.add(objectId); }
-    public boolean removeObject(String objectId) { return this.objectIds.remove(objectId); }
-    public void addCharacter(String characterId) { this.characterIds.add(characterId); }
-    public boolean removeCharacter(String characterId) { return this.characterIds.remove(characterId); }
-    public void addConnection(Connection connection) { this.connections.add(connection); }
+    public Set<String> getObjectIds() { return objectIds.view(); }
+    public Set<String> getCharacterIds() { return characterIds.view(); }
+    public List<Connection> getConnections() { return connections; }
+
+    /** Connection whose label equals the given one ignoring case (first declared wins), or null. */
+    public Connection findConnection(String label) { return connectionsByLabel.get(foldLabel(label)); }
+
+    /** Adds c to a label index unless an earlier connection already claims its label. */
+    public static void indexConnection(Map<String, Connection> index, Connection c) {
+        index.putIfAbsent(foldLabel(c.getLabel()), c);
+    }
+
+    public static String foldLabel(String label) { return label.toLowerCase(Locale.ROOT); }
 }
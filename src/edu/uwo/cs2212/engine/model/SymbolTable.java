@@ -0,0 +1,263 @@
+package edu.uwo.cs2212.engine.model;
+
+import java.util.*;
+
+/**
+ * Interned entity ids for one world. Every location, object and character gets a dense
+ * int handle (0..n-1, in definition order) that indexes straight into the entity arrays.
+ * A table built with lazy() starts with ids only and asks its Source for each entity the
+ * first time it is looked up, and again after the entity is evicted; getLocations() and
+ * friends on its Game are views over it.
+ */
+public final class SymbolTable {
+    /** Handle returned for ids that are not defined in the world. */
+    public static final int NONE = -1;
+
+    /** Builds entities by handle for a lazy table; each is asked for at most once per thread race. */
+    public interface Source {
+        Location location(int handle);
+        GameObject object(int handle);
+        GameCharacter character(int handle);
+
+        /** A player has just arrived at the location; a streaming source loads ahead of them. */
+        default void entered(int locationHandle) {}
+    }
+
+    private final IdTable locationIds;
+    private final IdTable objectIds;
+    private final IdTable characterIds;
+    // Entities by handle; in a lazy table null until first looked up. A racing first lookup may
+    // build two equal immutable entities, and whichever is stored last is kept.
+    private final Location[] locations;
+    private final GameObject[] objects;
+    private final GameCharacter[] characters;
+    private final Source source; // null when built from entities
+    private final long fingerprint;
+    private final Map<String, Location> locationMap;
+    private final Map<String, GameObject> objectMap;
+    private final Map<String, GameCharacter> characterMap;
+
+    private SymbolTable(Collection<Location> locations, Collection<GameObject> objects,
+                        Collection<GameCharacter> characters) {
+        this(locations.stream().map(Location::getId).toArray(String[]::new),
+                objects.stream().map(GameObject::getId).toArray(String[]::new),
+                characters.stream().map(GameCharacter::getId).toArray(String[]::new), null);
+        locations.toArray(this.locations);
+        objects.toArray(this.objects);
+        characters.toArray(this.characters);
+    }
+
+    private SymbolTable(String[] locationIds, String[] objectIds, String[] characterIds, Source source) {
+        this.locations = new Location[locationIds.length];
+        this.objects = new GameObject[objectIds.length];
+        this.characters = new GameCharacter[characterIds.length];
+        this.source = source;
+        this.locationIds = new IdTable(locationIds.length);
+        this.objectIds = new IdTable(objectIds.length);
+        this.characterIds = new IdTable(characterIds.length);
+        for (String id : locationIds) this.locationIds.add(id);
+        for (String id : objectIds) this.objectIds.add(id);
+        for (String id : characterIds) this.characterIds.add(id);
+        long h = 1125899906842597L;
+        for (String id : locationIds) h = 31 * h + id.hashCode();
+        for (String id : objectIds) h = 37 * h + id.hashCode();
+        for (String id : characterIds) h = 41 * h + id.hashCode();
+        this.fingerprint = h;
+        this.locationMap = new View<>(this.locationIds, this::location);
+        this.objectMap = new View<>(this.objectIds, this::object);
+        this.characterMap = new View<>(this.characterIds, this::character);
+    }
+
+    private SymbolTable(SymbolTable ids, Location[] locations, GameObject[] objects, GameCharacter[] characters) {
+        this.locationIds = ids.locationIds;
+        this.objectIds = ids.objectIds;
+        this.characterIds = ids.characterIds;
+        this.locations = locations;
+        this.objects = objects;
+        this.characters = characters;
+        this.source = null;
+        this.fingerprint = ids.fingerprint;
+        this.locationMap = new View<>(this.locationIds, this::location);
+        this.objectMap = new View<>(this.objectIds, this::object);
+        this.characterMap = new View<>(this.characterIds, this::character);
+    }
+
+    /** Builds the table; handle order follows the iteration order of each map. */
+    public static SymbolTable of(Map<String, Location> locations, Map<String, GameObject> objects,
+                                 Map<String, GameCharacter> characters) {
+        return new SymbolTable(locations.values(), objects.values(), characters.values());
+    }
+
+    /** A table over the given ids (handle order) whose entities come from source on demand. */
+    public static SymbolTable lazy(String[] locationIds, String[] objectIds, String[] characterIds, Source source) {
+        return new SymbolTable(locationIds, objectIds, characterIds, Objects.requireNonNull(source));
+    }
+
+    /** An eager table sharing this table's ids (and so its handles) over the given entities, in handle order. */
+    SymbolTable withEntities(Location[] locations, GameObject[] objects, GameCharacter[] characters) {
+        if (locations.length != locationCount() || objects.length != objectCount() || characters.length != characterCount()) {
+            throw new IllegalArgumentException("Entity counts differ from the table's");
+        }
+        return new SymbolTable(this, locations, objects, characters);
+    }
+
+    public int locationHandle(String id) { return locationIds.find(id); }
+    public int objectHandle(String id) { return objectIds.find(id); }
+    public int characterHandle(String id) { return characterIds.find(id); }
+
+    /** Lookups by a span of a larger buffer, e.g. an operand of a parsed command line. */
+    public int locationHandle(CharSequence s, int start, int end) { return locationIds.find(s, start, end); }
+    public int objectHandle(CharSequence s, int start, int end) { return objectIds.find(s, start, end); }
+    public int characterHandle(CharSequence s, int start, int end) { return characterIds.find(s, start, end); }
+
+    public Location location(int handle) {
+        Location l = locations[handle];
+        return l != null ? l : (locations[handle] = source.location(handle));
+    }
+
+    public GameObject object(int handle) {
+        GameObject o = objects[handle];
+        return o != null ? o : (objects[handle] = source.object(handle));
+    }
+
+    public GameCharacter character(int handle) {
+        GameCharacter c = characters[handle];
+        return c != null ? c : (characters[handle] = source.character(handle));
+    }
+
+    /** Tells a lazy table's Source that a player arrived at the location (see Source.entered). */
+    public void entered(int locationHandle) {
+        if (source != null && locationHandle != NONE) source.entered(locationHandle);
+    }
+
+    // Drop a lazily built entity so the next lookup builds it again; eager tables keep everything
+    public void evictLocation(int handle) { if (source != null) locations[handle] = null; }
+    public void evictObject(int handle) { if (source != null) objects[handle] = null; }
+    public void evictCharacter(int handle) { if (source != null) characters[handle] = null; }
+
+    /** Read-only id -> entity maps backed by this table; entities are built as they are reached. */
+    public Map<String, Location> locations() { return locationMap; }
+    public Map<String, GameObject> objects() { return objectMap; }
+    public Map<String, GameCharacter> characters() { return characterMap; }
+
+    /** True if map is one of this table's views, which a Game can keep as is. */
+    boolean isView(Map<?, ?> map) { return map == locationMap || map == objectMap || map == characterMap; }
+
+    public String locationId(int handle) { return locationIds.id(handle); }
+    public String objectId(int handle) { return objectIds.id(handle); }
+    public String characterId(int handle) { return characterIds.id(handle); }
+
+    public int locationCount() { return locations.length; }
+    public int objectCount() { return objects.length; }
+    public int characterCount() { return characters.length; }
+
+    /** Hash of every id in handle order; data encoded against one table is only valid for an equal fingerprint. */
+    public long fingerprint() { return fingerprint; }
+
+    /** Map view in handle order; lookups go through the id table, so no per-entry map is kept. */
+    private static final class View<V> extends AbstractMap<String, V> {
+        private final IdTable ids;
+        private final java.util.function.IntFunction<V> entity;
+        private Set<Entry<String, V>> entries;
+
+        View(IdTable ids, java.util.function.IntFunction<V> entity) {
+            this.ids = ids;
+            this.entity = entity;
+        }
+
+        @Override public int size() { return ids.size; }
+        @Override public boolean containsKey(Object key) { return key instanceof String && ids.find((String) key) != NONE; }
+
+        @Override
+        public V get(Object key) {
+            int h = key instanceof String ? ids.find((String) key) : NONE;
+            return h == NONE ? null : entity.apply(h);
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            if (entries == null) {
+                entries = new AbstractSet<>() {
+                    @Override public int size() { return ids.size; }
+
+                    @Override
+                    public Iterator<Entry<String, V>> iterator() {
+                        return new Iterator<>() {
+                            int next;
+                            @Override public boolean hasNext() { return next < ids.size; }
+
+                            @Override
+                            public Entry<String, V> next() {
+                                if (next >= ids.size) throw new NoSuchElementException();
+                                int h = next++;
+                                return new SimpleImmutableEntry<>(ids.id(h), entity.apply(h));
+                            }
+                        };
+                    }
+                };
+            }
+            return entries;
+        }
+    }
+
+    /** Open-addressed String -> handle table; slots hold handle+1 so 0 means empty. */
+    private static final class IdTable {
+        private final String[] ids;
+        private final int[] slots;
+        private final int mask;
+        private int size;
+
+        IdTable(int capacity) {
+            this.ids = new String[capacity];
+            int n = Integer.highestOneBit(Math.max(4, capacity * 2 - 1)) << 1;
+            this.slots = new int[n];
+            this.mask = n - 1;
+        }
+
+        void add(String id) {
+            int i = spread(id.hashCode()) & mask;
+            while (slots[i] != 0) {
+                if (ids[slots[i] - 1].equals(id)) throw new IllegalArgumentException("Duplicate id: " + id);
+                i = (i + 1) & mask;
+            }
+            ids[size] = id;
+            slots[i] = ++size;
+        }
+
+        int find(String id) {
+            if (id == null) return NONE;
+            int i = spread(id.hashCode()) & mask;
+            int s;
+            while ((s = slots[i]) != 0) {
+                if (ids[s - 1].equals(id)) return s - 1;
+                i = (i + 1) & mask;
+            }
+            return NONE;
+        }
+
+        // Same probe sequence as find(String): the span hash is computed exactly as String.hashCode
+        int find(CharSequence s, int start, int end) {
+            int h = 0;
+            for (int k = start; k < end; k++) h = 31 * h + s.charAt(k);
+            int i = spread(h) & mask;
+            int slot;
+            while ((slot = slots[i]) != 0) {
+                if (matches(ids[slot - 1], s, start, end)) return slot - 1;
+                i = (i + 1) & mask;
+            }
+            return NONE;
+        }
+
+        private static boolean matches(String id, CharSequence s, int start, int end) {
+            if (id.length() != end - start) return false;
+            for (int k = 0; k < id.length(); k++) {
+                if (id.charAt(k) != s.charAt(start + k)) return false;
+            }
+            return true;
+        }
+
+        String id(int handle) { return ids[handle]; }
+
+        private static int spread(int h) { return h ^ (h >>> 16); }
+    }
+}
@@ -0,0 +1,225 @@
+package edu.uwo.cs2212.engine.model;
+
+import edu.uwo.cs2212.engine.rules.*;
+
+import java.util.*;
+
+/**
+ * What changed between a running world and a fresh load of its file, and the world to switch
+ * to. The new Game keeps every entity instance whose definition did not change, shares the
+ * loaded world's id tables, and keeps the running world's rule lists and their indexes when
+ * those did not change, so only what the author actually edited is new. Sessions move over
+ * with CommandDispatcher.reload, which keeps their GameState.
+ */
+public final class WorldDiff {
+    /** The world the diff was taken against, and the one to switch to. */
+    public final Game previous, game;
+    /** Ids of the entities added, removed or redefined. */
+    public final Set<String> locations, objects, characters;
+    public final boolean useRules, giveRules, miniGameRules;
+    /** Title, start message, start or end locations, or turn limit. */
+    public final boolean settings;
+    /** Every id keeps its handle, so handle-indexed session data stays valid. */
+    public final boolean sameHandles;
+
+    private WorldDiff(Game previous, Game game, Set<String> locations, Set<String> objects, Set<String> characters,
+                      boolean useRules, boolean giveRules, boolean miniGameRules, boolean settings) {
+        this.previous = previous;
+        this.game = game;
+        this.locations = Collections.unmodifiableSet(locations);
+        this.objects = Collections.unmodifiableSet(objects);
+        this.characters = Collections.unmodifiableSet(characters);
+        this.useRules = useRules;
+        this.giveRules = giveRules;
+        this.miniGameRules = miniGameRules;
+        this.settings = settings;
+        this.sameHandles = previous.getSymbols().fingerprint() == game.getSymbols().fingerprint();
+    }
+
+    /** Compares loaded with previous, building every entity of both once. */
+    public static WorldDiff between(Game previous, Game loaded) {
+        SymbolTable was = previous.getSymbols(), now = loaded.getSymbols();
+        Set<String> locations = new LinkedHashSet<>(), objects = new LinkedHashSet<>(), characters = new LinkedHashSet<>();
+        boolean aligned = was.fingerprint() == now.fingerprint(); // then every id keeps its handle
+
+        Location[] locs = new Location[now.locationCount()];
+        for (int h = 0; h < locs.length; h++) {
+            Location l = now.location(h);
+            int old = aligned ? h : was.locationHandle(l.getId());
+            if (old != SymbolTable.NONE && same(was.location(old), l)) {
+                locs[h] = was.location(old);
+            } else {
+                locs[h] = l;
+                locations.add(l.getId());
+            }
+        }
+        for (int h = 0; h < was.locationCount() && !aligned; h++) {
+            if (now.locationHandle(was.locationId(h)) == SymbolTable.NONE) locations.add(was.locationId(h));
+        }
+
+        GameObject[] objs = new GameObject[now.objectCount()];
+        for (int h = 0; h < objs.length; h++) {
+            GameObject o = now.object(h);
+            int old = aligned ? h : was.objectHandle(o.getId());
+            if (old != SymbolTable.NONE && same(was.object(old), o)) {
+                objs[h] = was.object(old);
+            } else {
+                objs[h] = o;
+                objects.add(o.getId());
+            }
+        }
+        for (int h = 0; h < was.objectCount() && !aligned; h++) {
+            if (now.objectHandle(was.objectId(h)) == SymbolTable.NONE) objects.add(was.objectId(h));
+        }
+
+        GameCharacter[] chars = new GameCharacter[now.characterCount()];
+        for (int h = 0; h < chars.length; h++) {
+            GameCharacter c = now.character(h);
+            int old = aligned ? h : was.characterHandle(c.getId());
+            if (old != SymbolTable.NONE && same(was.character(old), c)) {
+                chars[h] = was.character(old);
+            } else {
+                chars[h] = c;
+                characters.add(c.getId());
+            }
+        }
+        for (int h = 0; h < was.characterCount() && !aligned; h++) {
+            if (now.characterHandle(was.characterId(h)) == SymbolTable.NONE) characters.add(was.characterId(h));
+        }
+
+        boolean useRules = !sameUseRules(previous.getUseRules(), loaded.getUseRules());
+        boolean giveRules = !sameGiveRules(previous.getGiveRules(), loaded.getGiveRules());
+        boolean miniGameRules = !sameMiniGameRules(previous.getMiniGameRules(), loaded.getMiniGameRules());
+        boolean settings = !previous.getTitle().equals(loaded.getTitle())
+                || !previous.getStartMessage().equals(loaded.getStartMessage())
+                || !previous.getStartLocationId().equals(loaded.getStartLocationId())
+                || !previous.getEndLocationIds().equals(loaded.getEndLocationIds())
+                || !Objects.equals(previous.getTurnLimit(), loaded.getTurnLimit());
+
+        SymbolTable symbols = now.withEntities(locs, objs, chars);
+        Game game = new Game(loaded.getTitle(), loaded.getStartMessage(), loaded.getStartLocationId(),
+                loaded.getEndLocationIds(), loaded.getTurnLimit(),
+                symbols.locations(), symbols.objects(), symbols.characters(),
+                (useRules ? loaded : previous).getUseRules(),
+                (giveRules ? loaded : previous).getGiveRules(),
+                (miniGameRules ? loaded : previous).getMiniGameRules(),
+                symbols,
+                (useRules ? loaded : previous).getUseRuleIndex(),
+                (miniGameRules ? loaded : previous).getMiniGameRuleIndex());
+        return new WorldDiff(previous, game, locations, objects, characters, useRules, giveRules, miniGameRules, settings);
+    }
+
+    /** True when the file defines the same world. */
+    public boolean isEmpty() {
+        return locations.isEmpty() && objects.isEmpty() && characters.isEmpty()
+                && !useRules && !giveRules && !miniGameRules && !settings;
+    }
+
+    /** One-line summary, e.g. "2 locations, 1 object, use rules". */
+    @Override
+    public String toString() {
+        StringJoiner out = new StringJoiner(", ");
+        count(out, locations.size(), "location");
+        count(out, objects.size(), "object");
+        count(out, characters.size(), "character");
+        if (useRules) out.add("use rules");
+        if (giveRules) out.add("give rules");
+        if (miniGameRules) out.add("mini-game rules");
+        if (settings) out.add("settings");
+        return out.length() == 0 ? "no changes" : out.toString();
+    }
+
+    private static void count(StringJoiner out, int n, String noun) {
+        if (n > 0) out.add(n + " " + noun + (n == 1 ? "" : "s"));
+    }
+
+    // Definitions compare field by field; order matters wherever it shows up in play
+
+    private static boolean same(Location a, Location b) {
+        if (!a.getName().equals(b.getName()) || !a.getDescription().equals(b.getDescription())
+                || !Objects.equals(a.getImagePath(), b.getImagePath())
+                || !sameOrder(a.getObjectIds(), b.getObjectIds()) || !sameOrder(a.getCharacterIds(), b.getCharacterIds())
+                || a.getConnections().size() != b.getConnections().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.getConnections().size(); i++) {
+            if (!same(a.getConnections().get(i), b.getConnections().get(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean same(GameObject a, GameObject b) {
+        return a.getName().equals(b.getName()) && a.getDescription().equals(b.getDescription())
+                && a.canPickUp() == b.canPickUp() && a.getAttributes().equals(b.getAttributes())
+                && a.getContainedObjectIds().equals(b.getContainedObjectIds());
+    }
+
+    private static boolean same(GameCharacter a, GameCharacter b) {
+        if (!a.getName().equals(b.getName()) || !a.getDescription().equals(b.getDescription())
+                || !a.getPhrases().equals(b.getPhrases()) || a.getWants().size() != b.getWants().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.getWants().size(); i++) {
+            Want x = a.getWants().get(i), y = b.getWants().get(i);
+            if (!Objects.equals(x.objectId, y.objectId) || !Objects.equals(x.attribute, y.attribute)) return false;
+        }
+        return true;
+    }
+
+    private static boolean same(Connection a, Connection b) {
+        if (a == null || b == null) return a == b;
+        return a.getLabel().equals(b.getLabel()) && a.getTargetLocationId().equals(b.getTargetLocationId());
+    }
+
+    private static boolean same(Selector a, Selector b) {
+        if (a == null || b == null) return a == b;
+        return Objects.equals(a.objectId, b.objectId) && Objects.equals(a.attribute, b.attribute);
+    }
+
+    private static boolean sameUseRules(List<UseRule> a, List<UseRule> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            UseRule x = a.get(i), y = b.get(i);
+            if (!same(x.primary, y.primary) || !same(x.with, y.with) || !Objects.equals(x.resultText, y.resultText)
+                    || !Objects.equals(x.producedObjectIds, y.producedObjectIds)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameGiveRules(List<GiveRule> a, List<GiveRule> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            GiveRule x = a.get(i), y = b.get(i);
+            if (!Objects.equals(x.characterId, y.characterId) || !same(x.given, y.given)
+                    || !Objects.equals(x.resultText, y.resultText) || !Objects.equals(x.objectsToUser, y.objectsToUser)
+                    || x.endsGame != y.endsGame) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameMiniGameRules(List<MiniGameRule> a, List<MiniGameRule> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            MiniGameRule x = a.get(i), y = b.get(i);
+            if (!same(x.primary, y.primary) || !same(x.with, y.with) || !Objects.equals(x.miniGameId, y.miniGameId)
+                    || !Objects.equals(x.rewardObjectIds, y.rewardObjectIds)
+                    || !Objects.equals(x.successText, y.successText) || !Objects.equals(x.failureText, y.failureText)
+                    || !Objects.equals(x.unlockLocationId, y.unlockLocationId)
+                    || !same(x.unlockConnection, y.unlockConnection)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameOrder(Collection<String> a, Collection<String> b) {
+        if (a.size() != b.size()) return false;
+        Iterator<String> x = a.iterator(), y = b.iterator();
+        while (x.hasNext()) if (!x.next().equals(y.next())) return false;
+        return true;
+    }
+}
@@ -1,6 +1,7 @@
-
 package edu.uwo.cs2212.engine.rules;
 
+import edu.uwo.cs2212.engine.model.Connection;
+
 import java.util.List;
 
 /** Data rule: using primary (optionally with 'with') launches a mini-game. */
@@ -11,14 +12,27 @@ public final class MiniGameRule {
     public final List<String> rewardObjectIds;
     public final String successText;
     public final String failureText;
+    public final String unlockLocationId;  // nullable: where winning opens a new exit
+    public final Connection unlockConnection; // nullable: the exit winning opens
 
     public MiniGameRule(Selector primary, Selector with, String miniGameId,
                         List<String> rewardObjectIds, String successText, String failureText) {
+        this(primary, with, miniGameId, rewardObjectIds, successText, failureText, null, null);
+    }
+
+    public MiniGameRule(Selector primary, Selector with, String miniGameId,
+                        List<String> rewardObjectIds, String successText, String failureText,
+                        String unlockLocationId, Connection unlockConnection) {
+        if ((unlockLocationId == null) != (unlockConnection == null)) {
+            throw new IllegalArgumentException("Unlock needs both a location and a connection");
+        }
         this.primary = primary;
         this.with = with;
         this.miniGameId = miniGameId;
         this.rewardObjectIds = java.util.List.copyOf(rewardObjectIds);
         this.successText = successText;
         this.failureText = failureText;
+        this.unlockLocationId = unlockLocationId;
+        this.unlockConnection = unlockConnection;
     }
 }
@@ -0,0 +1,52 @@
+package edu.uwo.cs2212.engine.rules;
+
+import edu.uwo.cs2212.engine.model.GameObject;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compiled lookup from a rule's primary selector to the rule's position in its list.
+ * Built once per Game so dispatch only visits rules that can match the operand.
+ */
+public final class RuleIndex<R> {
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, int[]> byObjectId;
+    private final int[][] byAttribute; // indexed by AttributeRegistry handle
+
+    public RuleIndex(List<R> rules, Function<R, Selector> key) {
+        Map<String, List<Integer>> ids = new HashMap<>();
+        Map<Integer, List<Integer>> attrs = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            Selector sel = key.apply(rules.get(i));
+            if (sel == null) continue; // never matches
+            if (sel.objectId != null) ids.computeIfAbsent(sel.objectId, k -> new ArrayList<>()).add(i);
+            else if (sel.attribute != null) attrs.computeIfAbsent(sel.attributeHandle, k -> new ArrayList<>()).add(i);
+        }
+        this.byObjectId = compile(ids);
+        int[][] byAttr = new int[attrs.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1][];
+        for (Map.Entry<Integer, List<Integer>> e : attrs.entrySet()) byAttr[e.getKey()] = toArray(e.getValue());
+        this.byAttribute = byAttr;
+    }
+
+    /** Marks the position of every rule whose key selector matches obj. */
+    public void collect(GameObject obj, BitSet out) {
+        for (int i : byObjectId.getOrDefault(obj.getId(), NONE)) out.set(i);
+        for (int a = obj.nextAttribute(0); a >= 0 && a < byAttribute.length; a = obj.nextAttribute(a + 1)) {
+            if (byAttribute[a] != null) for (int i : byAttribute[a]) out.set(i);
+        }
+    }
+
+    private static Map<String, int[]> compile(Map<String, List<Integer>> src) {
+        Map<String, int[]> out = new HashMap<>(src.size() * 2);
+        for (Map.Entry<String, List<Integer>> e : src.entrySet()) {
+            out.put(e.getKey(), toArray(e.getValue()));
+        }
+        return out;
+    }
+
+    private static int[] toArray(List<Integer> src) {
+        return src.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
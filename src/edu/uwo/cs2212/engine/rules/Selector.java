@@ -1,14 +1,35 @@
 
 package edu.uwo.cs2212.engine.rules;
 
+import edu.uwo.cs2212.engine.model.AttributeRegistry;
+
 /** Match by exact object id OR by attribute name (one of them non-null). */
 public final class Selector {
     public final String objectId;
     public final String attribute;
+    public final int attributeHandle; // AttributeRegistry handle, or NONE
 
     public Selector(String objectId, String attribute) {
         this.objectId = objectId;
         this.attribute = attribute;
+        this.attributeHandle = attribute == null ? AttributeRegistry.NONE : AttributeRegistry.intern(attribute);
+    }
+
+    private Selector(String attribute, int attributeHandle) {
+        this.objectId = null;
+        this.attribute = attribute;
+        this.attributeHandle = attributeHandle;
+    }
+
+    /**
+     * Selector for an operand typed by a player: "@name" selects by attribute, anything else by
+     * id. The attribute is looked up, not interned, so one no world defines matches nothing and
+     * player input cannot grow the process-wide registry.
+     */
+    public static Selector lookup(String idOrAttr) {
+        if (!idOrAttr.startsWith("@")) return byId(idOrAttr);
+        String attr = idOrAttr.substring(1);
+        return new Selector(attr, AttributeRegistry.find(attr));
     }
 
     public static Selector byId(String id) { return new Selector(id, null); }
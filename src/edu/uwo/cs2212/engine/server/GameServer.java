@@ -0,0 +1,147 @@
+package edu.uwo.cs2212.engine.server;
+
+import edu.uwo.cs2212.engine.engine.CommandMetrics;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.WorldDiff;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts many players in one process. A ServerSocketChannel accepts connections and each one
+ * becomes a Session with its own GameState and CommandDispatcher, served by its own virtual
+ * thread; blocking reads park the virtual thread, so idle players cost a few KB each. The
+ * Game definition is immutable and shared by every session; reload() swaps in an edited one,
+ * which each session picks up before its next command.
+ *
+ * Protocol (UTF-8 lines): the client sends one command per line, in the same syntax as the
+ * console (see CommandParser). The server answers each line with exactly one line:
+ *   OK <message>    the command succeeded
+ *   ERR <message>   it failed, or the line was not understood
+ *   END <message>   the command finished the game
+ *   BYE             reply to quit; the server then closes the connection
+ * On connect the server sends "HELLO <title>" followed by the starting location as an OK line.
+ *
+ * Mini-games need a local window, so sessions cannot play them: a command that would launch
+ * one gets "ERR That challenge can't be played over the network." and changes nothing but the
+ * turn count. A world that can only be finished through a mini-game (such as the sample, whose
+ * boss fight gates the way on) cannot be finished over the network.
+ */
+public final class GameServer implements Closeable {
+    private static final int BACKLOG = 4096;
+
+    private volatile Game game; // for new sessions
+    private final ServerSocketChannel listener;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Session> live = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    private GameServer(Game game, ServerSocketChannel listener) {
+        this.game = game;
+        this.listener = listener;
+        this.acceptor = Thread.ofPlatform().name("game-server-accept").daemon(true).unstarted(this::acceptLoop);
+    }
+
+    /** Starts listening on the loopback interface; port 0 picks a free port. */
+    public static GameServer start(Game game, int port) throws IOException {
+        ServerSocketChannel ch = ServerSocketChannel.open();
+        ch.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        GameServer server = new GameServer(game, ch);
+        server.acceptor.start();
+        return server;
+    }
+
+    public int port() {
+        try {
+            return ((InetSocketAddress) listener.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("Server is closed", e);
+        }
+    }
+
+    /** Number of connected sessions. */
+    public int sessionCount() { return live.size(); }
+
+    /** Moves new and live sessions to a reloaded world; see CommandDispatcher.reload. */
+    public void reload(WorldDiff diff) {
+        game = diff.game;
+        for (Session s : live) s.reload(diff);
+    }
+
+    private void acceptLoop() {
+        while (listener.isOpen()) {
+            SocketChannel ch;
+            try {
+                ch = listener.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                // Usually out of file descriptors; back off instead of spinning on the error
+                System.err.println("Accept failed: " + e.getMessage());
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                continue;
+            }
+            Session s = new Session(game, ch, CommandMetrics.global());
+            live.add(s);
+            sessions.execute(() -> {
+                try {
+                    s.run();
+                } finally {
+                    live.remove(s);
+                }
+            });
+        }
+    }
+
+    /** Stops accepting, disconnects every session and waits for their threads to finish. */
+    @Override
+    public void close() throws IOException {
+        listener.close();
+        for (Session s : live) s.close();
+        sessions.close();
+    }
+
+    /**
+     * Usage: GameServer [port]; serves the world file named by -Diq.world, or the sample world
+     * (default port 4000); -Diq.world.budget caps the heap, in MB, an image world keeps decoded,
+     * and -Diq.world.watch=true reloads the world file into live sessions whenever it changes
+     * (an image world cannot be both budgeted and watched).
+     * Command metrics are published over JMX, and also written every 10s
+     * to the file named by -Diq.metrics.file.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        CommandMetrics.register();
+        String metricsFile = System.getProperty("iq.metrics.file");
+        if (metricsFile != null) CommandMetrics.startSnapshots(Paths.get(metricsFile), 10, TimeUnit.SECONDS);
+        Game game = GameLoader.defaultGame();
+        if (!game.getMiniGameRules().isEmpty()) {
+            System.out.println("Note: this world's " + game.getMiniGameRules().size()
+                    + " mini-game rule(s) cannot be played over the network.");
+        }
+        GameServer server = start(game, port);
+        GameLoader.watchDefault(game, diff -> {
+            long t0 = System.nanoTime();
+            server.reload(diff);
+            System.out.printf("Reloaded the world in %.1f ms: %s%n", (System.nanoTime() - t0) / 1e6, diff);
+        }, (file, e) -> System.err.println("Reload of " + file + " failed: " + e.getMessage()));
+        System.out.println("Listening on 127.0.0.1:" + server.port());
+        server.acceptor.join();
+    }
+}
@@ -0,0 +1,101 @@
+package edu.uwo.cs2212.engine.server;
+
+import edu.uwo.cs2212.engine.io.GameLoader;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Load generator for GameServer: holds a number of idle connections open while a set of
+ * active clients play scripted commands, then reports round-trip latency percentiles.
+ *
+ * Usage: LoadTest [idle=10000] [active=64] [commandsPerClient=2000] [port]
+ * Without a port it starts an in-process server on a free port.
+ */
+public final class LoadTest {
+    private static final String[] SCRIPT = {
+        "look", "pickup obj_pole", "inv", "ex obj_pole", "drop obj_pole", "talk char_silver_surfer",
+        "go New York", "look", "undo", "use @long with obj_coffin", "give obj_pole char_silver_surfer", "redo"
+    };
+
+    // Commands played (and discarded) first so the server is JIT-compiled before measuring
+    private static final int WARMUP = 20_000;
+
+    private LoadTest(){}
+
+    public static void main(String[] args) throws Exception {
+        int idle = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int active = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int commands = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        GameServer server = args.length > 3 ? null : GameServer.start(GameLoader.sampleGame(), 0);
+        int port = server != null ? server.port() : Integer.parseInt(args[3]);
+
+        List<Socket> idlers = new ArrayList<>(idle);
+        long t0 = System.nanoTime();
+        try {
+            for (int i = 0; i < idle; i++) idlers.add(new Socket(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            System.out.println("Stopped opening idle connections at " + idlers.size() + ": " + e.getMessage());
+        }
+        System.out.printf("%d idle sessions connected in %.0f ms%n", idlers.size(), (System.nanoTime() - t0) / 1e6);
+        if (server != null) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (server.sessionCount() < idlers.size() && System.nanoTime() < deadline) Thread.sleep(10);
+            System.out.println(server.sessionCount() + " sessions live on the server");
+        }
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        System.out.printf("Heap in use: %d MB%n", (rt.totalMemory() - rt.freeMemory()) >> 20);
+
+        play(port, WARMUP);
+        List<Future<long[]>> results = new ArrayList<>(active);
+        t0 = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < active; c++) results.add(clients.submit(() -> play(port, commands)));
+        }
+        long wall = System.nanoTime() - t0;
+        long[][] latencies = new long[active][];
+        for (int c = 0; c < active; c++) latencies[c] = results.get(c).get(); // rethrows a client's failure
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%d commands from %d clients in %.0f ms (%.0f commands/s)%n",
+                all.length, active, wall / 1e6, all.length * 1e9 / wall);
+        System.out.printf("latency us: p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                pct(all, 0.50), pct(all, 0.90), pct(all, 0.99), pct(all, 0.999), all[all.length - 1] / 1e3);
+
+        for (Socket s : idlers) s.close();
+        if (server != null) server.close();
+    }
+
+    private static long[] play(int port, int commands) {
+        long[] lat = new long[commands];
+        try (Socket s = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            s.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+            in.readLine(); // HELLO
+            in.readLine(); // starting location
+            for (int i = 0; i < commands; i++) {
+                long t = System.nanoTime();
+                out.write(SCRIPT[i % SCRIPT.length]);
+                out.write('\n');
+                out.flush();
+                if (in.readLine() == null) throw new EOFException("Server closed the connection");
+                lat[i] = System.nanoTime() - t;
+            }
+            out.write("quit\n");
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lat;
+    }
+
+    private static double pct(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e3;
+    }
+}
@@ -0,0 +1,187 @@
+package edu.uwo.cs2212.engine.server;
+
+import edu.uwo.cs2212.engine.engine.*;
+import edu.uwo.cs2212.engine.model.*;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** One connected player: a private GameState and dispatcher driven by lines from the socket. */
+final class Session {
+    private static final int MAX_LINE = 4096;
+
+    // Mini-games need a local console or window, which a network session does not have
+    private static final MiniGameRunner NO_MINIGAMES = (id, game, state) -> {
+        throw new UnsupportedOperationException("That challenge can't be played over the network.");
+    };
+
+    private Game game;
+    private final SocketChannel ch;
+    private final GameState state = new GameState();
+    private final CommandDispatcher dispatcher;
+    private final UndoHistory history;
+    private final CommandParser parser = new CommandParser();
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer in = ByteBuffer.allocate(256);
+    private final CharBuffer chars = CharBuffer.allocate(512);
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder reply = new StringBuilder();
+    private ByteBuffer out = ByteBuffer.allocate(256);
+    private boolean overlong;
+    private final AtomicReference<WorldDiff> reloaded = new AtomicReference<>(); // latest, not yet applied
+
+    Session(Game game, SocketChannel ch, CommandMetrics metrics) {
+        this.game = game;
+        this.ch = ch;
+        state.currentLocationId = game.getStartLocationId();
+        this.dispatcher = new CommandDispatcher(game, state);
+        dispatcher.setMiniGameRunner(NO_MINIGAMES);
+        dispatcher.setMetrics(metrics);
+        this.history = new UndoHistory(dispatcher, 20, 64 << 10);
+    }
+
+    void run() {
+        try (SocketChannel c = ch) {
+            c.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            reply.append("HELLO ").append(game.getTitle());
+            send();
+            look();
+            send();
+            while (c.read(in) >= 0) {
+                in.flip();
+                decoder.decode(in, chars, false);
+                in.compact();
+                chars.flip();
+                boolean open = lines();
+                chars.clear();
+                if (!open) return;
+            }
+        } catch (IOException e) {
+            // Client went away; nothing to clean up beyond the channel
+        }
+    }
+
+    /** Queues a reloaded world; the session's own thread switches to it before the next command. */
+    void reload(WorldDiff diff) { reloaded.set(diff); }
+
+    void close() {
+        try {
+            ch.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Splits decoded input into lines and runs each; false once the client has quit. */
+    private boolean lines() throws IOException {
+        while (chars.hasRemaining()) {
+            char c = chars.get();
+            if (c != '\n') {
+                if (line.length() < MAX_LINE) line.append(c);
+                else overlong = true;
+                continue;
+            }
+            boolean open = true;
+            if (overlong) {
+                reply.append("ERR Line too long.");
+            } else {
+                open = execute();
+            }
+            if (reply.length() > 0) send();
+            line.setLength(0);
+            overlong = false;
+            if (!open) return false;
+        }
+        return true;
+    }
+
+    /** Runs the buffered line, leaving the response in reply; false for quit. */
+    private boolean execute() {
+        WorldDiff diff = reloaded.getAndSet(null);
+        if (diff != null && dispatcher.reload(diff)) game = diff.game;
+        Command cmd = parser.parse(line);
+        CommandResult r;
+        switch (cmd) {
+            case NONE:
+                return true;
+            case QUIT:
+                reply.append("BYE");
+                return false;
+            case LOOK:
+                look();
+                return true;
+            case UNDO:
+                r = history.undo() ? CommandResult.ok("Undone.") : CommandResult.fail("Nothing to undo.");
+                break;
+            case REDO:
+                r = history.redo() ? CommandResult.ok("Redone.") : CommandResult.fail("Nothing to redo.");
+                break;
+            case UNKNOWN:
+                r = CommandResult.fail(MessageTemplate.UNKNOWN_COMMAND, parser.verb(), null);
+                break;
+            default:
+                try {
+                    r = dispatcher.execute(parser);
+                } catch (RuntimeException e) {
+                    r = CommandResult.fail("Error: " + e.getMessage());
+                }
+        }
+        boolean ended = game.getEndLocationIds().contains(state.currentLocationId);
+        reply.append(ended ? "END " : r.success ? "OK " : "ERR ");
+        appendLine(r.message());
+        return true;
+    }
+
+    /** The current location as a single OK line. */
+    private void look() {
+        Location loc = game.getLocations().get(state.currentLocationId);
+        reply.append("OK ").append(loc.getName()).append(": ");
+        appendLine(loc.getDescription());
+        String sep = " Exits: ";
+        for (Connection c : state.world.connections(loc)) {
+            reply.append(sep).append(c.getLabel());
+            sep = ", ";
+        }
+        sep = ". Here: ";
+        for (String id : state.world.objectIds(loc)) {
+            reply.append(sep).append(id);
+            sep = ", ";
+        }
+        sep = ". You see: ";
+        for (String id : state.world.characterIds(loc)) {
+            reply.append(sep).append(id);
+            sep = ", ";
+        }
+    }
+
+    // Replies are one line each, so embedded line breaks become spaces
+    private void appendLine(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            reply.append(c == '\n' || c == '\r' ? ' ' : c);
+        }
+    }
+
+    private void send() throws IOException {
+        reply.append('\n');
+        CharBuffer src = CharBuffer.wrap(reply);
+        out.clear();
+        encoder.reset();
+        while (encoder.encode(src, out, true).isOverflow()) {
+            out = ByteBuffer.allocate(out.capacity() * 2);
+            src.rewind();
+            encoder.reset();
+        }
+        encoder.flush(out);
+        out.flip();
+        while (out.hasRemaining()) ch.write(out);
+        reply.setLength(0);
+    }
+}
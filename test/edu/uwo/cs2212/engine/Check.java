@@ -0,0 +1,43 @@
+package edu.uwo.cs2212.engine;
+
+import java.util.Objects;
+
+/** Assertions for the tests run by TestRunner; a failed check throws AssertionError. */
+public final class Check {
+    /** A step expected to throw. */
+    public interface Step { void run() throws Exception; }
+
+    private Check() {}
+
+    public static void equal(Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) throw new AssertionError("Expected <" + expected + "> but was <" + actual + ">");
+    }
+
+    public static void equal(long expected, long actual) {
+        if (expected != actual) throw new AssertionError("Expected <" + expected + "> but was <" + actual + ">");
+    }
+
+    public static void isTrue(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+
+    /** Runs step and returns what it threw, failing unless that is a type. */
+    public static <T extends Throwable> T fails(Class<T> type, Step step) {
+        try {
+            step.run();
+        } catch (Throwable t) {
+            if (type.isInstance(t)) return type.cast(t);
+            throw new AssertionError("Expected " + type.getSimpleName() + " but got " + t, t);
+        }
+        throw new AssertionError("Expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+
+    /** Like fails, and the message must contain part. */
+    public static <T extends Throwable> T fails(Class<T> type, String part, Step step) {
+        T t = fails(type, step);
+        if (t.getMessage() == null || !t.getMessage().contains(part)) {
+            throw new AssertionError("Expected a message containing <" + part + "> but was <" + t.getMessage() + ">", t);
+        }
+        return t;
+    }
+}
@@ -0,0 +1,62 @@
+package edu.uwo.cs2212.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.*;
+import java.net.URISyntaxException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the tests without a framework: every class under this package whose name ends in "Test"
+ * is found on the class path, and every static no-argument method in it whose name starts with
+ * "test" is one test, so a new test class needs no change here. Prints each failure and
+ * exits with status 1 if any test failed. Build and run from the repository root:
+ *
+ *   javac -d test-out $(find src test -name "*.java")
+ *   java -cp test-out edu.uwo.cs2212.engine.TestRunner [class-name-filter]
+ */
+public final class TestRunner {
+    private TestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        String filter = args.length > 0 ? args[0] : "";
+        int run = 0, failed = 0;
+        long t0 = System.nanoTime();
+        for (String name : testClasses()) {
+            if (!name.contains(filter)) continue;
+            Class<?> c = Class.forName(TestRunner.class.getPackageName() + "." + name);
+            Method[] methods = c.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName)); // declaration order is not reported
+            for (Method m : methods) {
+                if (!m.getName().startsWith("test") || !Modifier.isStatic(m.getModifiers()) || m.getParameterCount() != 0) continue;
+                m.setAccessible(true);
+                run++;
+                try {
+                    m.invoke(null);
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.out.println("FAIL " + name + "." + m.getName());
+                    e.getCause().printStackTrace(System.out);
+                }
+            }
+        }
+        System.out.printf("%d tests, %d failed, %.0f ms%n", run, failed, (System.nanoTime() - t0) / 1e6);
+        if (failed > 0 || run == 0) System.exit(1);
+    }
+
+    /** Names of the test classes below this package, relative to it (e.g. "io.JsonReaderTest"), sorted. */
+    private static List<String> testClasses() throws IOException, URISyntaxException {
+        Path root = Paths.get(TestRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .resolve(TestRunner.class.getPackageName().replace('.', '/'));
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.map(f -> root.relativize(f).toString().replace(File.separatorChar, '.'))
+                    .filter(f -> f.endsWith("Test.class") && !f.contains("$"))
+                    .map(f -> f.substring(0, f.length() - ".class".length()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.JsonWorldLoader;
+import edu.uwo.cs2212.engine.model.AttributeRegistry;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.Location;
+import edu.uwo.cs2212.engine.model.WorldDiff;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+final class AttributeIndexTest {
+    private static final String WORLD = "{\"start\": \"a\", \"locations\": ["
+            + "{\"id\": \"a\", \"objects\": [\"x\", \"y\", \"z\"], \"exits\": [{\"label\": \"on\", \"to\": \"b\"}]}, {\"id\": \"b\"}],"
+            + " \"objects\": [{\"id\": \"x\", \"pickUp\": true, \"attributes\": [\"shiny\"]}, {\"id\": \"y\"},"
+            + " {\"id\": \"z\", \"attributes\": [\"shiny\"]}]}";
+
+    private static Game parse(String json) throws IOException { return JsonWorldLoader.load(new StringReader(json)); }
+
+    /** A queried container follows objects as they move between rooms and the inventory. */
+    static void testContainersFollowChanges() throws IOException {
+        Game game = parse(WORLD);
+        GameState state = new GameState();
+        state.currentLocationId = "a";
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        AttributeIndex index = new AttributeIndex(game, state);
+        d.addChangeListener((change, s) -> index.applied(change));
+        Location a = game.getLocations().get("a");
+        int shiny = AttributeRegistry.find("shiny");
+        Check.equal(List.of("x", "z"), List.copyOf(index.inLocation(a, shiny)));
+        Check.isTrue(index.inInventory(shiny).isEmpty(), "nothing carried yet");
+
+        d.pickUp("x");
+        Check.equal(List.of("z"), List.copyOf(index.inLocation(a, shiny)));
+        Check.equal(List.of("x"), List.copyOf(index.inInventory(shiny)));
+        d.go("on");
+        d.drop("x");
+        Check.equal(List.of("x"), List.copyOf(index.inLocation(game.getLocations().get("b"), shiny)));
+        Check.isTrue(index.inLocation(a, AttributeRegistry.intern("dull")).isEmpty(), "no object is dull");
+    }
+
+    /** A reload drops only the built containers it touched; the rest keep their contents. */
+    static void testReloadDropsTouchedContainers() throws IOException {
+        Game game = parse(WORLD);
+        GameState state = new GameState();
+        state.currentLocationId = "a";
+        AttributeIndex index = new AttributeIndex(game, state);
+        Location a = game.getLocations().get("a");
+        int shiny = AttributeRegistry.find("shiny");
+        Check.equal(List.of("x", "z"), List.copyOf(index.inLocation(a, shiny)));
+
+        Game next = parse(WORLD.replace("{\"id\": \"y\"}", "{\"id\": \"y\", \"attributes\": [\"shiny\"]}"));
+        WorldDiff diff = WorldDiff.between(game, next);
+        Check.isTrue(diff.sameHandles, "only an object changed");
+        index.reloaded(diff);
+        Check.equal(List.of("x", "y", "z"), List.copyOf(index.inLocation(next.getLocations().get("a"), shiny)));
+    }
+}
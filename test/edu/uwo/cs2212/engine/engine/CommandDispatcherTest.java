@@ -0,0 +1,67 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.JsonWorldLoader;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.Location;
+import edu.uwo.cs2212.engine.model.WorldDiff;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+final class CommandDispatcherTest {
+    private static final String WORLD = "{\"start\": \"a\", \"locations\": ["
+            + "{\"id\": \"a\", \"objects\": [\"x\", \"y\", \"z\"], \"exits\": [{\"label\": \"on\", \"to\": \"b\"}]}, {\"id\": \"b\"}],"
+            + " \"objects\": [{\"id\": \"x\", \"pickUp\": true}, {\"id\": \"y\"}, {\"id\": \"z\"}],"
+            + " \"useRules\": [{\"primary\": \"@shiny\", \"with\": null, \"text\": \"It glows.\"}]}";
+
+    private static Game parse(String json) throws IOException { return JsonWorldLoader.load(new StringReader(json)); }
+
+    private static GameState start(Game game) {
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        return state;
+    }
+
+    /** A reload keeps the session's state and applies the new definitions to its next command. */
+    static void testReloadKeepsState() throws IOException {
+        Game game = parse(WORLD);
+        GameState state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Check.isTrue(d.pickUp("x").success, "pickup");
+        Check.isTrue(!d.use("y", null).success, "y is not shiny yet");
+
+        Game next = parse(WORLD.replace("{\"id\": \"y\"}", "{\"id\": \"y\", \"attributes\": [\"shiny\"]}"));
+        Check.isTrue(d.reload(WorldDiff.between(game, next)), "reloaded");
+        Check.equal("a", state.currentLocationId);
+        Check.equal(List.of("x"), List.copyOf(state.inventory));
+        Check.equal(List.of("y", "z"), List.copyOf(state.world.objectIds(next.getLocations().get("a"))));
+        Check.isTrue(d.use("y", null).success, "the redefined y is shiny");
+    }
+
+    /** Ids the new world drops leave the session's changed locations. */
+    static void testReloadPrunesDroppedIds() throws IOException {
+        Game game = parse(WORLD);
+        GameState state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        d.pickUp("x");
+        Game next = parse(WORLD.replace(", \"z\"]", "]").replace(", {\"id\": \"z\"}", ""));
+        Check.isTrue(d.reload(WorldDiff.between(game, next)), "reloaded");
+        Location a = next.getLocations().get("a");
+        Check.equal(List.of("y"), List.copyOf(state.world.objectIds(a)));
+    }
+
+    /** A world that no longer defines what the player carries is refused, and the session stays put. */
+    static void testReloadRefusesDroppedInventory() throws IOException {
+        Game game = parse(WORLD);
+        GameState state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        d.pickUp("x");
+        Game next = parse(WORLD.replace("[\"x\", \"y\", \"z\"]", "[\"y\", \"z\"]")
+                .replace("{\"id\": \"x\", \"pickUp\": true}, ", ""));
+        Check.isTrue(!d.reload(WorldDiff.between(game, next)), "refused");
+        Check.isTrue(d.examineObject("x").success, "x is still defined for the session");
+        Check.equal(List.of("x"), List.copyOf(state.inventory));
+    }
+}
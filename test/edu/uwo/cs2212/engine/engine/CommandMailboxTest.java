@@ -0,0 +1,67 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class CommandMailboxTest {
+    private static CommandDispatcher dispatcher() {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        return new CommandDispatcher(game, state);
+    }
+
+    /** Tasks from many threads run one at a time, each thread's in the order it submitted them. */
+    static void testRunsOneAtATimeInOrder() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        int producers = 4, perProducer = 2000;
+        List<int[]> ran = new ArrayList<>(); // only touched by tasks
+        AtomicInteger running = new AtomicInteger(), overlaps = new AtomicInteger();
+        try (CommandMailbox mailbox = new CommandMailbox(dispatcher(), pool)) {
+            List<Future<?>> submitters = new ArrayList<>();
+            List<CompletableFuture<Integer>> last = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                CompletableFuture<Integer> done = new CompletableFuture<>();
+                last.add(done);
+                submitters.add(pool.submit(() -> {
+                    CompletableFuture<Integer> f = null;
+                    for (int i = 0; i < perProducer; i++) {
+                        int seq = i;
+                        f = mailbox.submit(d -> {
+                            if (running.incrementAndGet() > 1) overlaps.incrementAndGet();
+                            ran.add(new int[] {producer, seq});
+                            running.decrementAndGet();
+                            return seq;
+                        });
+                    }
+                    f.whenComplete((v, e) -> done.complete(v));
+                }));
+            }
+            for (Future<?> s : submitters) s.get(10, TimeUnit.SECONDS);
+            for (CompletableFuture<Integer> f : last) Check.equal(perProducer - 1, (int) f.get(10, TimeUnit.SECONDS));
+            Check.equal(0, overlaps.get());
+            Check.equal(producers * perProducer, (int) mailbox.submit(d -> ran.size()).get(10, TimeUnit.SECONDS));
+            int[] next = new int[producers];
+            for (int[] r : ran) Check.equal(next[r[0]]++, r[1]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** A failing task fails only its own future; after close() new work is rejected. */
+    static void testFailuresAndClose() throws Exception {
+        CommandMailbox mailbox = new CommandMailbox(dispatcher(), Runnable::run);
+        CompletableFuture<Object> failed = mailbox.submit(d -> { throw new IllegalStateException("boom"); });
+        Check.isTrue(failed.isCompletedExceptionally(), "the failure reaches the caller");
+        Check.isTrue(mailbox.execute("go Moon").get().success, "the next command still runs");
+        mailbox.close();
+        Check.fails(ExecutionException.class, "closed", () -> mailbox.execute("look").get());
+    }
+}
@@ -0,0 +1,43 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.model.Game;
+
+final class CommandMetricsTest {
+    private static CommandDispatcher dispatcher(Game game) {
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        return new CommandDispatcher(game, state);
+    }
+
+    static void testCountsCommandsFailuresAndScans() {
+        CommandMetrics metrics = new CommandMetrics();
+        CommandDispatcher d = dispatcher(GameLoader.sampleGame());
+        d.setMetrics(metrics);
+        d.go("Asgard");
+        d.go("nowhere");
+        d.inventory();
+        d.go("Explore East");
+        d.use("obj_stormbreaker_chest", null);
+        CommandStats go = metrics.getCommands().get("GO");
+        Check.equal(3L, go.getCount());
+        Check.equal(1L, go.getFailures());
+        Check.isTrue(go.getMaxMicros() >= go.getP50Micros(), "the median is at most the maximum");
+        Check.equal(1L, metrics.getCommands().get("INVENTORY").getCount());
+        Check.isTrue(metrics.getUseRulesScanned() > 0, "the use scanned its candidate rules");
+        Check.isTrue(metrics.report().contains("use_rules_scanned"), "the report lists the scan counters");
+
+        metrics.reset();
+        Check.equal(0L, metrics.getCommands().get("GO").getCount());
+    }
+
+    /** A dispatcher nobody gave metrics to leaves the process-wide ones alone. */
+    static void testUnsetMetricsRecordNothing() {
+        long before = CommandMetrics.global().getCommands().get("GO").getCount();
+        dispatcher(GameLoader.sampleGame()).go("Asgard");
+        Check.equal(before, CommandMetrics.global().getCommands().get("GO").getCount());
+        CommandMetrics.NONE.record(Command.GO, CommandMetrics.NONE.start(), CommandResult.ok("x"));
+        Check.equal(0L, CommandMetrics.NONE.getCommands().get("GO").getCount());
+    }
+}
@@ -0,0 +1,64 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class CommandParserTest {
+    static void testVerbs() {
+        CommandParser p = new CommandParser();
+        Check.equal(Command.PICK_UP, p.parse("pickup obj_pole"));
+        Check.equal(Command.INVENTORY, p.parse("INV"));
+        Check.equal(Command.INVENTORY, p.parse("Inventory"));
+        Check.equal(Command.EXAMINE, p.parse("ex obj_pole"));
+        Check.equal(Command.QUIT, p.parse("exit"));
+        Check.equal(Command.NONE, p.parse("   \t "));
+        Check.equal(Command.UNKNOWN, p.parse("dance wildly"));
+        Check.equal("dance", p.verb());
+    }
+
+    static void testOperands() {
+        CommandParser p = new CommandParser();
+        p.parse("  give  obj_pole   char_thor  ");
+        Check.equal(2, p.operandCount());
+        Check.equal("obj_pole", p.operand(0));
+        Check.equal("char_thor", p.operand(1));
+        Check.isTrue(p.isComplete(), "give has both operands");
+
+        p.parse("give obj_pole");
+        Check.isTrue(!p.isComplete(), "give needs a character");
+        Check.fails(RuntimeException.class, () -> p.operand(1));
+    }
+
+    static void testGoTakesTheRestOfTheLine() {
+        CommandParser p = new CommandParser();
+        p.parse("go  Enter Boss Chamber \r");
+        Check.equal(1, p.operandCount());
+        Check.equal("Enter Boss Chamber", p.operand(0));
+    }
+
+    static void testUse() {
+        CommandParser p = new CommandParser();
+        p.parse("use @long WITH obj_coffin");
+        Check.equal(2, p.operandCount());
+        Check.isTrue(p.isAttribute(0), "@long is an attribute");
+        Check.equal("@long", p.operand(0));
+        Check.isTrue(!p.isAttribute(1), "obj_coffin is an id");
+        Check.equal("obj_coffin", p.operand(1));
+
+        p.parse("use obj_stormbreaker_chest");
+        Check.equal(1, p.operandCount());
+        p.parse("use obj_pole obj_coffin"); // no "with": the second word is ignored
+        Check.equal(1, p.operandCount());
+    }
+
+    static void testParseAll() {
+        CommandParser p = new CommandParser();
+        List<String> seen = new ArrayList<>();
+        int n = p.parseAll("look\r\n\npickup obj_pole\n  \ngo New York", parsed ->
+                seen.add(parsed.command() + (parsed.operandCount() > 0 ? " " + parsed.operand(0) : "")));
+        Check.equal(3, n);
+        Check.equal(List.of("LOOK", "PICK_UP obj_pole", "GO New York"), seen);
+    }
+}
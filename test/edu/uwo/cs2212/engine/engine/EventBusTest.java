@@ -0,0 +1,32 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class EventBusTest {
+    static void testAFailingHandlerIsReportedAndTheOthersRun() {
+        EventBus bus = new EventBus();
+        List<String> seen = new ArrayList<>();
+        bus.setFailureHandler((event, e) -> seen.add("failed " + event.type() + ": " + e.getMessage()));
+        bus.subscribe(GameEvent.LocationEntered.class, e -> { throw new IllegalStateException("boom"); });
+        bus.subscribe(GameEvent.LocationEntered.class, e -> seen.add("entered " + e.locationId));
+        Check.isTrue(bus.wants(GameEvent.Type.LOCATION_ENTERED), "someone listens");
+        Check.isTrue(!bus.wants(GameEvent.Type.ITEM_ACQUIRED), "nobody listens");
+        bus.publish(new GameEvent.LocationEntered("loc_moon", "loc_toronto"));
+        Check.equal(List.of("failed LOCATION_ENTERED: boom", "entered loc_moon"), seen);
+    }
+
+    static void testUnsubscribe() {
+        EventBus bus = new EventBus();
+        List<String> seen = new ArrayList<>();
+        java.util.function.Consumer<GameEvent.LocationEntered> h = e -> seen.add(e.locationId);
+        bus.subscribe(GameEvent.LocationEntered.class, h);
+        bus.publish(new GameEvent.LocationEntered("a", "b"));
+        bus.unsubscribe(GameEvent.LocationEntered.class, h);
+        bus.publish(new GameEvent.LocationEntered("c", "a"));
+        Check.equal(List.of("a"), seen);
+        Check.fails(NullPointerException.class, () -> bus.setFailureHandler(null));
+    }
+}
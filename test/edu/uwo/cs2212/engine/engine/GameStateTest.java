@@ -0,0 +1,78 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.model.*;
+
+final class GameStateTest {
+    private static GameState start(Game game) {
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        return state;
+    }
+
+    /** A location copied into the overlay but back as defined hashes like one never touched. */
+    static void testHashIgnoresCopiesThatMatchTheDefinition() {
+        Game game = GameLoader.sampleGame();
+        GameState fresh = start(game), state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        UndoHistory history = new UndoHistory(d, 10, 1 << 20);
+        d.pickUp("obj_pole");
+        Check.isTrue(state.hash(game) != fresh.hash(game), "a pickup changes the hash");
+        history.undo();
+        Check.isTrue(!state.world.changedLocationIds().isEmpty(), "the room is still copied");
+        Check.equal(fresh.hash(game), state.hash(game));
+
+        d.pickUp("obj_pole");
+        d.drop("obj_pole"); // back in the room, but last
+        GameState other = start(game);
+        other.turnsTaken = state.turnsTaken;
+        Check.isTrue(state.hash(game) != other.hash(game), "room order is part of the hash");
+    }
+
+    /** Restoring a saved state brings back the room in its original order, and later commands see it. */
+    static void testRestoreFromSavedState() {
+        Game game = GameLoader.sampleGame();
+        GameState saved = start(game), state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Location here = game.getLocations().get(state.currentLocationId);
+        String order = state.world.objectIds(here).toString();
+        for (int i = 0; i < 3; i++) {
+            Check.isTrue(d.pickUp("obj_pole").success, "pickup " + i);
+            d.restore(saved);
+            Check.equal(order, state.world.objectIds(here).toString());
+            Check.equal(saved.hash(game), state.hash(game));
+            Check.isTrue(state.inventory.isEmpty(), "inventory restored");
+        }
+        Check.isTrue(saved.world.changedLocationIds().isEmpty(), "the saved state is left alone");
+    }
+
+    /** Hashing looks up only the locations the session changed, so a lazy world is not decoded whole. */
+    static void testHashLooksUpOnlyChangedLocations() {
+        Game world = WorldGenerator.generate(WorldGenerator.Spec.ofSize(500));
+        SymbolTable defined = world.getSymbols();
+        int[] lookups = {0};
+        String[] locationIds = new String[defined.locationCount()], objectIds = new String[defined.objectCount()],
+                characterIds = new String[defined.characterCount()];
+        for (int h = 0; h < locationIds.length; h++) locationIds[h] = defined.locationId(h);
+        for (int h = 0; h < objectIds.length; h++) objectIds[h] = defined.objectId(h);
+        for (int h = 0; h < characterIds.length; h++) characterIds[h] = defined.characterId(h);
+        SymbolTable lazy = SymbolTable.lazy(locationIds, objectIds, characterIds, new SymbolTable.Source() {
+            @Override public Location location(int h) { lookups[0]++; return defined.location(h); }
+            @Override public GameObject object(int h) { return defined.object(h); }
+            @Override public GameCharacter character(int h) { return defined.character(h); }
+        });
+        Game game = new Game(world.getTitle(), world.getStartMessage(), world.getStartLocationId(),
+                world.getEndLocationIds(), world.getTurnLimit(), lazy, world.getUseRules(), world.getGiveRules(),
+                world.getMiniGameRules());
+        GameState state = start(game);
+        Location here = game.getLocations().get(state.currentLocationId);
+        String extra = objectIds[objectIds.length - 1];
+        state.world.addObject(here, extra);
+        int before = lookups[0];
+        long h = state.hash(game);
+        Check.isTrue(lookups[0] - before <= 1, "looked up " + (lookups[0] - before) + " locations");
+        Check.equal(h, state.hash(world));
+    }
+}
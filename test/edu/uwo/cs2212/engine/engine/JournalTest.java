@@ -0,0 +1,131 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+final class JournalTest {
+    static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    private static void checkRestores(Path dir, Game game, GameState state) throws IOException {
+        GameState back = Journal.restore(dir, game);
+        Check.equal(state.currentLocationId, back.currentLocationId);
+        Check.equal(state.turnsTaken, back.turnsTaken);
+        Check.equal(List.copyOf(state.inventory), List.copyOf(back.inventory));
+        Check.equal(state.hash(game), back.hash(game));
+    }
+
+    /** Restores after every command: from a fresh snapshot, and from a snapshot plus part of an interval. */
+    static void testRestoreAfterEveryCommand() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Path dir = Files.createTempDirectory("iq-journal");
+        Check.isTrue(!Journal.exists(dir), "an empty directory holds no session");
+        try (Journal journal = Journal.start(dir, game, state, 5)) {
+            d.addChangeListener(journal);
+            Check.isTrue(Journal.exists(dir), "starting a journal snapshots the session");
+            checkRestores(dir, game, state);
+            String[][] commands = {
+                {"pickup", "obj_pole"}, {"go", "Asgard"}, {"go", "Explore East"}, {"use", "obj_stormbreaker_chest"},
+                {"pickup", "obj_stormbreaker"}, {"drop", "obj_pole"}, {"go", "back"}, {"go", "back"}, {"pickup", "obj_lockpicks"}
+            };
+            for (String[] c : commands) {
+                switch (c[0]) {
+                    case "pickup": d.pickUp(c[1]); break;
+                    case "drop": d.drop(c[1]); break;
+                    case "go": d.go(c[1]); break;
+                    default: d.use(c[1], null);
+                }
+                checkRestores(dir, game, state);
+            }
+            Check.equal(9, state.turnsTaken);
+            try (Stream<Path> files = Files.list(dir)) {
+                Check.equal(2L, files.count()); // one snapshot and its segment; older segments are gone
+            }
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    /** A record cut short by a crash is dropped; everything before it is restored. */
+    static void testTornTail() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Path dir = Files.createTempDirectory("iq-journal");
+        try (Journal journal = Journal.start(dir, game, state, 100)) {
+            d.addChangeListener(journal);
+            d.pickUp("obj_pole");
+            d.go("Moon");
+            Path segment;
+            try (Stream<Path> files = Files.list(dir)) {
+                segment = files.filter(p -> p.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+            }
+            Files.write(segment, new byte[] {0, 1, 0}, StandardOpenOption.APPEND);
+            checkRestores(dir, game, state);
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    /** Undo and redo reach the disk as soon as they finish, like commands, not at the next command. */
+    static void testUndoAndRedoAreFlushed() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Path dir = Files.createTempDirectory("iq-journal");
+        try (Journal journal = Journal.start(dir, game, state, 100)) {
+            d.addChangeListener(journal);
+            UndoHistory history = new UndoHistory(d, 10, 1 << 20);
+            d.pickUp("obj_pole");
+            d.go("Asgard");
+            history.undo();
+            checkRestores(dir, game, state);
+            history.undo();
+            checkRestores(dir, game, state);
+            history.redo();
+            checkRestores(dir, game, state);
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    static void testContinuesAnExistingJournal() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Path dir = Files.createTempDirectory("iq-journal");
+        try {
+            try (Journal journal = Journal.start(dir, game, state, 100)) {
+                d.addChangeListener(journal);
+                d.pickUp("obj_pole");
+                d.removeChangeListener(journal);
+            }
+            GameState resumed = Journal.restore(dir, game);
+            CommandDispatcher d2 = new CommandDispatcher(game, resumed);
+            try (Journal journal = Journal.start(dir, game, resumed, 100)) {
+                d2.addChangeListener(journal);
+                d2.go("New York");
+            }
+            d.go("New York");
+            checkRestores(dir, game, state);
+        } finally {
+            deleteTree(dir);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.JsonWorldLoader;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+
+final class PlaytestTest {
+    static void testSampleIsFinished() {
+        Playtest.Options o = new Playtest.Options();
+        o.agents = 200;
+        Playtest.Report r = Playtest.run(GameLoader.sampleGame(), o, new ForkJoinPool(2));
+        Check.equal(200L, r.finished);
+        Check.isTrue(r.p50TurnsToFinish <= r.p90TurnsToFinish && r.p90TurnsToFinish <= r.maxTurnsToFinish, "percentiles are ordered: " + r);
+    }
+
+    /** Agents that start at the end finish in 0 turns, and 0 is a percentile like any other. */
+    static void testFinishingInNoTurns() throws IOException {
+        Game game = JsonWorldLoader.load(new StringReader(
+                "{\"start\": \"a\", \"end\": [\"a\"], \"locations\": [{\"id\": \"a\"}]}"));
+        Playtest.Options o = new Playtest.Options();
+        o.agents = 10;
+        Playtest.Report r = Playtest.run(game, o, new ForkJoinPool(1));
+        Check.equal(10L, r.finished);
+        Check.equal(0, r.p50TurnsToFinish);
+        Check.equal(0, r.p90TurnsToFinish);
+    }
+
+    /** The solver's moves come from the same rule scan; the sample is won by walking to the Moon. */
+    static void testSolverAgrees() {
+        WorldSolver.Result r = WorldSolver.solve(GameLoader.sampleGame(), 10_000, new ForkJoinPool(2));
+        Check.isTrue(r.winnable, r.toString());
+        Check.equal(java.util.List.of("go Moon"), r.solution);
+    }
+}
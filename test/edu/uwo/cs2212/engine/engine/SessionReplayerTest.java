@@ -0,0 +1,104 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.minigame.MiniGameResult;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/** SessionRecorder and SessionReplayer together. */
+final class SessionReplayerTest {
+    private static GameState start(Game game) {
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        return state;
+    }
+
+    /** Commands, mini-games lost and won, and undo/redo between commands all replay to the same state. */
+    static void testReplayReproducesTheSession() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        int[] played = {0};
+        d.setMiniGameRunner((id, g, s) -> ++played[0] == 1
+                ? MiniGameResult.fail("Too slow")
+                : MiniGameResult.ok("Won", List.of("obj_infinity_stone_2")));
+        UndoHistory history = new UndoHistory(d, 100, 1 << 20);
+        Path file = Files.createTempFile("iq-session", ".iqrc");
+        try {
+            try (SessionRecorder rec = SessionRecorder.start(file, game, state, d)) {
+                d.go("Asgard");
+                d.go("Explore East");
+                d.use("obj_stormbreaker_chest", null);
+                d.pickUp("obj_stormbreaker");
+                d.go("Enter Boss Chamber");
+                d.use("@stormbreaker", "char_thor");
+                d.use("@stormbreaker", "char_thor");
+                d.pickUp("obj_nothing_here");
+                history.undo();
+                history.undo();
+                history.redo();
+                d.inventory();
+                Check.equal(9, rec.calls());
+            }
+            Check.equal(2, played[0]);
+            Check.isTrue(state.inventory.contains("obj_infinity_stone_2"), "the second fight was won");
+            SessionReplayer.Report r = SessionReplayer.replay(file, game);
+            Check.equal(9, r.commands);
+            Check.isTrue(r.matches(), "replay ends in the recorded state: " + r);
+            Check.equal(state.hash(game), r.actualHash);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /** A call that throws before its closing turn still ends, so the changes after it are recorded. */
+    static void testChangesAfterAFailedCallAreRecorded() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        boolean[] thrown = {false};
+        // Registered before the recorder, so the recorder never sees the turn of the call that throws
+        d.addChangeListener((change, s) -> {
+            if (change.kind == StateChange.Kind.TURN && !thrown[0]) {
+                thrown[0] = true;
+                throw new IllegalStateException("listener failed");
+            }
+        });
+        Path file = Files.createTempFile("iq-session", ".iqrc");
+        try {
+            try (SessionRecorder rec = SessionRecorder.start(file, game, state, d)) {
+                Check.fails(IllegalStateException.class, () -> d.go("Moon"));
+                d.apply(StateChange.inventoryAdd("obj_garlic"));
+                d.go("back");
+                Check.equal(2, rec.calls());
+            }
+            SessionReplayer.Report r = SessionReplayer.replay(file, game);
+            Check.isTrue(r.matches(), "the change after the failed call replays: " + r);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    static void testReplayNeedsTheSameWorld() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = start(game);
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        Path file = Files.createTempFile("iq-session", ".iqrc");
+        try {
+            try (SessionRecorder rec = SessionRecorder.start(file, game, state, d)) {
+                d.go("Moon");
+                Check.equal(1, rec.calls());
+            }
+            Game other = WorldGenerator.generate(WorldGenerator.Spec.ofSize(10));
+            Check.fails(IOException.class, "different world", () -> SessionReplayer.replay(file, other));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
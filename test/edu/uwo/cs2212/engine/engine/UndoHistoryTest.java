@@ -0,0 +1,81 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.Location;
+
+import java.util.List;
+
+final class UndoHistoryTest {
+    static void testUndoAndRedoRestoreTheState() {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        UndoHistory history = new UndoHistory(d, 100, 1 << 20);
+        long[] hashes = new long[4];
+        hashes[0] = state.hash(game);
+        d.pickUp("obj_pole");
+        hashes[1] = state.hash(game);
+        d.go("Asgard");
+        hashes[2] = state.hash(game);
+        d.go("Explore East");
+        hashes[3] = state.hash(game);
+
+        for (int i = 3; i > 0; i--) {
+            Check.isTrue(history.undo(), "step " + i + " undoes");
+            Check.equal(hashes[i - 1], state.hash(game));
+        }
+        Check.isTrue(!history.undo(), "nothing left to undo");
+        Check.equal(game.getStartLocationId(), state.currentLocationId);
+        Check.isTrue(state.inventory.isEmpty(), "the pole is back");
+
+        for (int i = 1; i <= 3; i++) {
+            Check.isTrue(history.redo(), "step " + i + " redoes");
+            Check.equal(hashes[i], state.hash(game));
+        }
+        Check.isTrue(!history.redo(), "nothing left to redo");
+    }
+
+    /** Undoing a pickup from the middle of a room puts the object back in its slot, not at the end. */
+    static void testUndoKeepsRoomOrder() {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        UndoHistory history = new UndoHistory(d, 100, 1 << 20);
+        Location here = game.getLocations().get(state.currentLocationId);
+        List<String> before = List.copyOf(state.world.objectIds(here));
+        Check.isTrue(before.size() >= 2 && before.get(0).equals("obj_pole"), "the pole is first of several: " + before);
+        d.pickUp("obj_pole");
+        history.undo();
+        Check.equal(before, List.copyOf(state.world.objectIds(here)));
+    }
+
+    static void testANewCommandDropsRedo() {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        UndoHistory history = new UndoHistory(d, 100, 1 << 20);
+        d.pickUp("obj_pole");
+        history.undo();
+        Check.isTrue(history.canRedo(), "the pickup can be redone");
+        d.pickUp("obj_lockpicks");
+        Check.isTrue(!history.canRedo(), "a new command clears redo");
+    }
+
+    static void testDepthLimit() {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        UndoHistory history = new UndoHistory(d, 2, 1 << 20);
+        for (int i = 0; i < 5; i++) d.inventory();
+        Check.isTrue(history.undo() && history.undo(), "two steps are kept");
+        Check.isTrue(!history.undo(), "older steps are dropped");
+        Check.equal(3, state.turnsTaken);
+        Check.fails(IllegalArgumentException.class, () -> new UndoHistory(d, 0, 1));
+    }
+}
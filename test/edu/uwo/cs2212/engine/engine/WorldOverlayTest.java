@@ -0,0 +1,48 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.Location;
+
+import java.util.List;
+import java.util.Set;
+
+final class WorldOverlayTest {
+    private static GameState start(Game game) {
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        return state;
+    }
+
+    /** Sessions over one Game copy only the locations they change and never touch the definition. */
+    static void testSessionsShareTheDefinition() {
+        Game game = GameLoader.sampleGame();
+        GameState a = start(game), b = start(game);
+        Location here = game.getLocations().get(a.currentLocationId);
+        List<String> defined = List.copyOf(here.getObjectIds());
+        Check.isTrue(a.world.objectIds(here) == here.getObjectIds(), "an untouched location reads the definition");
+
+        Check.isTrue(new CommandDispatcher(game, a).pickUp("obj_pole").success, "pickup");
+        Check.equal(Set.of(here.getId()), a.world.changedLocationIds());
+        Check.isTrue(!a.world.objectIds(here).contains("obj_pole"), "gone for the session that took it");
+        Check.equal(defined, List.copyOf(b.world.objectIds(here)));
+        Check.equal(defined, List.copyOf(here.getObjectIds()));
+        Check.isTrue(b.world.changedLocationIds().isEmpty(), "the other session copied nothing");
+        Check.fails(UnsupportedOperationException.class, () -> a.world.objectIds(here).add("obj_pole"));
+    }
+
+    /** A copy put back as defined no longer differs, and hashes like an untouched location. */
+    static void testDiffersFollowsContents() {
+        Game game = GameLoader.sampleGame();
+        GameState state = start(game);
+        Location here = game.getLocations().get(state.currentLocationId);
+        Check.isTrue(!state.world.differs(here), "untouched");
+        Check.isTrue(state.world.removeObject(here, "obj_pole"), "removed");
+        Check.isTrue(state.world.differs(here), "changed");
+        int at = List.copyOf(here.getObjectIds()).indexOf("obj_pole");
+        state.world.addObject(here, "obj_pole", at);
+        Check.isTrue(!state.world.differs(here), "back as defined");
+        Check.equal(start(game).hash(game), state.hash(game));
+    }
+}
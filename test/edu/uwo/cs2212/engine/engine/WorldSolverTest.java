@@ -0,0 +1,56 @@
+package edu.uwo.cs2212.engine.engine;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.JsonWorldLoader;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+final class WorldSolverTest {
+    // Two equally short ways to the end, through b or through c
+    private static final String FORK = "{\"start\": \"a\", \"end\": [\"z\"], \"locations\": ["
+            + "{\"id\": \"a\", \"exits\": [{\"label\": \"left\", \"to\": \"b\"}, {\"label\": \"right\", \"to\": \"c\"}]},"
+            + " {\"id\": \"b\", \"exits\": [{\"label\": \"on\", \"to\": \"z\"}]},"
+            + " {\"id\": \"c\", \"exits\": [{\"label\": \"on\", \"to\": \"z\"}]}, {\"id\": \"z\"}]}";
+    // Beating the guard opens the only way out
+    private static final String GUARDED = "{\"start\": \"a\", \"end\": [\"z\"], \"locations\": ["
+            + "{\"id\": \"a\", \"objects\": [\"sword\"], \"characters\": [\"guard\"]}, {\"id\": \"z\"}],"
+            + " \"objects\": [{\"id\": \"sword\", \"pickUp\": true}], \"characters\": [{\"id\": \"guard\"}],"
+            + " \"miniGameRules\": [{\"primary\": \"sword\", \"with\": \"guard\", \"miniGame\": \"duel\","
+            + " \"unlock\": {\"location\": \"a\", \"label\": \"gate\", \"to\": \"z\"}}]}";
+
+    private static Game parse(String json) throws IOException { return JsonWorldLoader.load(new StringReader(json)); }
+
+    /** Of several shortest wins, the one through the earliest move is reported. */
+    static void testPicksTheFirstWin() throws IOException {
+        WorldSolver.Result r = WorldSolver.solve(parse(FORK), 1000, new ForkJoinPool(2));
+        Check.equal(List.of("go left", "go on"), r.solution);
+        Check.equal(Arrays.asList(null, null), r.miniGames);
+    }
+
+    /** Mini-game outcomes are reported beside the commands, which stay valid input. */
+    static void testMiniGameOutcomeIsSeparate() throws IOException {
+        WorldSolver.Result r = WorldSolver.solve(parse(GUARDED), 1000, new ForkJoinPool(1));
+        Check.isTrue(r.winnable, r.toString());
+        Check.equal(List.of("use sword with guard", "go gate"), r.solution);
+        Check.equal(Arrays.asList(true, null), r.miniGames);
+        Check.isTrue(r.toString().contains("use sword with guard [win the mini-game]"), r.toString());
+    }
+
+    /** The result does not depend on the pool's parallelism or scheduling. */
+    static void testSameResultOnAnyPool() {
+        Game game = WorldGenerator.generate(WorldGenerator.Spec.ofSize(60));
+        String expected = WorldSolver.solve(game, 200_000, new ForkJoinPool(1)).toString();
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 5; run++) Check.equal(expected, WorldSolver.solve(game, 200_000, four).toString());
+        } finally {
+            four.shutdown();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.Check;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+final class JsonReaderTest {
+    private static final int BUFFER = 1 << 16; // JsonReader's buffer size
+
+    private static JsonReader reader(String json) { return new JsonReader(new StringReader(json)); }
+
+    static void testEscapes() throws IOException {
+        JsonReader in = reader("[\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\", \"\\u00e9\\u0041\", \"\\ud834\\udd1e\", \"caf\u00e9\"]");
+        in.beginArray();
+        Check.equal("a\"b\\c/d\b\f\n\r\t", in.nextString());
+        Check.equal("\u00e9A", in.nextString());
+        Check.equal("\ud834\udd1e", in.nextString());
+        Check.equal("caf\u00e9", in.nextString());
+        in.endArray();
+        Check.equal(JsonReader.Token.END, in.peek());
+    }
+
+    static void testBadEscapes() {
+        Check.fails(IOException.class, "Bad escape", () -> reader("\"\\x\"").nextString());
+        Check.fails(IOException.class, "Bad \\u escape", () -> reader("\"\\u12g4\"").nextString());
+        Check.fails(IOException.class, "Unterminated string", () -> reader("\"abc").nextString());
+        Check.fails(IOException.class, "Control character", () -> reader("\"a\nb\"").nextString());
+    }
+
+    /** Strings, escapes and ids that straddle the end of the read buffer, at every offset near it. */
+    static void testStringsAcrossTheBuffer() throws IOException {
+        for (int shift = -8; shift <= 8; shift++) {
+            String pad = " ".repeat(BUFFER - 4 + shift);
+            JsonReader in = reader("[" + pad + "\"abcdefgh\", \"x\\u00e9y\\n\", \"id_1\"]");
+            in.beginArray();
+            Check.equal("abcdefgh", in.nextString());
+            Check.equal("x\u00e9y\n", in.nextString());
+            Check.equal("id_1", in.nextId());
+            in.endArray();
+        }
+    }
+
+    static void testStringLongerThanTheBuffer() throws IOException {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; s.length() < 3 * BUFFER; i++) s.append(i % 10);
+        JsonReader in = reader("{\"text\": \"" + s + "\", \"escaped\": \"" + s + "\\t\"}");
+        in.beginObject();
+        Check.equal("text", in.nextName());
+        Check.equal(s.toString(), in.nextString());
+        Check.equal("escaped", in.nextName());
+        Check.equal(s + "\t", in.nextString());
+        in.endObject();
+    }
+
+    static void testTrailingCommas() {
+        Check.fails(IOException.class, "Trailing comma", () -> {
+            JsonReader in = reader("[1, 2,]");
+            in.beginArray();
+            while (in.hasNext()) in.nextInt();
+        });
+        Check.fails(IOException.class, "Trailing comma", () -> {
+            JsonReader in = reader("{\"a\": 1,}");
+            in.beginObject();
+            while (in.hasNext()) {
+                in.nextName();
+                in.nextInt();
+            }
+        });
+        Check.fails(IOException.class, () -> {
+            JsonReader in = reader("[,1]");
+            in.beginArray();
+            while (in.hasNext()) in.nextInt();
+        });
+    }
+
+    static void testValues() throws IOException {
+        JsonReader in = reader("{\"n\": -2147483648, \"t\": true, \"f\": false, \"z\": null, \"s\": {\"x\": [1, {\"y\": \"}\"}]}, \"m\": 7}");
+        in.beginObject();
+        Check.equal("n", in.nextName());
+        Check.equal(Integer.MIN_VALUE, in.nextInt());
+        in.nextName();
+        Check.isTrue(in.nextBoolean(), "true");
+        in.nextName();
+        Check.isTrue(!in.nextBoolean(), "false");
+        in.nextName();
+        Check.equal(JsonReader.Token.NULL, in.peek());
+        in.nextNull();
+        Check.equal("s", in.nextName());
+        in.skipValue();
+        Check.equal("m", in.nextName());
+        Check.equal(7, in.nextInt());
+        in.endObject();
+        Check.fails(IOException.class, "out of int range", () -> reader("2147483648").nextInt());
+        Check.fails(IOException.class, "Expected an integer", () -> reader("1.5").nextInt());
+    }
+
+    static void testIdsArePooled() throws IOException {
+        JsonReader in = reader("[\"loc_1\", \"loc_1\"]");
+        in.beginArray();
+        String a = in.nextId(), b = in.nextId();
+        Check.isTrue(a == b, "a repeated id is one instance");
+    }
+
+    static void testErrorPosition() {
+        Check.fails(IOException.class, "at line 3, column 4", () -> {
+            JsonReader in = reader("{\n\"a\":\n   x}");
+            in.beginObject();
+            in.nextName();
+            in.nextString();
+        });
+        // Columns count chars, so a line of non-ASCII text places an error as an editor would
+        Check.fails(IOException.class, "Expected true at line 1, column 14", () -> {
+            JsonReader in = reader("[\"\u00e9\u00e9\u00e9\u00e9\u00e9\", tru]");
+            in.beginArray();
+            in.nextString();
+            in.nextBoolean();
+        });
+    }
+}
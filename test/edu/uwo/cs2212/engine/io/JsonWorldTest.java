@@ -0,0 +1,99 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.WorldDiff;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/** JsonWorldWriter and JsonWorldLoader, sequential and parallel. */
+final class JsonWorldTest {
+    private static final String SMALL = "{\"title\": \"T\", \"start\": \"a\", \"end\": [\"b\"], \"turnLimit\": 5,"
+            + " \"locations\": [{\"id\": \"a\", \"exits\": [{\"label\": \"on\", \"to\": \"b\"}]}, {\"id\": \"b\"}]}";
+
+    static String json(Game game) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWorldWriter.write(game, out);
+        return out.toString();
+    }
+
+    static Game parse(String json) throws IOException { return JsonWorldLoader.load(new StringReader(json)); }
+
+    static void testSampleRoundTrip() throws IOException {
+        Game sample = GameLoader.sampleGame();
+        String text = json(sample);
+        Game loaded = parse(text);
+        Check.isTrue(WorldDiff.between(sample, loaded).isEmpty(), "the loaded sample defines the same world");
+        Check.equal(sample.getSymbols().fingerprint(), loaded.getSymbols().fingerprint());
+        Check.equal(text, json(loaded));
+    }
+
+    static void testGeneratedRoundTripAtAnyParallelism() throws IOException {
+        Game world = WorldGenerator.generate(WorldGenerator.Spec.ofSize(2000));
+        Path file = Files.createTempFile("iq-world", ".json");
+        try {
+            JsonWorldWriter.write(world, file);
+            Check.isTrue(Files.size(file) > 4 * JsonWorldSplitter.PART_BYTES, "the file splits into several parts");
+            for (int threads : new int[] {1, 4}) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    Game loaded = JsonWorldLoader.load(file, pool);
+                    Check.isTrue(WorldDiff.between(world, loaded).isEmpty(), "same world at parallelism " + threads);
+                    Check.equal(world.getSymbols().fingerprint(), loaded.getSymbols().fingerprint());
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    static void testSettings() throws IOException {
+        Game g = parse(SMALL);
+        Check.equal("T", g.getTitle());
+        Check.equal("a", g.getStartLocationId());
+        Check.equal(Integer.valueOf(5), g.getTurnLimit());
+        Check.isTrue(g.getEndLocationIds().contains("b"), "end location");
+        Check.equal("b", g.getLocations().get("a").getConnections().get(0).getTargetLocationId());
+        Check.equal("a", g.getLocations().get("a").getName()); // defaults to the id
+    }
+
+    static void testUndefinedTargets() {
+        Check.fails(IOException.class, "undefined location c", () -> parse(SMALL.replace("\"to\": \"b\"", "\"to\": \"c\"")));
+        Check.fails(IOException.class, "Start location is not defined: c", () -> parse(SMALL.replace("\"start\": \"a\"", "\"start\": \"c\"")));
+        Check.fails(IOException.class, "no start location", () -> parse("{\"locations\": []}"));
+    }
+
+    static void testDuplicateIdIsPlaced() {
+        Check.fails(IOException.class, "Duplicate id a at line 2", () -> parse(SMALL.replace("{\"id\": \"b\"}", "\n{\"id\": \"a\"}")));
+    }
+
+    /** A parallel load reports a bad file exactly as a sequential one, wherever the parts are cut. */
+    static void testParallelErrorsMatchSequential() throws IOException {
+        Game world = WorldGenerator.generate(WorldGenerator.Spec.ofSize(500));
+        String text = json(world).replace("Hollow", "Höllöw 𝄞"); // columns count chars, not bytes
+        int last = text.lastIndexOf("{\"id\":\"obj_");
+        String dup = text.substring(0, last) + text.substring(last).replaceFirst("\"id\":\"obj_\\d+\"", "\"id\":\"obj_0\"");
+        int name = text.lastIndexOf("\"name\":");
+        String bad = text.substring(0, name) + "\"name\":tru" + text.substring(name + 7);
+        for (String broken : new String[] {dup, bad, dup.replace("\n", ""), bad.replace("\n", "")}) {
+            String sequential = Check.fails(IOException.class, () -> parse(broken)).getMessage();
+            Path file = Files.createTempFile("iq-world", ".json");
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                Files.write(file, broken.getBytes(StandardCharsets.UTF_8));
+                Check.equal(sequential, Check.fails(IOException.class, () -> JsonWorldLoader.load(file, pool)).getMessage());
+            } finally {
+                pool.shutdown();
+                Files.delete(file);
+            }
+        }
+    }
+}
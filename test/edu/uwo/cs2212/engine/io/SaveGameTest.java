@@ -0,0 +1,97 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.engine.CommandDispatcher;
+import edu.uwo.cs2212.engine.engine.GameState;
+import edu.uwo.cs2212.engine.model.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+final class SaveGameTest {
+    /** The sample a few commands in: moved, carrying things, with changed locations. */
+    private static GameState played(Game game) {
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        CommandDispatcher d = new CommandDispatcher(game, state);
+        d.pickUp("obj_pole");
+        d.go("Asgard");
+        d.go("Explore East");
+        d.use("obj_stormbreaker_chest", null);
+        d.pickUp("obj_stormbreaker");
+        d.drop("obj_pole");
+        return state;
+    }
+
+    private static void checkSame(Game game, GameState a, GameState b) {
+        Check.equal(a.currentLocationId, b.currentLocationId);
+        Check.equal(a.turnsTaken, b.turnsTaken);
+        Check.equal(a.talkIndex, b.talkIndex);
+        Check.equal(List.copyOf(a.inventory), List.copyOf(b.inventory));
+        Check.equal(a.world.changedLocationIds(), b.world.changedLocationIds());
+        Check.equal(a.hash(game), b.hash(game));
+    }
+
+    static void testRoundTrip() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = played(game);
+        Check.equal("loc_asgard_chest_room", state.currentLocationId);
+        Check.isTrue(state.inventory.contains("obj_stormbreaker"), "the axe was picked up");
+        checkSame(game, state, SaveGame.decode(SaveGame.encode(game, state), game));
+    }
+
+    static void testFile() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = played(game);
+        Path file = Files.createTempFile("iq-save", ".bin");
+        try {
+            SaveGame.write(file, game, state);
+            checkSame(game, state, SaveGame.read(file, game));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /** Ids the world does not define are written inline and survive the trip. */
+    static void testUnknownIds() throws IOException {
+        Game game = GameLoader.sampleGame();
+        GameState state = played(game);
+        state.inventory.add("obj_not_in_the_world");
+        GameState back = SaveGame.decode(SaveGame.encode(game, state), game);
+        Check.isTrue(back.inventory.contains("obj_not_in_the_world"), "an unknown id is kept");
+        checkSame(game, state, back);
+    }
+
+    static void testRejectsOtherWorldsAndDamage() {
+        Game game = GameLoader.sampleGame();
+        ByteBuffer save = SaveGame.encode(game, played(game));
+        Game other = WorldGenerator.generate(WorldGenerator.Spec.ofSize(10));
+        Check.fails(IOException.class, "different world", () -> SaveGame.decode(save.duplicate(), other));
+        Check.fails(IOException.class, () -> SaveGame.decode(save.slice(0, save.limit() - 3), game));
+        Check.fails(IOException.class, "Not a save file", () -> SaveGame.decode(ByteBuffer.wrap(new byte[16]), game));
+    }
+
+    /** Lengths and counts that decode negative or larger than the file are reported as corruption. */
+    static void testRejectsBadLengths() {
+        Game game = GameLoader.sampleGame();
+        GameState state = new GameState();
+        state.currentLocationId = game.getStartLocationId();
+        state.inventory.add("zz_unknown");
+        ByteBuffer save = SaveGame.encode(game, state);
+        byte[] bytes = new byte[save.remaining()];
+        save.get(bytes);
+        int at = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("zz_unknown") - 1; // the string's length
+        Check.equal(10, bytes[at]);
+        for (byte[] length : new byte[][] {{-1, -1, -1, -1, 0x0f}, {-1, -1, -1, -1, 0x07}}) {
+            ByteBuffer bad = ByteBuffer.allocate(bytes.length + 4);
+            bad.put(bytes, 0, at).put(length).put(bytes, at + 1, bytes.length - at - 1).flip();
+            Check.fails(IOException.class, "Truncated or corrupt save", () -> SaveGame.decode(bad, game));
+        }
+        bytes[at - 2] = 100; // inventory count
+        Check.fails(IOException.class, "Truncated or corrupt save", () -> SaveGame.decode(ByteBuffer.wrap(bytes), game));
+    }
+}
@@ -0,0 +1,35 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.model.Game;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+final class WorldGeneratorTest {
+    /** The same Spec yields the same world whatever the pool's parallelism; another seed does not. */
+    static void testSameSpecSameWorld() throws IOException {
+        WorldGenerator.Spec spec = WorldGenerator.Spec.ofSize(2000).seed(7);
+        ForkJoinPool one = new ForkJoinPool(1), four = new ForkJoinPool(4);
+        try {
+            Game a = WorldGenerator.generate(spec, one), b = WorldGenerator.generate(spec, four);
+            Check.equal(a.getSymbols().fingerprint(), b.getSymbols().fingerprint());
+            Check.equal(JsonWorldTest.json(a), JsonWorldTest.json(b));
+            Game other = WorldGenerator.generate(WorldGenerator.Spec.ofSize(2000).seed(8), four);
+            Check.isTrue(!JsonWorldTest.json(a).equals(JsonWorldTest.json(other)), "another seed gives another world");
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    static void testRulesNeedCharacters() {
+        WorldGenerator.Spec spec = WorldGenerator.Spec.ofSize(100);
+        spec.characters = 0;
+        Check.fails(IllegalArgumentException.class, "character", () -> WorldGenerator.generate(spec));
+        spec.giveRules = 0;
+        spec.miniGameRules = 0;
+        Game g = WorldGenerator.generate(spec);
+        Check.isTrue(g.getCharacters().isEmpty() && !g.getUseRules().isEmpty(), "a world without characters or their rules");
+    }
+}
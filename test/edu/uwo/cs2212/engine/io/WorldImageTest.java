@@ -0,0 +1,104 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.model.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class WorldImageTest {
+    static void testSampleRoundTrip() throws IOException {
+        Game sample = GameLoader.sampleGame();
+        Game decoded = WorldImage.decode(WorldImage.encode(sample));
+        Check.isTrue(WorldDiff.between(sample, decoded).isEmpty(), "the decoded sample defines the same world");
+        Check.equal(sample.getSymbols().fingerprint(), decoded.getSymbols().fingerprint());
+        Check.equal(JsonWorldTest.json(sample), JsonWorldTest.json(decoded));
+    }
+
+    static void testCompiledFile() throws IOException {
+        Game world = WorldGenerator.generate(WorldGenerator.Spec.ofSize(1000));
+        Path image = Files.createTempFile("iq-world", ".iqw"), json = Files.createTempFile("iq-world", ".json");
+        try {
+            WorldImage.compile(world, image);
+            JsonWorldWriter.write(world, json);
+            Check.isTrue(WorldImage.isImage(image), "an image is recognised");
+            Check.isTrue(!WorldImage.isImage(json), "JSON is not an image");
+            Check.isTrue(WorldDiff.between(world, WorldImage.load(image)).isEmpty(), "the loaded image defines the same world");
+            Check.isTrue(WorldDiff.between(world, GameLoader.load(image)).isEmpty(), "GameLoader tells the formats apart");
+        } finally {
+            Files.delete(image);
+            Files.delete(json);
+        }
+    }
+
+    /** Under a tiny budget regions are dropped and decoded again, and still read the same. */
+    static void testBudgetedLoadDecodesAgain() throws IOException {
+        Game world = WorldGenerator.generate(WorldGenerator.Spec.ofSize(1000));
+        Game budgeted = WorldImage.decode(WorldImage.encode(world), 1);
+        SymbolTable was = world.getSymbols(), now = budgeted.getSymbols();
+        for (int pass = 0; pass < 2; pass++) {
+            for (int h = 0; h < was.locationCount(); h += 7) {
+                Location a = was.location(h), b = now.location(h);
+                Check.equal(a.getId(), b.getId());
+                Check.equal(a.getDescription(), b.getDescription());
+                Check.equal(a.getObjectIds(), b.getObjectIds());
+                Check.equal(a.getConnections().size(), b.getConnections().size());
+            }
+        }
+        Check.isTrue(WorldDiff.between(world, budgeted).isEmpty(), "the budgeted world defines the same world");
+    }
+
+    /**
+     * Regions are evicted least recently used first once over the budget: under a budget of one
+     * byte only the region in use stays resident, and under a large one nothing is dropped.
+     */
+    static void testEvictsLeastRecentlyUsedRegions() throws IOException {
+        ByteBuffer image = WorldImage.encode(WorldGenerator.generate(WorldGenerator.Spec.ofSize(2000)));
+        for (long budget : new long[] {1, Long.MAX_VALUE / 2}) {
+            SymbolTable symbols = WorldImage.decode(image.duplicate(), budget).getSymbols();
+            int n = symbols.locationCount();
+            Location[] first = new Location[n];
+            for (int h = 0; h < n; h++) first[h] = symbols.location(h);
+            int kept = 0;
+            for (int h = n - 1; h >= 0; h--) if (symbols.location(h) == first[h]) kept++;
+            Check.isTrue(symbols.location(n - 1) == symbols.location(n - 1), "the region in use stays resident");
+            if (budget == 1) Check.isTrue(kept > 0 && kept < n, kept + " of " + n + " locations kept");
+            else Check.equal(n, kept);
+        }
+    }
+
+    static void testCorruptImage() {
+        ByteBuffer image = WorldImage.encode(GameLoader.sampleGame());
+        Check.fails(IOException.class, () -> WorldImage.decode(image.slice(0, image.limit() / 2)));
+        Check.fails(IOException.class, () -> WorldImage.decode(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})));
+    }
+
+    /** Counts that decode negative or larger than the image are reported as corruption, not allocated. */
+    static void testCorruptCounts() throws IOException {
+        ByteBuffer image = WorldImage.encode(GameLoader.sampleGame());
+        int ends = 24, counts = ends + 4 + 4 * image.getInt(ends); // header: n end locations, then L, O, C, ...
+        for (int at : new int[] {ends, counts, counts + 8, counts + 24}) {
+            for (int bad : new int[] {-1, Integer.MAX_VALUE}) {
+                ByteBuffer copy = copy(image);
+                copy.putInt(at, bad);
+                Check.fails(IOException.class, "corrupt world image", () -> WorldImage.decode(copy));
+            }
+        }
+        // An entity's counts are read when it is first looked up, after decode has returned
+        int offsetsAt = counts + 28, poolCount = image.getInt(counts + 24);
+        int tablesAt = offsetsAt + 4 * (poolCount + 1) + image.getInt(offsetsAt + 4 * poolCount);
+        ByteBuffer copy = copy(image);
+        copy.putInt(copy.getInt(tablesAt) + 12, -5); // location 0's object count
+        Game game = WorldImage.decode(copy);
+        Check.fails(UncheckedIOException.class, "corrupt world image", () -> game.getSymbols().location(0));
+    }
+
+    private static ByteBuffer copy(ByteBuffer image) {
+        ByteBuffer copy = ByteBuffer.allocate(image.remaining());
+        copy.put(image.duplicate()).flip();
+        return copy;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.uwo.cs2212.engine.io;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.WorldDiff;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+final class WorldWatcherTest {
+    private static final String WORLD = "{\"start\": \"a\", \"locations\": [{\"id\": \"a\", \"objects\": [\"x\", \"y\"]}],"
+            + " \"objects\": [{\"id\": \"x\", \"description\": \"A box.\"}, {\"id\": \"y\"}]}";
+
+    /** A diff names only what was redefined, and keeps the entities that were not. */
+    static void testDiffNamesRedefinitions() throws IOException {
+        Game game = JsonWorldTest.parse(WORLD);
+        Check.isTrue(WorldDiff.between(game, JsonWorldTest.parse(WORLD)).isEmpty(), "the same file defines the same world");
+        WorldDiff diff = WorldDiff.between(game, JsonWorldTest.parse(WORLD.replace("A box.", "A crate.")));
+        Check.equal(Set.of("x"), diff.objects);
+        Check.isTrue(diff.locations.isEmpty() && diff.characters.isEmpty() && !diff.useRules, diff.toString());
+        Check.isTrue(diff.sameHandles, "no ids added or removed");
+        Check.isTrue(diff.game.getObjects().get("y") == game.getObjects().get("y"), "y is kept as it was");
+        Check.equal("A crate.", diff.game.getObjects().get("x").getDescription());
+    }
+
+    /** Saving the file reaches the listener; a file that does not load reaches the failure handler. */
+    static void testReloadsAndReportsFailures() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("iq-watch"), file = dir.resolve("world.json");
+        Files.writeString(file, WORLD, StandardCharsets.UTF_8);
+        BlockingQueue<WorldDiff> reloads = new LinkedBlockingQueue<>();
+        BlockingQueue<Exception> failures = new LinkedBlockingQueue<>();
+        try (WorldWatcher w = WorldWatcher.start(file, GameLoader.load(file), reloads::add, (f, e) -> failures.add(e))) {
+            Check.equal(null, w.reload());
+
+            Files.writeString(file, WORLD.replace("A box.", "A crate."), StandardCharsets.UTF_8);
+            WorldDiff diff = reloads.poll(10, TimeUnit.SECONDS);
+            Check.isTrue(diff != null, "the change was reloaded");
+            Check.equal(List.of("x"), List.copyOf(diff.objects));
+            Check.isTrue(w.current() == diff.game, "the watcher moved on");
+
+            Files.writeString(file, "{\"start\": ", StandardCharsets.UTF_8);
+            Check.isTrue(failures.poll(10, TimeUnit.SECONDS) instanceof IOException, "the broken file was reported");
+            Check.isTrue(reloads.isEmpty(), "and not reloaded");
+        } finally {
+            Files.delete(file);
+            Files.delete(dir);
+        }
+    }
+}
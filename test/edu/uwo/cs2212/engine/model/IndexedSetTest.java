@@ -0,0 +1,60 @@
+package edu.uwo.cs2212.engine.model;
+
+import edu.uwo.cs2212.engine.Check;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+final class IndexedSetTest {
+    /** Random adds, inserts and removes keep the order a list would, through every compaction. */
+    static void testKeepsOrderLikeAList() {
+        Random r = new Random(1);
+        IndexedSet<Integer> set = new IndexedSet<>();
+        List<Integer> list = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            int v = r.nextInt(500), op = r.nextInt(10);
+            if (op < 4) {
+                Check.equal(!list.contains(v), set.add(v));
+                if (!list.contains(v)) list.add(v);
+            } else if (op < 5) {
+                int at = r.nextInt(list.size() + 1);
+                boolean added = !list.contains(v);
+                Check.equal(added, set.add(at, v));
+                if (added) list.add(Math.min(at, list.size()), v);
+            } else {
+                Check.equal(list.remove((Integer) v), set.remove(v));
+            }
+            if (step % 97 == 0) {
+                Check.equal(list, new ArrayList<>(set));
+                if (!list.isEmpty()) {
+                    int i = r.nextInt(list.size());
+                    Check.equal(i, set.indexOf(list.get(i)));
+                }
+            }
+        }
+        Check.equal(list, new ArrayList<>(set));
+        Check.equal(list.size(), set.size());
+        Check.equal(-1, set.indexOf(1000));
+    }
+
+    /** Removing through the iterator leaves the rest in order, and later adds go at the end. */
+    static void testIteratorRemove() {
+        IndexedSet<String> set = new IndexedSet<>(List.of("a", "b", "c", "d"));
+        for (Iterator<String> it = set.iterator(); it.hasNext(); ) if (!it.next().equals("c")) it.remove();
+        Check.equal(List.of("c"), new ArrayList<>(set));
+        set.add("e");
+        set.add(0, "f");
+        Check.equal(List.of("f", "c", "e"), new ArrayList<>(set));
+        Check.isTrue(set.contains("c") && !set.contains("a"), "membership follows removal");
+    }
+
+    static void testViewIsSharedAndReadOnly() {
+        IndexedSet<String> set = new IndexedSet<>(List.of("a"));
+        Check.isTrue(set.view() == set.view(), "the same view every time");
+        Check.fails(UnsupportedOperationException.class, () -> set.view().add("b"));
+        set.add("b");
+        Check.equal(List.of("a", "b"), new ArrayList<>(set.view()));
+    }
+}
@@ -0,0 +1,38 @@
+package edu.uwo.cs2212.engine.model;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.engine.WorldOverlay;
+
+import java.util.List;
+
+final class LocationTest {
+    private static Location hall() {
+        return new Location("hall", "Hall", "", null, List.of(), List.of(), List.of(
+                new Connection("North", "a"), new Connection("north", "b"), new Connection("Up the Stairs", "c")));
+    }
+
+    /** Labels match ignoring case, and of two exits with one label the first wins. */
+    static void testFindsConnectionsIgnoringCase() {
+        Location hall = hall();
+        Check.equal("a", hall.findConnection("NORTH").getTargetLocationId());
+        Check.equal("c", hall.findConnection("up the stairs").getTargetLocationId());
+        Check.equal(null, hall.findConnection("south"));
+        Check.equal(3, hall.getConnections().size());
+    }
+
+    /** A session's exits are looked up the same way; removing one uncovers a later exit with its label. */
+    static void testOverlayKeepsTheLabelIndex() {
+        Location hall = hall();
+        WorldOverlay world = new WorldOverlay();
+        world.addConnection(hall, new Connection("Trapdoor", "d"));
+        Check.equal("d", world.connection(hall, "TRAPDOOR").getTargetLocationId());
+        Check.equal(null, hall.findConnection("trapdoor"));
+
+        Check.isTrue(world.removeConnection(hall, "NORTH"), "removed");
+        Check.equal("b", world.connection(hall, "North").getTargetLocationId());
+        Check.isTrue(world.removeConnection(hall, "north"), "removed");
+        Check.equal(null, world.connection(hall, "north"));
+        Check.isTrue(!world.removeConnection(hall, "north"), "nothing left to remove");
+        Check.equal("a", hall.findConnection("north").getTargetLocationId());
+    }
+}
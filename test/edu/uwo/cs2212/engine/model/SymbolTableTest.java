@@ -0,0 +1,64 @@
+package edu.uwo.cs2212.engine.model;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class SymbolTableTest {
+    private static final String[] NONE = new String[0];
+
+    /** Handles follow definition order, ids round-trip, and spans find what whole strings find. */
+    static void testHandlesAndSpans() {
+        SymbolTable symbols = WorldGenerator.generate(WorldGenerator.Spec.ofSize(2000)).getSymbols();
+        List<String> ids = new ArrayList<>(symbols.objects().keySet());
+        Check.equal(symbols.objectCount(), ids.size());
+        for (int h = 0; h < ids.size(); h++) {
+            String id = ids.get(h);
+            Check.equal(h, symbols.objectHandle(id));
+            Check.equal(id, symbols.objectId(h));
+            String line = "use " + id + " now";
+            Check.equal(h, symbols.objectHandle(line, 4, 4 + id.length()));
+        }
+        Check.equal(SymbolTable.NONE, symbols.objectHandle("obj_missing"));
+        Check.equal(SymbolTable.NONE, symbols.objectHandle((String) null));
+        Check.equal(SymbolTable.NONE, symbols.objectHandle("use obj_1 now", 4, 8)); // "obj_" alone
+        Check.equal(SymbolTable.NONE, symbols.locationHandle(ids.get(0)));
+    }
+
+    /** A lazy table builds an entity on first lookup only, and again after it is evicted. */
+    static void testLazyBuildsOnDemand() {
+        SymbolTable defined = GameLoader.sampleGame().getSymbols();
+        String[] locationIds = defined.locations().keySet().toArray(NONE);
+        int[] built = new int[locationIds.length];
+        SymbolTable lazy = SymbolTable.lazy(locationIds, NONE, NONE, new SymbolTable.Source() {
+            @Override public Location location(int h) { built[h]++; return defined.location(h); }
+            @Override public GameObject object(int h) { throw new AssertionError(); }
+            @Override public GameCharacter character(int h) { throw new AssertionError(); }
+        });
+        Check.isTrue(lazy.locations().containsKey(locationIds[1]), "ids are known up front");
+        Check.equal(0, built[1]);
+        Location first = lazy.location(1);
+        Check.isTrue(lazy.locations().get(locationIds[1]) == first, "looked up once");
+        Check.equal(1, built[1]);
+        lazy.evictLocation(1);
+        lazy.location(1);
+        Check.equal(2, built[1]);
+        Check.equal(0, built[0]);
+
+        Location eager = defined.location(1);
+        defined.evictLocation(1);
+        Check.isTrue(defined.location(1) == eager, "an eager table keeps its entities");
+    }
+
+    static void testRejectsDuplicateIds() {
+        Check.fails(IllegalArgumentException.class, "Duplicate", () -> SymbolTable.lazy(new String[] {"a", "b", "a"}, NONE, NONE,
+                new SymbolTable.Source() {
+                    @Override public Location location(int h) { return null; }
+                    @Override public GameObject object(int h) { return null; }
+                    @Override public GameCharacter character(int h) { return null; }
+                }));
+    }
+}
@@ -0,0 +1,49 @@
+package edu.uwo.cs2212.engine.rules;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.WorldGenerator;
+import edu.uwo.cs2212.engine.model.Game;
+import edu.uwo.cs2212.engine.model.GameObject;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+final class RuleIndexTest {
+    private static BitSet collect(RuleIndex<?> index, GameObject obj) {
+        BitSet out = new BitSet();
+        index.collect(obj, out);
+        return out;
+    }
+
+    /** An object collects the rules that name it or one of its attributes, in list positions. */
+    static void testCollectsByIdAndAttribute() {
+        List<Selector> rules = Arrays.asList(Selector.byId("x"), Selector.byAttr("shiny"), null, Selector.byId("y"),
+                Selector.byAttr("dull"), Selector.byAttr("shiny"));
+        RuleIndex<Selector> index = new RuleIndex<>(rules, Function.identity());
+        GameObject x = new GameObject("x", "X", "", false, Set.of("shiny"), List.of());
+        GameObject y = new GameObject("y", "Y", "", false, Set.of(), List.of());
+        GameObject z = new GameObject("z", "Z", "", false, Set.of("heavy"), List.of());
+        Check.equal(BitSet.valueOf(new long[] {0b100011}), collect(index, x));
+        Check.equal(BitSet.valueOf(new long[] {0b1000}), collect(index, y));
+        Check.isTrue(collect(index, z).isEmpty(), "no rule selects z");
+    }
+
+    /** On a generated world the index finds exactly the rules a scan of every rule would. */
+    static void testMatchesAFullScan() {
+        Game game = WorldGenerator.generate(WorldGenerator.Spec.ofSize(300));
+        List<UseRule> rules = game.getUseRules();
+        for (GameObject obj : game.getObjects().values()) {
+            BitSet scanned = new BitSet();
+            for (int i = 0; i < rules.size(); i++) {
+                Selector s = rules.get(i).primary;
+                if (obj.getId().equals(s.objectId) || (s.attribute != null && obj.getAttributes().contains(s.attribute))) {
+                    scanned.set(i);
+                }
+            }
+            Check.equal(scanned, collect(game.getUseRuleIndex(), obj));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.uwo.cs2212.engine.server;
+
+import edu.uwo.cs2212.engine.Check;
+import edu.uwo.cs2212.engine.io.GameLoader;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+final class GameServerTest {
+    /** One client connection; ask sends a line and returns the server's one-line answer. */
+    private static final class Client implements Closeable {
+        final Socket socket;
+        final BufferedReader in;
+        final Writer out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        String read() throws IOException { return in.readLine(); }
+
+        String ask(String line) throws IOException {
+            out.write(line + "\n");
+            out.flush();
+            return read();
+        }
+
+        @Override
+        public void close() throws IOException { socket.close(); }
+    }
+
+    static void testSessionsAreIndependent() throws IOException {
+        try (GameServer server = GameServer.start(GameLoader.sampleGame(), 0);
+             Client a = new Client(server.port()); Client b = new Client(server.port())) {
+            Check.isTrue(a.read().startsWith("HELLO "), "greeting");
+            Check.isTrue(a.read().startsWith("OK "), "starting location");
+            b.read();
+            b.read();
+            Check.isTrue(a.ask("pickup obj_pole").startsWith("OK "), "a picks up the pole");
+            Check.isTrue(b.ask("pickup obj_pole").startsWith("OK "), "b has its own pole");
+            Check.isTrue(a.ask("fly").startsWith("ERR "), "unknown command");
+            Check.isTrue(a.ask("undo").startsWith("OK "), "undo");
+            Check.isTrue(a.ask("inv").contains("empty"), "a's pickup is undone");
+            Check.isTrue(b.ask("inv").contains("Pole"), "b still has its pole");
+            Check.equal("BYE", a.ask("quit"));
+        }
+    }
+
+    /** A mini-game cannot be played remotely: the client is told so and keeps what it used. */
+    static void testMiniGamesAreRefused() throws IOException {
+        try (GameServer server = GameServer.start(GameLoader.sampleGame(), 0); Client c = new Client(server.port())) {
+            c.read();
+            c.read();
+            for (String line : new String[] {"go Asgard", "go Explore East", "use obj_stormbreaker_chest",
+                    "pickup obj_stormbreaker", "go Enter Boss Chamber"}) {
+                Check.isTrue(c.ask(line).startsWith("OK "), line);
+            }
+            Check.equal("ERR That challenge can't be played over the network.", c.ask("use @stormbreaker with char_thor"));
+            Check.isTrue(c.ask("inv").contains("Stormbreaker"), "the weapon was not used up");
+        }
+    }
+}